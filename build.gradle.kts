@@ -3,7 +3,7 @@ import org.gradle.api.tasks.wrapper.Wrapper
 subprojects {
     afterEvaluate {
         configure<JavaPluginConvention> {
-            sourceCompatibility = JavaVersion.VERSION_1_10
+            sourceCompatibility = JavaVersion.VERSION_11
         }
     }
 }
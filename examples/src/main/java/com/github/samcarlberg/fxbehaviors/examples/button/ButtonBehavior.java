@@ -1,9 +1,10 @@
 package com.github.samcarlberg.fxbehaviors.examples.button;
 
-import com.github.samcarlberg.fxbehaviors.BehaviorBase;
 import com.github.samcarlberg.fxbehaviors.InputBindings;
 import com.github.samcarlberg.fxbehaviors.KeyBinding;
 import com.github.samcarlberg.fxbehaviors.MouseBinding;
+import com.github.samcarlberg.fxbehaviors.StateMachine;
+import com.github.samcarlberg.fxbehaviors.StateMachineBehavior;
 
 import javafx.scene.control.Button;
 import javafx.scene.input.KeyCode;
@@ -11,49 +12,70 @@ import javafx.scene.input.KeyEvent;
 import javafx.scene.input.MouseEvent;
 
 /**
- * A behavior for a JavaFX button that will fire the button when a user presses the spacebar.
+ * A behavior for a JavaFX button that will fire the button when a user presses the spacebar. The button is armed when
+ * the spacebar or mouse is pressed, and fired when it is released.
  */
-public class ButtonBehavior extends BehaviorBase<Button, ButtonBehavior> {
+public class ButtonBehavior
+    extends StateMachineBehavior<Button, ButtonBehavior.State, ButtonBehavior.Trigger, ButtonBehavior> {
 
-  private static final KeyBinding<ButtonBehavior> armOnSpacePressed = KeyBinding.<ButtonBehavior>builder()
+  public enum State {
+    IDLE,
+    ARMED
+  }
+
+  public enum Trigger {
+    PRESS,
+    RELEASE
+  }
+
+  // Pressing arms the button, and releasing fires it if it is still armed. Pressing again re-arms the button in case
+  // something else disarmed it, and releasing an idle button does nothing
+  private static final StateMachine<State, Trigger, ButtonBehavior> stateMachine =
+      StateMachine.<State, Trigger, ButtonBehavior>builder(State.class, Trigger.class, State.IDLE)
+          .transition(State.IDLE, Trigger.PRESS, State.ARMED, ButtonBehavior::armButton)
+          .transition(State.ARMED, Trigger.PRESS, State.ARMED, ButtonBehavior::armButton)
+          .transition(State.ARMED, Trigger.RELEASE, State.IDLE, ButtonBehavior::fireButton)
+          .build();
+
+  private static final KeyBinding<ButtonBehavior> pressOnSpacePressed = KeyBinding.<ButtonBehavior>builder()
       .withKey(KeyCode.SPACE)
       //.onEvent(KeyEvent.KEY_PRESSED) // Optional, since this is the default value
-      .withAction(ButtonBehavior::armButton)
+      .withAction(b -> b.fire(Trigger.PRESS))
       .build();
 
-  private static final KeyBinding<ButtonBehavior> fireOnSpaceReleased = KeyBinding.<ButtonBehavior>builder()
+  private static final KeyBinding<ButtonBehavior> releaseOnSpaceReleased = KeyBinding.<ButtonBehavior>builder()
       .withKey(KeyCode.SPACE)
       .onEvent(KeyEvent.KEY_RELEASED)
-      .withAction(ButtonBehavior::fireIfArmed)
+      .withAction(b -> b.fire(Trigger.RELEASE))
       .build();
 
-  private static final MouseBinding<ButtonBehavior> armOnMousePressed = MouseBinding.<ButtonBehavior>builder()
+  private static final MouseBinding<ButtonBehavior> pressOnMousePressed = MouseBinding.<ButtonBehavior>builder()
       .onEvent(MouseEvent.MOUSE_PRESSED)
       //.withMouseButton(MouseButton.PRIMARY) // Optional, since this is the default value
-      .withAction(ButtonBehavior::armButton)
+      .withAction(b -> b.fire(Trigger.PRESS))
       .build();
 
-  private static final MouseBinding<ButtonBehavior> fireOnMouseReleased = MouseBinding.<ButtonBehavior>builder()
+  private static final MouseBinding<ButtonBehavior> releaseOnMouseReleased = MouseBinding.<ButtonBehavior>builder()
       .onEvent(MouseEvent.MOUSE_RELEASED)
-      .withAction(ButtonBehavior::fireIfArmed)
+      .withAction(b -> b.fire(Trigger.RELEASE))
       .build();
 
   private static final InputBindings<ButtonBehavior> bindings = InputBindings.of(
-      armOnSpacePressed,
-      fireOnSpaceReleased,
-      armOnMousePressed,
-      fireOnMouseReleased
+      pressOnSpacePressed,
+      releaseOnSpaceReleased,
+      pressOnMousePressed,
+      releaseOnMouseReleased
   );
 
   public ButtonBehavior(Button control) {
-    super(control, bindings);
+    super(control, stateMachine, bindings);
   }
 
   public void armButton() {
     getControl().arm();
   }
 
-  public void fireIfArmed() {
+  public void fireButton() {
     Button control = getControl();
     if (control.isArmed()) {
       control.fire();
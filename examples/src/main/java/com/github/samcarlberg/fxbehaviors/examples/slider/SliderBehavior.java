@@ -1,6 +1,8 @@
 package com.github.samcarlberg.fxbehaviors.examples.slider;
 
 import com.github.samcarlberg.fxbehaviors.BehaviorBase;
+import com.github.samcarlberg.fxbehaviors.Command;
+import com.github.samcarlberg.fxbehaviors.CommandRegistry;
 import com.github.samcarlberg.fxbehaviors.InputBindings;
 import com.github.samcarlberg.fxbehaviors.KeyBinding;
 
@@ -12,35 +14,48 @@ import javafx.scene.input.KeyCombination;
  * A behavior for JavaFX sliders that permits control over the position of the thumb with keyboard inputs. Left
  * and right arrow keys (and their keypad equivalents) will decrement and increment the position of the thumb, and
  * the home and end buttons will move it to the start or end of the track.
+ *
+ * <p>Every change to the value can be undone once the behavior is given an
+ * {@link com.github.samcarlberg.fxbehaviors.ActionJournal action journal}. The steps made while a key is held down are
+ * undone together.
  */
 public class SliderBehavior extends BehaviorBase<Slider, SliderBehavior> {
 
-  // Decrement the slider on LEFT or KP_LEFT
+  private static final CommandRegistry<SliderBehavior> commands = new CommandRegistry<>();
+
+  public static final Command<SliderBehavior> DECREMENT = commands.register("decrement", SliderBehavior::decrement);
+  public static final Command<SliderBehavior> INCREMENT = commands.register("increment", SliderBehavior::increment);
+  public static final Command<SliderBehavior> GO_TO_START = commands.register("goToStart", SliderBehavior::goToStart);
+  public static final Command<SliderBehavior> GO_TO_END = commands.register("goToEnd", SliderBehavior::goToEnd);
+
+  // Decrement the slider on LEFT or KP_LEFT, at most once per pulse while the key is held
   private static final KeyBinding<SliderBehavior> decrement = KeyBinding.<SliderBehavior>builder()
       .withKey(KeyCode.LEFT)
       .withKey(KeyCode.KP_LEFT)
-      .withAction(SliderBehavior::decrement)
+      .withCommand(DECREMENT)
+      .throttleRepeatsPerPulse()
       .build();
 
-  // Increment the slider on RIGHT or KP_RIGHT
+  // Increment the slider on RIGHT or KP_RIGHT, at most once per pulse while the key is held
   private static final KeyBinding<SliderBehavior> increment = KeyBinding.<SliderBehavior>builder()
       .withKey(KeyCode.RIGHT)
       .withKey(KeyCode.KP_RIGHT)
-      .withAction(SliderBehavior::increment)
+      .withCommand(INCREMENT)
+      .throttleRepeatsPerPulse()
       .build();
 
   // Move the slider to the start on HOME or Ctrl+LEFT
   private static final KeyBinding<SliderBehavior> toStart = KeyBinding.<SliderBehavior>builder()
       .withKey(KeyCode.HOME)
       .withKey(KeyCode.LEFT, KeyCombination.CONTROL_DOWN)
-      .withAction(SliderBehavior::goToStart)
+      .withCommand(GO_TO_START)
       .build();
 
   // Move the slider to the end on END or Ctrl+RIGHT
   private static final KeyBinding<SliderBehavior> toEnd = KeyBinding.<SliderBehavior>builder()
       .withKey(KeyCode.END)
       .withKey(KeyCode.RIGHT, KeyCombination.CONTROL_DOWN)
-      .withAction(SliderBehavior::goToEnd)
+      .withCommand(GO_TO_END)
       .build();
 
   private static final InputBindings<SliderBehavior> keyBindings = InputBindings.of(
@@ -51,25 +66,54 @@ public class SliderBehavior extends BehaviorBase<Slider, SliderBehavior> {
   );
 
   public SliderBehavior(Slider control) {
-    super(control, keyBindings);
+    super(control, commands, keyBindings);
+    setBatchingWrites(true);
   }
 
   public void decrement() {
-    getControl().decrement();
+    Slider control = getControl();
+    adjustValue(read(control.valueProperty()) - control.getBlockIncrement());
   }
 
   public void increment() {
-    getControl().increment();
+    Slider control = getControl();
+    adjustValue(read(control.valueProperty()) + control.getBlockIncrement());
   }
 
   public void goToStart() {
     Slider control = getControl();
-    control.setValue(control.getMin());
+    write(control.valueProperty(), control.getMin());
   }
 
   public void goToEnd() {
     Slider control = getControl();
-    control.setValue(control.getMax());
+    write(control.valueProperty(), control.getMax());
+  }
+
+  /**
+   * Moves the thumb to a new value, the same way {@link Slider#adjustValue(double)} does: the value is kept within the
+   * range of the slider and snapped to the nearest tick mark if the slider {@link Slider#isSnapToTicks() snaps to
+   * ticks}. Nothing happens if the range of the slider is empty.
+   */
+  private void adjustValue(double value) {
+    Slider control = getControl();
+    double min = control.getMin();
+    double max = control.getMax();
+    if (max <= min) {
+      return;
+    }
+    double adjusted = Math.max(min, Math.min(value, max));
+    if (control.isSnapToTicks()) {
+      double tickSpacing = control.getMinorTickCount() == 0
+          ? control.getMajorTickUnit()
+          : control.getMajorTickUnit() / (Math.max(control.getMinorTickCount(), 0) + 1);
+      int previousTick = (int) ((adjusted - min) / tickSpacing);
+      double previousTickValue = previousTick * tickSpacing + min;
+      double nextTickValue = (previousTick + 1) * tickSpacing + min;
+      adjusted = adjusted - previousTickValue < nextTickValue - adjusted ? previousTickValue : nextTickValue;
+      adjusted = Math.max(min, Math.min(adjusted, max));
+    }
+    write(control.valueProperty(), adjusted);
   }
 
 }
@@ -0,0 +1,101 @@
+plugins {
+    `java-library`
+    id("me.champeau.gradle.jmh") version "0.4.7"
+}
+
+group = "com.github.samcarlberg"
+version = "0.2.0"
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    fun junitJupiter(name: String, version: String = "5.0.0") =
+            create(group = "org.junit.jupiter", name = name, version = version)
+
+    api(project(":fxbehaviors"))
+
+    // The button and slider behaviors in the examples are benchmarked alongside the controls in this module
+    "jmh"(project(":examples"))
+
+    testCompile(junitJupiter(name = "junit-jupiter-api"))
+    testCompile(junitJupiter(name = "junit-jupiter-engine"))
+    testCompile(junitJupiter(name = "junit-jupiter-params"))
+    testRuntime(create(group = "org.junit.platform", name = "junit-platform-launcher", version = "1.0.0"))
+}
+
+tasks.withType<Test> {
+    useJUnitPlatform()
+}
+
+// Benchmarks
+
+/*
+ * The benchmarks compare against the behaviors used by the stock JavaFX skins, which live in a package that the
+ * javafx.controls module does not export.
+ */
+val stockBehaviorExports = listOf("--add-exports", "javafx.controls/com.sun.javafx.scene.control.behavior=ALL-UNNAMED")
+
+tasks.getByName<JavaCompile>("compileJmhJava") {
+    options.compilerArgs.addAll(stockBehaviorExports)
+}
+
+// Startup
+
+/*
+ * An AppCDS archive of the classes loaded while creating behaviors and dispatching their first events, to compare the
+ * startup benchmarks against. `startupClassList` records the classes loaded by the startup probe, and `startupArchive`
+ * dumps them into an archive. Passing `-PstartupArchive` to the jmh task runs the benchmarks with the archive.
+ */
+val startupDir = file("$buildDir/startup")
+val startupClassList = file("$startupDir/classes.lst")
+val startupArchive = file("$startupDir/fxbehaviors.jsa")
+val jmhJar = tasks.getByName<Jar>("jmhJar")
+
+task<JavaExec>("startupClassList") {
+    description = "Records the classes loaded at startup by the behaviors for the AppCDS archive."
+    dependsOn(jmhJar)
+    outputs.file(startupClassList)
+    classpath = files(jmhJar.archivePath)
+    main = "com.github.samcarlberg.fxbehaviors.controls.StartupProbe"
+    jvmArgs("-Xshare:off", "-XX:DumpLoadedClassList=$startupClassList")
+    doFirst {
+        startupDir.mkdirs()
+    }
+}
+
+task<JavaExec>("startupArchive") {
+    description = "Creates an AppCDS archive of the classes loaded at startup by the behaviors."
+    dependsOn("startupClassList")
+    inputs.file(startupClassList)
+    outputs.file(startupArchive)
+    // The class path must be the same as the one the benchmarks run with for the archive to be used
+    classpath = files(jmhJar.archivePath)
+    main = "com.github.samcarlberg.fxbehaviors.controls.StartupProbe"
+    jvmArgs("-Xshare:dump", "-XX:SharedClassListFile=$startupClassList", "-XX:SharedArchiveFile=$startupArchive")
+}
+
+val useStartupArchive = hasProperty("startupArchive")
+
+jmh {
+    jmhVersion = "1.21"
+    jvmArgsAppend = if (useStartupArchive) {
+        stockBehaviorExports + listOf("-Xshare:on", "-XX:SharedArchiveFile=$startupArchive")
+    } else {
+        stockBehaviorExports
+    }
+    if (hasProperty("jmhInclude")) {
+        include = listOf(property("jmhInclude") as String)
+    }
+}
+
+if (useStartupArchive) {
+    tasks.getByName("jmh").dependsOn("startupArchive")
+}
+
+/**
+ * Retrieves or configures the [jmh][me.champeau.gradle.JMHPluginExtension] project extension.
+ */
+fun Project.`jmh`(configure: me.champeau.gradle.JMHPluginExtension.() -> Unit = {}) =
+        extensions.getByName<me.champeau.gradle.JMHPluginExtension>("jmh").apply { configure() }
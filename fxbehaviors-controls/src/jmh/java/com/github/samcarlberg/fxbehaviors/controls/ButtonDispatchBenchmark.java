@@ -0,0 +1,31 @@
+package com.github.samcarlberg.fxbehaviors.controls;
+
+import com.github.samcarlberg.fxbehaviors.examples.button.ButtonBehavior;
+
+import javafx.scene.control.Button;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+
+public class ButtonDispatchBenchmark extends DispatchBenchmark<Button> {
+
+  @Override
+  protected Button createControl() {
+    return new Button("Button");
+  }
+
+  @Override
+  protected void installBehavior(Button control) {
+    new ButtonBehavior(control);
+  }
+
+  @Override
+  protected void installStockBehavior(Button control) {
+    new com.sun.javafx.scene.control.behavior.ButtonBehavior<>(control);
+  }
+
+  @Override
+  protected KeyEvent[] boundEvents() {
+    return new KeyEvent[] {keyPressed(KeyCode.SPACE), keyReleased(KeyCode.SPACE)};
+  }
+
+}
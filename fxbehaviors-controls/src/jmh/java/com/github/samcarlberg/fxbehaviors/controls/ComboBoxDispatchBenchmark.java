@@ -0,0 +1,36 @@
+package com.github.samcarlberg.fxbehaviors.controls;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javafx.collections.FXCollections;
+import javafx.scene.control.ComboBox;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+
+public class ComboBoxDispatchBenchmark extends DispatchBenchmark<ComboBox<String>> {
+
+  @Override
+  protected ComboBox<String> createControl() {
+    ComboBox<String> comboBox = new ComboBox<>(FXCollections.observableArrayList(
+        IntStream.range(0, 100).mapToObj(Integer::toString).collect(Collectors.toList())));
+    comboBox.getSelectionModel().select(50);
+    return comboBox;
+  }
+
+  @Override
+  protected void installBehavior(ComboBox<String> control) {
+    new ComboBoxBehavior(control);
+  }
+
+  @Override
+  protected void installStockBehavior(ComboBox<String> control) {
+    new com.sun.javafx.scene.control.behavior.ComboBoxListViewBehavior<>(control);
+  }
+
+  @Override
+  protected KeyEvent[] boundEvents() {
+    return new KeyEvent[] {keyPressed(KeyCode.DOWN), keyPressed(KeyCode.UP)};
+  }
+
+}
@@ -0,0 +1,173 @@
+package com.github.samcarlberg.fxbehaviors.controls;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import javafx.application.Platform;
+import javafx.event.Event;
+import javafx.scene.control.Control;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+
+/**
+ * Base class for benchmarks that measure the cost of dispatching input events to a control, either through the
+ * behaviors in this module or through the behaviors used by the stock JavaFX skins.
+ *
+ * <p>{@link #boundKeys()} fires a pair of key events that each trigger a binding and that cancel out, so the control
+ * is in the same state after every invocation. {@link #unboundKey()} fires a key event that no binding handles, which
+ * measures the cost of looking for a binding to fire.
+ *
+ * <p>Controls are created and events are fired on the JavaFX application thread, the same as in an application. Every
+ * invocation fires a batch of events in a single trip to that thread so that the cost of getting there doesn't drown
+ * out the cost of dispatching, and the scores are per event (or per pair of events, for {@code boundKeys}). The
+ * behaviors from this module consume the events they handle, like the stock behaviors do, so events go no further than
+ * the control with either kind of behavior.
+ *
+ * @param <C> the type of the control
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class DispatchBenchmark<C extends Control> {
+
+  private static final KeyEvent UNBOUND = keyPressed(KeyCode.F12);
+
+  /**
+   * The number of times to fire the events in each invocation.
+   */
+  private static final int BATCH = 1000;
+
+  @Param({"fxbehaviors", "javafx"})
+  public String behavior;
+
+  private C control;
+  private KeyEvent first;
+  private KeyEvent second;
+
+  // Created once so that invocations don't allocate anything but the task to run them
+  private final Runnable fireBoundKeys = this::fireBoundKeys;
+  private final Runnable fireUnboundKey = this::fireUnboundKey;
+
+  @Setup
+  public void setup() {
+    startToolkit();
+    runOnFxThread(this::createOnFxThread);
+  }
+
+  private void createOnFxThread() {
+    control = createControl();
+    if ("fxbehaviors".equals(behavior)) {
+      installBehavior(control);
+    } else {
+      installStockBehavior(control);
+    }
+    KeyEvent[] events = boundEvents();
+    first = events[0];
+    second = events[1];
+  }
+
+  /**
+   * Creates the control to fire events on, in the state it should be in before every benchmark invocation.
+   */
+  protected abstract C createControl();
+
+  /**
+   * Installs the behavior from this module on the control.
+   */
+  protected abstract void installBehavior(C control);
+
+  /**
+   * Installs the behavior used by the stock JavaFX skin on the control.
+   */
+  protected abstract void installStockBehavior(C control);
+
+  /**
+   * Gets the two key events to fire in {@link #boundKeys()}. The second event should undo the effect of the first.
+   */
+  protected abstract KeyEvent[] boundEvents();
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH)
+  public C boundKeys() {
+    runOnFxThread(fireBoundKeys);
+    return control;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH)
+  public C unboundKey() {
+    runOnFxThread(fireUnboundKey);
+    return control;
+  }
+
+  private void fireBoundKeys() {
+    for (int i = 0; i < BATCH; i++) {
+      Event.fireEvent(control, first);
+      Event.fireEvent(control, second);
+    }
+  }
+
+  private void fireUnboundKey() {
+    for (int i = 0; i < BATCH; i++) {
+      Event.fireEvent(control, UNBOUND);
+    }
+  }
+
+  protected static KeyEvent keyPressed(KeyCode keyCode) {
+    return new KeyEvent(KeyEvent.KEY_PRESSED, "", "", keyCode, false, false, false, false);
+  }
+
+  protected static KeyEvent keyReleased(KeyCode keyCode) {
+    return new KeyEvent(KeyEvent.KEY_RELEASED, "", "", keyCode, false, false, false, false);
+  }
+
+  /**
+   * Starts the JavaFX toolkit, which the stock behaviors need.
+   */
+  static void startToolkit() {
+    try {
+      Platform.startup(() -> {});
+      Platform.setImplicitExit(false);
+    } catch (IllegalStateException alreadyStarted) {
+      // Nothing to do
+    }
+  }
+
+  /**
+   * Runs something on the JavaFX application thread and waits for it to finish.
+   */
+  static void runOnFxThread(Runnable runnable) {
+    if (Platform.isFxApplicationThread()) {
+      runnable.run();
+      return;
+    }
+    FutureTask<Void> task = new FutureTask<>(runnable, null);
+    Platform.runLater(task);
+    try {
+      task.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for the JavaFX application thread", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Failed on the JavaFX application thread", e.getCause());
+    }
+  }
+
+}
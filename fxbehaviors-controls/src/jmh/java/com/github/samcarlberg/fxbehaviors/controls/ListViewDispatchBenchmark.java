@@ -0,0 +1,36 @@
+package com.github.samcarlberg.fxbehaviors.controls;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javafx.collections.FXCollections;
+import javafx.scene.control.ListView;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+
+public class ListViewDispatchBenchmark extends DispatchBenchmark<ListView<String>> {
+
+  @Override
+  protected ListView<String> createControl() {
+    ListView<String> listView = new ListView<>(FXCollections.observableArrayList(
+        IntStream.range(0, 1000).mapToObj(Integer::toString).collect(Collectors.toList())));
+    listView.getSelectionModel().select(500);
+    return listView;
+  }
+
+  @Override
+  protected void installBehavior(ListView<String> control) {
+    new ListViewBehavior(control);
+  }
+
+  @Override
+  protected void installStockBehavior(ListView<String> control) {
+    new com.sun.javafx.scene.control.behavior.ListViewBehavior<>(control);
+  }
+
+  @Override
+  protected KeyEvent[] boundEvents() {
+    return new KeyEvent[] {keyPressed(KeyCode.DOWN), keyPressed(KeyCode.UP)};
+  }
+
+}
@@ -0,0 +1,34 @@
+package com.github.samcarlberg.fxbehaviors.controls;
+
+import javafx.scene.control.ScrollPane;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.layout.Pane;
+
+public class ScrollPaneDispatchBenchmark extends DispatchBenchmark<ScrollPane> {
+
+  @Override
+  protected ScrollPane createControl() {
+    Pane content = new Pane();
+    content.resize(1000, 10000);
+    ScrollPane scrollPane = new ScrollPane(content);
+    scrollPane.setVvalue(0.5);
+    return scrollPane;
+  }
+
+  @Override
+  protected void installBehavior(ScrollPane control) {
+    new ScrollPaneBehavior(control);
+  }
+
+  @Override
+  protected void installStockBehavior(ScrollPane control) {
+    new com.sun.javafx.scene.control.behavior.ScrollPaneBehavior(control);
+  }
+
+  @Override
+  protected KeyEvent[] boundEvents() {
+    return new KeyEvent[] {keyPressed(KeyCode.DOWN), keyPressed(KeyCode.UP)};
+  }
+
+}
@@ -0,0 +1,31 @@
+package com.github.samcarlberg.fxbehaviors.controls;
+
+import com.github.samcarlberg.fxbehaviors.examples.slider.SliderBehavior;
+
+import javafx.scene.control.Slider;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+
+public class SliderDispatchBenchmark extends DispatchBenchmark<Slider> {
+
+  @Override
+  protected Slider createControl() {
+    return new Slider(0, 100, 50);
+  }
+
+  @Override
+  protected void installBehavior(Slider control) {
+    new SliderBehavior(control);
+  }
+
+  @Override
+  protected void installStockBehavior(Slider control) {
+    new com.sun.javafx.scene.control.behavior.SliderBehavior(control);
+  }
+
+  @Override
+  protected KeyEvent[] boundEvents() {
+    return new KeyEvent[] {keyPressed(KeyCode.RIGHT), keyPressed(KeyCode.LEFT)};
+  }
+
+}
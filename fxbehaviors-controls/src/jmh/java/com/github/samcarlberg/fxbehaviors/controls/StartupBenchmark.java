@@ -0,0 +1,114 @@
+package com.github.samcarlberg.fxbehaviors.controls;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import javafx.event.Event;
+import javafx.scene.control.Control;
+import javafx.scene.input.KeyEvent;
+
+/**
+ * Measures the time to first interaction in a cold JVM: creating the first behavior for a type of control, which runs
+ * the static initializers that build its bindings, and dispatching the first key event to it. Every measurement runs in
+ * a fresh JVM, and the number of classes loaded along the way is reported as the {@code classesLoaded} counter.
+ *
+ * <p>The controls are created and the JavaFX toolkit is started before the measurement, since every application pays
+ * for those whether or not it uses these behaviors. To compare against an AppCDS archive of the classes loaded at
+ * startup, create the archive with the {@code startupArchive} task and run the benchmarks with
+ * {@code -PstartupArchive}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class StartupBenchmark {
+
+  @Param({"ListView", "TableView", "TreeView", "TextField", "ComboBox", "ScrollPane", "Button", "Slider"})
+  public String control;
+
+  private DispatchBenchmark<?> scenario;
+  private Control target;
+  private KeyEvent event;
+
+  /**
+   * The number of classes loaded while creating the behavior and dispatching the first event.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class ClassLoading {
+    public long classesLoaded;
+  }
+
+  @Setup(Level.Trial)
+  public void setup() {
+    DispatchBenchmark.startToolkit();
+    loadedClasses(); // Load the management classes before the measurement
+    scenario = scenario(control);
+    target = scenario.createControl();
+    event = scenario.boundEvents()[0];
+  }
+
+  @Benchmark
+  public Control firstDispatch(ClassLoading classLoading) {
+    long before = loadedClasses();
+    installBehavior(scenario, target);
+    Event.fireEvent(target, event);
+    classLoading.classesLoaded = loadedClasses() - before;
+    return target;
+  }
+
+  /**
+   * Gets the benchmark that creates a control of a type, so the startup benchmarks use the same controls and events as
+   * the dispatch benchmarks.
+   */
+  static DispatchBenchmark<?> scenario(String control) {
+    switch (control) {
+      case "ListView":
+        return new ListViewDispatchBenchmark();
+      case "TableView":
+        return new TableViewDispatchBenchmark();
+      case "TreeView":
+        return new TreeViewDispatchBenchmark();
+      case "TextField":
+        return new TextFieldDispatchBenchmark();
+      case "ComboBox":
+        return new ComboBoxDispatchBenchmark();
+      case "ScrollPane":
+        return new ScrollPaneDispatchBenchmark();
+      case "Button":
+        return new ButtonDispatchBenchmark();
+      case "Slider":
+        return new SliderDispatchBenchmark();
+      default:
+        throw new IllegalArgumentException("Unknown control: " + control);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  static <C extends Control> void installBehavior(DispatchBenchmark<C> scenario, Control control) {
+    scenario.installBehavior((C) control);
+  }
+
+  static long loadedClasses() {
+    ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+    return classLoading.getTotalLoadedClassCount();
+  }
+
+}
@@ -0,0 +1,45 @@
+package com.github.samcarlberg.fxbehaviors.controls;
+
+import java.util.concurrent.TimeUnit;
+
+import javafx.application.Platform;
+import javafx.event.Event;
+import javafx.scene.control.Control;
+import javafx.scene.input.KeyEvent;
+
+/**
+ * Creates a behavior for every type of control and dispatches a first key event to each, then exits. This runs the
+ * same code as the {@link StartupBenchmark}, and is used to record the classes to put in an AppCDS archive. It also
+ * prints the time to first dispatch and the number of classes loaded for each control, for a quick check without JMH;
+ * controls are measured in order, so the first one also pays for loading the classes shared by every behavior.
+ */
+public final class StartupProbe {
+
+  private static final String[] CONTROLS = {
+      "ListView", "TableView", "TreeView", "TextField", "ComboBox", "ScrollPane", "Button", "Slider"
+  };
+
+  private StartupProbe() {
+  }
+
+  public static void main(String[] args) {
+    DispatchBenchmark.startToolkit();
+    StartupBenchmark.loadedClasses();
+    for (String name : args.length > 0 ? args : CONTROLS) {
+      DispatchBenchmark<?> scenario = StartupBenchmark.scenario(name);
+      Control control = scenario.createControl();
+      KeyEvent event = scenario.boundEvents()[0];
+
+      long classesBefore = StartupBenchmark.loadedClasses();
+      long start = System.nanoTime();
+      StartupBenchmark.installBehavior(scenario, control);
+      Event.fireEvent(control, event);
+      long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+      long classesLoaded = StartupBenchmark.loadedClasses() - classesBefore;
+
+      System.out.printf("%-10s %8d us %6d classes%n", name, micros, classesLoaded);
+    }
+    Platform.exit();
+  }
+
+}
@@ -0,0 +1,41 @@
+package com.github.samcarlberg.fxbehaviors.controls;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+
+public class TableViewDispatchBenchmark extends DispatchBenchmark<TableView<String>> {
+
+  @Override
+  protected TableView<String> createControl() {
+    TableView<String> tableView = new TableView<>(FXCollections.observableArrayList(
+        IntStream.range(0, 1000).mapToObj(Integer::toString).collect(Collectors.toList())));
+    TableColumn<String, String> column = new TableColumn<>("Value");
+    column.setCellValueFactory(features -> new SimpleStringProperty(features.getValue()));
+    tableView.getColumns().add(column);
+    tableView.getSelectionModel().select(500);
+    return tableView;
+  }
+
+  @Override
+  protected void installBehavior(TableView<String> control) {
+    new TableViewBehavior(control);
+  }
+
+  @Override
+  protected void installStockBehavior(TableView<String> control) {
+    new com.sun.javafx.scene.control.behavior.TableViewBehavior<>(control);
+  }
+
+  @Override
+  protected KeyEvent[] boundEvents() {
+    return new KeyEvent[] {keyPressed(KeyCode.DOWN), keyPressed(KeyCode.UP)};
+  }
+
+}
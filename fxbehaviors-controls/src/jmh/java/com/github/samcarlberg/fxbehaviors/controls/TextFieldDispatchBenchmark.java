@@ -0,0 +1,29 @@
+package com.github.samcarlberg.fxbehaviors.controls;
+
+import javafx.scene.control.TextField;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+
+public class TextFieldDispatchBenchmark extends DispatchBenchmark<TextField> {
+
+  @Override
+  protected TextField createControl() {
+    return new TextField("The quick brown fox jumps over the lazy dog");
+  }
+
+  @Override
+  protected void installBehavior(TextField control) {
+    new TextFieldBehavior(control);
+  }
+
+  @Override
+  protected void installStockBehavior(TextField control) {
+    new com.sun.javafx.scene.control.behavior.TextFieldBehavior(control);
+  }
+
+  @Override
+  protected KeyEvent[] boundEvents() {
+    return new KeyEvent[] {keyPressed(KeyCode.END), keyPressed(KeyCode.HOME)};
+  }
+
+}
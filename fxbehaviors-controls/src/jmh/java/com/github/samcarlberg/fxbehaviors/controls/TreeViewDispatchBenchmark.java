@@ -0,0 +1,37 @@
+package com.github.samcarlberg.fxbehaviors.controls;
+
+import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeView;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+
+public class TreeViewDispatchBenchmark extends DispatchBenchmark<TreeView<String>> {
+
+  @Override
+  protected TreeView<String> createControl() {
+    TreeItem<String> root = new TreeItem<>("root");
+    for (int i = 0; i < 1000; i++) {
+      root.getChildren().add(new TreeItem<>(Integer.toString(i)));
+    }
+    root.setExpanded(true);
+    TreeView<String> treeView = new TreeView<>(root);
+    treeView.getSelectionModel().select(500);
+    return treeView;
+  }
+
+  @Override
+  protected void installBehavior(TreeView<String> control) {
+    new TreeViewBehavior(control);
+  }
+
+  @Override
+  protected void installStockBehavior(TreeView<String> control) {
+    new com.sun.javafx.scene.control.behavior.TreeViewBehavior<>(control);
+  }
+
+  @Override
+  protected KeyEvent[] boundEvents() {
+    return new KeyEvent[] {keyPressed(KeyCode.DOWN), keyPressed(KeyCode.UP)};
+  }
+
+}
@@ -0,0 +1,159 @@
+package com.github.samcarlberg.fxbehaviors.controls;
+
+import com.github.samcarlberg.fxbehaviors.BehaviorBase;
+import com.github.samcarlberg.fxbehaviors.InputBindings;
+import com.github.samcarlberg.fxbehaviors.KeyBinding;
+import com.github.samcarlberg.fxbehaviors.MouseBinding;
+
+import javafx.css.PseudoClass;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.SingleSelectionModel;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCombination;
+import javafx.scene.input.MouseEvent;
+
+/**
+ * A behavior for combo boxes. F4 and alt+up or alt+down show or hide the popup, escape hides it, and enter commits
+ * the value and hides it. When the combo box is not editable, the up and down arrow keys and the home and end keys
+ * change the selected item. Clicking on the combo box shows or hides the popup.
+ */
+public class ComboBoxBehavior extends BehaviorBase<ComboBox<?>, ComboBoxBehavior> {
+
+  private static final PseudoClass EDITABLE = PseudoClass.getPseudoClass("editable");
+
+  private static final KeyBinding<ComboBoxBehavior> togglePopup = KeyBinding.<ComboBoxBehavior>builder()
+      .withKey(KeyCode.F4)
+      .withKey(KeyCode.UP, KeyCombination.ALT_DOWN)
+      .withKey(KeyCode.DOWN, KeyCombination.ALT_DOWN)
+      .withAction(ComboBoxBehavior::togglePopup)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<ComboBoxBehavior> hidePopup = KeyBinding.<ComboBoxBehavior>builder()
+      .withKey(KeyCode.ESCAPE)
+      .withAction(ComboBoxBehavior::hidePopup)
+      .build();
+
+  private static final KeyBinding<ComboBoxBehavior> commit = KeyBinding.<ComboBoxBehavior>builder()
+      .withKey(KeyCode.ENTER)
+      .withAction(ComboBoxBehavior::commit)
+      .build();
+
+  private static final MouseBinding<ComboBoxBehavior> armOnMousePressed = MouseBinding.<ComboBoxBehavior>builder()
+      .onEvent(MouseEvent.MOUSE_PRESSED)
+      .withAction(ComboBoxBehavior::arm)
+      .consuming()
+      .build();
+
+  private static final MouseBinding<ComboBoxBehavior> toggleOnMouseReleased = MouseBinding.<ComboBoxBehavior>builder()
+      .onEvent(MouseEvent.MOUSE_RELEASED)
+      .withAction(ComboBoxBehavior::togglePopupIfArmed)
+      .consuming()
+      .build();
+
+  private static final InputBindings<ComboBoxBehavior> bindings = InputBindings.compiled(
+      togglePopup,
+      hidePopup,
+      commit,
+      armOnMousePressed,
+      toggleOnMouseReleased,
+      // Editable combo boxes leave the arrow, home, and end keys to the editor
+      KeyBinding.<ComboBoxBehavior>builder()
+          .withKey(KeyCode.UP)
+          .withKey(KeyCode.KP_UP)
+          .unlessPseudoClass(EDITABLE)
+          .withAction(ComboBoxBehavior::selectPrevious)
+          .consuming()
+          .build(),
+      KeyBinding.<ComboBoxBehavior>builder()
+          .withKey(KeyCode.DOWN)
+          .withKey(KeyCode.KP_DOWN)
+          .unlessPseudoClass(EDITABLE)
+          .withAction(ComboBoxBehavior::selectNext)
+          .consuming()
+          .build(),
+      KeyBinding.<ComboBoxBehavior>builder()
+          .withKey(KeyCode.HOME)
+          .unlessPseudoClass(EDITABLE)
+          .withAction(ComboBoxBehavior::selectFirst)
+          .consuming()
+          .build(),
+      KeyBinding.<ComboBoxBehavior>builder()
+          .withKey(KeyCode.END)
+          .unlessPseudoClass(EDITABLE)
+          .withAction(ComboBoxBehavior::selectLast)
+          .consuming()
+          .build()
+  );
+
+  public ComboBoxBehavior(ComboBox<?> control) {
+    super(control, bindings);
+  }
+
+  public void togglePopup() {
+    ComboBox<?> control = getControl();
+    if (control.isShowing()) {
+      control.hide();
+    } else {
+      control.show();
+    }
+  }
+
+  public void hidePopup() {
+    getControl().hide();
+  }
+
+  /**
+   * Commits the value of the editor, if the combo box is editable, and hides the popup.
+   */
+  public void commit() {
+    ComboBox<?> control = getControl();
+    if (control.isEditable()) {
+      control.commitValue();
+    }
+    control.hide();
+  }
+
+  public void arm() {
+    ComboBox<?> control = getControl();
+    control.requestFocus();
+    control.arm();
+  }
+
+  public void togglePopupIfArmed() {
+    ComboBox<?> control = getControl();
+    if (control.isArmed()) {
+      control.disarm();
+      togglePopup();
+    }
+  }
+
+  public void selectPrevious() {
+    SingleSelectionModel<?> selectionModel = getControl().getSelectionModel();
+    if (selectionModel != null) {
+      selectionModel.selectPrevious();
+    }
+  }
+
+  public void selectNext() {
+    SingleSelectionModel<?> selectionModel = getControl().getSelectionModel();
+    if (selectionModel != null) {
+      selectionModel.selectNext();
+    }
+  }
+
+  public void selectFirst() {
+    SingleSelectionModel<?> selectionModel = getControl().getSelectionModel();
+    if (selectionModel != null) {
+      selectionModel.selectFirst();
+    }
+  }
+
+  public void selectLast() {
+    SingleSelectionModel<?> selectionModel = getControl().getSelectionModel();
+    if (selectionModel != null) {
+      selectionModel.selectLast();
+    }
+  }
+
+}
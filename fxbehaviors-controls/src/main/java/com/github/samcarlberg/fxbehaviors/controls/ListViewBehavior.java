@@ -0,0 +1,275 @@
+package com.github.samcarlberg.fxbehaviors.controls;
+
+import com.github.samcarlberg.fxbehaviors.BehaviorBase;
+import com.github.samcarlberg.fxbehaviors.InputBindings;
+import com.github.samcarlberg.fxbehaviors.KeyBinding;
+import com.github.samcarlberg.fxbehaviors.MouseBinding;
+
+import javafx.geometry.Orientation;
+import javafx.scene.control.FocusModel;
+import javafx.scene.control.ListView;
+import javafx.scene.control.MultipleSelectionModel;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCombination;
+
+/**
+ * A behavior for list views. The arrow keys (up and down for vertical lists, left and right for horizontal ones) and
+ * the home and end keys move the selection, as do page up and page down in vertical lists. Holding shift extends the
+ * selection from the anchor instead, and holding the shortcut key moves the focus without changing the selection.
+ * Space toggles the selection of the focused item, and shortcut+A selects every item.
+ */
+public class ListViewBehavior extends BehaviorBase<ListView<?>, ListViewBehavior> {
+
+  private static final KeyBinding<ListViewBehavior> selectFirst = KeyBinding.<ListViewBehavior>builder()
+      .withKey(KeyCode.HOME)
+      .withAction(ListViewBehavior::selectFirst)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<ListViewBehavior> selectLast = KeyBinding.<ListViewBehavior>builder()
+      .withKey(KeyCode.END)
+      .withAction(ListViewBehavior::selectLast)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<ListViewBehavior> extendToFirst = KeyBinding.<ListViewBehavior>builder()
+      .withKey(KeyCode.HOME, KeyCombination.SHIFT_DOWN)
+      .withAction(ListViewBehavior::extendToFirst)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<ListViewBehavior> extendToLast = KeyBinding.<ListViewBehavior>builder()
+      .withKey(KeyCode.END, KeyCombination.SHIFT_DOWN)
+      .withAction(ListViewBehavior::extendToLast)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<ListViewBehavior> toggleFocused = KeyBinding.<ListViewBehavior>builder()
+      .withKey(KeyCode.SPACE)
+      .withKey(KeyCode.SPACE, KeyCombination.SHORTCUT_DOWN)
+      .withAction(ListViewBehavior::toggleFocused)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<ListViewBehavior> selectAll = KeyBinding.<ListViewBehavior>builder()
+      .withKey(KeyCode.A, KeyCombination.SHORTCUT_DOWN)
+      .withAction(ListViewBehavior::selectAll)
+      .consuming()
+      .build();
+
+  private static final MouseBinding<ListViewBehavior> focusOnPress = MouseBinding.<ListViewBehavior>builder()
+      .withAction(ListViewBehavior::requestFocus)
+      .consuming()
+      .build();
+
+  private static final InputBindings<ListViewBehavior> commonBindings = InputBindings.compiled(
+      selectFirst,
+      selectLast,
+      extendToFirst,
+      extendToLast,
+      toggleFocused,
+      selectAll,
+      focusOnPress
+  );
+
+  // Bindings for vertical lists navigate with UP and DOWN
+  private static final InputBindings<ListViewBehavior> verticalBindings = InputBindings.compiled(
+      (e, b) -> b.getControl().getOrientation() == Orientation.VERTICAL,
+      KeyBinding.<ListViewBehavior>builder()
+          .withKey(KeyCode.UP)
+          .withKey(KeyCode.KP_UP)
+          .withAction(ListViewBehavior::selectPrevious)
+          .consuming()
+          .build(),
+      KeyBinding.<ListViewBehavior>builder()
+          .withKey(KeyCode.DOWN)
+          .withKey(KeyCode.KP_DOWN)
+          .withAction(ListViewBehavior::selectNext)
+          .consuming()
+          .build(),
+      KeyBinding.<ListViewBehavior>builder()
+          .withKey(KeyCode.UP, KeyCombination.SHIFT_DOWN)
+          .withKey(KeyCode.KP_UP, KeyCombination.SHIFT_DOWN)
+          .withAction(ListViewBehavior::extendToPrevious)
+          .consuming()
+          .build(),
+      KeyBinding.<ListViewBehavior>builder()
+          .withKey(KeyCode.DOWN, KeyCombination.SHIFT_DOWN)
+          .withKey(KeyCode.KP_DOWN, KeyCombination.SHIFT_DOWN)
+          .withAction(ListViewBehavior::extendToNext)
+          .consuming()
+          .build(),
+      KeyBinding.<ListViewBehavior>builder()
+          .withKey(KeyCode.UP, KeyCombination.SHORTCUT_DOWN)
+          .withAction(ListViewBehavior::focusPrevious)
+          .consuming()
+          .build(),
+      KeyBinding.<ListViewBehavior>builder()
+          .withKey(KeyCode.DOWN, KeyCombination.SHORTCUT_DOWN)
+          .withAction(ListViewBehavior::focusNext)
+          .consuming()
+          .build(),
+      KeyBinding.<ListViewBehavior>builder()
+          .withKey(KeyCode.PAGE_UP)
+          .withAction(ListViewBehavior::selectPageUp)
+          .consuming()
+          .build(),
+      KeyBinding.<ListViewBehavior>builder()
+          .withKey(KeyCode.PAGE_DOWN)
+          .withAction(ListViewBehavior::selectPageDown)
+          .consuming()
+          .build(),
+      KeyBinding.<ListViewBehavior>builder()
+          .withKey(KeyCode.PAGE_UP, KeyCombination.SHIFT_DOWN)
+          .withAction(ListViewBehavior::extendPageUp)
+          .consuming()
+          .build(),
+      KeyBinding.<ListViewBehavior>builder()
+          .withKey(KeyCode.PAGE_DOWN, KeyCombination.SHIFT_DOWN)
+          .withAction(ListViewBehavior::extendPageDown)
+          .consuming()
+          .build()
+  );
+
+  // Bindings for horizontal lists navigate with LEFT and RIGHT
+  private static final InputBindings<ListViewBehavior> horizontalBindings = InputBindings.compiled(
+      (e, b) -> b.getControl().getOrientation() == Orientation.HORIZONTAL,
+      KeyBinding.<ListViewBehavior>builder()
+          .withKey(KeyCode.LEFT)
+          .withKey(KeyCode.KP_LEFT)
+          .withAction(ListViewBehavior::selectPrevious)
+          .consuming()
+          .build(),
+      KeyBinding.<ListViewBehavior>builder()
+          .withKey(KeyCode.RIGHT)
+          .withKey(KeyCode.KP_RIGHT)
+          .withAction(ListViewBehavior::selectNext)
+          .consuming()
+          .build(),
+      KeyBinding.<ListViewBehavior>builder()
+          .withKey(KeyCode.LEFT, KeyCombination.SHIFT_DOWN)
+          .withKey(KeyCode.KP_LEFT, KeyCombination.SHIFT_DOWN)
+          .withAction(ListViewBehavior::extendToPrevious)
+          .consuming()
+          .build(),
+      KeyBinding.<ListViewBehavior>builder()
+          .withKey(KeyCode.RIGHT, KeyCombination.SHIFT_DOWN)
+          .withKey(KeyCode.KP_RIGHT, KeyCombination.SHIFT_DOWN)
+          .withAction(ListViewBehavior::extendToNext)
+          .consuming()
+          .build(),
+      KeyBinding.<ListViewBehavior>builder()
+          .withKey(KeyCode.LEFT, KeyCombination.SHORTCUT_DOWN)
+          .withAction(ListViewBehavior::focusPrevious)
+          .consuming()
+          .build(),
+      KeyBinding.<ListViewBehavior>builder()
+          .withKey(KeyCode.RIGHT, KeyCombination.SHORTCUT_DOWN)
+          .withAction(ListViewBehavior::focusNext)
+          .consuming()
+          .build()
+  );
+
+  private static final InputBindings<ListViewBehavior> bindings =
+      InputBindings.combine(commonBindings, verticalBindings, horizontalBindings);
+
+  private final RowNavigation rows = new RowNavigation() {
+    @Override
+    MultipleSelectionModel<?> selectionModel() {
+      return getControl().getSelectionModel();
+    }
+
+    @Override
+    FocusModel<?> focusModel() {
+      return getControl().getFocusModel();
+    }
+
+    @Override
+    int rowCount() {
+      return getControl().getItems() == null ? 0 : getControl().getItems().size();
+    }
+
+    @Override
+    void scrollTo(int row) {
+      getControl().scrollTo(row);
+    }
+
+    @Override
+    int pageSize() {
+      return rowsIn(getControl(), getControl().getFixedCellSize());
+    }
+  };
+
+  public ListViewBehavior(ListView<?> control) {
+    super(control, bindings);
+  }
+
+  public void selectPrevious() {
+    rows.selectPrevious();
+  }
+
+  public void selectNext() {
+    rows.selectNext();
+  }
+
+  public void selectFirst() {
+    rows.selectFirst();
+  }
+
+  public void selectLast() {
+    rows.selectLast();
+  }
+
+  public void extendToPrevious() {
+    rows.extendPrevious();
+  }
+
+  public void extendToNext() {
+    rows.extendNext();
+  }
+
+  public void extendToFirst() {
+    rows.extendFirst();
+  }
+
+  public void extendToLast() {
+    rows.extendLast();
+  }
+
+  public void selectPageUp() {
+    rows.selectPageUp();
+  }
+
+  public void selectPageDown() {
+    rows.selectPageDown();
+  }
+
+  public void extendPageUp() {
+    rows.extendPageUp();
+  }
+
+  public void extendPageDown() {
+    rows.extendPageDown();
+  }
+
+  public void focusPrevious() {
+    rows.focusPrevious();
+  }
+
+  public void focusNext() {
+    rows.focusNext();
+  }
+
+  public void toggleFocused() {
+    rows.toggleFocused();
+  }
+
+  public void selectAll() {
+    rows.selectAll();
+  }
+
+  public void requestFocus() {
+    getControl().requestFocus();
+  }
+
+}
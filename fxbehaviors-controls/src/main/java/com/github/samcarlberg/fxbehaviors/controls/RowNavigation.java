@@ -0,0 +1,222 @@
+package com.github.samcarlberg.fxbehaviors.controls;
+
+import javafx.scene.control.FocusModel;
+import javafx.scene.control.MultipleSelectionModel;
+import javafx.scene.control.SelectionMode;
+import javafx.scene.layout.Region;
+
+/**
+ * Keyboard navigation over the rows of a control with a multiple selection model and a focus model, such as a list,
+ * table, or tree view. Subclasses provide access to the models of a specific control.
+ *
+ * <p>The navigation keeps track of the selection anchor, which is the row that range selections extend from.
+ */
+abstract class RowNavigation {
+
+  /**
+   * The height of a row when the control has no fixed cell size. This is the height of a cell with the default
+   * stylesheet.
+   */
+  private static final double DEFAULT_CELL_SIZE = 24;
+
+  private int anchor = -1;
+
+  /**
+   * Gets the selection model of the control, or null if the control has none.
+   */
+  abstract MultipleSelectionModel<?> selectionModel();
+
+  /**
+   * Gets the focus model of the control, or null if the control has none.
+   */
+  abstract FocusModel<?> focusModel();
+
+  /**
+   * Gets the number of rows in the control.
+   */
+  abstract int rowCount();
+
+  /**
+   * Scrolls the control so a row is visible.
+   */
+  abstract void scrollTo(int row);
+
+  /**
+   * Gets the number of rows that fit in the control at once, for moving by a page.
+   */
+  abstract int pageSize();
+
+  /**
+   * Estimates the number of rows that fit in a control. Rows are laid out by the skin, which behaviors can't see into,
+   * so this uses the fixed cell size of the control if it has one and the height of a default cell otherwise.
+   *
+   * @param control       the control
+   * @param fixedCellSize the fixed cell size of the control, or a negative number if it has none
+   */
+  static int rowsIn(Region control, double fixedCellSize) {
+    double cellSize = fixedCellSize > 0 ? fixedCellSize : DEFAULT_CELL_SIZE;
+    return Math.max((int) (control.getHeight() / cellSize), 1);
+  }
+
+  /**
+   * Gets the number of rows to move by for page up and page down. This keeps the row at the edge of the page in view,
+   * the way scrolling by a page does.
+   */
+  final int pageStep() {
+    return Math.max(pageSize() - 1, 1);
+  }
+
+  /**
+   * Gets the focused row. If no row is focused, the selected row is used instead.
+   *
+   * @return the focused row, or -1 if no row is focused or selected
+   */
+  final int focusedRow() {
+    FocusModel<?> focusModel = focusModel();
+    int row = focusModel == null ? -1 : focusModel.getFocusedIndex();
+    if (row < 0) {
+      MultipleSelectionModel<?> selectionModel = selectionModel();
+      row = selectionModel == null ? -1 : selectionModel.getSelectedIndex();
+    }
+    return row;
+  }
+
+  /**
+   * Selects only the given row, focuses it, and makes it the new anchor.
+   */
+  final void select(int row) {
+    MultipleSelectionModel<?> selectionModel = selectionModel();
+    if (selectionModel == null || !isValid(row)) {
+      return;
+    }
+    selectionModel.clearAndSelect(row);
+    focus(row);
+    anchor = row;
+  }
+
+  /**
+   * Selects every row from the anchor to the given row and focuses the given row. If only one row can be selected,
+   * this is the same as {@link #select(int)}.
+   */
+  final void extendSelection(int row) {
+    MultipleSelectionModel<?> selectionModel = selectionModel();
+    if (selectionModel == null || !isValid(row)) {
+      return;
+    }
+    if (selectionModel.getSelectionMode() != SelectionMode.MULTIPLE) {
+      select(row);
+      return;
+    }
+    if (!isValid(anchor)) {
+      anchor = Math.max(focusedRow(), 0);
+    }
+    selectionModel.clearSelection();
+    selectionModel.selectRange(Math.min(anchor, row), Math.max(anchor, row) + 1);
+    focus(row);
+  }
+
+  /**
+   * Focuses the given row without changing the selection.
+   */
+  final void focus(int row) {
+    FocusModel<?> focusModel = focusModel();
+    if (!isValid(row)) {
+      return;
+    }
+    if (focusModel != null) {
+      focusModel.focus(row);
+    }
+    scrollTo(row);
+  }
+
+  /**
+   * Toggles the selection of the focused row, and makes it the new anchor.
+   */
+  final void toggleFocused() {
+    MultipleSelectionModel<?> selectionModel = selectionModel();
+    int row = focusedRow();
+    if (selectionModel == null || !isValid(row)) {
+      return;
+    }
+    if (selectionModel.isSelected(row)) {
+      selectionModel.clearSelection(row);
+    } else if (selectionModel.getSelectionMode() == SelectionMode.MULTIPLE) {
+      selectionModel.select(row);
+    } else {
+      selectionModel.clearAndSelect(row);
+    }
+    focus(row);
+    anchor = row;
+  }
+
+  /**
+   * Selects every row, if more than one row can be selected.
+   */
+  final void selectAll() {
+    MultipleSelectionModel<?> selectionModel = selectionModel();
+    if (selectionModel != null && selectionModel.getSelectionMode() == SelectionMode.MULTIPLE) {
+      selectionModel.selectAll();
+    }
+  }
+
+  final void selectPrevious() {
+    select(focusedRow() - 1);
+  }
+
+  final void selectNext() {
+    select(focusedRow() + 1);
+  }
+
+  final void selectFirst() {
+    select(0);
+  }
+
+  final void selectLast() {
+    select(rowCount() - 1);
+  }
+
+  final void extendPrevious() {
+    extendSelection(focusedRow() - 1);
+  }
+
+  final void extendNext() {
+    extendSelection(focusedRow() + 1);
+  }
+
+  final void extendFirst() {
+    extendSelection(0);
+  }
+
+  final void extendLast() {
+    extendSelection(rowCount() - 1);
+  }
+
+  final void selectPageUp() {
+    select(Math.max(focusedRow() - pageStep(), 0));
+  }
+
+  final void selectPageDown() {
+    select(Math.min(focusedRow() + pageStep(), rowCount() - 1));
+  }
+
+  final void extendPageUp() {
+    extendSelection(Math.max(focusedRow() - pageStep(), 0));
+  }
+
+  final void extendPageDown() {
+    extendSelection(Math.min(focusedRow() + pageStep(), rowCount() - 1));
+  }
+
+  final void focusPrevious() {
+    focus(focusedRow() - 1);
+  }
+
+  final void focusNext() {
+    focus(focusedRow() + 1);
+  }
+
+  private boolean isValid(int row) {
+    return row >= 0 && row < rowCount();
+  }
+
+}
@@ -0,0 +1,183 @@
+package com.github.samcarlberg.fxbehaviors.controls;
+
+import com.github.samcarlberg.fxbehaviors.BehaviorBase;
+import com.github.samcarlberg.fxbehaviors.InputBindings;
+import com.github.samcarlberg.fxbehaviors.KeyBinding;
+import com.github.samcarlberg.fxbehaviors.MouseBinding;
+
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCombination;
+
+/**
+ * A behavior for scroll panes. The arrow keys scroll by a small step, page up and page down (and space and shift+space)
+ * scroll by the height of the viewport, and home and end scroll to the top and bottom of the content.
+ */
+public class ScrollPaneBehavior extends BehaviorBase<ScrollPane, ScrollPaneBehavior> {
+
+  /**
+   * The fraction of the viewport to scroll by for a single arrow key press.
+   */
+  private static final double UNIT_FRACTION = 0.1;
+
+  private static final KeyBinding<ScrollPaneBehavior> scrollUp = KeyBinding.<ScrollPaneBehavior>builder()
+      .withKey(KeyCode.UP)
+      .withKey(KeyCode.KP_UP)
+      .withAction(ScrollPaneBehavior::scrollUp)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<ScrollPaneBehavior> scrollDown = KeyBinding.<ScrollPaneBehavior>builder()
+      .withKey(KeyCode.DOWN)
+      .withKey(KeyCode.KP_DOWN)
+      .withAction(ScrollPaneBehavior::scrollDown)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<ScrollPaneBehavior> scrollLeft = KeyBinding.<ScrollPaneBehavior>builder()
+      .withKey(KeyCode.LEFT)
+      .withKey(KeyCode.KP_LEFT)
+      .withAction(ScrollPaneBehavior::scrollLeft)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<ScrollPaneBehavior> scrollRight = KeyBinding.<ScrollPaneBehavior>builder()
+      .withKey(KeyCode.RIGHT)
+      .withKey(KeyCode.KP_RIGHT)
+      .withAction(ScrollPaneBehavior::scrollRight)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<ScrollPaneBehavior> pageUp = KeyBinding.<ScrollPaneBehavior>builder()
+      .withKey(KeyCode.PAGE_UP)
+      .withKey(KeyCode.SPACE, KeyCombination.SHIFT_DOWN)
+      .withAction(ScrollPaneBehavior::pageUp)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<ScrollPaneBehavior> pageDown = KeyBinding.<ScrollPaneBehavior>builder()
+      .withKey(KeyCode.PAGE_DOWN)
+      .withKey(KeyCode.SPACE)
+      .withAction(ScrollPaneBehavior::pageDown)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<ScrollPaneBehavior> scrollToTop = KeyBinding.<ScrollPaneBehavior>builder()
+      .withKey(KeyCode.HOME)
+      .withKey(KeyCode.HOME, KeyCombination.SHORTCUT_DOWN)
+      .withAction(ScrollPaneBehavior::scrollToTop)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<ScrollPaneBehavior> scrollToBottom = KeyBinding.<ScrollPaneBehavior>builder()
+      .withKey(KeyCode.END)
+      .withKey(KeyCode.END, KeyCombination.SHORTCUT_DOWN)
+      .withAction(ScrollPaneBehavior::scrollToBottom)
+      .consuming()
+      .build();
+
+  private static final MouseBinding<ScrollPaneBehavior> focusOnPress = MouseBinding.<ScrollPaneBehavior>builder()
+      .withAction(ScrollPaneBehavior::requestFocus)
+      .consuming()
+      .build();
+
+  private static final InputBindings<ScrollPaneBehavior> bindings = InputBindings.compiled(
+      scrollUp,
+      scrollDown,
+      scrollLeft,
+      scrollRight,
+      pageUp,
+      pageDown,
+      scrollToTop,
+      scrollToBottom,
+      focusOnPress
+  );
+
+  public ScrollPaneBehavior(ScrollPane control) {
+    super(control, bindings);
+  }
+
+  public void scrollUp() {
+    scrollVertically(-UNIT_FRACTION);
+  }
+
+  public void scrollDown() {
+    scrollVertically(UNIT_FRACTION);
+  }
+
+  public void scrollLeft() {
+    scrollHorizontally(-UNIT_FRACTION);
+  }
+
+  public void scrollRight() {
+    scrollHorizontally(UNIT_FRACTION);
+  }
+
+  public void pageUp() {
+    scrollVertically(-1);
+  }
+
+  public void pageDown() {
+    scrollVertically(1);
+  }
+
+  public void scrollToTop() {
+    ScrollPane control = getControl();
+    control.setVvalue(control.getVmin());
+  }
+
+  public void scrollToBottom() {
+    ScrollPane control = getControl();
+    control.setVvalue(control.getVmax());
+  }
+
+  public void requestFocus() {
+    getControl().requestFocus();
+  }
+
+  /**
+   * Scrolls vertically by a multiple of the viewport height.
+   */
+  private void scrollVertically(double viewports) {
+    ScrollPane control = getControl();
+    double contentHeight = contentBounds().getHeight();
+    double viewportHeight = control.getViewportBounds().getHeight();
+    double delta = step(control.getVmax() - control.getVmin(), contentHeight, viewportHeight, viewports);
+    control.setVvalue(clamp(control.getVvalue() + delta, control.getVmin(), control.getVmax()));
+  }
+
+  /**
+   * Scrolls horizontally by a multiple of the viewport width.
+   */
+  private void scrollHorizontally(double viewports) {
+    ScrollPane control = getControl();
+    double contentWidth = contentBounds().getWidth();
+    double viewportWidth = control.getViewportBounds().getWidth();
+    double delta = step(control.getHmax() - control.getHmin(), contentWidth, viewportWidth, viewports);
+    control.setHvalue(clamp(control.getHvalue() + delta, control.getHmin(), control.getHmax()));
+  }
+
+  private Bounds contentBounds() {
+    Node content = getControl().getContent();
+    return content == null ? getControl().getViewportBounds() : content.getLayoutBounds();
+  }
+
+  /**
+   * Converts a distance in viewports to a change in scroll value. If the viewport size is unknown, eg because the
+   * scroll pane has not been laid out yet, the scroll range is treated as one viewport.
+   */
+  private static double step(double range, double contentSize, double viewportSize, double viewports) {
+    double scrollable = contentSize - viewportSize;
+    if (viewportSize <= 0 || scrollable <= 0) {
+      return range * viewports;
+    }
+    return range * viewports * viewportSize / scrollable;
+  }
+
+  private static double clamp(double value, double min, double max) {
+    return Math.max(min, Math.min(max, value));
+  }
+
+}
@@ -0,0 +1,338 @@
+package com.github.samcarlberg.fxbehaviors.controls;
+
+import com.github.samcarlberg.fxbehaviors.BehaviorBase;
+import com.github.samcarlberg.fxbehaviors.InputBindings;
+import com.github.samcarlberg.fxbehaviors.KeyBinding;
+import com.github.samcarlberg.fxbehaviors.MouseBinding;
+
+import javafx.scene.control.FocusModel;
+import javafx.scene.control.MultipleSelectionModel;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TablePosition;
+import javafx.scene.control.TableView;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCombination;
+
+/**
+ * A behavior for table views. The up and down arrow keys, the home and end keys, and page up and page down move the
+ * selection between rows, with shift and shortcut extending the selection or moving the focus as in
+ * {@link ListViewBehavior}. When cell selection is enabled, the arrow keys move the selection between cells instead and
+ * the left and right arrow keys move between columns. Space toggles the selection of the focused row, and shortcut+A
+ * selects every row.
+ */
+public class TableViewBehavior extends BehaviorBase<TableView<?>, TableViewBehavior> {
+
+  private static final KeyBinding<TableViewBehavior> selectPrevious = KeyBinding.<TableViewBehavior>builder()
+      .withKey(KeyCode.UP)
+      .withKey(KeyCode.KP_UP)
+      .withAction(TableViewBehavior::selectPrevious)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TableViewBehavior> selectNext = KeyBinding.<TableViewBehavior>builder()
+      .withKey(KeyCode.DOWN)
+      .withKey(KeyCode.KP_DOWN)
+      .withAction(TableViewBehavior::selectNext)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TableViewBehavior> selectLeft = KeyBinding.<TableViewBehavior>builder()
+      .withKey(KeyCode.LEFT)
+      .withKey(KeyCode.KP_LEFT)
+      .withAction(TableViewBehavior::selectLeft)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TableViewBehavior> selectRight = KeyBinding.<TableViewBehavior>builder()
+      .withKey(KeyCode.RIGHT)
+      .withKey(KeyCode.KP_RIGHT)
+      .withAction(TableViewBehavior::selectRight)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TableViewBehavior> selectFirst = KeyBinding.<TableViewBehavior>builder()
+      .withKey(KeyCode.HOME)
+      .withAction(TableViewBehavior::selectFirst)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TableViewBehavior> selectLast = KeyBinding.<TableViewBehavior>builder()
+      .withKey(KeyCode.END)
+      .withAction(TableViewBehavior::selectLast)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TableViewBehavior> extendToPrevious = KeyBinding.<TableViewBehavior>builder()
+      .withKey(KeyCode.UP, KeyCombination.SHIFT_DOWN)
+      .withKey(KeyCode.KP_UP, KeyCombination.SHIFT_DOWN)
+      .withAction(TableViewBehavior::extendToPrevious)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TableViewBehavior> extendToNext = KeyBinding.<TableViewBehavior>builder()
+      .withKey(KeyCode.DOWN, KeyCombination.SHIFT_DOWN)
+      .withKey(KeyCode.KP_DOWN, KeyCombination.SHIFT_DOWN)
+      .withAction(TableViewBehavior::extendToNext)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TableViewBehavior> extendToFirst = KeyBinding.<TableViewBehavior>builder()
+      .withKey(KeyCode.HOME, KeyCombination.SHIFT_DOWN)
+      .withAction(TableViewBehavior::extendToFirst)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TableViewBehavior> extendToLast = KeyBinding.<TableViewBehavior>builder()
+      .withKey(KeyCode.END, KeyCombination.SHIFT_DOWN)
+      .withAction(TableViewBehavior::extendToLast)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TableViewBehavior> selectPageUp = KeyBinding.<TableViewBehavior>builder()
+      .withKey(KeyCode.PAGE_UP)
+      .withAction(TableViewBehavior::selectPageUp)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TableViewBehavior> selectPageDown = KeyBinding.<TableViewBehavior>builder()
+      .withKey(KeyCode.PAGE_DOWN)
+      .withAction(TableViewBehavior::selectPageDown)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TableViewBehavior> extendPageUp = KeyBinding.<TableViewBehavior>builder()
+      .withKey(KeyCode.PAGE_UP, KeyCombination.SHIFT_DOWN)
+      .withAction(TableViewBehavior::extendPageUp)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TableViewBehavior> extendPageDown = KeyBinding.<TableViewBehavior>builder()
+      .withKey(KeyCode.PAGE_DOWN, KeyCombination.SHIFT_DOWN)
+      .withAction(TableViewBehavior::extendPageDown)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TableViewBehavior> focusPrevious = KeyBinding.<TableViewBehavior>builder()
+      .withKey(KeyCode.UP, KeyCombination.SHORTCUT_DOWN)
+      .withAction(TableViewBehavior::focusPrevious)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TableViewBehavior> focusNext = KeyBinding.<TableViewBehavior>builder()
+      .withKey(KeyCode.DOWN, KeyCombination.SHORTCUT_DOWN)
+      .withAction(TableViewBehavior::focusNext)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TableViewBehavior> toggleFocused = KeyBinding.<TableViewBehavior>builder()
+      .withKey(KeyCode.SPACE)
+      .withKey(KeyCode.SPACE, KeyCombination.SHORTCUT_DOWN)
+      .withAction(TableViewBehavior::toggleFocused)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TableViewBehavior> selectAll = KeyBinding.<TableViewBehavior>builder()
+      .withKey(KeyCode.A, KeyCombination.SHORTCUT_DOWN)
+      .withAction(TableViewBehavior::selectAll)
+      .consuming()
+      .build();
+
+  private static final MouseBinding<TableViewBehavior> focusOnPress = MouseBinding.<TableViewBehavior>builder()
+      .withAction(TableViewBehavior::requestFocus)
+      .consuming()
+      .build();
+
+  private static final InputBindings<TableViewBehavior> bindings = InputBindings.compiled(
+      selectPrevious,
+      selectNext,
+      selectLeft,
+      selectRight,
+      selectFirst,
+      selectLast,
+      extendToPrevious,
+      extendToNext,
+      extendToFirst,
+      extendToLast,
+      selectPageUp,
+      selectPageDown,
+      extendPageUp,
+      extendPageDown,
+      focusPrevious,
+      focusNext,
+      toggleFocused,
+      selectAll,
+      focusOnPress
+  );
+
+  private final RowNavigation rows = new RowNavigation() {
+    @Override
+    MultipleSelectionModel<?> selectionModel() {
+      return getControl().getSelectionModel();
+    }
+
+    @Override
+    FocusModel<?> focusModel() {
+      return getControl().getFocusModel();
+    }
+
+    @Override
+    int rowCount() {
+      return getControl().getItems() == null ? 0 : getControl().getItems().size();
+    }
+
+    @Override
+    void scrollTo(int row) {
+      getControl().scrollTo(row);
+    }
+
+    @Override
+    int pageSize() {
+      return rowsIn(getControl(), getControl().getFixedCellSize());
+    }
+  };
+
+  public TableViewBehavior(TableView<?> control) {
+    super(control, bindings);
+  }
+
+  public void selectPrevious() {
+    if (isCellSelection()) {
+      moveCell(getControl(), -1, 0);
+    } else {
+      rows.selectPrevious();
+    }
+  }
+
+  public void selectNext() {
+    if (isCellSelection()) {
+      moveCell(getControl(), 1, 0);
+    } else {
+      rows.selectNext();
+    }
+  }
+
+  /**
+   * Selects the cell to the left of the focused cell. Does nothing if cell selection is disabled.
+   */
+  public void selectLeft() {
+    if (isCellSelection()) {
+      moveCell(getControl(), 0, -1);
+    }
+  }
+
+  /**
+   * Selects the cell to the right of the focused cell. Does nothing if cell selection is disabled.
+   */
+  public void selectRight() {
+    if (isCellSelection()) {
+      moveCell(getControl(), 0, 1);
+    }
+  }
+
+  public void selectFirst() {
+    if (isCellSelection()) {
+      moveCell(getControl(), -rows.focusedRow(), 0);
+    } else {
+      rows.selectFirst();
+    }
+  }
+
+  public void selectLast() {
+    if (isCellSelection()) {
+      moveCell(getControl(), rows.rowCount() - 1 - rows.focusedRow(), 0);
+    } else {
+      rows.selectLast();
+    }
+  }
+
+  public void extendToPrevious() {
+    rows.extendPrevious();
+  }
+
+  public void extendToNext() {
+    rows.extendNext();
+  }
+
+  public void extendToFirst() {
+    rows.extendFirst();
+  }
+
+  public void extendToLast() {
+    rows.extendLast();
+  }
+
+  public void selectPageUp() {
+    if (isCellSelection()) {
+      int row = Math.max(rows.focusedRow(), 0);
+      moveCell(getControl(), Math.max(row - rows.pageStep(), 0) - row, 0);
+    } else {
+      rows.selectPageUp();
+    }
+  }
+
+  public void selectPageDown() {
+    if (isCellSelection()) {
+      int row = Math.max(rows.focusedRow(), 0);
+      moveCell(getControl(), Math.min(row + rows.pageStep(), rows.rowCount() - 1) - row, 0);
+    } else {
+      rows.selectPageDown();
+    }
+  }
+
+  public void extendPageUp() {
+    rows.extendPageUp();
+  }
+
+  public void extendPageDown() {
+    rows.extendPageDown();
+  }
+
+  public void focusPrevious() {
+    rows.focusPrevious();
+  }
+
+  public void focusNext() {
+    rows.focusNext();
+  }
+
+  public void toggleFocused() {
+    rows.toggleFocused();
+  }
+
+  public void selectAll() {
+    rows.selectAll();
+  }
+
+  public void requestFocus() {
+    getControl().requestFocus();
+  }
+
+  private boolean isCellSelection() {
+    TableView.TableViewSelectionModel<?> selectionModel = getControl().getSelectionModel();
+    return selectionModel != null && selectionModel.isCellSelectionEnabled();
+  }
+
+  /**
+   * Selects only the cell at an offset from the focused cell, if there is one.
+   */
+  private static <S> void moveCell(TableView<S> table, int rowOffset, int columnOffset) {
+    TableView.TableViewSelectionModel<S> selectionModel = table.getSelectionModel();
+    TableView.TableViewFocusModel<S> focusModel = table.getFocusModel();
+    if (selectionModel == null || focusModel == null) {
+      return;
+    }
+    TablePosition<S, ?> focused = focusModel.getFocusedCell();
+    int row = Math.max(focused.getRow(), 0) + rowOffset;
+    int column = Math.max(table.getVisibleLeafIndex(focused.getTableColumn()), 0) + columnOffset;
+    int rowCount = table.getItems() == null ? 0 : table.getItems().size();
+    if (row < 0 || row >= rowCount || column < 0 || column >= table.getVisibleLeafColumns().size()) {
+      return;
+    }
+    TableColumn<S, ?> tableColumn = table.getVisibleLeafColumn(column);
+    selectionModel.clearAndSelect(row, tableColumn);
+    focusModel.focus(row, tableColumn);
+    table.scrollTo(row);
+    table.scrollToColumn(tableColumn);
+  }
+
+}
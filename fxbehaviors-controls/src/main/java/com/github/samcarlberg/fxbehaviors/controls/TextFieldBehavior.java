@@ -0,0 +1,445 @@
+package com.github.samcarlberg.fxbehaviors.controls;
+
+import com.github.samcarlberg.fxbehaviors.BehaviorBase;
+import com.github.samcarlberg.fxbehaviors.InputBindings;
+import com.github.samcarlberg.fxbehaviors.KeyBinding;
+import com.github.samcarlberg.fxbehaviors.MouseBinding;
+
+import javafx.event.ActionEvent;
+import javafx.event.EventHandler;
+import javafx.scene.control.Skin;
+import javafx.scene.control.TextField;
+import javafx.scene.control.skin.TextFieldSkin;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCombination;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+
+/**
+ * A behavior for text fields. Typed characters are inserted at the caret, replacing any selected text. The arrow,
+ * home, and end keys move the caret, holding shift extends the selection, and holding control moves by words. Backspace
+ * and delete remove characters (or words, with control held), and the usual shortcuts select all, copy, cut, paste,
+ * undo, and redo. Enter commits the value and fires an action event, and escape cancels the edit.
+ *
+ * <p>Pressing the primary mouse button moves the caret to the character under the mouse, or extends the selection to it
+ * with shift held, and dragging selects the text between where the drag started and the mouse. Double-clicking selects
+ * a word and triple-clicking selects all of the text.
+ */
+public class TextFieldBehavior extends BehaviorBase<TextField, TextFieldBehavior> {
+
+  private static final KeyBinding<TextFieldBehavior> backward = KeyBinding.<TextFieldBehavior>builder()
+      .withKey(KeyCode.LEFT)
+      .withKey(KeyCode.KP_LEFT)
+      .withAction(TextFieldBehavior::backward)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TextFieldBehavior> forward = KeyBinding.<TextFieldBehavior>builder()
+      .withKey(KeyCode.RIGHT)
+      .withKey(KeyCode.KP_RIGHT)
+      .withAction(TextFieldBehavior::forward)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TextFieldBehavior> selectBackward = KeyBinding.<TextFieldBehavior>builder()
+      .withKey(KeyCode.LEFT, KeyCombination.SHIFT_DOWN)
+      .withKey(KeyCode.KP_LEFT, KeyCombination.SHIFT_DOWN)
+      .withAction(TextFieldBehavior::selectBackward)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TextFieldBehavior> selectForward = KeyBinding.<TextFieldBehavior>builder()
+      .withKey(KeyCode.RIGHT, KeyCombination.SHIFT_DOWN)
+      .withKey(KeyCode.KP_RIGHT, KeyCombination.SHIFT_DOWN)
+      .withAction(TextFieldBehavior::selectForward)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TextFieldBehavior> previousWord = KeyBinding.<TextFieldBehavior>builder()
+      .withKey(KeyCode.LEFT, KeyCombination.CONTROL_DOWN)
+      .withAction(TextFieldBehavior::previousWord)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TextFieldBehavior> nextWord = KeyBinding.<TextFieldBehavior>builder()
+      .withKey(KeyCode.RIGHT, KeyCombination.CONTROL_DOWN)
+      .withAction(TextFieldBehavior::nextWord)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TextFieldBehavior> selectPreviousWord = KeyBinding.<TextFieldBehavior>builder()
+      .withKey(KeyCode.LEFT, KeyCombination.CONTROL_DOWN, KeyCombination.SHIFT_DOWN)
+      .withAction(TextFieldBehavior::selectPreviousWord)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TextFieldBehavior> selectNextWord = KeyBinding.<TextFieldBehavior>builder()
+      .withKey(KeyCode.RIGHT, KeyCombination.CONTROL_DOWN, KeyCombination.SHIFT_DOWN)
+      .withAction(TextFieldBehavior::selectNextWord)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TextFieldBehavior> home = KeyBinding.<TextFieldBehavior>builder()
+      .withKey(KeyCode.HOME)
+      .withKey(KeyCode.UP)
+      .withAction(TextFieldBehavior::home)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TextFieldBehavior> end = KeyBinding.<TextFieldBehavior>builder()
+      .withKey(KeyCode.END)
+      .withKey(KeyCode.DOWN)
+      .withAction(TextFieldBehavior::end)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TextFieldBehavior> selectHome = KeyBinding.<TextFieldBehavior>builder()
+      .withKey(KeyCode.HOME, KeyCombination.SHIFT_DOWN)
+      .withKey(KeyCode.UP, KeyCombination.SHIFT_DOWN)
+      .withAction(TextFieldBehavior::selectHome)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TextFieldBehavior> selectEnd = KeyBinding.<TextFieldBehavior>builder()
+      .withKey(KeyCode.END, KeyCombination.SHIFT_DOWN)
+      .withKey(KeyCode.DOWN, KeyCombination.SHIFT_DOWN)
+      .withAction(TextFieldBehavior::selectEnd)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TextFieldBehavior> deletePrevious = KeyBinding.<TextFieldBehavior>builder()
+      .withKey(KeyCode.BACK_SPACE)
+      .withKey(KeyCode.BACK_SPACE, KeyCombination.SHIFT_DOWN)
+      .withAction(TextFieldBehavior::deletePreviousChar)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TextFieldBehavior> deleteNext = KeyBinding.<TextFieldBehavior>builder()
+      .withKey(KeyCode.DELETE)
+      .withAction(TextFieldBehavior::deleteNextChar)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TextFieldBehavior> deletePreviousWord = KeyBinding.<TextFieldBehavior>builder()
+      .withKey(KeyCode.BACK_SPACE, KeyCombination.CONTROL_DOWN)
+      .withAction(TextFieldBehavior::deletePreviousWord)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TextFieldBehavior> deleteNextWord = KeyBinding.<TextFieldBehavior>builder()
+      .withKey(KeyCode.DELETE, KeyCombination.CONTROL_DOWN)
+      .withAction(TextFieldBehavior::deleteNextWord)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TextFieldBehavior> selectAll = KeyBinding.<TextFieldBehavior>builder()
+      .withKey(KeyCode.A, KeyCombination.SHORTCUT_DOWN)
+      .withAction(TextFieldBehavior::selectAll)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TextFieldBehavior> copy = KeyBinding.<TextFieldBehavior>builder()
+      .withKey(KeyCode.C, KeyCombination.SHORTCUT_DOWN)
+      .withKey(KeyCode.INSERT, KeyCombination.SHORTCUT_DOWN)
+      .withKey(KeyCode.COPY)
+      .withAction(TextFieldBehavior::copy)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TextFieldBehavior> cut = KeyBinding.<TextFieldBehavior>builder()
+      .withKey(KeyCode.X, KeyCombination.SHORTCUT_DOWN)
+      .withKey(KeyCode.DELETE, KeyCombination.SHIFT_DOWN)
+      .withKey(KeyCode.CUT)
+      .withAction(TextFieldBehavior::cut)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TextFieldBehavior> paste = KeyBinding.<TextFieldBehavior>builder()
+      .withKey(KeyCode.V, KeyCombination.SHORTCUT_DOWN)
+      .withKey(KeyCode.INSERT, KeyCombination.SHIFT_DOWN)
+      .withKey(KeyCode.PASTE)
+      .withAction(TextFieldBehavior::paste)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TextFieldBehavior> undo = KeyBinding.<TextFieldBehavior>builder()
+      .withKey(KeyCode.Z, KeyCombination.SHORTCUT_DOWN)
+      .withAction(TextFieldBehavior::undo)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TextFieldBehavior> redo = KeyBinding.<TextFieldBehavior>builder()
+      .withKey(KeyCode.Z, KeyCombination.SHORTCUT_DOWN, KeyCombination.SHIFT_DOWN)
+      .withKey(KeyCode.Y, KeyCombination.SHORTCUT_DOWN)
+      .withAction(TextFieldBehavior::redo)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TextFieldBehavior> fireAction = KeyBinding.<TextFieldBehavior>builder()
+      .withKey(KeyCode.ENTER)
+      .withAction(TextFieldBehavior::fireAction)
+      .build();
+
+  private static final KeyBinding<TextFieldBehavior> cancelEdit = KeyBinding.<TextFieldBehavior>builder()
+      .withKey(KeyCode.ESCAPE)
+      .withAction(TextFieldBehavior::cancelEdit)
+      .build();
+
+  private static final MouseBinding<TextFieldBehavior> focusOnPress = MouseBinding.<TextFieldBehavior>builder()
+      .withAction(TextFieldBehavior::requestFocus)
+      .consuming()
+      .build();
+
+  private static final InputBindings<TextFieldBehavior> bindings = InputBindings.compiled(
+      backward,
+      forward,
+      selectBackward,
+      selectForward,
+      previousWord,
+      nextWord,
+      selectPreviousWord,
+      selectNextWord,
+      home,
+      end,
+      selectHome,
+      selectEnd,
+      deletePrevious,
+      deleteNext,
+      deletePreviousWord,
+      deleteNextWord,
+      selectAll,
+      copy,
+      cut,
+      paste,
+      undo,
+      redo,
+      fireAction,
+      cancelEdit,
+      focusOnPress
+  );
+
+  // KEY_TYPED events can't be bound with key bindings, so typed characters are handled separately
+  private final EventHandler<KeyEvent> keyTypedHandler = this::keyTyped;
+
+  // Placing the caret needs the position of the mouse, which bindings don't pass to their actions, so mouse presses
+  // and drags are handled separately too
+  private final EventHandler<MouseEvent> mouseHandler = this::mouseEvent;
+
+  public TextFieldBehavior(TextField control) {
+    super(control, bindings);
+    control.addEventHandler(KeyEvent.KEY_TYPED, keyTypedHandler);
+    control.addEventHandler(MouseEvent.MOUSE_PRESSED, mouseHandler);
+    control.addEventHandler(MouseEvent.MOUSE_DRAGGED, mouseHandler);
+  }
+
+  @Override
+  public void dispose() {
+    getControl().removeEventHandler(KeyEvent.KEY_TYPED, keyTypedHandler);
+    getControl().removeEventHandler(MouseEvent.MOUSE_PRESSED, mouseHandler);
+    getControl().removeEventHandler(MouseEvent.MOUSE_DRAGGED, mouseHandler);
+    super.dispose();
+  }
+
+  private void keyTyped(KeyEvent event) {
+    String character = event.getCharacter();
+    if (event.isConsumed() || character.isEmpty() || !getControl().isEditable()) {
+      return;
+    }
+    // Ignore shortcuts, but not AltGr characters (which are typed with both control and alt down)
+    if (event.isMetaDown() || event.isControlDown() != event.isAltDown()) {
+      return;
+    }
+    char c = character.charAt(0);
+    if (c < 0x20 || c == 0x7F) {
+      // Control characters, eg from backspace, tab, or enter
+      return;
+    }
+    getControl().replaceSelection(character);
+    event.consume();
+  }
+
+  private void mouseEvent(MouseEvent event) {
+    if (event.isConsumed() || event.getButton() != MouseButton.PRIMARY) {
+      return;
+    }
+    TextField control = getControl();
+    if (event.getEventType() == MouseEvent.MOUSE_DRAGGED) {
+      int index = indexAt(event);
+      if (index >= 0) {
+        control.selectPositionCaret(index);
+      }
+      event.consume();
+    } else if (event.getClickCount() >= 3) {
+      control.selectAll();
+    } else if (event.getClickCount() == 2) {
+      // The first click has already placed the caret in the word
+      control.previousWord();
+      control.selectEndOfNextWord();
+    } else {
+      int index = indexAt(event);
+      if (index >= 0 && event.isShiftDown()) {
+        control.selectPositionCaret(index);
+      } else if (index >= 0) {
+        control.positionCaret(index);
+      }
+    }
+    // Presses are consumed by the binding that focuses the control, which runs after this handler
+  }
+
+  /**
+   * Gets the index in the text of the character boundary closest to a mouse event. Only the skin knows where the
+   * characters are drawn, so this depends on the control having the default text field skin.
+   *
+   * @return the index, or -1 if the control does not have a text field skin
+   */
+  private int indexAt(MouseEvent event) {
+    Skin<?> skin = getControl().getSkin();
+    if (skin instanceof TextFieldSkin) {
+      return ((TextFieldSkin) skin).getIndex(event.getX(), event.getY()).getInsertionIndex();
+    }
+    return -1;
+  }
+
+  public void backward() {
+    getControl().backward();
+  }
+
+  public void forward() {
+    getControl().forward();
+  }
+
+  public void selectBackward() {
+    getControl().selectBackward();
+  }
+
+  public void selectForward() {
+    getControl().selectForward();
+  }
+
+  public void previousWord() {
+    getControl().previousWord();
+  }
+
+  public void nextWord() {
+    getControl().nextWord();
+  }
+
+  public void selectPreviousWord() {
+    getControl().selectPreviousWord();
+  }
+
+  public void selectNextWord() {
+    getControl().selectNextWord();
+  }
+
+  public void home() {
+    getControl().home();
+  }
+
+  public void end() {
+    getControl().end();
+  }
+
+  public void selectHome() {
+    getControl().selectHome();
+  }
+
+  public void selectEnd() {
+    getControl().selectEnd();
+  }
+
+  public void deletePreviousChar() {
+    TextField control = getControl();
+    if (control.isEditable()) {
+      control.deletePreviousChar();
+    }
+  }
+
+  public void deleteNextChar() {
+    TextField control = getControl();
+    if (control.isEditable()) {
+      control.deleteNextChar();
+    }
+  }
+
+  /**
+   * Deletes the selected text or, if nothing is selected, the word before the caret.
+   */
+  public void deletePreviousWord() {
+    TextField control = getControl();
+    if (control.isEditable()) {
+      if (control.getSelection().getLength() == 0) {
+        control.selectPreviousWord();
+      }
+      control.replaceSelection("");
+    }
+  }
+
+  /**
+   * Deletes the selected text or, if nothing is selected, the word after the caret.
+   */
+  public void deleteNextWord() {
+    TextField control = getControl();
+    if (control.isEditable()) {
+      if (control.getSelection().getLength() == 0) {
+        control.selectEndOfNextWord();
+      }
+      control.replaceSelection("");
+    }
+  }
+
+  public void selectAll() {
+    getControl().selectAll();
+  }
+
+  public void copy() {
+    getControl().copy();
+  }
+
+  public void cut() {
+    TextField control = getControl();
+    if (control.isEditable()) {
+      control.cut();
+    }
+  }
+
+  public void paste() {
+    TextField control = getControl();
+    if (control.isEditable()) {
+      control.paste();
+    }
+  }
+
+  public void undo() {
+    TextField control = getControl();
+    if (control.isEditable()) {
+      control.undo();
+    }
+  }
+
+  public void redo() {
+    TextField control = getControl();
+    if (control.isEditable()) {
+      control.redo();
+    }
+  }
+
+  /**
+   * Commits the value of the text field and fires an action event on it.
+   */
+  public void fireAction() {
+    TextField control = getControl();
+    control.commitValue();
+    control.fireEvent(new ActionEvent());
+  }
+
+  public void cancelEdit() {
+    getControl().cancelEdit();
+  }
+
+  public void requestFocus() {
+    getControl().requestFocus();
+  }
+
+}
@@ -0,0 +1,364 @@
+package com.github.samcarlberg.fxbehaviors.controls;
+
+import com.github.samcarlberg.fxbehaviors.BehaviorBase;
+import com.github.samcarlberg.fxbehaviors.InputBindings;
+import com.github.samcarlberg.fxbehaviors.KeyBinding;
+import com.github.samcarlberg.fxbehaviors.MouseBinding;
+
+import javafx.scene.control.FocusModel;
+import javafx.scene.control.MultipleSelectionModel;
+import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeView;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCombination;
+
+/**
+ * A behavior for tree views. The up and down arrow keys, the home and end keys, and page up and page down move the
+ * selection through the visible rows, with shift and shortcut extending the selection or moving the focus as in
+ * {@link ListViewBehavior}. The left arrow key collapses the focused item, or moves to its parent if it is already
+ * collapsed, and the right arrow key expands the focused item, or moves to its first child if it is already expanded.
+ * The numpad plus and minus keys expand and collapse the focused item, and the numpad multiply key expands it and all
+ * of its descendants.
+ */
+public class TreeViewBehavior extends BehaviorBase<TreeView<?>, TreeViewBehavior> {
+
+  private static final KeyBinding<TreeViewBehavior> selectPrevious = KeyBinding.<TreeViewBehavior>builder()
+      .withKey(KeyCode.UP)
+      .withKey(KeyCode.KP_UP)
+      .withAction(TreeViewBehavior::selectPrevious)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TreeViewBehavior> selectNext = KeyBinding.<TreeViewBehavior>builder()
+      .withKey(KeyCode.DOWN)
+      .withKey(KeyCode.KP_DOWN)
+      .withAction(TreeViewBehavior::selectNext)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TreeViewBehavior> selectFirst = KeyBinding.<TreeViewBehavior>builder()
+      .withKey(KeyCode.HOME)
+      .withAction(TreeViewBehavior::selectFirst)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TreeViewBehavior> selectLast = KeyBinding.<TreeViewBehavior>builder()
+      .withKey(KeyCode.END)
+      .withAction(TreeViewBehavior::selectLast)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TreeViewBehavior> extendToPrevious = KeyBinding.<TreeViewBehavior>builder()
+      .withKey(KeyCode.UP, KeyCombination.SHIFT_DOWN)
+      .withKey(KeyCode.KP_UP, KeyCombination.SHIFT_DOWN)
+      .withAction(TreeViewBehavior::extendToPrevious)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TreeViewBehavior> extendToNext = KeyBinding.<TreeViewBehavior>builder()
+      .withKey(KeyCode.DOWN, KeyCombination.SHIFT_DOWN)
+      .withKey(KeyCode.KP_DOWN, KeyCombination.SHIFT_DOWN)
+      .withAction(TreeViewBehavior::extendToNext)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TreeViewBehavior> extendToFirst = KeyBinding.<TreeViewBehavior>builder()
+      .withKey(KeyCode.HOME, KeyCombination.SHIFT_DOWN)
+      .withAction(TreeViewBehavior::extendToFirst)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TreeViewBehavior> extendToLast = KeyBinding.<TreeViewBehavior>builder()
+      .withKey(KeyCode.END, KeyCombination.SHIFT_DOWN)
+      .withAction(TreeViewBehavior::extendToLast)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TreeViewBehavior> selectPageUp = KeyBinding.<TreeViewBehavior>builder()
+      .withKey(KeyCode.PAGE_UP)
+      .withAction(TreeViewBehavior::selectPageUp)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TreeViewBehavior> selectPageDown = KeyBinding.<TreeViewBehavior>builder()
+      .withKey(KeyCode.PAGE_DOWN)
+      .withAction(TreeViewBehavior::selectPageDown)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TreeViewBehavior> extendPageUp = KeyBinding.<TreeViewBehavior>builder()
+      .withKey(KeyCode.PAGE_UP, KeyCombination.SHIFT_DOWN)
+      .withAction(TreeViewBehavior::extendPageUp)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TreeViewBehavior> extendPageDown = KeyBinding.<TreeViewBehavior>builder()
+      .withKey(KeyCode.PAGE_DOWN, KeyCombination.SHIFT_DOWN)
+      .withAction(TreeViewBehavior::extendPageDown)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TreeViewBehavior> focusPrevious = KeyBinding.<TreeViewBehavior>builder()
+      .withKey(KeyCode.UP, KeyCombination.SHORTCUT_DOWN)
+      .withAction(TreeViewBehavior::focusPrevious)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TreeViewBehavior> focusNext = KeyBinding.<TreeViewBehavior>builder()
+      .withKey(KeyCode.DOWN, KeyCombination.SHORTCUT_DOWN)
+      .withAction(TreeViewBehavior::focusNext)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TreeViewBehavior> collapseOrSelectParent = KeyBinding.<TreeViewBehavior>builder()
+      .withKey(KeyCode.LEFT)
+      .withKey(KeyCode.KP_LEFT)
+      .withAction(TreeViewBehavior::collapseOrSelectParent)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TreeViewBehavior> expandOrSelectChild = KeyBinding.<TreeViewBehavior>builder()
+      .withKey(KeyCode.RIGHT)
+      .withKey(KeyCode.KP_RIGHT)
+      .withAction(TreeViewBehavior::expandOrSelectChild)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TreeViewBehavior> expand = KeyBinding.<TreeViewBehavior>builder()
+      .withKey(KeyCode.ADD)
+      .withAction(TreeViewBehavior::expand)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TreeViewBehavior> collapse = KeyBinding.<TreeViewBehavior>builder()
+      .withKey(KeyCode.SUBTRACT)
+      .withAction(TreeViewBehavior::collapse)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TreeViewBehavior> expandAll = KeyBinding.<TreeViewBehavior>builder()
+      .withKey(KeyCode.MULTIPLY)
+      .withAction(TreeViewBehavior::expandAll)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TreeViewBehavior> toggleFocused = KeyBinding.<TreeViewBehavior>builder()
+      .withKey(KeyCode.SPACE)
+      .withKey(KeyCode.SPACE, KeyCombination.SHORTCUT_DOWN)
+      .withAction(TreeViewBehavior::toggleFocused)
+      .consuming()
+      .build();
+
+  private static final KeyBinding<TreeViewBehavior> selectAll = KeyBinding.<TreeViewBehavior>builder()
+      .withKey(KeyCode.A, KeyCombination.SHORTCUT_DOWN)
+      .withAction(TreeViewBehavior::selectAll)
+      .consuming()
+      .build();
+
+  private static final MouseBinding<TreeViewBehavior> focusOnPress = MouseBinding.<TreeViewBehavior>builder()
+      .withAction(TreeViewBehavior::requestFocus)
+      .consuming()
+      .build();
+
+  private static final InputBindings<TreeViewBehavior> bindings = InputBindings.compiled(
+      selectPrevious,
+      selectNext,
+      selectFirst,
+      selectLast,
+      extendToPrevious,
+      extendToNext,
+      extendToFirst,
+      extendToLast,
+      selectPageUp,
+      selectPageDown,
+      extendPageUp,
+      extendPageDown,
+      focusPrevious,
+      focusNext,
+      collapseOrSelectParent,
+      expandOrSelectChild,
+      expand,
+      collapse,
+      expandAll,
+      toggleFocused,
+      selectAll,
+      focusOnPress
+  );
+
+  private final RowNavigation rows = new RowNavigation() {
+    @Override
+    MultipleSelectionModel<?> selectionModel() {
+      return getControl().getSelectionModel();
+    }
+
+    @Override
+    FocusModel<?> focusModel() {
+      return getControl().getFocusModel();
+    }
+
+    @Override
+    int rowCount() {
+      return getControl().getExpandedItemCount();
+    }
+
+    @Override
+    void scrollTo(int row) {
+      getControl().scrollTo(row);
+    }
+
+    @Override
+    int pageSize() {
+      return rowsIn(getControl(), getControl().getFixedCellSize());
+    }
+  };
+
+  public TreeViewBehavior(TreeView<?> control) {
+    super(control, bindings);
+  }
+
+  public void selectPrevious() {
+    rows.selectPrevious();
+  }
+
+  public void selectNext() {
+    rows.selectNext();
+  }
+
+  public void selectFirst() {
+    rows.selectFirst();
+  }
+
+  public void selectLast() {
+    rows.selectLast();
+  }
+
+  public void extendToPrevious() {
+    rows.extendPrevious();
+  }
+
+  public void extendToNext() {
+    rows.extendNext();
+  }
+
+  public void extendToFirst() {
+    rows.extendFirst();
+  }
+
+  public void extendToLast() {
+    rows.extendLast();
+  }
+
+  public void selectPageUp() {
+    rows.selectPageUp();
+  }
+
+  public void selectPageDown() {
+    rows.selectPageDown();
+  }
+
+  public void extendPageUp() {
+    rows.extendPageUp();
+  }
+
+  public void extendPageDown() {
+    rows.extendPageDown();
+  }
+
+  public void focusPrevious() {
+    rows.focusPrevious();
+  }
+
+  public void focusNext() {
+    rows.focusNext();
+  }
+
+  public void toggleFocused() {
+    rows.toggleFocused();
+  }
+
+  public void selectAll() {
+    rows.selectAll();
+  }
+
+  /**
+   * Collapses the focused item. If it is already collapsed or is a leaf, its parent is selected instead.
+   */
+  public void collapseOrSelectParent() {
+    TreeItem<?> item = focusedItem();
+    if (item == null) {
+      return;
+    }
+    if (item.isExpanded() && !item.isLeaf()) {
+      item.setExpanded(false);
+    } else {
+      TreeItem<?> parent = item.getParent();
+      if (parent != null && (parent != getControl().getRoot() || getControl().isShowRoot())) {
+        rows.select(getControl().getRow(cast(parent)));
+      }
+    }
+  }
+
+  /**
+   * Expands the focused item. If it is already expanded, its first child is selected instead.
+   */
+  public void expandOrSelectChild() {
+    TreeItem<?> item = focusedItem();
+    if (item == null || item.isLeaf()) {
+      return;
+    }
+    if (item.isExpanded()) {
+      rows.selectNext();
+    } else {
+      item.setExpanded(true);
+    }
+  }
+
+  public void expand() {
+    TreeItem<?> item = focusedItem();
+    if (item != null) {
+      item.setExpanded(true);
+    }
+  }
+
+  public void collapse() {
+    TreeItem<?> item = focusedItem();
+    if (item != null) {
+      item.setExpanded(false);
+    }
+  }
+
+  /**
+   * Expands the focused item and all of its descendants.
+   */
+  public void expandAll() {
+    TreeItem<?> item = focusedItem();
+    if (item != null) {
+      expandAll(item);
+    }
+  }
+
+  private static void expandAll(TreeItem<?> item) {
+    if (item.isLeaf()) {
+      return;
+    }
+    item.setExpanded(true);
+    for (TreeItem<?> child : item.getChildren()) {
+      expandAll(child);
+    }
+  }
+
+  public void requestFocus() {
+    getControl().requestFocus();
+  }
+
+  private TreeItem<?> focusedItem() {
+    int row = rows.focusedRow();
+    return row < 0 ? null : getControl().getTreeItem(row);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> TreeItem<T> cast(TreeItem<?> item) {
+    return (TreeItem<T>) item;
+  }
+
+}
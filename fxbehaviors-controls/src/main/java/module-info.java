@@ -0,0 +1,9 @@
+module com.github.samcarlberg.fxbehaviors.controls {
+
+  requires javafx.base;
+  requires javafx.graphics;
+  requires javafx.controls;
+  requires transitive com.github.samcarlberg.fxbehaviors;
+
+  exports com.github.samcarlberg.fxbehaviors.controls;
+}
@@ -0,0 +1,69 @@
+package com.github.samcarlberg.fxbehaviors.controls;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.collections.FXCollections;
+import javafx.scene.Group;
+import javafx.scene.control.ComboBox;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+
+import static com.github.samcarlberg.fxbehaviors.controls.ListViewBehaviorTest.press;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ComboBoxBehaviorTest {
+
+  private static ComboBox<String> createComboBox() {
+    ListViewBehaviorTest.force();
+    ComboBox<String> comboBox = new ComboBox<>(FXCollections.observableArrayList("a", "b", "c"));
+    new ComboBoxBehavior(comboBox);
+    return comboBox;
+  }
+
+  @Test
+  public void testSelection() {
+    ComboBox<String> comboBox = createComboBox();
+
+    press(comboBox, KeyCode.DOWN);
+    assertEquals("a", comboBox.getValue(), "DOWN should select the first item when nothing is selected");
+
+    press(comboBox, KeyCode.END);
+    assertEquals("c", comboBox.getValue());
+
+    press(comboBox, KeyCode.UP);
+    assertEquals("b", comboBox.getValue());
+
+    press(comboBox, KeyCode.HOME);
+    assertEquals("a", comboBox.getValue());
+  }
+
+  @Test
+  public void testEditableLeavesKeysToEditor() {
+    ComboBox<String> comboBox = createComboBox();
+    comboBox.setEditable(true);
+    comboBox.getSelectionModel().select(1);
+    List<KeyCode> bubbled = new ArrayList<>();
+    new Group(comboBox).addEventHandler(KeyEvent.KEY_PRESSED, e -> bubbled.add(e.getCode()));
+
+    press(comboBox, KeyCode.DOWN);
+    press(comboBox, KeyCode.END);
+    assertEquals("b", comboBox.getValue(), "The arrow and end keys should not change the selection when editable");
+    assertEquals(List.of(KeyCode.DOWN, KeyCode.END), bubbled, "Keys that aren't handled should not be consumed");
+  }
+
+  @Test
+  public void testConsumesHandledKeys() {
+    ComboBox<String> comboBox = createComboBox();
+    List<KeyCode> bubbled = new ArrayList<>();
+    new Group(comboBox).addEventHandler(KeyEvent.KEY_PRESSED, e -> bubbled.add(e.getCode()));
+
+    press(comboBox, KeyCode.DOWN);
+    press(comboBox, KeyCode.ESCAPE);
+    assertEquals(List.of(KeyCode.ESCAPE), bubbled,
+        "Escape should reach the parent so that it can still cancel a dialog");
+  }
+
+}
@@ -0,0 +1,151 @@
+package com.github.samcarlberg.fxbehaviors.controls;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import javafx.application.Application;
+import javafx.collections.FXCollections;
+import javafx.event.EventType;
+import javafx.geometry.Orientation;
+import javafx.scene.Group;
+import javafx.scene.control.Control;
+import javafx.scene.control.ListView;
+import javafx.scene.control.SelectionMode;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCombination;
+import javafx.scene.input.KeyEvent;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+public class ListViewBehaviorTest {
+
+  /**
+   * Gets around Control's static initializer to call Platform code.
+   */
+  @BeforeAll
+  public static void force() {
+    try {
+      Field field = Application.class.getDeclaredField("userAgentStylesheet");
+      field.setAccessible(true);
+      field.set(null, "");
+    } catch (IllegalAccessException | NoSuchFieldException e) {
+      fail("Could not work around static initializer for javafx.scene.control.Control", e);
+    }
+  }
+
+  @Test
+  public void testVerticalNavigation() {
+    ListView<String> listView = new ListView<>(FXCollections.observableArrayList("a", "b", "c", "d"));
+    new ListViewBehavior(listView);
+
+    press(listView, KeyCode.DOWN);
+    assertEquals(1, listView.getSelectionModel().getSelectedIndex(), "DOWN should select the item after the focused one");
+
+    press(listView, KeyCode.END);
+    assertEquals(3, listView.getSelectionModel().getSelectedIndex());
+
+    press(listView, KeyCode.UP);
+    assertEquals(2, listView.getSelectionModel().getSelectedIndex());
+
+    press(listView, KeyCode.HOME);
+    assertEquals(0, listView.getSelectionModel().getSelectedIndex());
+
+    press(listView, KeyCode.LEFT);
+    assertEquals(0, listView.getSelectionModel().getSelectedIndex(), "LEFT should do nothing in a vertical list");
+  }
+
+  @Test
+  public void testHorizontalNavigation() {
+    ListView<String> listView = new ListView<>(FXCollections.observableArrayList("a", "b", "c"));
+    listView.setOrientation(Orientation.HORIZONTAL);
+    new ListViewBehavior(listView);
+    listView.getSelectionModel().select(1);
+
+    press(listView, KeyCode.RIGHT);
+    assertEquals(2, listView.getSelectionModel().getSelectedIndex());
+
+    press(listView, KeyCode.DOWN);
+    assertEquals(2, listView.getSelectionModel().getSelectedIndex(), "DOWN should do nothing in a horizontal list");
+  }
+
+  @Test
+  public void testExtendSelection() {
+    ListView<String> listView = new ListView<>(FXCollections.observableArrayList("a", "b", "c", "d"));
+    listView.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+    new ListViewBehavior(listView);
+
+    press(listView, KeyCode.HOME);
+    press(listView, KeyCode.DOWN);
+    press(listView, KeyCode.DOWN, KeyCombination.SHIFT_DOWN);
+    press(listView, KeyCode.DOWN, KeyCombination.SHIFT_DOWN);
+    assertEquals(List.of(1, 2, 3), List.copyOf(listView.getSelectionModel().getSelectedIndices()));
+
+    press(listView, KeyCode.HOME, KeyCombination.SHIFT_DOWN);
+    assertAll(
+        () -> assertEquals(List.of(0, 1), List.copyOf(listView.getSelectionModel().getSelectedIndices()),
+            "Selection should extend from the anchor"),
+        () -> assertEquals(0, listView.getFocusModel().getFocusedIndex())
+    );
+  }
+
+  @Test
+  public void testPageNavigation() {
+    ListView<String> listView = new ListView<>(FXCollections.observableArrayList("a", "b", "c", "d", "e", "f", "g"));
+    listView.setFixedCellSize(24);
+    listView.resize(100, 96); // room for 4 rows
+    new ListViewBehavior(listView);
+    listView.getSelectionModel().select(0);
+
+    press(listView, KeyCode.PAGE_DOWN);
+    assertEquals(3, listView.getSelectionModel().getSelectedIndex(), "PAGE_DOWN should keep the last row in view");
+
+    press(listView, KeyCode.PAGE_DOWN);
+    press(listView, KeyCode.PAGE_DOWN);
+    assertEquals(6, listView.getSelectionModel().getSelectedIndex(), "PAGE_DOWN should stop at the last row");
+
+    press(listView, KeyCode.PAGE_UP);
+    assertEquals(3, listView.getSelectionModel().getSelectedIndex());
+  }
+
+  @Test
+  public void testConsumesHandledKeys() {
+    ListView<String> listView = new ListView<>(FXCollections.observableArrayList("a", "b"));
+    new ListViewBehavior(listView);
+    List<KeyCode> bubbled = new ArrayList<>();
+    new Group(listView).addEventHandler(KeyEvent.KEY_PRESSED, e -> bubbled.add(e.getCode()));
+
+    press(listView, KeyCode.DOWN);
+    press(listView, KeyCode.PAGE_DOWN);
+    press(listView, KeyCode.TAB);
+    assertEquals(List.of(KeyCode.TAB), bubbled, "Only keys the list doesn't handle should reach its parent");
+  }
+
+  static void press(Control control, KeyCode keyCode, KeyCombination.Modifier... modifiers) {
+    control.fireEvent(createKeyEvent(KeyEvent.KEY_PRESSED, keyCode, modifiers));
+  }
+
+  static KeyEvent createKeyEvent(EventType<KeyEvent> type, KeyCode keyCode, KeyCombination.Modifier... modifiers) {
+    Collection<KeyCombination.Modifier> mods = Set.of(modifiers);
+    return new KeyEvent(
+        ListViewBehaviorTest.class,
+        null,
+        type,
+        keyCode.getChar(),
+        keyCode.getChar(),
+        keyCode,
+        mods.contains(KeyCombination.SHIFT_DOWN),
+        mods.contains(KeyCombination.CONTROL_DOWN),
+        mods.contains(KeyCombination.ALT_DOWN),
+        mods.contains(KeyCombination.META_DOWN)
+    );
+  }
+
+}
@@ -0,0 +1,73 @@
+package com.github.samcarlberg.fxbehaviors.controls;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.scene.Group;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCombination;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.layout.Region;
+
+import static com.github.samcarlberg.fxbehaviors.controls.ListViewBehaviorTest.press;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ScrollPaneBehaviorTest {
+
+  private static ScrollPane createScrollPane() {
+    ListViewBehaviorTest.force();
+    Region content = new Region();
+    content.resize(100, 1000);
+    ScrollPane scrollPane = new ScrollPane(content);
+    new ScrollPaneBehavior(scrollPane);
+    return scrollPane;
+  }
+
+  @Test
+  public void testScrolling() {
+    ScrollPane scrollPane = createScrollPane();
+
+    press(scrollPane, KeyCode.DOWN);
+    assertEquals(0.1, scrollPane.getVvalue(), 1e-9, "DOWN should scroll by a step");
+
+    press(scrollPane, KeyCode.UP);
+    press(scrollPane, KeyCode.UP);
+    assertEquals(0, scrollPane.getVvalue(), 1e-9, "UP should stop at the top");
+
+    press(scrollPane, KeyCode.RIGHT);
+    assertEquals(0.1, scrollPane.getHvalue(), 1e-9, "RIGHT should scroll horizontally");
+  }
+
+  @Test
+  public void testPaging() {
+    ScrollPane scrollPane = createScrollPane();
+
+    press(scrollPane, KeyCode.END);
+    assertEquals(1, scrollPane.getVvalue(), 1e-9);
+
+    press(scrollPane, KeyCode.PAGE_UP);
+    assertEquals(0, scrollPane.getVvalue(), 1e-9, "Without a viewport, a page should be the whole scroll range");
+
+    press(scrollPane, KeyCode.SPACE);
+    assertEquals(1, scrollPane.getVvalue(), 1e-9, "SPACE should scroll down a page");
+
+    press(scrollPane, KeyCode.SPACE, KeyCombination.SHIFT_DOWN);
+    assertEquals(0, scrollPane.getVvalue(), 1e-9, "Shift+SPACE should scroll up a page");
+  }
+
+  @Test
+  public void testConsumesHandledKeys() {
+    ScrollPane scrollPane = createScrollPane();
+    List<KeyCode> bubbled = new ArrayList<>();
+    new Group(scrollPane).addEventHandler(KeyEvent.KEY_PRESSED, e -> bubbled.add(e.getCode()));
+
+    press(scrollPane, KeyCode.DOWN);
+    press(scrollPane, KeyCode.PAGE_DOWN);
+    press(scrollPane, KeyCode.TAB);
+    assertEquals(List.of(KeyCode.TAB), bubbled, "Only keys the scroll pane doesn't handle should reach its parent");
+  }
+
+}
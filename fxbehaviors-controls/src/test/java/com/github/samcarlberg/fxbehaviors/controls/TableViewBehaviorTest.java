@@ -0,0 +1,99 @@
+package com.github.samcarlberg.fxbehaviors.controls;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import javafx.collections.FXCollections;
+import javafx.scene.control.SelectionMode;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TablePosition;
+import javafx.scene.control.TableView;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCombination;
+
+import static com.github.samcarlberg.fxbehaviors.controls.ListViewBehaviorTest.press;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class TableViewBehaviorTest {
+
+  private static TableView<String> createTable(int rows) {
+    ListViewBehaviorTest.force();
+    TableView<String> tableView = new TableView<>();
+    for (int i = 0; i < rows; i++) {
+      tableView.getItems().add("row " + i);
+    }
+    tableView.getColumns().add(new TableColumn<>("first"));
+    tableView.getColumns().add(new TableColumn<>("second"));
+    new TableViewBehavior(tableView);
+    return tableView;
+  }
+
+  @Test
+  public void testRowNavigation() {
+    TableView<String> tableView = createTable(4);
+
+    press(tableView, KeyCode.DOWN);
+    assertEquals(1, tableView.getSelectionModel().getSelectedIndex());
+
+    press(tableView, KeyCode.END);
+    assertEquals(3, tableView.getSelectionModel().getSelectedIndex());
+
+    press(tableView, KeyCode.RIGHT);
+    assertEquals(3, tableView.getSelectionModel().getSelectedIndex(), "RIGHT should do nothing without cell selection");
+
+    press(tableView, KeyCode.HOME);
+    assertEquals(0, tableView.getSelectionModel().getSelectedIndex());
+  }
+
+  @Test
+  public void testExtendSelection() {
+    TableView<String> tableView = createTable(4);
+    tableView.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+
+    press(tableView, KeyCode.DOWN);
+    press(tableView, KeyCode.END, KeyCombination.SHIFT_DOWN);
+    assertEquals(List.of(1, 2, 3), List.copyOf(tableView.getSelectionModel().getSelectedIndices()));
+  }
+
+  @Test
+  public void testCellNavigation() {
+    TableView<String> tableView = createTable(3);
+    tableView.getSelectionModel().setCellSelectionEnabled(true);
+    TableColumn<String, ?> first = tableView.getColumns().get(0);
+    TableColumn<String, ?> second = tableView.getColumns().get(1);
+    tableView.getSelectionModel().select(0, first);
+    tableView.getFocusModel().focus(0, first);
+
+    press(tableView, KeyCode.RIGHT);
+    press(tableView, KeyCode.DOWN);
+    TablePosition<String, ?> focused = tableView.getFocusModel().getFocusedCell();
+    assertAll("The arrow keys should move between cells",
+        () -> assertEquals(1, focused.getRow()),
+        () -> assertSame(second, focused.getTableColumn()),
+        () -> assertEquals(1, tableView.getSelectionModel().getSelectedCells().size())
+    );
+
+    press(tableView, KeyCode.RIGHT);
+    assertSame(second, tableView.getFocusModel().getFocusedCell().getTableColumn(),
+        "RIGHT should stop at the last column");
+  }
+
+  @Test
+  public void testPageNavigation() {
+    TableView<String> tableView = createTable(10);
+    tableView.setFixedCellSize(24);
+    tableView.resize(100, 72); // room for 3 rows
+    tableView.getSelectionModel().select(0);
+
+    press(tableView, KeyCode.PAGE_DOWN);
+    assertEquals(2, tableView.getSelectionModel().getSelectedIndex());
+
+    press(tableView, KeyCode.PAGE_UP);
+    press(tableView, KeyCode.PAGE_UP);
+    assertEquals(0, tableView.getSelectionModel().getSelectedIndex(), "PAGE_UP should stop at the first row");
+  }
+
+}
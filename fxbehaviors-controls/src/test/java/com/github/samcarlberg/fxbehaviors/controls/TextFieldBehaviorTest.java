@@ -0,0 +1,82 @@
+package com.github.samcarlberg.fxbehaviors.controls;
+
+import org.junit.jupiter.api.Test;
+
+import javafx.scene.control.TextField;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCombination;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+
+import static com.github.samcarlberg.fxbehaviors.controls.ListViewBehaviorTest.press;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TextFieldBehaviorTest {
+
+  @Test
+  public void testEditing() {
+    ListViewBehaviorTest.force();
+    TextField textField = new TextField("hello world");
+    new TextFieldBehavior(textField);
+
+    press(textField, KeyCode.END);
+    assertEquals(11, textField.getCaretPosition());
+
+    press(textField, KeyCode.BACK_SPACE, KeyCombination.CONTROL_DOWN);
+    assertEquals("hello ", textField.getText(), "Control+backspace should delete the previous word");
+
+    type(textField, "there");
+    assertEquals("hello there", textField.getText());
+
+    press(textField, KeyCode.HOME, KeyCombination.SHIFT_DOWN);
+    type(textField, "x");
+    assertEquals("x", textField.getText(), "Typing should replace the selection");
+  }
+
+  @Test
+  public void testNotEditable() {
+    ListViewBehaviorTest.force();
+    TextField textField = new TextField("hello");
+    textField.setEditable(false);
+    new TextFieldBehavior(textField);
+
+    press(textField, KeyCode.END);
+    press(textField, KeyCode.BACK_SPACE);
+    type(textField, "x");
+    assertAll(
+        () -> assertEquals("hello", textField.getText()),
+        () -> assertEquals(5, textField.getCaretPosition(), "The caret should still move")
+    );
+  }
+
+  @Test
+  public void testMouseSelection() {
+    ListViewBehaviorTest.force();
+    TextField textField = new TextField("hello world");
+    new TextFieldBehavior(textField);
+    textField.positionCaret(8);
+
+    click(textField, 2);
+    assertEquals("world", textField.getSelectedText(), "Double-clicking should select the word at the caret");
+
+    textField.positionCaret(2);
+    click(textField, 3);
+    assertEquals("hello world", textField.getSelectedText(), "Triple-clicking should select all of the text");
+  }
+
+  private static void click(TextField textField, int clickCount) {
+    MouseEvent event = new MouseEvent(MouseEvent.MOUSE_PRESSED, 0, 0, 0, 0, MouseButton.PRIMARY, clickCount,
+        false, false, false, false, true, false, false, false, false, false, null);
+    textField.fireEvent(event);
+  }
+
+  private static void type(TextField textField, String text) {
+    for (char c : text.toCharArray()) {
+      textField.fireEvent(new KeyEvent(KeyEvent.KEY_TYPED, String.valueOf(c), "", KeyCode.UNDEFINED,
+          false, false, false, false));
+    }
+  }
+
+}
@@ -0,0 +1,50 @@
+package com.github.samcarlberg.fxbehaviors.controls;
+
+import org.junit.jupiter.api.Test;
+
+import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeView;
+import javafx.scene.input.KeyCode;
+
+import static com.github.samcarlberg.fxbehaviors.controls.ListViewBehaviorTest.press;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TreeViewBehaviorTest {
+
+  @Test
+  public void testExpandAndCollapse() {
+    ListViewBehaviorTest.force();
+    TreeItem<String> root = new TreeItem<>("root");
+    TreeItem<String> parent = new TreeItem<>("parent");
+    TreeItem<String> child = new TreeItem<>("child");
+    parent.getChildren().add(child);
+    root.getChildren().addAll(parent, new TreeItem<>("sibling"));
+    root.setExpanded(true);
+    TreeView<String> treeView = new TreeView<>(root);
+    new TreeViewBehavior(treeView);
+    treeView.getSelectionModel().select(parent);
+
+    press(treeView, KeyCode.RIGHT);
+    assertAll("RIGHT should expand a collapsed item",
+        () -> assertTrue(parent.isExpanded()),
+        () -> assertSame(parent, treeView.getSelectionModel().getSelectedItem())
+    );
+
+    press(treeView, KeyCode.RIGHT);
+    assertSame(child, treeView.getSelectionModel().getSelectedItem(), "RIGHT should select the first child");
+
+    press(treeView, KeyCode.LEFT);
+    assertSame(parent, treeView.getSelectionModel().getSelectedItem(), "LEFT should select the parent of a leaf");
+
+    press(treeView, KeyCode.LEFT);
+    assertFalse(parent.isExpanded(), "LEFT should collapse an expanded item");
+
+    press(treeView, KeyCode.DOWN);
+    assertEquals(2, treeView.getSelectionModel().getSelectedIndex(), "DOWN should skip collapsed children");
+  }
+
+}
@@ -0,0 +1,246 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import java.util.Objects;
+
+import javafx.beans.value.WritableDoubleValue;
+import javafx.beans.value.WritableValue;
+
+/**
+ * Records the changes behaviors make to their controls so that they can be undone and redone. Behaviors record the
+ * properties they {@link BehaviorBase#write(WritableValue, Object) write} to once they have been given a journal with
+ * {@link BehaviorBase#setActionJournal setActionJournal()}; nothing is recorded otherwise. Several behaviors can share
+ * one journal, eg one per window.
+ *
+ * <p>A journal has a fixed capacity. Its entries are kept in a ring buffer of parallel arrays, with the values of
+ * double properties stored unboxed, so recording a change to a double property does not allocate. When the journal is
+ * full, recording a change drops the oldest entry.
+ *
+ * <p>Consecutive changes to the same property from the same source, normally the binding that made them, are merged
+ * into a single entry that keeps the value from before the first change and the value after the last one. Holding down
+ * a key or dragging the mouse only takes up one entry no matter how many events it fires, and undoing it goes back to
+ * where it started. Behaviors {@link #seal() seal} the latest entry whenever a key or mouse button is released, so the
+ * next press starts a new entry; call {@code seal()} to end an entry at any other time.
+ *
+ * <p>Undoing and redoing set properties immediately, even if the behavior that changed them batches its writes. This
+ * class is confined to the FX thread.
+ */
+public final class ActionJournal {
+
+  private final int capacity;
+  private final WritableValue<?>[] properties;
+  private final Object[] sources;
+  private final boolean[] unboxed; // true for entries whose values are in the double columns
+  private final double[] oldValues;
+  private final double[] newValues;
+  private Object[] oldObjects; // created when the first change to a value that isn't a double is recorded
+  private Object[] newObjects;
+
+  private int first = 0; // the index of the oldest entry
+  private int size = 0; // the number of entries, including the ones that can be redone
+  private int undoable = 0; // the number of entries that can be undone
+  private boolean sealed = false;
+
+  /**
+   * Creates a new journal.
+   *
+   * @param capacity the maximum number of changes to keep
+   *
+   * @throws IllegalArgumentException if the capacity is not positive
+   */
+  public ActionJournal(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive, but was " + capacity);
+    }
+    this.capacity = capacity;
+    this.properties = new WritableValue<?>[capacity];
+    this.sources = new Object[capacity];
+    this.unboxed = new boolean[capacity];
+    this.oldValues = new double[capacity];
+    this.newValues = new double[capacity];
+  }
+
+  /**
+   * Gets the maximum number of changes this journal keeps.
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Gets the number of changes that can be undone.
+   */
+  public int getUndoCount() {
+    return undoable;
+  }
+
+  /**
+   * Gets the number of changes that can be redone.
+   */
+  public int getRedoCount() {
+    return size - undoable;
+  }
+
+  /**
+   * Records a change to a double property. Changes that do not change the value are ignored.
+   *
+   * @param property the property that changed
+   * @param oldValue the value of the property before the change
+   * @param newValue the value of the property after the change
+   * @param source   what made the change, or null if the change should never be merged with others
+   */
+  public void record(WritableDoubleValue property, double oldValue, double newValue, Object source) {
+    Objects.requireNonNull(property, "Property cannot be null");
+    if (Double.compare(oldValue, newValue) == 0) {
+      return;
+    }
+    int index = mergeable(property, source, true);
+    if (index < 0) {
+      index = append(property, source, true);
+      oldValues[index] = oldValue;
+    }
+    newValues[index] = newValue;
+  }
+
+  /**
+   * Records a change to a property. Changes that do not change the value are ignored.
+   *
+   * @param property the property that changed
+   * @param oldValue the value of the property before the change
+   * @param newValue the value of the property after the change
+   * @param source   what made the change, or null if the change should never be merged with others
+   * @param <T>      the type of the property value
+   */
+  public <T> void record(WritableValue<T> property, T oldValue, T newValue, Object source) {
+    Objects.requireNonNull(property, "Property cannot be null");
+    if (Objects.equals(oldValue, newValue)) {
+      return;
+    }
+    if (oldObjects == null) {
+      oldObjects = new Object[capacity];
+      newObjects = new Object[capacity];
+    }
+    int index = mergeable(property, source, false);
+    if (index < 0) {
+      index = append(property, source, false);
+      oldObjects[index] = oldValue;
+    }
+    newObjects[index] = newValue;
+  }
+
+  /**
+   * Keeps the latest entry from merging with changes recorded after it, even if they come from the same source.
+   */
+  public void seal() {
+    sealed = true;
+  }
+
+  /**
+   * Undoes the most recent change that has not been undone yet, setting its property back to the value it had before.
+   *
+   * @return true if a change was undone, false if there was nothing to undo
+   */
+  public boolean undo() {
+    if (undoable == 0) {
+      return false;
+    }
+    undoable--;
+    sealed = true;
+    apply(index(undoable), false);
+    return true;
+  }
+
+  /**
+   * Redoes the most recently undone change.
+   *
+   * @return true if a change was redone, false if there was nothing to redo
+   */
+  public boolean redo() {
+    if (undoable == size) {
+      return false;
+    }
+    int index = index(undoable);
+    undoable++;
+    sealed = true;
+    apply(index, true);
+    return true;
+  }
+
+  /**
+   * Removes every entry from this journal.
+   */
+  public void clear() {
+    for (int i = 0; i < size; i++) {
+      release(index(i));
+    }
+    first = 0;
+    size = 0;
+    undoable = 0;
+    sealed = false;
+  }
+
+  /**
+   * Gets the index of the latest entry if a change can be merged into it.
+   *
+   * @return the index of the entry, or -1 if the change needs an entry of its own
+   */
+  private int mergeable(WritableValue<?> property, Object source, boolean unboxed) {
+    if (sealed || source == null || undoable == 0) {
+      return -1;
+    }
+    int last = index(undoable - 1);
+    return properties[last] == property && sources[last] == source && this.unboxed[last] == unboxed ? last : -1;
+  }
+
+  /**
+   * Adds an entry after the last one that can be undone, discarding the entries that could have been redone and
+   * dropping the oldest entry if the journal is full.
+   *
+   * @return the index of the new entry
+   */
+  private int append(WritableValue<?> property, Object source, boolean unboxed) {
+    for (int i = undoable; i < size; i++) {
+      release(index(i));
+    }
+    size = undoable;
+    if (size == capacity) {
+      release(first);
+      first = index(1);
+      size--;
+      undoable--;
+    }
+    int index = index(size);
+    properties[index] = property;
+    sources[index] = source;
+    this.unboxed[index] = unboxed;
+    size++;
+    undoable++;
+    sealed = false;
+    return index;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void apply(int index, boolean redo) {
+    if (unboxed[index]) {
+      ((WritableDoubleValue) properties[index]).set(redo ? newValues[index] : oldValues[index]);
+    } else {
+      ((WritableValue<Object>) properties[index]).setValue(redo ? newObjects[index] : oldObjects[index]);
+    }
+  }
+
+  /**
+   * Clears the references an entry holds, so the journal doesn't keep controls or values alive after it drops them.
+   */
+  private void release(int index) {
+    properties[index] = null;
+    sources[index] = null;
+    if (oldObjects != null) {
+      oldObjects[index] = null;
+      newObjects[index] = null;
+    }
+  }
+
+  private int index(int position) {
+    return (first + position) % capacity;
+  }
+
+}
@@ -0,0 +1,276 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+
+import javafx.event.Event;
+import javafx.event.EventType;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.MouseButton;
+
+/**
+ * Immutable input bindings that check the bindings that fire most often first. Each event fires at most one binding in
+ * the handler phase: the first candidate that matches it. Every binding counts how often it fires, and after every
+ * {@link #REORDER_INTERVAL} events that fired a binding of an event type, the candidates for that type are sorted by
+ * how often they have fired, with older counts decaying by half every time, and the new order is published for later
+ * events. Bindings with a higher {@link Binding#getPriority() priority} are always checked before bindings with a lower
+ * one, so the order only changes between bindings with the same priority. Bindings that could both match the same
+ * event, eg a binding on one key and a binding on any key, also keep their declared order, so a frequently fired
+ * general binding never hides a more specific one; only bindings on different key codes or mouse buttons trade places.
+ * Bindings in the filter phase fire the same way as {@link DefaultInputBindings}.
+ */
+final class AdaptiveInputBindings<B extends BehaviorBase<?, B>> implements InputBindings<B> {
+
+  /**
+   * The default number of fired bindings between reorders.
+   */
+  static final int REORDER_INTERVAL = 256;
+
+  /**
+   * How much of the previous score of a binding is kept when reordering.
+   */
+  private static final double DECAY = 0.5;
+
+  private static final KeyCode[] KEY_CODES = KeyCode.values();
+  private static final MouseButton[] MOUSE_BUTTONS = MouseButton.values();
+
+  private final BiPredicate<? super Event, B> filter;
+  private final BindingIndex<B> index;
+  private final int reorderInterval;
+
+  /**
+   * The candidates for every event type that has been fired so far. Replaced rather than modified, like the candidates
+   * in {@link BindingIndex}.
+   */
+  private volatile Map<EventType<?>, Candidates<B>> candidatesByEventType = new IdentityHashMap<>();
+
+  AdaptiveInputBindings(BiPredicate<? super Event, B> filter, Collection<? extends Binding<?, B>> bindings) {
+    this(filter, bindings, REORDER_INTERVAL);
+  }
+
+  AdaptiveInputBindings(BiPredicate<? super Event, B> filter,
+                        Collection<? extends Binding<?, B>> bindings,
+                        int reorderInterval) {
+    if (reorderInterval <= 0) {
+      throw new IllegalArgumentException("Reorder interval must be positive, but was " + reorderInterval);
+    }
+    this.filter = filter;
+    this.index = new BindingIndex<>(bindings);
+    this.reorderInterval = reorderInterval;
+  }
+
+  @Override
+  public void fire(Event event, B behavior) {
+    fireAndCount(event, behavior);
+  }
+
+  @Override
+  public boolean hasHeldInputs() {
+    return index.hasHeldInputs();
+  }
+
+  @Override
+  public boolean fireFilters(Event event, B behavior) {
+    return filter.test(event, behavior) && index.fireFilters(event, behavior);
+  }
+
+  /**
+   * Fires the bindings for an event the same way as {@link #fire(Event, BehaviorBase) fire()}, and counts the bindings
+   * that were checked against it: the bindings up to and including the first that matched, or all of them if none did.
+   *
+   * @return the number of bindings that were checked against the event
+   */
+  int fireAndCount(Event event, B behavior) {
+    return filter.test(event, behavior) ? candidates(event.getEventType()).fire(event, behavior) : 0;
+  }
+
+  /**
+   * Gets the candidates for events of a type, in the order they are currently checked.
+   */
+  Binding<?, B>[] order(EventType<?> eventType) {
+    return candidates(eventType).order();
+  }
+
+  private Candidates<B> candidates(EventType<?> eventType) {
+    Map<EventType<?>, Candidates<B>> resolved = candidatesByEventType;
+    Candidates<B> candidates = resolved.get(eventType);
+    if (candidates == null) {
+      candidates = new Candidates<>(index.candidates(eventType), reorderInterval);
+      Map<EventType<?>, Candidates<B>> updated = new IdentityHashMap<>(resolved);
+      updated.put(eventType, candidates);
+      candidatesByEventType = updated;
+    }
+    return candidates;
+  }
+
+  /**
+   * A binding and how often it has fired.
+   */
+  private static final class Entry<B extends BehaviorBase<?, B>> {
+    final Binding<?, B> binding;
+    final int position; // the position of the binding in the index, to break ties
+    final long[] inputs; // the key codes and mouse buttons the binding can match, or null if it can match any event
+    int[] overlaps; // the positions of the bindings before this one that could match the same events
+    final LongAdder hits = new LongAdder();
+    double score = 0; // guarded by the candidates that own this entry
+
+    Entry(Binding<?, B> binding, int position) {
+      this.binding = binding;
+      this.position = position;
+      this.inputs = inputsOf(binding);
+    }
+
+    boolean overlaps(Entry<?> other) {
+      if (inputs == null || other.inputs == null) {
+        return true;
+      }
+      for (int i = 0; i < inputs.length; i++) {
+        if ((inputs[i] & other.inputs[i]) != 0) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  /**
+   * Gets a bitset of the key codes and mouse buttons a binding can match, with key codes first and mouse buttons after
+   * them. Bindings that can't be narrowed down, such as bindings on key characters or any key, or custom binding types,
+   * have no bitset.
+   */
+  private static long[] inputsOf(Binding<?, ?> binding) {
+    long[] inputs = new long[(KEY_CODES.length + MOUSE_BUTTONS.length + 63) / 64];
+    if (binding instanceof KeyBinding) {
+      KeyBinding<?> keyBinding = (KeyBinding<?>) binding;
+      int count = 0;
+      for (KeyCode code : KEY_CODES) {
+        if (keyBinding.canMatch(code)) {
+          inputs[code.ordinal() / 64] |= 1L << code.ordinal();
+          count++;
+        }
+      }
+      return count == KEY_CODES.length ? null : inputs;
+    } else if (binding instanceof MouseBinding) {
+      MouseBinding<?> mouseBinding = (MouseBinding<?>) binding;
+      for (MouseButton button : MOUSE_BUTTONS) {
+        if (mouseBinding.canMatch(button)) {
+          int bit = KEY_CODES.length + button.ordinal();
+          inputs[bit / 64] |= 1L << bit;
+        }
+      }
+      return inputs;
+    }
+    return null;
+  }
+
+  /**
+   * The candidates for one event type.
+   */
+  private static final class Candidates<B extends BehaviorBase<?, B>> {
+
+    private static final Comparator<Entry<?>> BY_PRIORITY_AND_SCORE =
+        Comparator.<Entry<?>>comparingInt(e -> -e.binding.getPriority())
+            .thenComparingDouble(e -> -e.score)
+            .thenComparingInt(e -> e.position);
+
+    private final int reorderInterval;
+    private volatile Entry<B>[] order;
+
+    /**
+     * The number of hits until the next reorder. This is not synchronized, so that firing a binding doesn't contend on
+     * a shared counter: a lost update only delays the next reorder by a hit.
+     */
+    private int untilReorder;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Candidates(Binding<?, B>[] bindings, int reorderInterval) {
+      this.reorderInterval = reorderInterval;
+      this.untilReorder = reorderInterval;
+      Entry<B>[] entries = new Entry[bindings.length];
+      for (int i = 0; i < bindings.length; i++) {
+        entries[i] = new Entry<>(bindings[i], i);
+        int[] overlaps = new int[i];
+        int count = 0;
+        for (int j = 0; j < i; j++) {
+          if (entries[i].overlaps(entries[j])) {
+            overlaps[count++] = j;
+          }
+        }
+        entries[i].overlaps = Arrays.copyOf(overlaps, count);
+      }
+      this.order = entries;
+    }
+
+    /**
+     * Fires the first binding that matches an event.
+     *
+     * @return the number of bindings that were checked against the event
+     */
+    @SuppressWarnings("unchecked")
+    int fire(Event event, B behavior) {
+      Entry<B>[] entries = order;
+      for (int i = 0; i < entries.length; i++) {
+        Entry<B> entry = entries[i];
+        // Candidates are resolved from the event type hierarchy, so the cast is okay
+        if (((Binding<Event, B>) entry.binding).fireIfMatchesResolved(event, behavior)) {
+          entry.hits.increment();
+          if (--untilReorder <= 0) {
+            reorder();
+          }
+          return i + 1;
+        }
+      }
+      return entries.length;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private synchronized void reorder() {
+      Entry<B>[] sorted = order.clone();
+      for (Entry<B> entry : sorted) {
+        entry.score = entry.score * DECAY + entry.hits.sumThenReset();
+      }
+      Arrays.sort(sorted, BY_PRIORITY_AND_SCORE);
+
+      // Take the best entry whose overlapping predecessors have all been taken already, so overlapping bindings stay in
+      // their declared order. The unplaced entry with the lowest position can always be taken, so this always finishes
+      Entry<B>[] entries = new Entry[sorted.length];
+      boolean[] placed = new boolean[sorted.length];
+      for (int i = 0; i < entries.length; i++) {
+        for (Entry<B> entry : sorted) {
+          if (!placed[entry.position] && allPlaced(entry.overlaps, placed)) {
+            placed[entry.position] = true;
+            entries[i] = entry;
+            break;
+          }
+        }
+      }
+      order = entries;
+      untilReorder = reorderInterval;
+    }
+
+    private static boolean allPlaced(int[] positions, boolean[] placed) {
+      for (int position : positions) {
+        if (!placed[position]) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Binding<?, B>[] order() {
+      Entry<B>[] entries = order;
+      Binding<?, B>[] bindings = new Binding[entries.length];
+      for (int i = 0; i < entries.length; i++) {
+        bindings[i] = entries[i].binding;
+      }
+      return bindings;
+    }
+  }
+
+}
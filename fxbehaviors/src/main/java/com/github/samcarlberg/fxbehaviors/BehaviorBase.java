@@ -2,10 +2,24 @@ package com.github.samcarlberg.fxbehaviors;
 
 import java.util.Objects;
 
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.beans.value.WritableDoubleValue;
+import javafx.beans.value.WritableValue;
+import javafx.collections.SetChangeListener;
+import javafx.css.PseudoClass;
 import javafx.event.Event;
 import javafx.event.EventHandler;
+import javafx.event.EventTarget;
+import javafx.event.EventType;
+import javafx.scene.AccessibleAction;
+import javafx.scene.Scene;
 import javafx.scene.control.Control;
 import javafx.scene.input.InputEvent;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseEvent;
 
 /**
  * Defines interactions with a control. Skins should use behaviors to manipulate the control rather than doing so
@@ -16,10 +30,30 @@ import javafx.scene.input.InputEvent;
  */
 public class BehaviorBase<C extends Control, B extends BehaviorBase<C, B>> {
 
+  private static final PseudoClass FOCUSED = PseudoClass.getPseudoClass("focused");
+
   private C control;
-  private InputBindings<B> inputBindings;
+  private volatile InputBindings<B> inputBindings;
+  private final CommandRegistry<B> commands;
+  private long[] disabledCommands; // bitset of disabled command ids, or null if every command is enabled
+  private ReadOnlyBooleanWrapper[] commandEnabledProperties; // by command id, created on demand
+
+  private final KeyRepeatState keyRepeatState = new KeyRepeatState();
+  private boolean batchingWrites = false;
+  private ActionJournal actionJournal;
+  private Binding<?, ?> firingBinding; // the binding whose action is running, as the source of journal entries
+  private HitRegionIndex hitRegions;
+  private HitRegion hitRegion;
+  private InputStateTracker inputStateTracker; // the tracker of the control's scene, if any bindings need it
+
+  private final Listener eventHandler = new Listener(Listener.HANDLER);
+  private final Listener eventFilter = new Listener(Listener.FILTER);
+  private EventType<?> preparedType; // the type of the last event that was prepared
+  private EventTarget preparedTarget; // the target of the last event that was prepared
+  private long preparedStamp; // when the last event was prepared, if latency monitoring was enabled
 
-  private final EventHandler<Event> eventHandler = this::fireBindings;
+  private long pseudoClassMask; // the pseudo-class states of the control that are used in binding conditions
+  private int pseudoClassesRegistered = -1; // the number of pseudo-classes in conditions when the mask was computed
 
   /**
    * Creates a new behavior object.
@@ -28,11 +62,27 @@ public class BehaviorBase<C extends Control, B extends BehaviorBase<C, B>> {
    * @param bindings optional input bindings
    */
   public BehaviorBase(C control, InputBindings<B> bindings) {
+    this(control, null, bindings);
+  }
+
+  /**
+   * Creates a new behavior object with commands.
+   *
+   * @param control  the control to manipulate
+   * @param commands the commands of the behavior, shared by every behavior of the same type
+   * @param bindings optional input bindings
+   */
+  public BehaviorBase(C control, CommandRegistry<B> commands, InputBindings<B> bindings) {
     Objects.requireNonNull(control, "Control cannot be null");
     this.control = control;
+    this.commands = commands;
     this.inputBindings = bindings;
 
+    control.addEventFilter(InputEvent.ANY, eventFilter);
     control.addEventHandler(InputEvent.ANY, eventHandler);
+    control.getPseudoClassStates().addListener(eventFilter);
+    control.sceneProperty().addListener(eventFilter);
+    updateInputStateTracker();
   }
 
   /**
@@ -42,17 +92,477 @@ public class BehaviorBase<C extends Control, B extends BehaviorBase<C, B>> {
     return control;
   }
 
+  /**
+   * Gets the input bindings of this behavior.
+   *
+   * @return the input bindings, or null if this behavior has none
+   */
+  public final InputBindings<B> getInputBindings() {
+    return inputBindings;
+  }
+
+  /**
+   * Replaces the input bindings of this behavior. Events that are already being handled will finish firing on the old
+   * bindings; every later event will fire on the new bindings. To change a few bindings at a time without replacing
+   * the rest, use {@link MutableInputBindings} instead.
+   *
+   * @param bindings the new input bindings, or null to remove all bindings
+   */
+  public final void setInputBindings(InputBindings<B> bindings) {
+    this.inputBindings = bindings;
+    updateInputStateTracker();
+  }
+
+  /**
+   * Installs the input state tracker of the control's scene if any bindings only fire while inputs are held down, so
+   * the tracker sees every press from when the control is added to the scene, not just the ones after a binding first
+   * checks it.
+   */
+  private void updateInputStateTracker() {
+    InputBindings<B> bindings = inputBindings;
+    Scene scene = control.getScene();
+    if (scene != null && bindings != null && bindings.hasHeldInputs()) {
+      inputStateTracker = InputStateTracker.install(scene);
+    } else {
+      inputStateTracker = null;
+    }
+  }
+
+  /**
+   * Gets the commands of this behavior.
+   *
+   * @return the command registry, or null if this behavior has no commands
+   */
+  public final CommandRegistry<B> getCommands() {
+    return commands;
+  }
+
+  /**
+   * Checks if a command is enabled for this behavior. Commands are enabled unless they have been disabled with
+   * {@link #setCommandEnabled setCommandEnabled()}.
+   *
+   * @param command the command to check
+   */
+  public final boolean isCommandEnabled(Command<B> command) {
+    return isCommandEnabled(command.getId(), command.getRegistry());
+  }
+
+  final boolean isCommandEnabled(int id, CommandRegistry<?> registry) {
+    return disabledCommands == null
+        || registry != commands
+        || id >= disabledCommands.length * Long.SIZE
+        || (disabledCommands[id / Long.SIZE] & (1L << id)) == 0;
+  }
+
+  /**
+   * Enables or disables a command for this behavior. A disabled command does not run, whether it is triggered by a
+   * binding, a menu item, or an accessibility action, and bindings to it do not match. This must be called on the
+   * JavaFX application thread.
+   *
+   * @param command the command to enable or disable
+   * @param enabled true to enable the command, false to disable it
+   *
+   * @throws IllegalArgumentException if the command is not in this behavior's {@link #getCommands() registry}
+   */
+  public final void setCommandEnabled(Command<B> command, boolean enabled) {
+    checkCommand(command);
+    int id = command.getId();
+    if (disabledCommands == null || id >= disabledCommands.length * Long.SIZE) {
+      if (enabled) {
+        return;
+      }
+      long[] grown = new long[commands.size() / Long.SIZE + 1];
+      if (disabledCommands != null) {
+        System.arraycopy(disabledCommands, 0, grown, 0, disabledCommands.length);
+      }
+      disabledCommands = grown;
+    }
+    if (enabled) {
+      disabledCommands[id / Long.SIZE] &= ~(1L << id);
+    } else {
+      disabledCommands[id / Long.SIZE] |= 1L << id;
+    }
+    if (commandEnabledProperties != null && id < commandEnabledProperties.length
+        && commandEnabledProperties[id] != null) {
+      commandEnabledProperties[id].set(enabled);
+    }
+  }
+
+  /**
+   * Gets a property that is true while a command is enabled for this behavior, eg to disable controls that run the
+   * command. The property is created the first time it is requested.
+   *
+   * @param command the command
+   *
+   * @throws IllegalArgumentException if the command is not in this behavior's {@link #getCommands() registry}
+   */
+  public final ReadOnlyBooleanProperty commandEnabledProperty(Command<B> command) {
+    checkCommand(command);
+    int id = command.getId();
+    if (commandEnabledProperties == null || id >= commandEnabledProperties.length) {
+      ReadOnlyBooleanWrapper[] grown = new ReadOnlyBooleanWrapper[commands.size()];
+      if (commandEnabledProperties != null) {
+        System.arraycopy(commandEnabledProperties, 0, grown, 0, commandEnabledProperties.length);
+      }
+      commandEnabledProperties = grown;
+    }
+    if (commandEnabledProperties[id] == null) {
+      commandEnabledProperties[id] = new ReadOnlyBooleanWrapper(this, command.getName() + "Enabled",
+          isCommandEnabled(command));
+    }
+    return commandEnabledProperties[id].getReadOnlyProperty();
+  }
+
+  private void checkCommand(Command<B> command) {
+    Objects.requireNonNull(command, "Command cannot be null");
+    if (command.getRegistry() != commands) {
+      throw new IllegalArgumentException("Command " + command.getName() + " is not a command of this behavior");
+    }
+  }
+
+  /**
+   * Runs the command bound to an accessibility action, if there is one. {@link BehaviorSkinBase Behavior skins} call
+   * this for the accessibility actions that their controls do not handle themselves.
+   *
+   * @param action the accessibility action
+   *
+   * @return true if a command ran, false if no command is bound to the action or the command is disabled
+   */
+  public final boolean executeAccessibleAction(AccessibleAction action) {
+    return commands != null && commands.executeAccessibleAction(action, (B) this);
+  }
+
+  /**
+   * Checks if this behavior batches writes made with {@link #write(WritableValue, Object) write()}.
+   */
+  public final boolean isBatchingWrites() {
+    return batchingWrites;
+  }
+
+  /**
+   * Sets whether this behavior batches writes made with {@link #write(WritableValue, Object) write()}. When batching,
+   * writes are held until the next pulse and then applied together with the writes of every other batching behavior in
+   * the same scene, just before layout. Writing the same property several times in one pulse only applies the last
+   * value, so listeners and layout only run once. Batching is off by default.
+   *
+   * @param batchingWrites true to batch writes, false to apply them immediately
+   */
+  public final void setBatchingWrites(boolean batchingWrites) {
+    this.batchingWrites = batchingWrites;
+  }
+
+  /**
+   * Writes a value to a property of the control. If this behavior is {@link #setBatchingWrites batching writes} and the
+   * control is in a scene, the write is deferred until the next pulse; reading the property before then will return
+   * its old value, so use {@link #read(WritableValue) read()} to get the value that will be written. Otherwise, the
+   * value is written immediately.
+   *
+   * @param property the property to write to
+   * @param value    the value to write
+   * @param <T>      the type of the property value
+   */
+  protected final <T> void write(WritableValue<T> property, T value) {
+    PulseTransaction transaction = transaction();
+    if (actionJournal != null) {
+      actionJournal.record(property, read(property), value, firingBinding);
+    }
+    if (transaction == null) {
+      property.setValue(value);
+    } else {
+      transaction.write(property, value);
+    }
+  }
+
+  /**
+   * Writes a value to a double property of the control. This is the same as {@link #write(WritableValue, Object)
+   * write()}, but does not box the value unless the write is batched.
+   *
+   * @param property the property to write to
+   * @param value    the value to write
+   */
+  protected final void write(WritableDoubleValue property, double value) {
+    PulseTransaction transaction = transaction();
+    if (actionJournal != null) {
+      actionJournal.record(property, read(property), value, firingBinding);
+    }
+    if (transaction == null) {
+      property.set(value);
+    } else {
+      transaction.write(property, value);
+    }
+  }
+
+  /**
+   * Reads a property of the control as it will be once the pending writes of this behavior are applied. This is the
+   * value of the last {@link #write(WritableValue, Object) write()} to the property if it is still waiting for the next
+   * pulse, or the current value of the property otherwise. Behaviors that compute a new value from the old one, eg to
+   * step a slider, should read it with this so that several steps in one pulse add up rather than overwrite each other.
+   *
+   * @param property the property to read
+   * @param <T>      the type of the property value
+   *
+   * @return the value the property will have after the next pulse
+   */
+  protected final <T> T read(WritableValue<T> property) {
+    PulseTransaction transaction = transaction();
+    return transaction == null ? property.getValue() : transaction.valueOf(property);
+  }
+
+  /**
+   * Reads a double property of the control as it will be once the pending writes of this behavior are applied. This is
+   * the same as {@link #read(WritableValue) read()}, but does not box the value unless a write to it is pending.
+   *
+   * @param property the property to read
+   *
+   * @return the value the property will have after the next pulse
+   */
+  protected final double read(WritableDoubleValue property) {
+    PulseTransaction transaction = transaction();
+    return transaction == null ? property.get() : transaction.valueOf(property).doubleValue();
+  }
+
+  /**
+   * Gets the transaction to batch writes in.
+   *
+   * @return the transaction for the scene of the control, or null if writes should be applied immediately
+   */
+  private PulseTransaction transaction() {
+    Scene scene = batchingWrites ? control.getScene() : null;
+    return scene == null ? null : PulseTransaction.of(scene);
+  }
+
+  /**
+   * Gets the journal that records the changes made by this behavior.
+   *
+   * @return the journal, or null if changes are not recorded
+   */
+  public final ActionJournal getActionJournal() {
+    return actionJournal;
+  }
+
+  /**
+   * Sets the journal to record the changes made by this behavior, so that they can be undone. Writes made with
+   * {@link #write(WritableValue, Object) write()} are recorded, and consecutive writes to the same property by the same
+   * binding are merged into one entry until a key or mouse button is released. Behaviors have no journal by default.
+   *
+   * @param journal the journal to record changes in, or null to stop recording them
+   */
+  public final void setActionJournal(ActionJournal journal) {
+    this.actionJournal = journal;
+  }
+
+  /**
+   * Marks a binding as firing on this behavior, so the changes its action makes are recorded as coming from it.
+   *
+   * @return the binding that was firing before, to pass to {@link #endAction endAction()} when the action is done
+   */
+  final Binding<?, ?> startAction(Binding<?, ?> binding) {
+    Binding<?, ?> outer = firingBinding;
+    firingBinding = binding;
+    return outer;
+  }
+
+  final void endAction(Binding<?, ?> outer) {
+    firingBinding = outer;
+  }
+
   /**
    * Disposes this behavior. Subclasses should be sure to call {@code super.dispose()} if this method is overridden.
    */
   public void dispose() {
     control.removeEventHandler(InputEvent.ANY, eventHandler);
+    control.removeEventFilter(InputEvent.ANY, eventFilter);
+    control.getPseudoClassStates().removeListener(eventFilter);
+    control.sceneProperty().removeListener(eventFilter);
+    preparedTarget = null;
+    inputStateTracker = null;
+    if (hitRegions != null) {
+      hitRegions.dispose();
+    }
     control = null;
   }
 
+  /**
+   * Gets the index of the hit regions of the control, creating it if this behavior does not have one yet. Skins or
+   * behaviors add regions to the index so that {@link MouseBinding mouse bindings} can be scoped to parts of the
+   * control with {@link MouseBinding.MouseBindingBuilder#inRegion(HitRegion...) inRegion()}.
+   */
+  public final HitRegionIndex getHitRegions() {
+    if (hitRegions == null) {
+      hitRegions = new HitRegionIndex(control);
+    }
+    return hitRegions;
+  }
+
+  /**
+   * Gets the hit region under the mouse for the most recent input event handled by this behavior. This is resolved once
+   * per event, before any bindings fire.
+   *
+   * @return the region under the mouse, or null if the mouse is not in any region or the event was not a mouse event
+   */
+  public final HitRegion getHitRegion() {
+    return hitRegion;
+  }
+
+  /**
+   * Gets the auto-repeat state of the keys pressed on the control.
+   */
+  final KeyRepeatState getKeyRepeatState() {
+    return keyRepeatState;
+  }
+
+  /**
+   * Gets the input state tracker of the control's scene.
+   *
+   * @return the tracker, or null if the control is not in a scene or no bindings only fire while inputs are held down
+   */
+  final InputStateTracker getInputStateTracker() {
+    return inputStateTracker;
+  }
+
+  /**
+   * Gets the pseudo-class states of the control as a mask of the bits used by binding conditions. The mask is kept up
+   * to date as the states of the control change, and is only recomputed from scratch when pseudo-classes have been
+   * used in conditions for the first time since the last time it was computed.
+   */
+  final long getPseudoClassMask() {
+    int registered = PseudoClassConditions.registered();
+    if (registered != pseudoClassesRegistered) {
+      pseudoClassesRegistered = registered;
+      pseudoClassMask = PseudoClassConditions.maskOf(control.getPseudoClassStates());
+    }
+    return pseudoClassMask;
+  }
+
+  /**
+   * Gets the time this behavior first saw an event, for {@link InputLatencyMonitor latency monitoring}. JavaFX copies
+   * an event every time it passes to another node, so when the target is a node in the control's skin, the handler
+   * phase gets a different event object than the filter phase did. The copies keep the type and target of the
+   * original, so those are what identify the event that was prepared.
+   *
+   * @return the time the event was prepared, or 0 if it was not the last event prepared or was prepared while
+   *   monitoring was disabled
+   */
+  final long getEventStamp(Event event) {
+    return event.getEventType() == preparedType && event.getTarget() == preparedTarget ? preparedStamp : 0;
+  }
+
+  /**
+   * Updates the state that bindings depend on for a new event. This runs in the filter phase, so that it happens before
+   * any bindings fire in either phase.
+   */
+  private void prepare(Event event) {
+    preparedType = event.getEventType();
+    preparedTarget = event.getTarget();
+    preparedStamp = InputLatencyMonitor.isEnabled() ? System.nanoTime() : 0;
+    if (event instanceof KeyEvent) {
+      keyRepeatState.update((KeyEvent) event, System.nanoTime());
+    }
+    if (actionJournal != null && (preparedType == KeyEvent.KEY_RELEASED || preparedType == MouseEvent.MOUSE_RELEASED)) {
+      // Letting go ends the change, so the next press of the same key or button is undone separately
+      actionJournal.seal();
+    }
+    if (inputStateTracker == null) {
+      installLateInputStateTracker(event);
+    }
+    if (event instanceof MouseEvent && hitRegions != null) {
+      MouseEvent mouseEvent = (MouseEvent) event;
+      hitRegion = hitRegions.regionAt(mouseEvent.getX(), mouseEvent.getY());
+    } else {
+      hitRegion = null;
+    }
+  }
+
+  /**
+   * Installs the input state tracker of the control's scene if bindings that only fire while inputs are held down were
+   * added to {@link MutableInputBindings} after the bindings were set. The tracker's own filters were not in place when
+   * the event started, so it is given the event directly; otherwise a key pressed on the control would not be seen.
+   */
+  private void installLateInputStateTracker(Event event) {
+    InputBindings<B> bindings = inputBindings;
+    Scene scene = control.getScene();
+    if (scene != null && bindings != null && bindings.hasHeldInputs()) {
+      inputStateTracker = InputStateTracker.install(scene);
+      inputStateTracker.update(event);
+    }
+  }
+
+  /**
+   * Fires the bindings in the filter phase. There is one filter for every input event rather than one for each event
+   * type that has filter phase bindings, so bindings added to {@link MutableInputBindings} fire no matter which event
+   * types had filter phase bindings when they were set.
+   */
+  private void fireFilterBindings(Event event) {
+    prepare(event);
+    InputBindings<B> bindings = inputBindings;
+    if (!event.isConsumed() && bindings != null && bindings.fireFilters(event, (B) this)) {
+      event.consume();
+    }
+  }
+
   private void fireBindings(Event event) {
-    if (!event.isConsumed() && inputBindings != null) {
-      inputBindings.fire(event, (B) this);
+    InputBindings<B> bindings = inputBindings;
+    if (!event.isConsumed() && bindings != null) {
+      BindingDispatchEvent jfr = new BindingDispatchEvent();
+      if (!jfr.isEnabled()) {
+        bindings.fire(event, (B) this);
+        return;
+      }
+      jfr.begin();
+      int candidates = BindingDispatchEvent.fireAndCount(bindings, event, (B) this);
+      if (jfr.shouldCommit()) {
+        jfr.behaviorClass = getClass();
+        jfr.eventType = event.getEventType().getName();
+        jfr.candidates = candidates;
+        jfr.commit();
+      }
+    }
+  }
+
+  /**
+   * Receives the events, pseudo-class changes, and scene changes of the control. This is a class rather than method
+   * references and lambdas so that creating the first behavior and dispatching its first event don't link any lambdas
+   * of their own, which is a noticeable part of the time to first interaction in a short-lived JVM. The input bindings
+   * they go through avoid lambdas for the same reason; only the actions of the bindings themselves may still be
+   * lambdas or method references.
+   */
+  private final class Listener implements EventHandler<Event>, SetChangeListener<PseudoClass>, ChangeListener<Scene> {
+
+    static final int FILTER = 0;
+    static final int HANDLER = 1;
+
+    private final int phase;
+
+    Listener(int phase) {
+      this.phase = phase;
+    }
+
+    @Override
+    public void handle(Event event) {
+      if (phase == FILTER) {
+        fireFilterBindings(event);
+      } else {
+        fireBindings(event);
+      }
+    }
+
+    @Override
+    public void onChanged(Change<? extends PseudoClass> change) {
+      if (change.wasAdded()) {
+        pseudoClassMask |= PseudoClassConditions.bitOf(change.getElementAdded());
+      }
+      if (change.wasRemoved()) {
+        pseudoClassMask &= ~PseudoClassConditions.bitOf(change.getElementRemoved());
+        if (change.getElementRemoved() == FOCUSED) {
+          // Keys released after the focus moves away are delivered elsewhere
+          keyRepeatState.reset();
+        }
+      }
+    }
+
+    @Override
+    public void changed(ObservableValue<? extends Scene> property, Scene oldScene, Scene newScene) {
+      updateInputStateTracker();
     }
   }
 }
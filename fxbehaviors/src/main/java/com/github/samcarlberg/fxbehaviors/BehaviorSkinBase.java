@@ -1,5 +1,6 @@
 package com.github.samcarlberg.fxbehaviors;
 
+import javafx.scene.AccessibleAction;
 import javafx.scene.control.Control;
 import javafx.scene.control.SkinBase;
 
@@ -23,6 +24,17 @@ public class BehaviorSkinBase<C extends Control, B extends BehaviorBase<C, B>> e
     return behavior;
   }
 
+  /**
+   * Runs the behavior's command for an accessibility action, if it has one. Otherwise, the action is handled the same
+   * way as by any other skin.
+   */
+  @Override
+  public void executeAccessibleAction(AccessibleAction action, Object... parameters) {
+    if (behavior == null || !behavior.executeAccessibleAction(action)) {
+      super.executeAccessibleAction(action, parameters);
+    }
+  }
+
   @Override
   public void dispose() {
     if (behavior != null) {
@@ -1,25 +1,79 @@
 package com.github.samcarlberg.fxbehaviors;
 
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Consumer;
 
+import javafx.css.PseudoClass;
 import javafx.event.Event;
 import javafx.event.EventType;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.MouseButton;
 
+/**
+ * Binds an input event to an action on a behavior.
+ *
+ * <p>Bindings are immutable and thread-safe, so they can be created on any thread and shared by every behavior of the
+ * same type. Subclasses must preserve this.
+ *
+ * @param <E> the type of events the binding fires on
+ * @param <B> the type of the behavior on which the binding should call its action
+ */
 public abstract class Binding<E extends Event, B extends BehaviorBase<?, B>> {
 
   private final EventType<E> eventType;
   private final Consumer<B> action;
+  private final HeldInputs heldInputs;
+  private final PseudoClassConditions conditions;
+  private final Command<B> command; // the action, if it is a command
+  private final boolean filterPhase;
+  private final boolean consuming;
+  private final int priority;
 
   protected Binding(EventType<E> eventType, Consumer<B> action) {
+    this(eventType, action, HeldInputs.NONE, PseudoClassConditions.NONE, false, false, 0);
+  }
+
+  /**
+   * Creates a binding with the options that are common to every builder.
+   *
+   * @param builder the builder of the binding
+   */
+  Binding(Builder<E, B, ?> builder) {
+    this(builder.eventType,
+        builder.action,
+        HeldInputs.of(builder.heldKeys, builder.heldButtons),
+        PseudoClassConditions.of(builder.requiredPseudoClasses, builder.forbiddenPseudoClasses),
+        builder.filterPhase,
+        builder.consuming,
+        builder.priority);
+  }
+
+  @SuppressWarnings("unchecked")
+  private Binding(EventType<E> eventType,
+                  Consumer<B> action,
+                  HeldInputs heldInputs,
+                  PseudoClassConditions conditions,
+                  boolean filterPhase,
+                  boolean consuming,
+                  int priority) {
     Objects.requireNonNull(eventType, "Event type cannot be null");
     Objects.requireNonNull(action, "Action cannot be null");
     this.eventType = eventType;
     this.action = action;
+    this.command = action instanceof Command ? (Command<B>) action : null;
+    this.heldInputs = heldInputs;
+    this.conditions = conditions;
+    this.filterPhase = filterPhase;
+    this.consuming = consuming;
+    this.priority = priority;
   }
 
   /**
-   * Checks if this binding can be fired as a result of an event.
+   * Checks if this binding can be fired as a result of an event. The type of the event has already been checked against
+   * the type of this binding, so implementations do not need to check it again.
    *
    * @param event the event to check
    *
@@ -27,12 +81,143 @@ public abstract class Binding<E extends Event, B extends BehaviorBase<?, B>> {
    */
   protected abstract boolean match(E event);
 
+  /**
+   * Fires this binding if the event is of this binding's event type (or a subtype of it) and matches this binding.
+   *
+   * @param event    the event to check
+   * @param behavior the behavior on which to run the action
+   */
   public final void fireIfMatches(E event, B behavior) {
-    if (match(event)) {
+    if (appliesTo(event.getEventType())) {
+      fireIfMatchesResolved(event, behavior);
+    }
+  }
+
+  /**
+   * Fires this binding if it matches an event whose type is already known to apply to this binding.
+   *
+   * @return true if the event matched this binding, false if not
+   */
+  final boolean fireIfMatchesResolved(E event, B behavior) {
+    if (canFire(behavior) && matches(event, behavior)) {
+      fireMatched(event, behavior, null, 0);
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Checks everything about a behavior that this binding needs before it can fire, other than matching the event: that
+   * its conditions are met and its held inputs are held down.
+   */
+  final boolean canFire(B behavior) {
+    return isActive(behavior) && heldInputs.areHeld(behavior);
+  }
+
+  /**
+   * Fires this binding for an event that matched it.
+   *
+   * @param dispatcher the generated dispatcher to run the action through, or null to run it directly
+   * @param number     the number of this binding in the dispatcher
+   */
+  final void fireMatched(E event, B behavior, GeneratedDispatcher dispatcher, int number) {
+    BindingActionEvent jfr = new BindingActionEvent();
+    jfr.begin();
+    long start = InputLatencyMonitor.isEnabled() ? InputLatencyMonitor.startOf(event, behavior) : 0;
+    Binding<?, ?> outer = behavior == null ? null : behavior.startAction(this);
+    try {
+      run(event, behavior, dispatcher, number);
+    } finally {
+      if (behavior != null) {
+        behavior.endAction(outer);
+      }
+    }
+    if (consuming) {
+      event.consume();
+    }
+    if (start != 0) {
+      InputLatencyMonitor.actionCompleted(this, behavior, start);
+    }
+    if (jfr.shouldCommit()) {
+      jfr.behaviorClass = behavior == null ? null : behavior.getClass();
+      jfr.binding = toString();
+      jfr.commit();
+    }
+  }
+
+  /**
+   * Checks if the control of a behavior is in the pseudo-class states this binding requires, and if the command of this
+   * binding is enabled for the behavior. Input bindings that dispatch through a {@link BindingIndex} have already left
+   * out bindings whose pseudo-class conditions are not met, so that check only matters for bindings that are fired
+   * some other way.
+   */
+  private boolean isActive(B behavior) {
+    return (conditions == PseudoClassConditions.NONE
+        || conditions.areMet(behavior == null ? 0 : behavior.getPseudoClassMask()))
+        && (command == null || behavior == null || behavior.isCommandEnabled(command.getId(), command.getRegistry()));
+  }
+
+  /**
+   * Gets the pseudo-class states this binding requires.
+   */
+  final PseudoClassConditions getConditions() {
+    return conditions;
+  }
+
+  /**
+   * Checks if this binding only fires while some keys or mouse buttons are held down.
+   */
+  final boolean hasHeldInputs() {
+    return heldInputs != HeldInputs.NONE;
+  }
+
+  /**
+   * Checks if this binding can be fired as a result of an event on a specific behavior. Bindings that depend on the
+   * state of the behavior as well as the event override this.
+   *
+   * @param behavior the behavior the event was fired on, or null if not fired on a behavior
+   */
+  boolean matches(E event, B behavior) {
+    return match(event);
+  }
+
+  /**
+   * Runs the action of this binding for an event that matched it.
+   *
+   * @param dispatcher the generated dispatcher to run the action through, or null to run it directly
+   * @param number     the number of this binding in the dispatcher
+   */
+  void run(E event, B behavior, GeneratedDispatcher dispatcher, int number) {
+    runAction(behavior, dispatcher, number);
+  }
+
+  /**
+   * Runs the action of this binding once. A generated dispatcher calls the action from a call site of its own, which
+   * only ever sees this binding's action.
+   */
+  final void runAction(B behavior, GeneratedDispatcher dispatcher, int number) {
+    if (dispatcher == null) {
       action.accept(behavior);
+    } else {
+      dispatcher.runAction(number, behavior);
     }
   }
 
+  /**
+   * Checks if this binding fires for events of a type. This is true if the type is this binding's event type or a
+   * subtype of it.
+   *
+   * @param type the event type to check
+   */
+  final boolean appliesTo(EventType<?> type) {
+    for (EventType<?> t = type; t != null; t = t.getSuperType()) {
+      if (t == eventType) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   public final EventType<E> getEventType() {
     return eventType;
   }
@@ -41,6 +226,30 @@ public abstract class Binding<E extends Event, B extends BehaviorBase<?, B>> {
     return action;
   }
 
+  /**
+   * Checks if this binding fires in the filter (capturing) phase of event dispatch rather than the handler (bubbling)
+   * phase. Bindings in the filter phase consume the events they match.
+   */
+  public final boolean isFilterPhase() {
+    return filterPhase;
+  }
+
+  /**
+   * Checks if this binding consumes the events it matches, so they go no further through the scene graph. Bindings in
+   * the filter phase always consume the events they match.
+   */
+  public final boolean isConsuming() {
+    return consuming;
+  }
+
+  /**
+   * Gets the priority of this binding. Bindings with a higher priority are checked before bindings with a lower
+   * priority for the same event, no matter the order they were declared in. The default priority is 0.
+   */
+  public final int getPriority() {
+    return priority;
+  }
+
   @Override
   public boolean equals(Object obj) {
     if (this == obj) {
@@ -51,16 +260,22 @@ public abstract class Binding<E extends Event, B extends BehaviorBase<?, B>> {
     }
     Binding<?, ?> that = (Binding<?, ?>) obj;
     return this.eventType.equals(that.eventType)
-        && this.action.equals(that.action);
+        && this.action.equals(that.action)
+        && this.heldInputs.equals(that.heldInputs)
+        && this.conditions.equals(that.conditions)
+        && this.filterPhase == that.filterPhase
+        && this.consuming == that.consuming
+        && this.priority == that.priority;
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(eventType, action);
+    return Objects.hash(eventType, action, heldInputs, conditions, filterPhase, consuming, priority);
   }
 
   /**
-   * Abstract base class for binding builders.
+   * Abstract base class for binding builders. Builders are not thread-safe, but a builder may be used on any thread as
+   * long as it is not shared; the bindings it builds are immutable and may be freely shared.
    *
    * @param <E>  the type of events that built bindings should fire on
    * @param <BB> the type of the behavior that built bindings should call
@@ -70,6 +285,13 @@ public abstract class Binding<E extends Event, B extends BehaviorBase<?, B>> {
 
     protected EventType<E> eventType;
     protected Consumer<BB> action;
+    final Set<KeyCode> heldKeys = EnumSet.noneOf(KeyCode.class);
+    final Set<MouseButton> heldButtons = EnumSet.noneOf(MouseButton.class);
+    final Set<PseudoClass> requiredPseudoClasses = new LinkedHashSet<>();
+    final Set<PseudoClass> forbiddenPseudoClasses = new LinkedHashSet<>();
+    boolean filterPhase = false;
+    boolean consuming = false;
+    int priority = 0;
 
     /**
      * Sets the event type to fire on.
@@ -95,6 +317,118 @@ public abstract class Binding<E extends Event, B extends BehaviorBase<?, B>> {
       return this;
     }
 
+    /**
+     * Sets the command to run when the binding fires. This is the same as {@code withAction(command)}; the binding will
+     * not match while the command is {@link BehaviorBase#setCommandEnabled disabled}.
+     *
+     * @param command the command to run when the binding fires
+     *
+     * @return this builder
+     */
+    public Builder<E, BB, B> withCommand(Command<BB> command) {
+      return withAction(command);
+    }
+
+    /**
+     * Only fires the binding while keys are held down, eg to pan on a mouse drag only while the space bar is held. Held
+     * keys are tracked by the {@link InputStateTracker} of the control's scene.
+     *
+     * @param keys the keys that must be held down
+     *
+     * @return this builder
+     */
+    public Builder<E, BB, B> whileHeld(KeyCode... keys) {
+      for (KeyCode key : keys) {
+        heldKeys.add(Objects.requireNonNull(key, "Key cannot be null"));
+      }
+      return this;
+    }
+
+    /**
+     * Only fires the binding while mouse buttons are held down. Held buttons are tracked by the
+     * {@link InputStateTracker} of the control's scene.
+     *
+     * @param buttons the mouse buttons that must be held down
+     *
+     * @return this builder
+     */
+    public Builder<E, BB, B> whileHeld(MouseButton... buttons) {
+      for (MouseButton button : buttons) {
+        heldButtons.add(Objects.requireNonNull(button, "Mouse button cannot be null"));
+      }
+      return this;
+    }
+
+    /**
+     * Only fires the binding while the control is in all of the given pseudo-class states, eg {@code :focused} or a
+     * custom state set with {@link javafx.scene.Node#pseudoClassStateChanged pseudoClassStateChanged()}. Behaviors
+     * track the states of their controls as they change, so this is cheaper than checking the states in an event
+     * filter. At most 64 distinct pseudo-classes can be used in conditions across all bindings.
+     *
+     * @param pseudoClasses the pseudo-classes the control must have
+     *
+     * @return this builder
+     */
+    public Builder<E, BB, B> whenPseudoClass(PseudoClass... pseudoClasses) {
+      for (PseudoClass pseudoClass : pseudoClasses) {
+        requiredPseudoClasses.add(Objects.requireNonNull(pseudoClass, "Pseudo-class cannot be null"));
+      }
+      return this;
+    }
+
+    /**
+     * Only fires the binding while the control is in none of the given pseudo-class states, eg {@code :disabled}. See
+     * {@link #whenPseudoClass(PseudoClass...)}.
+     *
+     * @param pseudoClasses the pseudo-classes the control must not have
+     *
+     * @return this builder
+     */
+    public Builder<E, BB, B> unlessPseudoClass(PseudoClass... pseudoClasses) {
+      for (PseudoClass pseudoClass : pseudoClasses) {
+        forbiddenPseudoClasses.add(Objects.requireNonNull(pseudoClass, "Pseudo-class cannot be null"));
+      }
+      return this;
+    }
+
+    /**
+     * Fires the binding in the filter (capturing) phase of event dispatch, before the event reaches the control's
+     * children and before any handlers see it. A binding in the filter phase consumes the events it matches, so they
+     * go no further through the scene graph. Bindings fire in the handler (bubbling) phase by default.
+     *
+     * @return this builder
+     */
+    public Builder<E, BB, B> inFilterPhase() {
+      filterPhase = true;
+      return this;
+    }
+
+    /**
+     * Consumes the events the binding matches, so they go no further through the scene graph, eg to keep the arrow keys
+     * that move the selection of a list from also moving the focus to another control. Other bindings of the same
+     * behavior still see the event. Bindings in the handler phase do not consume events by default.
+     *
+     * @return this builder
+     */
+    public Builder<E, BB, B> consuming() {
+      consuming = true;
+      return this;
+    }
+
+    /**
+     * Sets the priority of the binding. Bindings with a higher priority are checked before bindings with a lower
+     * priority for the same event, including bindings for more specific event types. Bindings with the same priority
+     * are checked in the order they were declared. The default priority is 0.
+     *
+     * @param priority the priority of the binding
+     *
+     * @return this builder
+     */
+    public Builder<E, BB, B> withPriority(int priority) {
+      this.priority = priority;
+      return this;
+    }
+
     /**
      * Builds and returns the binding.
      *
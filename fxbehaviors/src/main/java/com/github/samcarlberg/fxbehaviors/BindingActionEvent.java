@@ -0,0 +1,29 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for the action of a binding running on a behavior. Disabled by default; enable it in a JFR
+ * settings file with {@code com.github.samcarlberg.fxbehaviors.BindingAction#enabled=true}. Set a threshold to only
+ * record slow actions.
+ */
+@Name("com.github.samcarlberg.fxbehaviors.BindingAction")
+@Label("Binding Action")
+@Category({"JavaFX", "FX Behaviors"})
+@Description("The action of a binding running in response to an input event")
+@Enabled(false)
+@StackTrace(false)
+final class BindingActionEvent extends jdk.jfr.Event {
+
+  @Label("Behavior Class")
+  Class<?> behaviorClass;
+
+  @Label("Binding")
+  String binding;
+
+}
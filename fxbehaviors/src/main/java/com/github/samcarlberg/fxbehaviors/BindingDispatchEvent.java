@@ -0,0 +1,64 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import javafx.event.Event;
+
+/**
+ * Flight recorder event for a behavior handling an input event, from the behavior receiving the event to the last of
+ * its bindings finishing. Disabled by default; enable it in a JFR settings file with
+ * {@code com.github.samcarlberg.fxbehaviors.BindingDispatch#enabled=true}.
+ */
+@Name("com.github.samcarlberg.fxbehaviors.BindingDispatch")
+@Label("Binding Dispatch")
+@Category({"JavaFX", "FX Behaviors"})
+@Description("A behavior handling an input event with its bindings")
+@Enabled(false)
+@StackTrace(false)
+final class BindingDispatchEvent extends jdk.jfr.Event {
+
+  @Label("Behavior Class")
+  Class<?> behaviorClass;
+
+  @Label("Event Type")
+  String eventType;
+
+  @Label("Candidate Bindings")
+  @Description("The number of bindings that were checked against the event after narrowing them down, or -1 if unknown")
+  int candidates;
+
+  /**
+   * Fires input bindings for an event, counting the bindings that were checked against it. This is the number of
+   * bindings the input bindings actually walked for the event, after narrowing them down by key code, mouse button, hit
+   * region, and pseudo-class state, rather than every binding for the event's type.
+   *
+   * @param bindings the input bindings handling the event
+   * @param event    the event
+   * @param behavior the behavior on which to fire the bindings
+   * @param <B>      the type of the behavior
+   *
+   * @return the number of bindings that were checked, or -1 if the input bindings are not implemented by this library
+   */
+  static <B extends BehaviorBase<?, B>> int fireAndCount(InputBindings<B> bindings, Event event, B behavior) {
+    if (bindings instanceof DefaultInputBindings) {
+      return ((DefaultInputBindings<B>) bindings).fireAndCount(event, behavior);
+    } else if (bindings instanceof MutableInputBindings) {
+      return ((MutableInputBindings<B>) bindings).fireAndCount(event, behavior);
+    } else if (bindings instanceof CompiledInputBindings) {
+      return ((CompiledInputBindings<B>) bindings).fireAndCount(event, behavior);
+    } else if (bindings instanceof AdaptiveInputBindings) {
+      return ((AdaptiveInputBindings<B>) bindings).fireAndCount(event, behavior);
+    } else if (bindings instanceof CombinedInputBindings) {
+      return ((CombinedInputBindings<B>) bindings).fireAndCount(event, behavior);
+    } else {
+      bindings.fire(event, behavior);
+      return -1;
+    }
+  }
+
+}
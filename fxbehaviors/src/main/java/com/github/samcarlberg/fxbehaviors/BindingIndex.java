@@ -0,0 +1,386 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import javafx.event.Event;
+import javafx.event.EventType;
+
+/**
+ * An immutable index of bindings, grouped by the event type they fire on. Bindings keep their declaration order within
+ * each group, and duplicate bindings are dropped. Instances are safe to build on any thread and to share between
+ * threads once constructed.
+ *
+ * <p>A binding fires for events of its event type and of every subtype of it, so a binding for {@code KeyEvent.ANY}
+ * will fire for both {@code KEY_PRESSED} and {@code KEY_RELEASED} events. The candidate bindings for an event type are
+ * resolved by walking up its supertypes the first time an event of that type is fired, and then remembered. Bindings
+ * for more specific event types fire before bindings for their supertypes, unless the bindings for the supertypes have
+ * a higher {@link Binding#getPriority() priority}: candidates are sorted by priority first, keeping this order between
+ * bindings with the same priority.
+ *
+ * <p>Bindings that only fire in some {@link Binding.Builder#whenPseudoClass pseudo-class states} are left out of the
+ * candidates when the behavior's control is not in those states. The candidates are narrowed down once for each
+ * combination of the states the bindings care about, the first time an event is fired in it, and then remembered.
+ *
+ * <p>Bindings in the {@link Binding#isFilterPhase() filter phase} are indexed alongside the others, but are only
+ * candidates for {@link #fireFilters(Event, BehaviorBase) fireFilters()}, not for {@link #fire(Event, BehaviorBase)
+ * fire()}.
+ *
+ * @param <B> the type of the behavior the bindings act on
+ */
+final class BindingIndex<B extends BehaviorBase<?, B>> {
+
+  private static final Binding<?, ?>[] NO_BINDINGS = new Binding<?, ?>[0];
+  private static final Comparator<Binding<?, ?>> BY_PRIORITY = new ByPriority();
+
+  private final Map<EventType<?>, Binding<?, B>[]> byEventType;
+
+  /**
+   * The candidate bindings for every event type that has been fired so far, including supertypes. Replaced rather than
+   * modified, so it can be read without locking. Two threads resolving the same event type at once is harmless, since
+   * both come up with the same candidates.
+   */
+  private volatile Map<EventType<?>, Binding<?, B>[]> candidatesByEventType = new IdentityHashMap<>();
+
+  /**
+   * The same as {@link #candidatesByEventType}, but for bindings in the filter phase.
+   */
+  private volatile Map<EventType<?>, Binding<?, B>[]> filterCandidatesByEventType = new IdentityHashMap<>();
+
+  /**
+   * The candidate bindings for every event type and pseudo-class state that has been fired so far, narrowed down from
+   * {@link #candidatesByEventType} and {@link #filterCandidatesByEventType}. Only used if any binding has conditions.
+   */
+  private volatile Map<EventType<?>, StateMaskCache<Binding<?, B>[]>> stateCandidatesByEventType =
+      new IdentityHashMap<>();
+  private volatile Map<EventType<?>, StateMaskCache<Binding<?, B>[]>> stateFilterCandidatesByEventType =
+      new IdentityHashMap<>();
+
+  private final boolean filterBindings; // true if any binding is in the filter phase
+  private final long conditionBits; // the bits of every pseudo-class used in the conditions of any binding
+  private final boolean heldInputs; // true if any binding only fires while inputs are held down
+
+  BindingIndex(Collection<? extends Binding<?, B>> bindings) {
+    Map<EventType<?>, List<Binding<?, B>>> groups = new HashMap<>();
+    for (Binding<?, B> binding : new LinkedHashSet<>(bindings)) {
+      List<Binding<?, B>> group = groups.get(binding.getEventType());
+      if (group == null) {
+        group = new ArrayList<>();
+        groups.put(binding.getEventType(), group);
+      }
+      group.add(binding);
+    }
+    Map<EventType<?>, Binding<?, B>[]> index = new HashMap<>();
+    for (Map.Entry<EventType<?>, List<Binding<?, B>>> group : groups.entrySet()) {
+      index.put(group.getKey(), group.getValue().toArray(noBindings()));
+    }
+    this.byEventType = Map.copyOf(index);
+    this.filterBindings = hasFilterBindings(this.byEventType);
+    this.conditionBits = conditionBits(this.byEventType);
+    this.heldInputs = hasHeldInputs(this.byEventType);
+  }
+
+  private BindingIndex(Map<EventType<?>, Binding<?, B>[]> byEventType) {
+    this.byEventType = Map.copyOf(byEventType);
+    this.filterBindings = hasFilterBindings(this.byEventType);
+    this.conditionBits = conditionBits(this.byEventType);
+    this.heldInputs = hasHeldInputs(this.byEventType);
+  }
+
+  private static long conditionBits(Map<EventType<?>, ? extends Binding<?, ?>[]> byEventType) {
+    long bits = 0;
+    for (Binding<?, ?>[] group : byEventType.values()) {
+      for (Binding<?, ?> binding : group) {
+        bits |= binding.getConditions().bits();
+      }
+    }
+    return bits;
+  }
+
+  private static boolean hasHeldInputs(Map<EventType<?>, ? extends Binding<?, ?>[]> byEventType) {
+    for (Binding<?, ?>[] group : byEventType.values()) {
+      for (Binding<?, ?> binding : group) {
+        if (binding.hasHeldInputs()) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static boolean hasFilterBindings(Map<EventType<?>, ? extends Binding<?, ?>[]> byEventType) {
+    for (Binding<?, ?>[] group : byEventType.values()) {
+      for (Binding<?, ?> binding : group) {
+        if (binding.isFilterPhase()) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Checks if any binding only fires while keys or mouse buttons are held down.
+   */
+  boolean hasHeldInputs() {
+    return heldInputs;
+  }
+
+  /**
+   * Creates an index with one more binding. Only the group of the binding's event type is copied; every other group is
+   * shared with this index.
+   *
+   * @param binding the binding to add
+   *
+   * @return the new index, or this index if it already contains the binding
+   */
+  BindingIndex<B> with(Binding<?, B> binding) {
+    Binding<?, B>[] group = byEventType.get(binding.getEventType());
+    if (group == null) {
+      group = noBindings();
+    } else if (indexOf(group, binding) >= 0) {
+      return this;
+    }
+    Binding<?, B>[] newGroup = Arrays.copyOf(group, group.length + 1);
+    newGroup[group.length] = binding;
+    Map<EventType<?>, Binding<?, B>[]> index = new HashMap<>(byEventType);
+    index.put(binding.getEventType(), newGroup);
+    return new BindingIndex<>(index);
+  }
+
+  /**
+   * Creates an index with one fewer binding. Only the group of the binding's event type is copied; every other group
+   * is shared with this index.
+   *
+   * @param binding the binding to remove
+   *
+   * @return the new index, or this index if it does not contain the binding
+   */
+  BindingIndex<B> without(Binding<?, B> binding) {
+    Binding<?, B>[] group = byEventType.get(binding.getEventType());
+    int position = group == null ? -1 : indexOf(group, binding);
+    if (position < 0) {
+      return this;
+    }
+    Map<EventType<?>, Binding<?, B>[]> index = new HashMap<>(byEventType);
+    if (group.length == 1) {
+      index.remove(binding.getEventType());
+    } else {
+      Binding<?, B>[] newGroup = Arrays.copyOf(group, group.length - 1);
+      System.arraycopy(group, position + 1, newGroup, position, group.length - position - 1);
+      index.put(binding.getEventType(), newGroup);
+    }
+    return new BindingIndex<>(index);
+  }
+
+  private static int indexOf(Binding<?, ?>[] group, Binding<?, ?> binding) {
+    for (int i = 0; i < group.length; i++) {
+      if (group[i].equals(binding)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <B extends BehaviorBase<?, B>> Binding<?, B>[] noBindings() {
+    return (Binding<?, B>[]) NO_BINDINGS;
+  }
+
+  /**
+   * Gets the bindings that can fire for events of a specific type in the handler phase.
+   *
+   * @param eventType the type of the event
+   *
+   * @return the candidate bindings, highest priority first, then most specific event type first
+   */
+  Binding<?, B>[] candidates(EventType<?> eventType) {
+    Map<EventType<?>, Binding<?, B>[]> resolved = candidatesByEventType;
+    Binding<?, B>[] candidates = resolved.get(eventType);
+    if (candidates == null) {
+      candidates = resolve(eventType, false);
+      Map<EventType<?>, Binding<?, B>[]> updated = new IdentityHashMap<>(resolved);
+      updated.put(eventType, candidates);
+      candidatesByEventType = updated;
+    }
+    return candidates;
+  }
+
+  /**
+   * Gets the bindings that can fire for events of a specific type in the filter phase.
+   *
+   * @param eventType the type of the event
+   *
+   * @return the candidate bindings, highest priority first, then most specific event type first
+   */
+  Binding<?, B>[] filterCandidates(EventType<?> eventType) {
+    if (!filterBindings) {
+      return noBindings();
+    }
+    Map<EventType<?>, Binding<?, B>[]> resolved = filterCandidatesByEventType;
+    Binding<?, B>[] candidates = resolved.get(eventType);
+    if (candidates == null) {
+      candidates = resolve(eventType, true);
+      Map<EventType<?>, Binding<?, B>[]> updated = new IdentityHashMap<>(resolved);
+      updated.put(eventType, candidates);
+      filterCandidatesByEventType = updated;
+    }
+    return candidates;
+  }
+
+  /**
+   * Gets the bindings that can fire for events of a specific type in the handler phase on a control in some
+   * pseudo-class states.
+   *
+   * @param eventType the type of the event
+   * @param states    the {@link BehaviorBase#getPseudoClassMask() pseudo-class states} of the control
+   *
+   * @return the candidate bindings whose conditions are met, in the same order as {@link #candidates(EventType)}
+   */
+  Binding<?, B>[] candidates(EventType<?> eventType, long states) {
+    if (conditionBits == 0) {
+      return candidates(eventType);
+    }
+    Map<EventType<?>, StateMaskCache<Binding<?, B>[]>> resolved = stateCandidatesByEventType;
+    StateMaskCache<Binding<?, B>[]> cache = resolved.get(eventType);
+    if (cache == null) {
+      cache = new ActiveCandidates<>(candidates(eventType));
+      Map<EventType<?>, StateMaskCache<Binding<?, B>[]>> updated = new IdentityHashMap<>(resolved);
+      updated.put(eventType, cache);
+      stateCandidatesByEventType = updated;
+    }
+    return cache.get(states & conditionBits);
+  }
+
+  /**
+   * Gets the bindings that can fire for events of a specific type in the filter phase on a control in some
+   * pseudo-class states.
+   *
+   * @param eventType the type of the event
+   * @param states    the {@link BehaviorBase#getPseudoClassMask() pseudo-class states} of the control
+   *
+   * @return the candidate bindings whose conditions are met, in the same order as
+   *   {@link #filterCandidates(EventType)}
+   */
+  Binding<?, B>[] filterCandidates(EventType<?> eventType, long states) {
+    if (conditionBits == 0 || !filterBindings) {
+      return filterCandidates(eventType);
+    }
+    Map<EventType<?>, StateMaskCache<Binding<?, B>[]>> resolved = stateFilterCandidatesByEventType;
+    StateMaskCache<Binding<?, B>[]> cache = resolved.get(eventType);
+    if (cache == null) {
+      cache = new ActiveCandidates<>(filterCandidates(eventType));
+      Map<EventType<?>, StateMaskCache<Binding<?, B>[]>> updated = new IdentityHashMap<>(resolved);
+      updated.put(eventType, cache);
+      stateFilterCandidatesByEventType = updated;
+    }
+    return cache.get(states & conditionBits);
+  }
+
+  /**
+   * Gets the bits of every pseudo-class used in the conditions of any binding, or 0 if no bindings have conditions.
+   */
+  long conditionBits() {
+    return conditionBits;
+  }
+
+  /**
+   * The candidates for an event type whose conditions are met, for each combination of pseudo-class states.
+   */
+  private static final class ActiveCandidates<B extends BehaviorBase<?, B>> extends StateMaskCache<Binding<?, B>[]> {
+
+    private final Binding<?, B>[] candidates;
+
+    ActiveCandidates(Binding<?, B>[] candidates) {
+      this.candidates = candidates;
+    }
+
+    @Override
+    Binding<?, B>[] compute(long states) {
+      List<Binding<?, B>> active = new ArrayList<>();
+      for (Binding<?, B> candidate : candidates) {
+        if (candidate.getConditions().areMet(states)) {
+          active.add(candidate);
+        }
+      }
+      return active.size() == candidates.length ? candidates : active.toArray(noBindings());
+    }
+  }
+
+  private Binding<?, B>[] resolve(EventType<?> eventType, boolean filterPhase) {
+    List<Binding<?, B>> candidates = new ArrayList<>();
+    for (EventType<?> type = eventType; type != null; type = type.getSuperType()) {
+      Binding<?, B>[] group = byEventType.get(type);
+      if (group != null) {
+        for (Binding<?, B> binding : group) {
+          if (binding.isFilterPhase() == filterPhase) {
+            candidates.add(binding);
+          }
+        }
+      }
+    }
+    // List.sort is stable, so bindings with the same priority keep their order
+    candidates.sort(BY_PRIORITY);
+    return candidates.toArray(noBindings());
+  }
+
+  /**
+   * Fires every indexed handler phase binding for the type of the given event that matches it.
+   *
+   * @param event    the event that was fired
+   * @param behavior the behavior on which to fire the bindings
+   *
+   * @return the number of bindings that were checked against the event
+   */
+  int fire(Event event, B behavior) {
+    Binding<?, B>[] candidates = candidates(event.getEventType(), statesOf(behavior));
+    fire(candidates, event, behavior);
+    return candidates.length;
+  }
+
+  /**
+   * Fires every indexed filter phase binding for the type of the given event that matches it.
+   *
+   * @param event    the event that was fired
+   * @param behavior the behavior on which to fire the bindings
+   *
+   * @return true if any binding matched the event, false if none did
+   */
+  boolean fireFilters(Event event, B behavior) {
+    return fire(filterCandidates(event.getEventType(), statesOf(behavior)), event, behavior);
+  }
+
+  private long statesOf(B behavior) {
+    return conditionBits == 0 || behavior == null ? 0 : behavior.getPseudoClassMask();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <B extends BehaviorBase<?, B>> boolean fire(Binding<?, B>[] candidates, Event event, B behavior) {
+    boolean matched = false;
+    for (Binding<?, B> candidate : candidates) {
+      // Candidates are resolved from the event type hierarchy, so the cast is okay
+      matched |= ((Binding<Event, B>) candidate).fireIfMatchesResolved(event, behavior);
+    }
+    return matched;
+  }
+
+  /**
+   * Sorts bindings by priority, highest first. A class rather than a lambda, like {@link StateMaskCache}, so building
+   * the first index doesn't link a lambda.
+   */
+  private static final class ByPriority implements Comparator<Binding<?, ?>> {
+
+    @Override
+    public int compare(Binding<?, ?> a, Binding<?, ?> b) {
+      return Integer.compare(b.getPriority(), a.getPriority());
+    }
+  }
+
+}
@@ -19,8 +19,41 @@ class CombinedInputBindings<B extends BehaviorBase<?, B>> implements InputBindin
 
   @Override
   public void fire(Event event, B behavior) {
+    fireAndCount(event, behavior);
+  }
+
+  @Override
+  public boolean hasHeldInputs() {
+    for (InputBindings<B> binding : bindings) {
+      if (binding.hasHeldInputs()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public boolean fireFilters(Event event, B behavior) {
+    boolean matched = false;
+    for (InputBindings<B> binding : bindings) {
+      matched |= binding.fireFilters(event, behavior);
+    }
+    return matched;
+  }
+
+  /**
+   * Fires every set of bindings for an event the same way as {@link #fire(Event, BehaviorBase) fire()}, and counts the
+   * bindings that were checked against it.
+   *
+   * @return the number of bindings that were checked against the event, or -1 if any of the combined bindings can't
+   *     count them
+   */
+  int fireAndCount(Event event, B behavior) {
+    int count = 0;
     for (InputBindings<B> binding : bindings) {
-      binding.fire(event, behavior);
+      int checked = BindingDispatchEvent.fireAndCount(binding, event, behavior);
+      count = count < 0 || checked < 0 ? -1 : count + checked;
     }
+    return count;
   }
 }
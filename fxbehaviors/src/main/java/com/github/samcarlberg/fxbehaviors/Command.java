@@ -0,0 +1,96 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import java.util.function.Consumer;
+
+import javafx.scene.control.MenuItem;
+
+/**
+ * An operation on a behavior, registered in a {@link CommandRegistry}. Commands are actions, so they can be passed to
+ * {@link Binding.Builder#withAction withAction()} like any other action (or to
+ * {@link Binding.Builder#withCommand withCommand()}); unlike other actions, a command does nothing, and its bindings do
+ * not match, while it is {@link BehaviorBase#setCommandEnabled disabled} for the behavior.
+ *
+ * <p>Commands are immutable and identified by their registry and id, so they are safe to share between threads.
+ *
+ * @param <B> the type of the behavior the command acts on
+ */
+public final class Command<B extends BehaviorBase<?, B>> implements Consumer<B> {
+
+  private final CommandRegistry<B> registry;
+  private final int id;
+  private final String name;
+
+  /**
+   * Package-private constructor - use {@link CommandRegistry#register CommandRegistry.register()} to create commands.
+   */
+  Command(CommandRegistry<B> registry, int id, String name) {
+    this.registry = registry;
+    this.id = id;
+    this.name = name;
+  }
+
+  /**
+   * Gets the registry this command belongs to.
+   */
+  public CommandRegistry<B> getRegistry() {
+    return registry;
+  }
+
+  /**
+   * Gets the id of this command. Ids are assigned in the order commands are registered, starting at 0.
+   */
+  public int getId() {
+    return id;
+  }
+
+  /**
+   * Gets the name of this command.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Runs this command on a behavior if it is enabled for the behavior.
+   *
+   * @param behavior the behavior to run the command on
+   *
+   * @return true if the command ran, false if it is disabled
+   */
+  public boolean execute(B behavior) {
+    return registry.execute(id, behavior);
+  }
+
+  /**
+   * Runs this command on a behavior if it is enabled for the behavior. This is the same as {@link #execute}, so that
+   * commands can be used as actions.
+   *
+   * @param behavior the behavior to run the command on
+   */
+  @Override
+  public void accept(B behavior) {
+    execute(behavior);
+  }
+
+  /**
+   * Creates a menu item that runs this command on a behavior. The menu item is disabled while the command is disabled
+   * for the behavior.
+   *
+   * @param text     the text of the menu item
+   * @param behavior the behavior to run the command on
+   *
+   * @return a new menu item
+   */
+  public MenuItem createMenuItem(String text, B behavior) {
+    MenuItem menuItem = new MenuItem(text);
+    menuItem.setOnAction(__ -> execute(behavior));
+    menuItem.disableProperty().bind(behavior.commandEnabledProperty(this).not());
+    return menuItem;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Command(name=%s, id=%d)", name, id);
+  }
+
+}
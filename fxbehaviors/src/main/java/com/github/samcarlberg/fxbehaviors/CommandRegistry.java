@@ -0,0 +1,199 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import javafx.scene.AccessibleAction;
+
+/**
+ * The commands of a type of behavior. Each operation a behavior supports is registered once as a {@link Command} with
+ * an integer id, and everything that triggers it - key and mouse bindings, menu items, and accessibility actions -
+ * dispatches through the registry's table of actions by that id. This gives one place to count how often each command
+ * runs and to {@link BehaviorBase#setCommandEnabled enable or disable} it, no matter how it was triggered.
+ *
+ * <pre>{@code
+ * private static final CommandRegistry<SliderBehavior> commands = new CommandRegistry<>();
+ * private static final Command<SliderBehavior> increment = commands.register("increment", SliderBehavior::increment);
+ *
+ * private static final KeyBinding<SliderBehavior> incrementOnRight = KeyBinding.<SliderBehavior>builder()
+ *     .withKey(KeyCode.RIGHT)
+ *     .withCommand(increment)
+ *     .build();
+ * }</pre>
+ *
+ * <p>Registries are meant to be shared by every behavior of the same type, and commands are meant to be registered up
+ * front, eg in static initializers. Registering is thread-safe, and so is running commands.
+ *
+ * @param <B> the type of the behavior the commands act on
+ */
+public final class CommandRegistry<B extends BehaviorBase<?, B>> {
+
+  private static final int NO_COMMAND = -1;
+
+  private final Map<String, Command<B>> byName = new HashMap<>();
+  private final List<Command<B>> commands = new ArrayList<>();
+
+  // Replaced rather than modified when a command is registered, so they can be read without locking
+  private volatile Consumer<B>[] actions = newActions(0);
+  private volatile LongAdder[] counts = new LongAdder[0];
+  private volatile int[] accessibleActions = newAccessibleActions();
+
+  /**
+   * Creates a new, empty registry.
+   */
+  public CommandRegistry() {
+    // Nothing to do
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static <B> Consumer<B>[] newActions(int size) {
+    return new Consumer[size];
+  }
+
+  private static int[] newAccessibleActions() {
+    int[] accessibleActions = new int[AccessibleAction.values().length];
+    Arrays.fill(accessibleActions, NO_COMMAND);
+    return accessibleActions;
+  }
+
+  /**
+   * Registers a new command.
+   *
+   * @param name   the name of the command, unique in this registry
+   * @param action the action the command runs
+   *
+   * @return the new command
+   *
+   * @throws IllegalArgumentException if this registry already has a command with the same name
+   */
+  public synchronized Command<B> register(String name, Consumer<B> action) {
+    Objects.requireNonNull(name, "Name cannot be null");
+    Objects.requireNonNull(action, "Action cannot be null");
+    if (byName.containsKey(name)) {
+      throw new IllegalArgumentException("A command named '" + name + "' is already registered");
+    }
+    int id = commands.size();
+    Command<B> command = new Command<>(this, id, name);
+    byName.put(name, command);
+    commands.add(command);
+
+    Consumer<B>[] newActions = Arrays.copyOf(actions, id + 1);
+    newActions[id] = action;
+    LongAdder[] newCounts = Arrays.copyOf(counts, id + 1);
+    newCounts[id] = new LongAdder();
+    counts = newCounts;
+    actions = newActions;
+    return command;
+  }
+
+  /**
+   * Runs a command when an accessibility action is requested, eg by a screen reader. The behavior's skin forwards
+   * accessibility actions to the behavior if it is a {@link BehaviorSkinBase}. Note that controls handle some actions
+   * themselves before the skin sees them.
+   *
+   * @param accessibleAction the accessibility action
+   * @param command          the command to run for it
+   *
+   * @return this registry
+   */
+  public synchronized CommandRegistry<B> bindAccessibleAction(AccessibleAction accessibleAction, Command<B> command) {
+    Objects.requireNonNull(accessibleAction, "Accessible action cannot be null");
+    checkRegistered(command);
+    int[] newAccessibleActions = accessibleActions.clone();
+    newAccessibleActions[accessibleAction.ordinal()] = command.getId();
+    accessibleActions = newAccessibleActions;
+    return this;
+  }
+
+  /**
+   * Gets a command by name.
+   *
+   * @param name the name of the command
+   *
+   * @return the command, or null if this registry has no command with that name
+   */
+  public synchronized Command<B> getCommand(String name) {
+    return byName.get(name);
+  }
+
+  /**
+   * Gets every command in this registry, in the order they were registered (ie by id).
+   */
+  public synchronized List<Command<B>> getCommands() {
+    return Collections.unmodifiableList(new ArrayList<>(commands));
+  }
+
+  /**
+   * Gets the number of times a command has run, on every behavior that uses this registry.
+   *
+   * @param command the command
+   */
+  public long getExecutionCount(Command<B> command) {
+    checkRegistered(command);
+    return counts[command.getId()].sum();
+  }
+
+  /**
+   * Gets the command that runs for an accessibility action.
+   *
+   * @return the command, or null if no command is bound to the action
+   */
+  public Command<B> getAccessibleCommand(AccessibleAction accessibleAction) {
+    int id = accessibleActions[accessibleAction.ordinal()];
+    if (id == NO_COMMAND) {
+      return null;
+    }
+    synchronized (this) {
+      return commands.get(id);
+    }
+  }
+
+  /**
+   * Gets the number of commands in this registry.
+   */
+  public int size() {
+    return actions.length;
+  }
+
+  private void checkRegistered(Command<B> command) {
+    Objects.requireNonNull(command, "Command cannot be null");
+    if (command.getRegistry() != this) {
+      throw new IllegalArgumentException("Command " + command.getName() + " is not registered with this registry");
+    }
+  }
+
+  /**
+   * Runs a command on a behavior if the command is enabled for it.
+   *
+   * @param id       the id of the command
+   * @param behavior the behavior to run the command on
+   *
+   * @return true if the command ran, false if it is disabled
+   */
+  boolean execute(int id, B behavior) {
+    if (behavior != null && !behavior.isCommandEnabled(id, this)) {
+      return false;
+    }
+    actions[id].accept(behavior);
+    counts[id].increment();
+    return true;
+  }
+
+  /**
+   * Runs the command bound to an accessibility action on a behavior.
+   *
+   * @return true if a command is bound to the action and ran, false if not
+   */
+  boolean executeAccessibleAction(AccessibleAction accessibleAction, B behavior) {
+    int id = accessibleActions[accessibleAction.ordinal()];
+    return id != NO_COMMAND && execute(id, behavior);
+  }
+
+}
@@ -0,0 +1,273 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiPredicate;
+
+import javafx.event.Event;
+import javafx.event.EventType;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+
+/**
+ * Immutable input bindings that dispatch key and mouse events through lookup tables and a generated dispatcher class.
+ * For each event type that is fired, the candidate bindings are split into one bucket per key code or mouse
+ * button, so an event only checks the bindings that can match its key or button instead of every binding for its type.
+ * Bindings that can't be narrowed down, such as bindings on key characters or custom binding types, are kept in every
+ * bucket. Mouse buckets are split up further by the {@link HitRegion hit region} the mouse is in, so bindings scoped to
+ * other regions are not checked at all. If any bindings have {@link Binding.Builder#whenPseudoClass pseudo-class
+ * conditions}, there is one table for each combination of the states they depend on that has been fired in. Other
+ * events are dispatched the same way as {@link DefaultInputBindings}.
+ *
+ * <p>The bindings are numbered, and a {@link GeneratedDispatcher} with a case for each of them is generated when the
+ * bindings are created. The buckets hold the numbers of their candidates, and key and mouse events fire them through
+ * the dispatcher, which matches each binding and runs its action from call sites that only ever see that binding. If
+ * the dispatcher can't be generated, the candidates are matched and run through the {@link Binding} itself, exactly as
+ * they would be in {@link DefaultInputBindings}. Either way, the same bindings fire in the same order.
+ */
+final class CompiledInputBindings<B extends BehaviorBase<?, B>> implements InputBindings<B> {
+
+  private static final KeyCode[] KEY_CODES = KeyCode.values();
+  private static final MouseButton[] MOUSE_BUTTONS = MouseButton.values();
+
+  private final BiPredicate<? super Event, B> filter;
+  private final BindingIndex<B> index;
+  private final Map<Binding<?, ?>, Integer> numbers = new IdentityHashMap<>(); // the number of each binding
+  private final GeneratedDispatcher dispatcher; // null if the candidates are fired through the bindings themselves
+
+  /**
+   * The lookup tables for every key and mouse event type that has been fired so far, by pseudo-class states, indexed by
+   * key code or mouse button ordinal. Replaced rather than modified, like the candidates in {@link BindingIndex}.
+   */
+  private volatile Map<EventType<?>, StateMaskCache<Bucket<B>[]>> tables = new IdentityHashMap<>();
+
+  CompiledInputBindings(BiPredicate<? super Event, B> filter, Collection<? extends Binding<?, B>> bindings) {
+    this(filter, bindings, true);
+  }
+
+  /**
+   * Creates new compiled input bindings.
+   *
+   * @param filter   the event filter
+   * @param bindings the bindings
+   * @param generate true to generate a dispatcher, false to always fire the candidates through the bindings themselves
+   */
+  CompiledInputBindings(BiPredicate<? super Event, B> filter, Collection<? extends Binding<?, B>> bindings,
+                        boolean generate) {
+    this.filter = filter;
+    this.index = new BindingIndex<>(bindings);
+    // Number the bindings the same way the index dedupes them, so the candidates it resolves all have a number
+    Binding<?, ?>[] numbered = new LinkedHashSet<>(bindings).toArray(new Binding<?, ?>[0]);
+    for (int i = 0; i < numbered.length; i++) {
+      numbers.put(numbered[i], i);
+    }
+    this.dispatcher = generate ? GeneratedDispatcher.generate(numbered) : null;
+  }
+
+  /**
+   * Checks if the candidates are fired through a generated dispatcher.
+   */
+  boolean isGenerated() {
+    return dispatcher != null;
+  }
+
+  @Override
+  public void fire(Event event, B behavior) {
+    fireAndCount(event, behavior);
+  }
+
+  /**
+   * Fires the bindings for an event the same way as {@link #fire(Event, BehaviorBase) fire()}, and counts the bindings
+   * that were checked against it.
+   *
+   * @return the number of bindings that were checked against the event
+   */
+  @SuppressWarnings("unchecked")
+  int fireAndCount(Event event, B behavior) {
+    if (!filter.test(event, behavior)) {
+      return 0;
+    }
+    long states = index.conditionBits() == 0 || behavior == null ? 0 : behavior.getPseudoClassMask();
+    Bucket<B> bucket;
+    int slot;
+    if (event instanceof KeyEvent) {
+      bucket = table(event.getEventType(), states)[((KeyEvent) event).getCode().ordinal()];
+      slot = Bucket.OUTSIDE;
+    } else if (event instanceof MouseEvent) {
+      bucket = table(event.getEventType(), states)[((MouseEvent) event).getButton().ordinal()];
+      slot = bucket.slot(behavior == null ? null : behavior.getHitRegion());
+    } else {
+      return index.fire(event, behavior);
+    }
+    if (dispatcher != null) {
+      int[] candidates = bucket.numbers[slot];
+      for (int candidate : candidates) {
+        dispatcher.fire(candidate, event, behavior);
+      }
+      return candidates.length;
+    }
+    Binding<?, B>[] candidates = bucket.candidates[slot];
+    for (Binding<?, B> candidate : candidates) {
+      // Candidates are resolved from the event type hierarchy, so the cast is okay
+      ((Binding<Event, B>) candidate).fireIfMatchesResolved(event, behavior);
+    }
+    return candidates.length;
+  }
+
+  @Override
+  public boolean hasHeldInputs() {
+    return index.hasHeldInputs();
+  }
+
+  @Override
+  public boolean fireFilters(Event event, B behavior) {
+    return filter.test(event, behavior) && index.fireFilters(event, behavior);
+  }
+
+  private Bucket<B>[] table(EventType<?> eventType, long states) {
+    Map<EventType<?>, StateMaskCache<Bucket<B>[]>> current = tables;
+    StateMaskCache<Bucket<B>[]> table = current.get(eventType);
+    if (table == null) {
+      table = new Tables(eventType);
+      Map<EventType<?>, StateMaskCache<Bucket<B>[]>> updated = new IdentityHashMap<>(current);
+      updated.put(eventType, table);
+      tables = updated;
+    }
+    return table.get(states & index.conditionBits());
+  }
+
+  private static boolean isKeyEventType(EventType<?> eventType) {
+    for (EventType<?> type = eventType; type != null; type = type.getSuperType()) {
+      if (type == KeyEvent.ANY) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private Bucket<B>[] compile(Binding<?, B>[] candidates, boolean keys) {
+    int size = keys ? KEY_CODES.length : MOUSE_BUTTONS.length;
+    Bucket<B>[] table = new Bucket[size];
+    List<Binding<?, B>> previous = null;
+    for (int i = 0; i < size; i++) {
+      List<Binding<?, B>> bucket = new ArrayList<>();
+      for (Binding<?, B> candidate : candidates) {
+        if (keys ? canMatch(candidate, KEY_CODES[i]) : canMatch(candidate, MOUSE_BUTTONS[i])) {
+          bucket.add(candidate);
+        }
+      }
+      // Most keys have the same (often empty) bucket as the key before them, so share the bucket when they do
+      if (bucket.equals(previous)) {
+        table[i] = table[i - 1];
+      } else {
+        table[i] = new Bucket<>(bucket, numbers);
+        previous = bucket;
+      }
+    }
+    return table;
+  }
+
+  /**
+   * The candidates for one key code or mouse button, split up by the hit region the mouse is in. Slot 0 holds the
+   * candidates for events that are not in any of the regions, and the slot after it each region's candidates.
+   */
+  private static final class Bucket<B extends BehaviorBase<?, B>> {
+
+    static final int OUTSIDE = 0;
+
+    private static final HitRegion[] NO_REGIONS = new HitRegion[0];
+
+    private final HitRegion[] regions; // every region that a candidate is scoped to
+    final Binding<?, B>[][] candidates; // the candidates in each slot
+    final int[][] numbers; // the numbers of the candidates in each slot
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Bucket(List<Binding<?, B>> candidates, Map<Binding<?, ?>, Integer> numbers) {
+      Set<HitRegion> scopes = new LinkedHashSet<>();
+      for (Binding<?, B> candidate : candidates) {
+        if (candidate instanceof MouseBinding) {
+          scopes.addAll(List.of(((MouseBinding<?>) candidate).regions()));
+        }
+      }
+      this.regions = scopes.isEmpty() ? NO_REGIONS : scopes.toArray(new HitRegion[0]);
+      this.candidates = new Binding[regions.length + 1][];
+      this.numbers = new int[regions.length + 1][];
+      for (int slot = 0; slot <= regions.length; slot++) {
+        Binding<?, B>[] selected = select(candidates, slot == OUTSIDE ? null : regions[slot - 1]);
+        this.candidates[slot] = selected;
+        this.numbers[slot] = new int[selected.length];
+        for (int i = 0; i < selected.length; i++) {
+          this.numbers[slot][i] = numbers.get(selected[i]);
+        }
+      }
+    }
+
+    /**
+     * Gets the slot for events in a hit region.
+     *
+     * @param region the region the mouse is in, or null if it is not in any region
+     */
+    int slot(HitRegion region) {
+      if (region != null) {
+        for (int i = 0; i < regions.length; i++) {
+          if (regions[i] == region) {
+            return i + 1;
+          }
+        }
+      }
+      return OUTSIDE;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <B extends BehaviorBase<?, B>> Binding<?, B>[] select(List<Binding<?, B>> candidates,
+                                                                         HitRegion region) {
+      List<Binding<?, B>> selected = new ArrayList<>();
+      for (Binding<?, B> candidate : candidates) {
+        if (canMatch(candidate, region)) {
+          selected.add(candidate);
+        }
+      }
+      return selected.toArray(new Binding[0]);
+    }
+  }
+
+  /**
+   * The lookup tables for an event type, for each combination of pseudo-class states.
+   */
+  private final class Tables extends StateMaskCache<Bucket<B>[]> {
+
+    private final EventType<?> eventType;
+    private final boolean keys;
+
+    Tables(EventType<?> eventType) {
+      this.eventType = eventType;
+      this.keys = isKeyEventType(eventType);
+    }
+
+    @Override
+    Bucket<B>[] compute(long states) {
+      return compile(index.candidates(eventType, states), keys);
+    }
+  }
+
+  private static boolean canMatch(Binding<?, ?> binding, KeyCode code) {
+    return !(binding instanceof KeyBinding) || ((KeyBinding<?>) binding).canMatch(code);
+  }
+
+  private static boolean canMatch(Binding<?, ?> binding, MouseButton button) {
+    return !(binding instanceof MouseBinding) || ((MouseBinding<?>) binding).canMatch(button);
+  }
+
+  private static boolean canMatch(Binding<?, ?> binding, HitRegion region) {
+    return !(binding instanceof MouseBinding) || ((MouseBinding<?>) binding).canMatch(region);
+  }
+
+}
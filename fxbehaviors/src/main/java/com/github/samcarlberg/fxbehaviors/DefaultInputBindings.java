@@ -1,31 +1,50 @@
 package com.github.samcarlberg.fxbehaviors;
 
 import java.util.Collection;
-import java.util.Set;
 import java.util.function.BiPredicate;
 
 import javafx.event.Event;
 
+/**
+ * Immutable input bindings. All bindings are indexed by event type when the instance is created, so creating one is the
+ * expensive part and may be done on any thread; the finished instance can then be handed to the FX thread.
+ */
 final class DefaultInputBindings<B extends BehaviorBase<?, B>> implements InputBindings<B> {
 
   private final BiPredicate<? super Event, B> filter;
-  private final Set<? extends Binding<?, B>> bindings;
+  private final BindingIndex<B> index;
 
   DefaultInputBindings(Collection<? extends Binding<?, B>> bindings) {
-    this((e, b) -> true, bindings);
+    this(NoFilter.get(), bindings);
   }
 
   DefaultInputBindings(BiPredicate<? super Event, B> filter, Collection<? extends Binding<?, B>> bindings) {
     this.filter = filter;
-    this.bindings = Set.copyOf(bindings);
+    this.index = new BindingIndex<>(bindings);
   }
 
   @Override
   public void fire(Event event, B behavior) {
-    if (filter.test(event, behavior)) {
-      bindings.stream()
-          .filter(b -> b.getEventType().equals(event.getEventType()))
-          .forEach(b -> ((Binding<Event, B>) b).fireIfMatches(event, behavior)); // Guaranteed to match, so cast is okay
-    }
+    fireAndCount(event, behavior);
+  }
+
+  @Override
+  public boolean hasHeldInputs() {
+    return index.hasHeldInputs();
+  }
+
+  @Override
+  public boolean fireFilters(Event event, B behavior) {
+    return filter.test(event, behavior) && index.fireFilters(event, behavior);
+  }
+
+  /**
+   * Fires the bindings for an event the same way as {@link #fire(Event, BehaviorBase) fire()}, and counts the bindings
+   * that were checked against it.
+   *
+   * @return the number of bindings that were checked against the event
+   */
+  int fireAndCount(Event event, B behavior) {
+    return filter.test(event, behavior) ? index.fire(event, behavior) : 0;
   }
 }
@@ -0,0 +1,433 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes the class file of a {@link GeneratedDispatcher}. The generated class is equivalent to:
+ *
+ * <pre>{@code
+ * final class GeneratedDispatcher$1 extends GeneratedDispatcher {
+ *   private final KeyBinding b0;
+ *   private final Consumer a0;
+ *   // ... a field for each binding, typed as its class if it is a KeyBinding or a MouseBinding, and for its action
+ *
+ *   GeneratedDispatcher$1(Binding[] bindings) {
+ *     b0 = (KeyBinding) bindings[0];
+ *     a0 = bindings[0].getAction();
+ *     // ...
+ *   }
+ *
+ *   boolean fire(int binding, Event event, BehaviorBase behavior) {
+ *     switch (binding) {
+ *       case 0:
+ *         if (!b0.canFire(behavior) || !b0.matches(event, behavior)) {
+ *           return false;
+ *         }
+ *         b0.fireMatched(event, behavior, this, 0);
+ *         return true;
+ *       // ...
+ *       default:
+ *         return false;
+ *     }
+ *   }
+ *
+ *   void runAction(int binding, BehaviorBase behavior) {
+ *     switch (binding) {
+ *       case 0:
+ *         a0.accept(behavior);
+ *         return;
+ *       // ...
+ *       default:
+ *         return;
+ *     }
+ *   }
+ * }
+ * }</pre>
+ *
+ * <p>Key and mouse bindings are final classes, so the calls on them are bound statically. Only the minimal subset of
+ * the class file format needed for this is supported.
+ */
+final class DispatcherClassWriter {
+
+  private static final int VERSION = 55; // Java 11
+
+  private static final int ACC_PRIVATE = 0x0002;
+  private static final int ACC_FINAL = 0x0010;
+  private static final int ACC_SUPER = 0x0020;
+  private static final int ACC_SYNTHETIC = 0x1000;
+
+  private static final int CONSTANT_UTF8 = 1;
+  private static final int CONSTANT_CLASS = 7;
+  private static final int CONSTANT_FIELDREF = 9;
+  private static final int CONSTANT_METHODREF = 10;
+  private static final int CONSTANT_INTERFACE_METHODREF = 11;
+  private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+  private static final int ICONST_0 = 0x03;
+  private static final int ICONST_1 = 0x04;
+  private static final int BIPUSH = 0x10;
+  private static final int SIPUSH = 0x11;
+  private static final int ILOAD_1 = 0x1b;
+  private static final int ALOAD_0 = 0x2a;
+  private static final int ALOAD_1 = 0x2b;
+  private static final int ALOAD_2 = 0x2c;
+  private static final int ALOAD_3 = 0x2d;
+  private static final int AALOAD = 0x32;
+  private static final int IFEQ = 0x99;
+  private static final int TABLESWITCH = 0xaa;
+  private static final int IRETURN = 0xac;
+  private static final int RETURN = 0xb1;
+  private static final int GETFIELD = 0xb4;
+  private static final int PUTFIELD = 0xb5;
+  private static final int INVOKEVIRTUAL = 0xb6;
+  private static final int INVOKESPECIAL = 0xb7;
+  private static final int INVOKEINTERFACE = 0xb9;
+  private static final int CHECKCAST = 0xc0;
+
+  private static final int SAME_FRAME_EXTENDED = 251;
+
+  private static final String BASE = internalName(GeneratedDispatcher.class);
+  private static final String BINDING = internalName(Binding.class);
+  private static final String BEHAVIOR = "L" + internalName(BehaviorBase.class) + ";";
+  private static final String EVENT = "Ljavafx/event/Event;";
+  private static final String CONSUMER = "java/util/function/Consumer";
+
+  private final String name;
+  private final String[] bindingTypes; // the internal name of the class of the field for each binding
+
+  private final ByteVector constants = new ByteVector();
+  private final Map<String, Integer> constantIndices = new HashMap<>();
+  private int constantCount = 1; // the constant pool is indexed from 1
+
+  /**
+   * Creates a writer for a dispatcher class.
+   *
+   * @param name     the binary name of the class, which must be in this package
+   * @param bindings the bindings the class dispatches to
+   */
+  DispatcherClassWriter(String name, Binding<?, ?>[] bindings) {
+    this.name = name.replace('.', '/');
+    this.bindingTypes = new String[bindings.length];
+    for (int i = 0; i < bindings.length; i++) {
+      Class<?> type = bindings[i].getClass();
+      bindingTypes[i] = type == KeyBinding.class || type == MouseBinding.class ? internalName(type) : BINDING;
+    }
+  }
+
+  private static String internalName(Class<?> type) {
+    return type.getName().replace('.', '/');
+  }
+
+  /**
+   * Writes the class file.
+   */
+  byte[] toByteArray() {
+    int thisClass = classConstant(name);
+    int superClass = classConstant(BASE);
+
+    ByteVector fields = new ByteVector();
+    for (int i = 0; i < bindingTypes.length; i++) {
+      fields.u2(ACC_PRIVATE | ACC_FINAL).u2(utf8("b" + i)).u2(utf8("L" + bindingTypes[i] + ";")).u2(0);
+      fields.u2(ACC_PRIVATE | ACC_FINAL).u2(utf8("a" + i)).u2(utf8("L" + CONSUMER + ";")).u2(0);
+    }
+
+    ByteVector methods = new ByteVector();
+    writeConstructor(methods);
+    writeFire(methods);
+    writeRunAction(methods);
+
+    ByteVector file = new ByteVector();
+    file.u4(0xCAFEBABE).u2(0).u2(VERSION);
+    file.u2(constantCount).bytes(constants);
+    file.u2(ACC_FINAL | ACC_SUPER | ACC_SYNTHETIC).u2(thisClass).u2(superClass);
+    file.u2(0); // interfaces
+    file.u2(bindingTypes.length * 2).bytes(fields);
+    file.u2(3).bytes(methods);
+    file.u2(0); // attributes
+    return file.toByteArray();
+  }
+
+  private void writeConstructor(ByteVector methods) {
+    ByteVector code = new ByteVector();
+    code.u1(ALOAD_0).u1(INVOKESPECIAL).u2(methodConstant(BASE, "<init>", "()V"));
+    for (int i = 0; i < bindingTypes.length; i++) {
+      code.u1(ALOAD_0).u1(ALOAD_1);
+      pushInt(code, i);
+      code.u1(AALOAD);
+      if (!BINDING.equals(bindingTypes[i])) {
+        code.u1(CHECKCAST).u2(classConstant(bindingTypes[i]));
+      }
+      code.u1(PUTFIELD).u2(fieldConstant("b" + i, "L" + bindingTypes[i] + ";"));
+
+      code.u1(ALOAD_0).u1(ALOAD_1);
+      pushInt(code, i);
+      code.u1(AALOAD);
+      code.u1(INVOKEVIRTUAL).u2(methodConstant(BINDING, "getAction", "()L" + CONSUMER + ";"));
+      code.u1(PUTFIELD).u2(fieldConstant("a" + i, "L" + CONSUMER + ";"));
+    }
+    code.u1(RETURN);
+    writeMethod(methods, "<init>", "([L" + BINDING + ";)V", 3, 2, code, new int[0]);
+  }
+
+  private void writeFire(ByteVector methods) {
+    ByteVector code = new ByteVector();
+    code.u1(ILOAD_1);
+    int[] cases = new int[bindingTypes.length];
+    int table = writeTableSwitch(code);
+    int[] jumps = new int[bindingTypes.length * 2]; // the positions of the ifeq instructions to the false case
+    for (int i = 0; i < bindingTypes.length; i++) {
+      String type = bindingTypes[i];
+      String field = "L" + type + ";";
+      cases[i] = code.size();
+
+      code.u1(ALOAD_0).u1(GETFIELD).u2(fieldConstant("b" + i, field));
+      code.u1(ALOAD_3);
+      code.u1(INVOKEVIRTUAL).u2(methodConstant(type, "canFire", "(" + BEHAVIOR + ")Z"));
+      jumps[i * 2] = code.size();
+      code.u1(IFEQ).u2(0);
+
+      code.u1(ALOAD_0).u1(GETFIELD).u2(fieldConstant("b" + i, field));
+      code.u1(ALOAD_2).u1(ALOAD_3);
+      code.u1(INVOKEVIRTUAL).u2(methodConstant(type, "matches", "(" + EVENT + BEHAVIOR + ")Z"));
+      jumps[i * 2 + 1] = code.size();
+      code.u1(IFEQ).u2(0);
+
+      code.u1(ALOAD_0).u1(GETFIELD).u2(fieldConstant("b" + i, field));
+      code.u1(ALOAD_2).u1(ALOAD_3).u1(ALOAD_0);
+      pushInt(code, i);
+      code.u1(INVOKEVIRTUAL).u2(methodConstant(type, "fireMatched", "(" + EVENT + BEHAVIOR + "L" + BASE + ";I)V"));
+      code.u1(ICONST_1).u1(IRETURN);
+    }
+    int notFired = code.size();
+    code.u1(ICONST_0).u1(IRETURN);
+
+    for (int jump : jumps) {
+      code.putU2(jump + 1, notFired - jump);
+    }
+    patchTableSwitch(code, table, cases, notFired);
+    writeMethod(methods, "fire", "(I" + EVENT + BEHAVIOR + ")Z", 5, 4, code, frames(cases, notFired));
+  }
+
+  private void writeRunAction(ByteVector methods) {
+    ByteVector code = new ByteVector();
+    code.u1(ILOAD_1);
+    int[] cases = new int[bindingTypes.length];
+    int table = writeTableSwitch(code);
+    for (int i = 0; i < bindingTypes.length; i++) {
+      cases[i] = code.size();
+      code.u1(ALOAD_0).u1(GETFIELD).u2(fieldConstant("a" + i, "L" + CONSUMER + ";"));
+      code.u1(ALOAD_2);
+      code.u1(INVOKEINTERFACE).u2(interfaceMethodConstant(CONSUMER, "accept", "(Ljava/lang/Object;)V")).u1(2).u1(0);
+      code.u1(RETURN);
+    }
+    int none = code.size();
+    code.u1(RETURN);
+
+    patchTableSwitch(code, table, cases, none);
+    writeMethod(methods, "runAction", "(I" + BEHAVIOR + ")V", 2, 3, code, frames(cases, none));
+  }
+
+  /**
+   * Writes a tableswitch over the bindings, with placeholder jump offsets.
+   *
+   * @return the position of the tableswitch instruction
+   */
+  private int writeTableSwitch(ByteVector code) {
+    int position = code.size();
+    code.u1(TABLESWITCH);
+    while (code.size() % 4 != 0) {
+      code.u1(0);
+    }
+    code.u4(0); // default
+    code.u4(0).u4(bindingTypes.length - 1); // low and high
+    for (int i = 0; i < bindingTypes.length; i++) {
+      code.u4(0);
+    }
+    return position;
+  }
+
+  private static void patchTableSwitch(ByteVector code, int position, int[] cases, int defaultCase) {
+    int offsets = (position + 4) & ~3; // the default offset, after the padding
+    code.putU4(offsets, defaultCase - position);
+    for (int i = 0; i < cases.length; i++) {
+      code.putU4(offsets + 12 + i * 4, cases[i] - position);
+    }
+  }
+
+  /**
+   * Gets the positions of the stack map frames for a switch. Every jump target has the method's parameters as its
+   * locals and an empty stack, which is the same as the frame the method starts with.
+   */
+  private static int[] frames(int[] cases, int defaultCase) {
+    int[] targets = Arrays.copyOf(cases, cases.length + 1);
+    targets[cases.length] = defaultCase;
+    return targets;
+  }
+
+  private void writeMethod(ByteVector methods, String methodName, String descriptor, int maxStack, int maxLocals,
+                           ByteVector code, int[] frames) {
+    ByteVector stackMap = new ByteVector();
+    int previous = -1;
+    for (int frame : frames) {
+      int delta = frame - previous - 1;
+      if (delta < 64) {
+        stackMap.u1(delta); // same_frame
+      } else {
+        stackMap.u1(SAME_FRAME_EXTENDED).u2(delta);
+      }
+      previous = frame;
+    }
+
+    ByteVector attribute = new ByteVector();
+    attribute.u2(maxStack).u2(maxLocals).u4(code.size()).bytes(code);
+    attribute.u2(0); // exception table
+    if (frames.length == 0) {
+      attribute.u2(0);
+    } else {
+      attribute.u2(1).u2(utf8("StackMapTable")).u4(stackMap.size() + 2).u2(frames.length).bytes(stackMap);
+    }
+
+    methods.u2(0).u2(utf8(methodName)).u2(utf8(descriptor)); // package-private
+    methods.u2(1).u2(utf8("Code")).u4(attribute.size()).bytes(attribute);
+  }
+
+  private static void pushInt(ByteVector code, int value) {
+    if (value <= 5) {
+      code.u1(ICONST_0 + value);
+    } else if (value <= Byte.MAX_VALUE) {
+      code.u1(BIPUSH).u1(value);
+    } else {
+      code.u1(SIPUSH).u2(value);
+    }
+  }
+
+  private int utf8(String value) {
+    Integer index = constantIndices.get("U" + value);
+    if (index == null) {
+      index = add("U" + value);
+      // Every name and descriptor written here is ASCII, so the modified UTF-8 encoding is the same as ASCII
+      constants.u1(CONSTANT_UTF8).u2(value.length());
+      for (int i = 0; i < value.length(); i++) {
+        constants.u1(value.charAt(i));
+      }
+    }
+    return index;
+  }
+
+  private int classConstant(String internalName) {
+    int nameIndex = utf8(internalName);
+    Integer index = constantIndices.get("C" + internalName);
+    if (index == null) {
+      index = add("C" + internalName);
+      constants.u1(CONSTANT_CLASS).u2(nameIndex);
+    }
+    return index;
+  }
+
+  private int nameAndType(String memberName, String descriptor) {
+    int nameIndex = utf8(memberName);
+    int descriptorIndex = utf8(descriptor);
+    String key = "N" + memberName + " " + descriptor;
+    Integer index = constantIndices.get(key);
+    if (index == null) {
+      index = add(key);
+      constants.u1(CONSTANT_NAME_AND_TYPE).u2(nameIndex).u2(descriptorIndex);
+    }
+    return index;
+  }
+
+  private int fieldConstant(String fieldName, String descriptor) {
+    return memberConstant(CONSTANT_FIELDREF, name, fieldName, descriptor);
+  }
+
+  private int methodConstant(String owner, String methodName, String descriptor) {
+    return memberConstant(CONSTANT_METHODREF, owner, methodName, descriptor);
+  }
+
+  private int interfaceMethodConstant(String owner, String methodName, String descriptor) {
+    return memberConstant(CONSTANT_INTERFACE_METHODREF, owner, methodName, descriptor);
+  }
+
+  private int memberConstant(int tag, String owner, String memberName, String descriptor) {
+    int classIndex = classConstant(owner);
+    int nameAndTypeIndex = nameAndType(memberName, descriptor);
+    String key = tag + owner + "." + memberName + " " + descriptor;
+    Integer index = constantIndices.get(key);
+    if (index == null) {
+      index = add(key);
+      constants.u1(tag).u2(classIndex).u2(nameAndTypeIndex);
+    }
+    return index;
+  }
+
+  private int add(String key) {
+    int index = constantCount++;
+    constantIndices.put(key, index);
+    return index;
+  }
+
+  /**
+   * A growable array of big-endian bytes.
+   */
+  private static final class ByteVector {
+
+    private byte[] data = new byte[256];
+    private int size = 0;
+
+    int size() {
+      return size;
+    }
+
+    ByteVector u1(int value) {
+      ensure(1);
+      data[size++] = (byte) value;
+      return this;
+    }
+
+    ByteVector u2(int value) {
+      ensure(2);
+      putU2(size, value);
+      size += 2;
+      return this;
+    }
+
+    ByteVector u4(int value) {
+      ensure(4);
+      putU4(size, value);
+      size += 4;
+      return this;
+    }
+
+    ByteVector bytes(ByteVector other) {
+      ensure(other.size);
+      System.arraycopy(other.data, 0, data, size, other.size);
+      size += other.size;
+      return this;
+    }
+
+    void putU2(int position, int value) {
+      data[position] = (byte) (value >>> 8);
+      data[position + 1] = (byte) value;
+    }
+
+    void putU4(int position, int value) {
+      data[position] = (byte) (value >>> 24);
+      data[position + 1] = (byte) (value >>> 16);
+      data[position + 2] = (byte) (value >>> 8);
+      data[position + 3] = (byte) value;
+    }
+
+    byte[] toByteArray() {
+      return Arrays.copyOf(data, size);
+    }
+
+    private void ensure(int count) {
+      if (size + count > data.length) {
+        data = Arrays.copyOf(data, Math.max(data.length * 2, size + count));
+      }
+    }
+  }
+
+}
@@ -0,0 +1,76 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import java.lang.invoke.MethodHandles;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javafx.event.Event;
+
+/**
+ * Fires the bindings of one set of {@link CompiledInputBindings} through a class generated for them at runtime. Input
+ * bindings that dispatch through a {@link BindingIndex} check every binding and run every action from the same few
+ * call sites, which see the bindings and actions of every behavior type in the application; once there are more than a
+ * couple of them, the JIT can no longer inline the calls. The generated class has a {@code switch} over the bindings
+ * with a case for each one, which matches the binding and runs its action from call sites of its own, so each call site
+ * only ever sees one binding and one action and can be inlined.
+ *
+ * <p>The generated class is defined in this package with {@link MethodHandles.Lookup#defineClass(byte[])}, so it can
+ * reach the package-private parts of the bindings. If the class can't be generated or defined, eg because there are
+ * too many bindings to fit in a method, {@link #generate(Binding[])} returns null and the bindings are dispatched the
+ * same way as the ones created by {@link InputBindings#of(java.util.Collection) of()}.
+ */
+abstract class GeneratedDispatcher {
+
+  /**
+   * The most bindings to generate a dispatcher for. The code to fire each binding takes about forty bytes, and the code
+   * of a method can't be larger than 64 KiB.
+   */
+  static final int MAX_BINDINGS = 1000;
+
+  private static final AtomicInteger generated = new AtomicInteger();
+
+  GeneratedDispatcher() {
+    // Only subclassed by generated classes
+  }
+
+  /**
+   * Fires a binding if it matches an event. The type of the event must already be known to apply to the binding.
+   *
+   * @param binding  the number of the binding, which is its index in the bindings the dispatcher was generated for
+   * @param event    the event that was fired
+   * @param behavior the behavior on which to fire the binding
+   *
+   * @return true if the binding matched the event, false if not
+   */
+  abstract boolean fire(int binding, Event event, BehaviorBase<?, ?> behavior);
+
+  /**
+   * Runs the action of a binding once.
+   *
+   * @param binding  the number of the binding
+   * @param behavior the behavior on which to run the action
+   */
+  abstract void runAction(int binding, BehaviorBase<?, ?> behavior);
+
+  /**
+   * Generates a dispatcher for some bindings.
+   *
+   * @param bindings the bindings, numbered by their index in the array
+   *
+   * @return the dispatcher, or null if one could not be generated
+   */
+  static GeneratedDispatcher generate(Binding<?, ?>[] bindings) {
+    if (bindings.length == 0 || bindings.length > MAX_BINDINGS) {
+      return null;
+    }
+    String name = GeneratedDispatcher.class.getName() + "$" + generated.incrementAndGet();
+    try {
+      byte[] bytes = new DispatcherClassWriter(name, bindings).toByteArray();
+      Class<?> type = MethodHandles.lookup().defineClass(bytes);
+      return (GeneratedDispatcher) type.getDeclaredConstructor(Binding[].class).newInstance((Object) bindings.clone());
+    } catch (ReflectiveOperationException | LinkageError | SecurityException e) {
+      // Dispatch through the bindings themselves instead
+      return null;
+    }
+  }
+
+}
@@ -0,0 +1,64 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.MouseButton;
+
+/**
+ * The keys and mouse buttons that must be held down for a binding to fire, as masks for an {@link InputStateTracker}.
+ */
+final class HeldInputs {
+
+  static final HeldInputs NONE = new HeldInputs(new long[0], 0);
+
+  private final long[] keys;
+  private final int buttons;
+
+  private HeldInputs(long[] keys, int buttons) {
+    this.keys = keys;
+    this.buttons = buttons;
+  }
+
+  static HeldInputs of(Collection<KeyCode> keys, Collection<MouseButton> buttons) {
+    if (keys.isEmpty() && buttons.isEmpty()) {
+      return NONE;
+    }
+    return new HeldInputs(
+        InputStateTracker.keyMask(keys.toArray(new KeyCode[0])),
+        InputStateTracker.buttonMask(buttons.toArray(new MouseButton[0])));
+  }
+
+  /**
+   * Checks if the inputs are held down in the scene of a behavior's control. Nothing is held if the behavior is null or
+   * its control is not in a scene.
+   */
+  boolean areHeld(BehaviorBase<?, ?> behavior) {
+    if (this == NONE) {
+      return true;
+    }
+    InputStateTracker tracker = behavior == null ? null : behavior.getInputStateTracker();
+    return tracker != null && tracker.areKeysDown(keys) && tracker.areButtonsDown(buttons);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null || getClass() != obj.getClass()) {
+      return false;
+    }
+    HeldInputs that = (HeldInputs) obj;
+    return Arrays.equals(this.keys, that.keys)
+        && this.buttons == that.buttons;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(Arrays.hashCode(keys), buttons);
+  }
+
+}
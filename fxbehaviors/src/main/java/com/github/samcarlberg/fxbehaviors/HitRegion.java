@@ -0,0 +1,48 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A named part of a control that mouse bindings can be scoped to, such as the thumb or track of a slider. Regions are
+ * interned by name, so there is only one region with each name and regions can be compared by identity. Where each
+ * region is on a particular control is tracked by the {@link HitRegionIndex} of the control's behavior.
+ *
+ * <p>Regions are immutable and thread-safe.
+ */
+public final class HitRegion {
+
+  private static final ConcurrentMap<String, HitRegion> regions = new ConcurrentHashMap<>();
+
+  private final String name;
+
+  private HitRegion(String name) {
+    this.name = name;
+  }
+
+  /**
+   * Gets the region with a name, creating it if it does not exist yet.
+   *
+   * @param name the name of the region
+   *
+   * @return the region with the given name
+   */
+  public static HitRegion of(String name) {
+    Objects.requireNonNull(name, "Name cannot be null");
+    return regions.computeIfAbsent(name, HitRegion::new);
+  }
+
+  /**
+   * Gets the name of this region.
+   */
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public String toString() {
+    return "HitRegion(" + name + ")";
+  }
+
+}
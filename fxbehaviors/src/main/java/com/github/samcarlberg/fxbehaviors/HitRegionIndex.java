@@ -0,0 +1,284 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import javafx.beans.value.ChangeListener;
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
+import javafx.scene.control.Control;
+
+/**
+ * A spatial index of the {@link HitRegion hit regions} of a control. A region is made up of rectangles in the local
+ * coordinates of the control, which are either added directly or tracked from the bounds of nodes in the control's
+ * skin. Where regions overlap, the one added last is on top.
+ *
+ * <p>Rectangles are sorted into a uniform grid, so finding the region under a point only tests the rectangles that
+ * overlap the point's grid cell. The grid is rebuilt the first time it is queried after a change, and after every layout
+ * of the control if any nodes are tracked. This class is confined to the FX thread.
+ */
+public final class HitRegionIndex {
+
+  private static final int MAX_CELLS_PER_AXIS = 64;
+  private static final int[] EMPTY_CELL = new int[0];
+  private static final Bounds EMPTY_BOUNDS = new BoundingBox(0, 0, -1, -1);
+
+  private final Control control;
+  private final List<Entry> entries = new ArrayList<>();
+  // A change listener rather than an invalidation listener, since nothing else reads needsLayout to revalidate it
+  private final ChangeListener<Boolean> layoutListener = (property, oldValue, newValue) -> dirty = true;
+  private int trackedNodes = 0;
+
+  // The grid, rebuilt from the entries when dirty
+  private boolean dirty = true;
+  private HitRegion[] regions = new HitRegion[0];
+  private double[] bounds = new double[0]; // minX, minY, maxX, maxY of each rectangle
+  private double originX;
+  private double originY;
+  private double cellWidth;
+  private double cellHeight;
+  private int columns;
+  private int rows;
+  private int[][] cells = new int[0][];
+
+  HitRegionIndex(Control control) {
+    this.control = control;
+  }
+
+  /**
+   * Adds a rectangle to a region.
+   *
+   * @param region the region to add to
+   * @param x      the x-coordinate of the rectangle, in the control's local coordinates
+   * @param y      the y-coordinate of the rectangle, in the control's local coordinates
+   * @param width  the width of the rectangle
+   * @param height the height of the rectangle
+   */
+  public void add(HitRegion region, double x, double y, double width, double height) {
+    Objects.requireNonNull(region, "Region cannot be null");
+    if (width < 0 || height < 0) {
+      throw new IllegalArgumentException("Width and height cannot be negative: " + width + "x" + height);
+    }
+    entries.add(new Entry(region, null, x, y, x + width, y + height));
+    dirty = true;
+  }
+
+  /**
+   * Adds a rectangle to a region.
+   *
+   * @param region the region to add to
+   * @param bounds the bounds of the rectangle, in the control's local coordinates
+   */
+  public void add(HitRegion region, Bounds bounds) {
+    Objects.requireNonNull(bounds, "Bounds cannot be null");
+    add(region, bounds.getMinX(), bounds.getMinY(), bounds.getWidth(), bounds.getHeight());
+  }
+
+  /**
+   * Adds the bounds of a node to a region. The bounds are updated every time the control is laid out, so the region
+   * follows the node as the skin moves it around.
+   *
+   * @param region the region to add to
+   * @param node   the node to track, usually a child of the control's skin
+   */
+  public void track(HitRegion region, Node node) {
+    Objects.requireNonNull(region, "Region cannot be null");
+    Objects.requireNonNull(node, "Node cannot be null");
+    entries.add(new Entry(region, node, 0, 0, 0, 0));
+    if (trackedNodes++ == 0) {
+      control.needsLayoutProperty().addListener(layoutListener);
+    }
+    dirty = true;
+  }
+
+  /**
+   * Removes every rectangle and tracked node of a region.
+   *
+   * @param region the region to remove
+   */
+  public void remove(HitRegion region) {
+    entries.removeIf(entry -> {
+      if (entry.region == region) {
+        if (entry.node != null) {
+          untrack();
+        }
+        return true;
+      }
+      return false;
+    });
+    dirty = true;
+  }
+
+  /**
+   * Removes every region.
+   */
+  public void clear() {
+    entries.clear();
+    if (trackedNodes > 0) {
+      trackedNodes = 1;
+      untrack();
+    }
+    dirty = true;
+  }
+
+  private void untrack() {
+    if (--trackedNodes == 0) {
+      control.needsLayoutProperty().removeListener(layoutListener);
+    }
+  }
+
+  /**
+   * Gets the topmost region at a point.
+   *
+   * @param x the x-coordinate of the point, in the control's local coordinates
+   * @param y the y-coordinate of the point, in the control's local coordinates
+   *
+   * @return the region at the point, or null if the point is not in any region
+   */
+  public HitRegion regionAt(double x, double y) {
+    if (dirty) {
+      rebuild();
+    }
+    if (columns == 0) {
+      return null;
+    }
+    int column = (int) ((x - originX) / cellWidth);
+    int row = (int) ((y - originY) / cellHeight);
+    if (x < originX || y < originY || column >= columns || row >= rows) {
+      return null;
+    }
+    int[] cell = cells[row * columns + column];
+    // Later rectangles are on top, so check them first
+    for (int i = cell.length - 1; i >= 0; i--) {
+      int rect = cell[i] * 4;
+      if (x >= bounds[rect] && x <= bounds[rect + 2] && y >= bounds[rect + 1] && y <= bounds[rect + 3]) {
+        return regions[cell[i]];
+      }
+    }
+    return null;
+  }
+
+  private void rebuild() {
+    dirty = false;
+    int count = entries.size();
+    regions = new HitRegion[count];
+    bounds = new double[count * 4];
+    double minX = Double.POSITIVE_INFINITY;
+    double minY = Double.POSITIVE_INFINITY;
+    double maxX = Double.NEGATIVE_INFINITY;
+    double maxY = Double.NEGATIVE_INFINITY;
+    for (int i = 0; i < count; i++) {
+      Entry entry = entries.get(i);
+      entry.updateBounds(control);
+      regions[i] = entry.region;
+      bounds[i * 4] = entry.minX;
+      bounds[i * 4 + 1] = entry.minY;
+      bounds[i * 4 + 2] = entry.maxX;
+      bounds[i * 4 + 3] = entry.maxY;
+      if (entry.isEmpty()) {
+        continue;
+      }
+      minX = Math.min(minX, entry.minX);
+      minY = Math.min(minY, entry.minY);
+      maxX = Math.max(maxX, entry.maxX);
+      maxY = Math.max(maxY, entry.maxY);
+    }
+    if (minX > maxX) {
+      // No rectangles, or all of them are empty
+      columns = 0;
+      rows = 0;
+      cells = new int[0][];
+      return;
+    }
+
+    // Roughly one rectangle per cell, up to a limit
+    int perAxis = Math.min(MAX_CELLS_PER_AXIS, (int) Math.ceil(Math.sqrt(count)));
+    columns = perAxis;
+    rows = perAxis;
+    originX = minX;
+    originY = minY;
+    // Pad the cells slightly so points on the far edges fall in the last cell
+    cellWidth = Math.max(Math.nextUp(maxX - minX) / columns, Double.MIN_NORMAL);
+    cellHeight = Math.max(Math.nextUp(maxY - minY) / rows, Double.MIN_NORMAL);
+
+    int[][] grid = new int[columns * rows][];
+    int[] sizes = new int[grid.length];
+    for (int i = 0; i < count; i++) {
+      int rect = i * 4;
+      if (entries.get(i).isEmpty()) {
+        continue;
+      }
+      for (int row = row(bounds[rect + 1]); row <= row(bounds[rect + 3]); row++) {
+        for (int column = column(bounds[rect]); column <= column(bounds[rect + 2]); column++) {
+          int c = row * columns + column;
+          if (grid[c] == null) {
+            grid[c] = new int[4];
+          } else if (sizes[c] == grid[c].length) {
+            grid[c] = Arrays.copyOf(grid[c], sizes[c] * 2);
+          }
+          grid[c][sizes[c]++] = i;
+        }
+      }
+    }
+    for (int c = 0; c < grid.length; c++) {
+      grid[c] = grid[c] == null ? EMPTY_CELL : Arrays.copyOf(grid[c], sizes[c]);
+    }
+    cells = grid;
+  }
+
+  private int column(double x) {
+    return Math.min(columns - 1, (int) ((x - originX) / cellWidth));
+  }
+
+  private int row(double y) {
+    return Math.min(rows - 1, (int) ((y - originY) / cellHeight));
+  }
+
+  void dispose() {
+    clear();
+  }
+
+  private static final class Entry {
+    final HitRegion region;
+    final Node node; // null for fixed rectangles
+    double minX;
+    double minY;
+    double maxX;
+    double maxY;
+
+    Entry(HitRegion region, Node node, double minX, double minY, double maxX, double maxY) {
+      this.region = region;
+      this.node = node;
+      this.minX = minX;
+      this.minY = minY;
+      this.maxX = maxX;
+      this.maxY = maxY;
+    }
+
+    boolean isEmpty() {
+      return maxX < minX || maxY < minY;
+    }
+
+    void updateBounds(Control control) {
+      if (node == null) {
+        return;
+      }
+      Bounds local;
+      if (!node.isVisible()) {
+        local = EMPTY_BOUNDS;
+      } else if (node.getParent() == control) {
+        local = node.getBoundsInParent();
+      } else {
+        local = control.sceneToLocal(node.localToScene(node.getBoundsInLocal()));
+      }
+      minX = local.getMinX();
+      minY = local.getMinY();
+      maxX = local.getMaxX();
+      maxY = local.getMaxY();
+    }
+  }
+
+}
@@ -1,11 +1,20 @@
 package com.github.samcarlberg.fxbehaviors;
 
 import java.util.Collection;
-import java.util.Set;
+import java.util.List;
 import java.util.function.BiPredicate;
 
 import javafx.event.Event;
 
+/**
+ * A set of bindings that fire actions on a behavior in response to input events.
+ *
+ * <p>The input bindings created by the {@code of} factory methods are immutable. Bindings are indexed by event type
+ * when the input bindings are created, and fire in the order they were declared. Creating input bindings is pure
+ * computation and is safe to do off the FX thread, eg with an {@link InputBindingsRegistry}.
+ *
+ * @param <B> the type of the behavior on which bindings should call actions
+ */
 public interface InputBindings<B extends BehaviorBase<?, B>> {
 
   /**
@@ -24,7 +33,7 @@ public interface InputBindings<B extends BehaviorBase<?, B>> {
    */
   @SafeVarargs
   static <B extends BehaviorBase<?, B>> InputBindings<B> of(Binding<?, B>... bindings) {
-    return new DefaultInputBindings<>(Set.of(bindings));
+    return new DefaultInputBindings<>(List.of(bindings));
   }
 
 
@@ -51,7 +60,137 @@ public interface InputBindings<B extends BehaviorBase<?, B>> {
   @SafeVarargs
   static <B extends BehaviorBase<?, B>> InputBindings<B> of(BiPredicate<? super Event, B> filter,
                                                             Binding<?, B>... bindings) {
-    return new DefaultInputBindings<>(filter, Set.of(bindings));
+    return new DefaultInputBindings<>(filter, List.of(bindings));
+  }
+
+  /**
+   * Creates a new set of input bindings with no filter that dispatches key and mouse events through generated code. See
+   * {@link #compiled(BiPredicate, Collection)}.
+   *
+   * @param bindings the bindings
+   */
+  static <B extends BehaviorBase<?, B>> InputBindings<B> compiled(Collection<? extends Binding<?, B>> bindings) {
+    return new CompiledInputBindings<>(NoFilter.get(), bindings);
+  }
+
+  /**
+   * Creates a new set of input bindings with no filter that dispatches key and mouse events through generated code. See
+   * {@link #compiled(BiPredicate, Collection)}.
+   *
+   * @param bindings the bindings
+   */
+  @SafeVarargs
+  static <B extends BehaviorBase<?, B>> InputBindings<B> compiled(Binding<?, B>... bindings) {
+    return new CompiledInputBindings<>(NoFilter.get(), List.of(bindings));
+  }
+
+  /**
+   * Creates a new set of input bindings that dispatches key and mouse events through generated code. A class with a
+   * case for each binding is generated when the bindings are created, which matches the binding and runs its action
+   * from call sites of its own, so the JIT can inline them even when many behavior types are in use. The first time an
+   * event type is fired, its bindings are sorted into a table with one entry per key code or mouse button, and later
+   * events only check the bindings in their key's or button's entry. Bindings fire in the same order as the bindings
+   * created by {@link #of(BiPredicate, Collection) of()}. This is faster for behaviors with many key bindings, at the
+   * cost of a generated class and a table per event type; bindings that can't be sorted by key or button, such as
+   * bindings on key characters, are checked for every key or button. If the class can't be generated, the bindings
+   * are dispatched through the tables alone.
+   *
+   * @param filter   an event filter to use. If an event is fired that does not pass this filter, then no bindings will
+   *                 fire even if they match that event
+   * @param bindings the bindings
+   */
+  static <B extends BehaviorBase<?, B>> InputBindings<B> compiled(BiPredicate<? super Event, B> filter,
+                                                                  Collection<? extends Binding<?, B>> bindings) {
+    return new CompiledInputBindings<>(filter, bindings);
+  }
+
+  /**
+   * Creates a new set of input bindings that dispatches key and mouse events through generated code. See
+   * {@link #compiled(BiPredicate, Collection)}.
+   *
+   * @param filter   an event filter to use. If an event is fired that does not pass this filter, then no bindings will
+   *                 fire even if they match that event
+   * @param bindings the bindings
+   */
+  @SafeVarargs
+  static <B extends BehaviorBase<?, B>> InputBindings<B> compiled(BiPredicate<? super Event, B> filter,
+                                                                  Binding<?, B>... bindings) {
+    return new CompiledInputBindings<>(filter, List.of(bindings));
+  }
+
+  /**
+   * Creates a new set of input bindings with no filter that checks the most frequently fired bindings first. See
+   * {@link #adaptive(BiPredicate, Collection)}.
+   *
+   * @param bindings the bindings
+   */
+  static <B extends BehaviorBase<?, B>> InputBindings<B> adaptive(Collection<? extends Binding<?, B>> bindings) {
+    return new AdaptiveInputBindings<>(NoFilter.get(), bindings);
+  }
+
+  /**
+   * Creates a new set of input bindings with no filter that checks the most frequently fired bindings first. See
+   * {@link #adaptive(BiPredicate, Collection)}.
+   *
+   * @param bindings the bindings
+   */
+  @SafeVarargs
+  static <B extends BehaviorBase<?, B>> InputBindings<B> adaptive(Binding<?, B>... bindings) {
+    return new AdaptiveInputBindings<>(NoFilter.get(), List.of(bindings));
+  }
+
+  /**
+   * Creates a new set of input bindings that checks the most frequently fired bindings first. Unlike the bindings
+   * created by {@link #of(BiPredicate, Collection) of()}, each event fires at most one binding in the handler phase:
+   * the first one that matches it. The bindings count how often each binding fires, and periodically reorder themselves
+   * so that the bindings that fire most often are checked first, eg so the navigation keys of a keymap dominated by
+   * them match on the first check. Bindings with a higher {@link Binding#getPriority() priority} are always checked
+   * before bindings with a lower one, and bindings that could match the same event, eg a binding on one key and a
+   * binding on any key, always keep the order they were declared in; only bindings on different key codes or mouse
+   * buttons are reordered.
+   *
+   * @param filter   an event filter to use. If an event is fired that does not pass this filter, then no bindings will
+   *                 fire even if they match that event
+   * @param bindings the bindings
+   */
+  static <B extends BehaviorBase<?, B>> InputBindings<B> adaptive(BiPredicate<? super Event, B> filter,
+                                                                  Collection<? extends Binding<?, B>> bindings) {
+    return new AdaptiveInputBindings<>(filter, bindings);
+  }
+
+  /**
+   * Creates a new set of input bindings that checks the most frequently fired bindings first. See
+   * {@link #adaptive(BiPredicate, Collection)}.
+   *
+   * @param filter   an event filter to use. If an event is fired that does not pass this filter, then no bindings will
+   *                 fire even if they match that event
+   * @param bindings the bindings
+   */
+  @SafeVarargs
+  static <B extends BehaviorBase<?, B>> InputBindings<B> adaptive(BiPredicate<? super Event, B> filter,
+                                                                  Binding<?, B>... bindings) {
+    return new AdaptiveInputBindings<>(filter, List.of(bindings));
+  }
+
+  /**
+   * Creates a new set of mutable input bindings with no filter.
+   *
+   * @param bindings the initial bindings
+   */
+  static <B extends BehaviorBase<?, B>> MutableInputBindings<B> mutable(Collection<? extends Binding<?, B>> bindings) {
+    return new MutableInputBindings<>(NoFilter.get(), bindings);
+  }
+
+  /**
+   * Creates a new set of mutable input bindings.
+   *
+   * @param filter   an event filter to use. If an event is fired that does not pass this filter, then no bindings will
+   *                 fire even if they match that event
+   * @param bindings the initial bindings
+   */
+  static <B extends BehaviorBase<?, B>> MutableInputBindings<B> mutable(BiPredicate<? super Event, B> filter,
+                                                                        Collection<? extends Binding<?, B>> bindings) {
+    return new MutableInputBindings<>(filter, bindings);
   }
 
   /**
@@ -75,4 +214,25 @@ public interface InputBindings<B extends BehaviorBase<?, B>> {
    */
   void fire(Event event, B behavior);
 
+  /**
+   * Checks if any of the bindings only fire while keys or mouse buttons are held down, ie were built with
+   * {@code whileHeld()}. Behaviors with these bindings install the {@link InputStateTracker} of their control's scene
+   * as soon as the control is in one.
+   */
+  default boolean hasHeldInputs() {
+    return false;
+  }
+
+  /**
+   * Fires the bindings in the filter phase in response to an event.
+   *
+   * @param event    the event that was fired
+   * @param behavior the behavior on which to fire the bindings
+   *
+   * @return true if any binding matched the event, in which case the event should be consumed
+   */
+  default boolean fireFilters(Event event, B behavior) {
+    return false;
+  }
+
 }
@@ -0,0 +1,139 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * A registry of input bindings for behavior types. Bindings are registered as factories and are only created when they
+ * are first needed, or ahead of time for every registered behavior type with {@link #compileAll()}. This lets
+ * applications with many behavior types move binding creation out of static initializers and onto background threads
+ * at startup.
+ *
+ * <pre>{@code
+ * registry.register(SliderBehavior.class, SliderBehavior::createBindings);
+ * registry.compileAll(); // at startup, in the background
+ *
+ * // in the behavior constructor
+ * super(control, registry.get(SliderBehavior.class));
+ * }</pre>
+ *
+ * <p>This class is thread-safe. Each factory is called at most once, and the bindings it creates are safely published
+ * to every thread that calls {@link #get(Class) get()}. Factories should create immutable input bindings, such as those
+ * created by {@link InputBindings#of(java.util.Collection) InputBindings.of()}.
+ */
+public final class InputBindingsRegistry {
+
+  private static final InputBindingsRegistry DEFAULT = new InputBindingsRegistry();
+
+  private final Map<Class<?>, Entry<?>> entries = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a new, empty registry. Most applications only need the {@link #getDefault() default registry}.
+   */
+  public InputBindingsRegistry() {
+    // Nothing to do
+  }
+
+  /**
+   * Gets the default registry.
+   */
+  public static InputBindingsRegistry getDefault() {
+    return DEFAULT;
+  }
+
+  /**
+   * Registers the factory for the input bindings of a behavior type. The factory will not be called until the bindings
+   * are compiled.
+   *
+   * @param behaviorType the type of the behavior
+   * @param factory      the factory to create the bindings for the behavior type
+   * @param <B>          the type of the behavior
+   *
+   * @throws IllegalArgumentException if bindings have already been registered for the behavior type
+   */
+  public <B extends BehaviorBase<?, B>> void register(Class<B> behaviorType,
+                                                     Supplier<? extends InputBindings<B>> factory) {
+    Objects.requireNonNull(behaviorType, "Behavior type cannot be null");
+    Objects.requireNonNull(factory, "Bindings factory cannot be null");
+    if (entries.putIfAbsent(behaviorType, new Entry<>(factory)) != null) {
+      throw new IllegalArgumentException("Bindings have already been registered for " + behaviorType.getName());
+    }
+  }
+
+  /**
+   * Gets the input bindings for a behavior type, creating them on the calling thread if they have not already been
+   * compiled. If the bindings are currently being compiled on another thread, this will block until they are finished.
+   *
+   * @param behaviorType the type of the behavior
+   * @param <B>          the type of the behavior
+   *
+   * @return the input bindings for the behavior type
+   *
+   * @throws IllegalArgumentException if no bindings have been registered for the behavior type
+   */
+  @SuppressWarnings("unchecked")
+  public <B extends BehaviorBase<?, B>> InputBindings<B> get(Class<B> behaviorType) {
+    Entry<B> entry = (Entry<B>) entries.get(behaviorType);
+    if (entry == null) {
+      throw new IllegalArgumentException("No bindings have been registered for " + behaviorType);
+    }
+    return entry.get();
+  }
+
+  /**
+   * Compiles the bindings for every registered behavior type in parallel on the common fork-join pool.
+   *
+   * @return a future that completes when all bindings have been compiled
+   */
+  public CompletableFuture<Void> compileAll() {
+    return compileAll(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Compiles the bindings for every registered behavior type in parallel.
+   *
+   * @param executor the executor to compile bindings with
+   *
+   * @return a future that completes when all bindings have been compiled
+   */
+  public CompletableFuture<Void> compileAll(Executor executor) {
+    Objects.requireNonNull(executor, "Executor cannot be null");
+    List<CompletableFuture<?>> futures = new ArrayList<>(entries.size());
+    for (Entry<?> entry : entries.values()) {
+      futures.add(CompletableFuture.runAsync(entry::get, executor));
+    }
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+  }
+
+  private static final class Entry<B extends BehaviorBase<?, B>> {
+
+    private final Supplier<? extends InputBindings<B>> factory;
+    private volatile InputBindings<B> bindings;
+
+    Entry(Supplier<? extends InputBindings<B>> factory) {
+      this.factory = factory;
+    }
+
+    InputBindings<B> get() {
+      InputBindings<B> result = bindings;
+      if (result == null) {
+        synchronized (this) {
+          result = bindings;
+          if (result == null) {
+            result = Objects.requireNonNull(factory.get(), "Bindings factory returned null");
+            bindings = result;
+          }
+        }
+      }
+      return result;
+    }
+  }
+
+}
@@ -0,0 +1,310 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import javafx.application.Platform;
+import javafx.event.Event;
+import javafx.scene.Scene;
+import javafx.scene.control.Control;
+
+/**
+ * Measures the latency from input events to the frames that show their effects, per binding. When enabled, every input
+ * event is stamped when a behavior first sees it, and every binding that fires records two latencies: from the stamp
+ * to the end of its action, and from the stamp to the end of the next layout pass of the control's scene. The second
+ * one is the latency users actually feel; JavaFX does not report when a frame has been rendered, so the end of layout
+ * is used as the closest point before the frame is handed off to be rendered. Bindings on controls that are not in a
+ * scene only record the action latency.
+ *
+ * <p>Monitoring is disabled by default and costs a single volatile read per binding fired when it is disabled. It is
+ * meant for profiling sessions and should not be left on in production: the latencies of every binding that has fired
+ * are kept until {@link #reset()} is called.
+ *
+ * <p>Latencies are recorded on the FX thread. {@link #getLatencies()} and {@link #report()} may be called from any
+ * thread.
+ */
+public final class InputLatencyMonitor {
+
+  private static final Object KEY = new Object();
+  private static final Object lock = new Object();
+  private static final Map<Binding<?, ?>, Latencies> latencies = new IdentityHashMap<>();
+
+  private static volatile boolean enabled = false;
+
+  private InputLatencyMonitor() {
+  }
+
+  /**
+   * Checks if latency monitoring is enabled.
+   */
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Enables or disables latency monitoring. Latencies recorded while monitoring was enabled are kept after it is
+   * disabled.
+   *
+   * @param enabled true to start recording latencies, false to stop
+   */
+  public static void setEnabled(boolean enabled) {
+    InputLatencyMonitor.enabled = enabled;
+  }
+
+  /**
+   * Discards all recorded latencies.
+   */
+  public static void reset() {
+    synchronized (lock) {
+      latencies.clear();
+    }
+  }
+
+  /**
+   * Gets a snapshot of the latencies recorded for every binding that has fired, slowest first by 99th percentile
+   * input-to-frame latency.
+   */
+  public static List<BindingLatency> getLatencies() {
+    List<BindingLatency> snapshot = new ArrayList<>();
+    synchronized (lock) {
+      latencies.forEach((binding, latency) -> snapshot.add(
+          new BindingLatency(binding.toString(), latency.action.copy(), latency.frame.copy())));
+    }
+    snapshot.sort(Comparator.comparingLong((BindingLatency l) -> l.getFrameLatency(99)).reversed()
+        .thenComparing(Comparator.comparingLong((BindingLatency l) -> l.getActionLatency(99)).reversed()));
+    return snapshot;
+  }
+
+  /**
+   * Creates a plain text report of the recorded latencies, with one line per binding, slowest first. Latencies are in
+   * milliseconds.
+   */
+  public static String report() {
+    StringBuilder report = new StringBuilder(String.format("%8s %8s %8s %8s %8s %8s %8s  %s%n",
+        "count", "frames", "action", "p50", "p90", "p99", "max", "binding"));
+    for (BindingLatency latency : getLatencies()) {
+      report.append(String.format("%8d %8d %8.3f %8.3f %8.3f %8.3f %8.3f  %s%n",
+          latency.getCount(),
+          latency.getFrameCount(),
+          millis(latency.getActionLatency(50)),
+          millis(latency.getFrameLatency(50)),
+          millis(latency.getFrameLatency(90)),
+          millis(latency.getFrameLatency(99)),
+          millis(latency.getMaxFrameLatency()),
+          latency.getBinding()));
+    }
+    return report.toString();
+  }
+
+  private static double millis(long nanos) {
+    return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  /**
+   * Gets the time to measure the latency of a binding fired for an event from.
+   *
+   * @param event    the event the binding is firing for
+   * @param behavior the behavior the binding is firing on, or null
+   *
+   * @return the time the behavior first saw the event, or the current time if it was dispatched to the binding some
+   *   other way
+   */
+  static long startOf(Event event, BehaviorBase<?, ?> behavior) {
+    long stamp = behavior == null ? 0 : behavior.getEventStamp(event);
+    return stamp == 0 ? System.nanoTime() : stamp;
+  }
+
+  /**
+   * Records that the action of a binding has completed, and starts waiting for the next frame.
+   *
+   * @param binding  the binding that fired
+   * @param behavior the behavior the binding fired on, or null
+   * @param start    the time from {@link #startOf}
+   */
+  static void actionCompleted(Binding<?, ?> binding, BehaviorBase<?, ?> behavior, long start) {
+    long now = System.nanoTime();
+    synchronized (lock) {
+      latencies.computeIfAbsent(binding, __ -> new Latencies()).action.record(now - start);
+    }
+    Control control = behavior == null ? null : behavior.getControl();
+    Scene scene = control == null ? null : control.getScene();
+    if (scene != null) {
+      FrameTracker.of(scene).add(binding, start);
+    }
+  }
+
+  private static void frameCompleted(Binding<?, ?> binding, long latency) {
+    synchronized (lock) {
+      latencies.computeIfAbsent(binding, __ -> new Latencies()).frame.record(latency);
+    }
+  }
+
+  private static final class Latencies {
+    final LatencyHistogram action = new LatencyHistogram();
+    final LatencyHistogram frame = new LatencyHistogram();
+  }
+
+  /**
+   * The bindings in a scene that are waiting for the next frame. There is one tracker per scene. This class is confined
+   * to the FX thread.
+   */
+  static final class FrameTracker {
+
+    private final Consumer<FrameTracker> scheduler;
+    private final List<Binding<?, ?>> bindings = new ArrayList<>();
+    private long[] starts = new long[8];
+    private boolean scheduled = false;
+
+    /**
+     * Creates a new tracker.
+     *
+     * @param scheduler arranges for {@link #frameCompleted(long)} to be called after the next layout
+     */
+    FrameTracker(Consumer<FrameTracker> scheduler) {
+      this.scheduler = scheduler;
+    }
+
+    static FrameTracker of(Scene scene) {
+      return (FrameTracker) scene.getProperties().computeIfAbsent(KEY, __ -> forScene(scene));
+    }
+
+    private static FrameTracker forScene(Scene scene) {
+      Runnable[] listener = new Runnable[1];
+      FrameTracker tracker = new FrameTracker(t -> {
+        scene.addPostLayoutPulseListener(listener[0]);
+        Platform.requestNextPulse();
+      });
+      listener[0] = () -> {
+        scene.removePostLayoutPulseListener(listener[0]);
+        tracker.frameCompleted(System.nanoTime());
+      };
+      return tracker;
+    }
+
+    /**
+     * Adds a binding to wait for the next frame.
+     *
+     * @param binding the binding that fired
+     * @param start   the time the event that fired the binding was stamped
+     */
+    void add(Binding<?, ?> binding, long start) {
+      Objects.requireNonNull(binding, "Binding cannot be null");
+      int index = bindings.size();
+      if (index == starts.length) {
+        long[] grown = new long[index * 2];
+        System.arraycopy(starts, 0, grown, 0, index);
+        starts = grown;
+      }
+      bindings.add(binding);
+      starts[index] = start;
+      if (!scheduled) {
+        scheduled = true;
+        scheduler.accept(this);
+      }
+    }
+
+    /**
+     * Gets the number of bindings waiting for the next frame.
+     */
+    int pending() {
+      return bindings.size();
+    }
+
+    /**
+     * Records the input-to-frame latencies of every waiting binding.
+     *
+     * @param now the time the frame was completed
+     */
+    void frameCompleted(long now) {
+      for (int i = 0; i < bindings.size(); i++) {
+        InputLatencyMonitor.frameCompleted(bindings.get(i), now - starts[i]);
+      }
+      bindings.clear();
+      scheduled = false;
+    }
+  }
+
+  /**
+   * A snapshot of the latencies recorded for a binding. Latencies are in nanoseconds, and percentiles are accurate to
+   * within 12.5%.
+   */
+  public static final class BindingLatency {
+
+    private final String binding;
+    private final LatencyHistogram action;
+    private final LatencyHistogram frame;
+
+    BindingLatency(String binding, LatencyHistogram action, LatencyHistogram frame) {
+      this.binding = binding;
+      this.action = action;
+      this.frame = frame;
+    }
+
+    /**
+     * Gets a description of the binding.
+     */
+    public String getBinding() {
+      return binding;
+    }
+
+    /**
+     * Gets the number of times the binding fired.
+     */
+    public long getCount() {
+      return action.getCount();
+    }
+
+    /**
+     * Gets the number of times the binding fired and a frame was completed afterwards. This is less than the number
+     * of times it fired if the control was not in a scene, or if a frame is still pending.
+     */
+    public long getFrameCount() {
+      return frame.getCount();
+    }
+
+    /**
+     * Gets a percentile of the latency from the event to the end of the binding's action.
+     *
+     * @param percentile the percentile, from 0 to 100
+     */
+    public long getActionLatency(double percentile) {
+      return action.getPercentile(percentile);
+    }
+
+    /**
+     * Gets a percentile of the latency from the event to the next frame after the binding fired.
+     *
+     * @param percentile the percentile, from 0 to 100
+     */
+    public long getFrameLatency(double percentile) {
+      return frame.getPercentile(percentile);
+    }
+
+    /**
+     * Gets the mean latency from the event to the next frame after the binding fired.
+     */
+    public double getMeanFrameLatency() {
+      return frame.getMean();
+    }
+
+    /**
+     * Gets the longest latency from the event to the next frame after the binding fired.
+     */
+    public long getMaxFrameLatency() {
+      return frame.getMax();
+    }
+
+    @Override
+    public String toString() {
+      return String.format("BindingLatency(binding=%s, count=%d, frameP50=%d, frameP99=%d, frameMax=%d)",
+          binding, getCount(), getFrameLatency(50), getFrameLatency(99), getMaxFrameLatency());
+    }
+  }
+
+}
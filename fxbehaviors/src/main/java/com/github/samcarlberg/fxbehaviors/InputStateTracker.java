@@ -0,0 +1,181 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import javafx.beans.value.ChangeListener;
+import javafx.event.Event;
+import javafx.event.EventHandler;
+import javafx.event.EventType;
+import javafx.scene.Scene;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.stage.Window;
+
+/**
+ * Tracks which keys and mouse buttons are held down in a scene. There is one tracker per scene, shared by every
+ * behavior in it, so behaviors don't each need to track key presses and releases themselves. Keys are kept in a bitset
+ * indexed by key code and buttons in a bitmask, so every query is a few bit operations. Everything is released when the
+ * scene's window loses focus, since key and button releases are not delivered to unfocused windows.
+ *
+ * <p>Behaviors whose bindings are built with {@code whileHeld()} install the tracker of their control's scene as soon
+ * as the control is in a scene, and bindings query that tracker. Held bindings that are added to
+ * {@link MutableInputBindings} later install the tracker on the next event the control receives. A tracker only sees
+ * presses that happen after it is installed, so a key that was already held down when the control was added to the
+ * scene is not seen until it is pressed again.
+ *
+ * <p>Trackers are confined to the FX thread.
+ */
+public final class InputStateTracker {
+
+  private static final Object KEY = new Object();
+  private static final int KEY_CODES = KeyCode.values().length;
+
+  private final long[] keys = new long[(KEY_CODES + 63) / 64];
+  private int buttons = 0;
+
+  private final EventHandler<Event> filter = this::update;
+  private final ChangeListener<Boolean> focusListener = (obs, wasFocused, focused) -> {
+    if (!focused) {
+      clear();
+    }
+  };
+  private final ChangeListener<Window> windowListener = (obs, oldWindow, newWindow) -> {
+    if (oldWindow != null) {
+      oldWindow.focusedProperty().removeListener(focusListener);
+    }
+    if (newWindow != null) {
+      newWindow.focusedProperty().addListener(focusListener);
+    }
+    clear();
+  };
+
+  InputStateTracker() {
+  }
+
+  /**
+   * Installs a tracker on a scene. If the scene already has a tracker, that one is returned instead.
+   *
+   * @param scene the scene to track input in
+   *
+   * @return the tracker for the scene
+   */
+  public static InputStateTracker install(Scene scene) {
+    Objects.requireNonNull(scene, "Scene cannot be null");
+    InputStateTracker tracker = (InputStateTracker) scene.getProperties().get(KEY);
+    if (tracker == null) {
+      tracker = new InputStateTracker();
+      scene.addEventFilter(KeyEvent.ANY, tracker.filter);
+      scene.addEventFilter(MouseEvent.ANY, tracker.filter);
+      scene.windowProperty().addListener(tracker.windowListener);
+      if (scene.getWindow() != null) {
+        scene.getWindow().focusedProperty().addListener(tracker.focusListener);
+      }
+      scene.getProperties().put(KEY, tracker);
+    }
+    return tracker;
+  }
+
+  /**
+   * Checks if a key is held down.
+   *
+   * @param code the code of the key to check
+   */
+  public boolean isKeyDown(KeyCode code) {
+    int ordinal = code.ordinal();
+    return (keys[ordinal >>> 6] & (1L << ordinal)) != 0;
+  }
+
+  /**
+   * Checks if a mouse button is held down.
+   *
+   * @param button the mouse button to check
+   */
+  public boolean isButtonDown(MouseButton button) {
+    return (buttons & (1 << button.ordinal())) != 0;
+  }
+
+  /**
+   * Checks if every key in a mask created by {@link #keyMask(KeyCode...)} is held down.
+   */
+  boolean areKeysDown(long[] mask) {
+    for (int i = 0; i < mask.length; i++) {
+      if ((keys[i] & mask[i]) != mask[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks if every button in a mask created by {@link #buttonMask(MouseButton...)} is held down.
+   */
+  boolean areButtonsDown(int mask) {
+    return (buttons & mask) == mask;
+  }
+
+  /**
+   * Creates a key bitset with the bits for some keys set.
+   */
+  static long[] keyMask(KeyCode... codes) {
+    long[] mask = new long[(KEY_CODES + 63) / 64];
+    int last = -1;
+    for (KeyCode code : codes) {
+      int ordinal = code.ordinal();
+      mask[ordinal >>> 6] |= 1L << ordinal;
+      last = Math.max(last, ordinal >>> 6);
+    }
+    // Trailing empty words don't need to be checked
+    return Arrays.copyOf(mask, last + 1);
+  }
+
+  /**
+   * Creates a button bitmask with the bits for some buttons set.
+   */
+  static int buttonMask(MouseButton... buttons) {
+    int mask = 0;
+    for (MouseButton button : buttons) {
+      mask |= 1 << button.ordinal();
+    }
+    return mask;
+  }
+
+  /**
+   * Releases every key and button.
+   */
+  public void clear() {
+    Arrays.fill(keys, 0L);
+    buttons = 0;
+  }
+
+  void update(Event event) {
+    EventType<?> type = event.getEventType();
+    if (event instanceof KeyEvent) {
+      int ordinal = ((KeyEvent) event).getCode().ordinal();
+      if (type == KeyEvent.KEY_PRESSED) {
+        keys[ordinal >>> 6] |= 1L << ordinal;
+      } else if (type == KeyEvent.KEY_RELEASED) {
+        keys[ordinal >>> 6] &= ~(1L << ordinal);
+      }
+    } else if (event instanceof MouseEvent) {
+      MouseEvent mouseEvent = (MouseEvent) event;
+      if (type == MouseEvent.MOUSE_PRESSED) {
+        buttons |= 1 << mouseEvent.getButton().ordinal();
+      } else if (type == MouseEvent.MOUSE_RELEASED) {
+        buttons &= ~(1 << mouseEvent.getButton().ordinal());
+      }
+      // Every mouse event carries the state of the main buttons, which catches releases outside the scene
+      buttons = sync(buttons, MouseButton.PRIMARY, mouseEvent.isPrimaryButtonDown());
+      buttons = sync(buttons, MouseButton.MIDDLE, mouseEvent.isMiddleButtonDown());
+      buttons = sync(buttons, MouseButton.SECONDARY, mouseEvent.isSecondaryButtonDown());
+    }
+  }
+
+  private static int sync(int buttons, MouseButton button, boolean down) {
+    int bit = 1 << button.ordinal();
+    return down ? buttons | bit : buttons & ~bit;
+  }
+
+}
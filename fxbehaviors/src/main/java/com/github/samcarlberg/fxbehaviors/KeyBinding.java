@@ -1,29 +1,36 @@
 package com.github.samcarlberg.fxbehaviors;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
+import javafx.css.PseudoClass;
 import javafx.event.EventType;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyCodeCombination;
 import javafx.scene.input.KeyCombination;
 import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseButton;
 
 /**
  * Binds key inputs to actions to fire when a certain key event happens. {@link KeyEvent#KEY_TYPED KEY_TYPED} events are
  * not accepted, as they will match any key combinations. {@link KeyEvent#KEY_PRESSED}, {@link KeyEvent#KEY_RELEASED},
- * and {@link KeyEvent#ANY} will all work.
+ * and {@link KeyEvent#ANY} will all work. A binding for {@code ANY} fires on both pressed and released events, but never
+ * on typed events, even if it has no key combinations.
  *
  * <p>Users are encouraged to use the {@link #builder() builder} to construct new instances instead of the constructor.
+ * Key bindings are immutable and thread-safe.
  *
  * @param <B> the type of the behavior on which bindings should call actions
  */
 public final class KeyBinding<B extends BehaviorBase<?, B>> extends Binding<KeyEvent, B> {
 
   private final List<KeyCombination> keyCombinations; // the bound key combinations
+  private final KeyRepeatPolicy repeatPolicy; // how to handle auto-repeated key presses
 
   /**
    * Creates a new key binding.
@@ -34,6 +41,18 @@ public final class KeyBinding<B extends BehaviorBase<?, B>> extends Binding<KeyE
    */
   public KeyBinding(Collection<KeyCombination> keyCombinations, EventType<KeyEvent> eventType, Consumer<B> action) {
     super(eventType, action);
+    this.keyCombinations = checkKeyCombinations(keyCombinations, eventType);
+    this.repeatPolicy = KeyRepeatPolicy.ALLOW;
+  }
+
+  private KeyBinding(KeyBindingBuilder<B> builder) {
+    super(builder);
+    this.keyCombinations = checkKeyCombinations(builder.keyCombinations, builder.eventType);
+    this.repeatPolicy = builder.repeatPolicy;
+  }
+
+  private static List<KeyCombination> checkKeyCombinations(Collection<KeyCombination> keyCombinations,
+                                                           EventType<KeyEvent> eventType) {
     Objects.requireNonNull(keyCombinations, "Key combinations cannot be null");
     int index = 0;
     for (KeyCombination keyCombination : keyCombinations) {
@@ -45,21 +64,61 @@ public final class KeyBinding<B extends BehaviorBase<?, B>> extends Binding<KeyE
       throw new IllegalArgumentException("KEY_TYPED events do not trigger key combinations");
     }
 
-    this.keyCombinations = List.copyOf(keyCombinations);
+    return List.copyOf(keyCombinations);
+  }
+
+  /**
+   * Gets the key combinations this binding fires on. If empty, this binding fires on every key event of its type.
+   */
+  public List<KeyCombination> getKeyCombinations() {
+    return keyCombinations;
+  }
+
+  /**
+   * Checks if this binding can match a key event with a specific key code. Bindings on key characters rather than key
+   * codes, and bindings on any key, can match every code.
+   */
+  boolean canMatch(KeyCode code) {
+    if (keyCombinations.isEmpty()) {
+      return true;
+    }
+    for (KeyCombination combination : keyCombinations) {
+      if (!(combination instanceof KeyCodeCombination)
+          || ((KeyCodeCombination) combination).getCode() == code) {
+        return true;
+      }
+    }
+    return false;
   }
 
   @Override
   protected boolean match(KeyEvent event) {
-    EventType<KeyEvent> eventType = getEventType();
-    return (eventType == KeyEvent.ANY || eventType.equals(event.getEventType()))
-        && (keyCombinations.isEmpty()
-        || keyCombinations.stream()
-        .anyMatch(kc -> kc.match(event)));
+    if (event.getEventType() == KeyEvent.KEY_TYPED) {
+      return false;
+    }
+    if (keyCombinations.isEmpty()) {
+      return true;
+    }
+    for (KeyCombination keyCombination : keyCombinations) {
+      if (keyCombination.match(event)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  void run(KeyEvent event, B behavior, GeneratedDispatcher dispatcher, int number) {
+    int steps = behavior == null ? 1 : repeatPolicy.steps(behavior, this);
+    for (int i = 0; i < steps; i++) {
+      runAction(behavior, dispatcher, number);
+    }
   }
 
   @Override
   public String toString() {
-    return String.format("KeyBinding(keyCombinations=%s, eventType=%s)", keyCombinations, getEventType());
+    return String.format("KeyBinding(keyCombinations=%s, eventType=%s, repeats=%s)",
+        keyCombinations, getEventType(), repeatPolicy);
   }
 
   @Override
@@ -74,12 +133,13 @@ public final class KeyBinding<B extends BehaviorBase<?, B>> extends Binding<KeyE
       return false;
     }
     KeyBinding<?> that = (KeyBinding<?>) obj;
-    return this.keyCombinations.equals(that.keyCombinations);
+    return this.keyCombinations.equals(that.keyCombinations)
+        && this.repeatPolicy.equals(that.repeatPolicy);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(super.hashCode(), keyCombinations);
+    return Objects.hash(super.hashCode(), keyCombinations, repeatPolicy);
   }
 
   /**
@@ -94,12 +154,14 @@ public final class KeyBinding<B extends BehaviorBase<?, B>> extends Binding<KeyE
   }
 
   /**
-   * A builder for key bindings.
+   * A builder for key bindings. Builders are not thread-safe and should not be shared between threads, but may be used
+   * on any thread.
    */
   public static final class KeyBindingBuilder<B extends BehaviorBase<?, B>>
       extends Builder<KeyEvent, B, KeyBinding<B>> {
 
     private final Collection<KeyCombination> keyCombinations = new ArrayList<>();
+    private KeyRepeatPolicy repeatPolicy = KeyRepeatPolicy.ALLOW;
 
     /**
      * Package-private constructor - use {@link KeyBinding#builder KeyBinding.builder()} to create new builders.
@@ -118,12 +180,13 @@ public final class KeyBinding<B extends BehaviorBase<?, B>> extends Binding<KeyE
      * @return this builder
      */
     public KeyBindingBuilder<B> withKey(KeyCode keyCode) {
-      keyCombinations.add(new KeyCodeCombination(keyCode));
+      keyCombinations.add(KeyCombinations.of(keyCode));
       return this;
     }
 
     /**
-     * Adds a single key combination. This is equivalent to {@code withKey(new KeyCodeCombination(key, modifiers)}.
+     * Adds a single key combination. This is equivalent to {@code withKey(new KeyCodeCombination(key, modifiers)}, but
+     * uses the shared instance from {@link KeyCombinations#of KeyCombinations.of()}.
      *
      * @param key       the key to fire on
      * @param modifiers the key modifiers that should be active to trigger this specific key combination
@@ -131,7 +194,67 @@ public final class KeyBinding<B extends BehaviorBase<?, B>> extends Binding<KeyE
      * @return this builder
      */
     public KeyBindingBuilder<B> withKey(KeyCode key, KeyCombination.Modifier... modifiers) {
-      keyCombinations.add(new KeyCodeCombination(key, modifiers));
+      keyCombinations.add(KeyCombinations.of(key, modifiers));
+      return this;
+    }
+
+    /**
+     * Ignores auto-repeated key presses, so the binding only fires when a key is first pressed. Auto-repeat is
+     * detected per behavior as a press of the key that is already held down. By default, every repeat fires the
+     * binding.
+     *
+     * @return this builder
+     */
+    public KeyBindingBuilder<B> ignoreRepeats() {
+      repeatPolicy = KeyRepeatPolicy.IGNORE;
+      return this;
+    }
+
+    /**
+     * Limits how often auto-repeated key presses fire the binding. Repeats that arrive too soon after the last one that
+     * fired are ignored.
+     *
+     * @param perSecond the maximum number of repeats to fire per second
+     *
+     * @return this builder
+     */
+    public KeyBindingBuilder<B> throttleRepeats(int perSecond) {
+      if (perSecond <= 0) {
+        throw new IllegalArgumentException("Repeats per second must be positive, but was " + perSecond);
+      }
+      repeatPolicy = KeyRepeatPolicy.throttle(TimeUnit.SECONDS.toNanos(1) / perSecond);
+      return this;
+    }
+
+    /**
+     * Limits auto-repeated key presses to firing the binding once per pulse. Repeats that arrive before the changes
+     * made by the previous repeat have been laid out are ignored, so repeats can never queue up more work than the
+     * scene can process. Repeats are not limited for controls that are not in a scene.
+     *
+     * @return this builder
+     */
+    public KeyBindingBuilder<B> throttleRepeatsPerPulse() {
+      repeatPolicy = KeyRepeatPolicy.PER_PULSE;
+      return this;
+    }
+
+    /**
+     * Makes auto-repeated key presses run the action more times the longer the key is held. The first repeat runs the
+     * action once, and the number of runs per repeat ramps up linearly to {@code maxSteps}.
+     *
+     * @param maxSteps the maximum number of times to run the action per repeat
+     * @param ramp     how long the key must be held to reach the maximum
+     *
+     * @return this builder
+     */
+    public KeyBindingBuilder<B> accelerateRepeats(int maxSteps, Duration ramp) {
+      if (maxSteps < 1) {
+        throw new IllegalArgumentException("Max steps must be at least 1, but was " + maxSteps);
+      }
+      if (ramp.isNegative() || ramp.isZero()) {
+        throw new IllegalArgumentException("Ramp duration must be positive, but was " + ramp);
+      }
+      repeatPolicy = KeyRepeatPolicy.accelerate(maxSteps, ramp.toNanos());
       return this;
     }
 
@@ -147,9 +270,57 @@ public final class KeyBinding<B extends BehaviorBase<?, B>> extends Binding<KeyE
       return this;
     }
 
+    @Override
+    public KeyBindingBuilder<B> withCommand(Command<B> command) {
+      super.withCommand(command);
+      return this;
+    }
+
+    @Override
+    public KeyBindingBuilder<B> whileHeld(KeyCode... keys) {
+      super.whileHeld(keys);
+      return this;
+    }
+
+    @Override
+    public KeyBindingBuilder<B> whileHeld(MouseButton... buttons) {
+      super.whileHeld(buttons);
+      return this;
+    }
+
+    @Override
+    public KeyBindingBuilder<B> whenPseudoClass(PseudoClass... pseudoClasses) {
+      super.whenPseudoClass(pseudoClasses);
+      return this;
+    }
+
+    @Override
+    public KeyBindingBuilder<B> unlessPseudoClass(PseudoClass... pseudoClasses) {
+      super.unlessPseudoClass(pseudoClasses);
+      return this;
+    }
+
+    @Override
+    public KeyBindingBuilder<B> inFilterPhase() {
+      super.inFilterPhase();
+      return this;
+    }
+
+    @Override
+    public KeyBindingBuilder<B> consuming() {
+      super.consuming();
+      return this;
+    }
+
+    @Override
+    public KeyBindingBuilder<B> withPriority(int priority) {
+      super.withPriority(priority);
+      return this;
+    }
+
     @Override
     public KeyBinding<B> build() {
-      return new KeyBinding<>(keyCombinations, eventType, action);
+      return new KeyBinding<>(this);
     }
   }
 
@@ -0,0 +1,126 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
+
+/**
+ * An interning factory for key code combinations. Every key code and set of modifier states maps to a single shared
+ * {@link KeyCodeCombination} instance, so equal key combinations created by this class are also identical.
+ *
+ * <p>This class is thread-safe.
+ */
+public final class KeyCombinations {
+
+  private static final KeyCode[] KEY_CODES = KeyCode.values();
+
+  /**
+   * The number of possible modifier states. Each of the five modifier keys may be up, down, or either.
+   */
+  private static final int MODIFIER_STATES = 3 * 3 * 3 * 3 * 3;
+
+  /**
+   * Interned combinations, indexed by key code ordinal and then by modifier state. Rows are only allocated when a
+   * combination with their key code is first requested.
+   */
+  private static final AtomicReferenceArray<AtomicReferenceArray<KeyCodeCombination>> TABLE =
+      new AtomicReferenceArray<>(KEY_CODES.length);
+
+  private KeyCombinations() {
+  }
+
+  /**
+   * Gets the key combination for a key code and modifiers. Any modifier that is not specified must be up for the
+   * combination to match, as with the {@link KeyCodeCombination} constructor.
+   *
+   * @param keyCode   the key code of the combination
+   * @param modifiers the modifiers of the combination
+   *
+   * @return the shared key combination for the key code and modifiers
+   *
+   * @throws IllegalArgumentException if the key code is a modifier key or {@link KeyCode#UNDEFINED}, or if a modifier
+   *                                  key is specified more than once
+   */
+  public static KeyCodeCombination of(KeyCode keyCode, KeyCombination.Modifier... modifiers) {
+    Objects.requireNonNull(keyCode, "Key code cannot be null");
+    int state = modifierState(modifiers);
+    if (state < 0) {
+      // Let KeyCodeCombination report the conflicting modifiers
+      return new KeyCodeCombination(keyCode, modifiers);
+    }
+
+    AtomicReferenceArray<KeyCodeCombination> row = TABLE.get(keyCode.ordinal());
+    if (row == null) {
+      TABLE.compareAndSet(keyCode.ordinal(), null, new AtomicReferenceArray<>(MODIFIER_STATES));
+      row = TABLE.get(keyCode.ordinal());
+    }
+
+    KeyCodeCombination combination = row.get(state);
+    if (combination == null) {
+      row.compareAndSet(state, null, new KeyCodeCombination(keyCode, modifiers));
+      combination = row.get(state);
+    }
+    return combination;
+  }
+
+  /**
+   * Encodes modifiers as a base-3 number, with one digit for each modifier key. Returns -1 if a modifier key is
+   * specified more than once.
+   */
+  private static int modifierState(KeyCombination.Modifier... modifiers) {
+    int state = 0;
+    int seen = 0;
+    for (KeyCombination.Modifier modifier : modifiers) {
+      Objects.requireNonNull(modifier, "Modifier cannot be null");
+      int digit = modifierDigit(modifier.getKey());
+      if ((seen & (1 << digit)) != 0) {
+        return -1;
+      }
+      seen |= 1 << digit;
+      state += valueOf(modifier.getValue()) * pow3(digit);
+    }
+    return state;
+  }
+
+  private static int modifierDigit(KeyCode modifierKey) {
+    switch (modifierKey) {
+      case SHIFT:
+        return 0;
+      case CONTROL:
+        return 1;
+      case ALT:
+        return 2;
+      case META:
+        return 3;
+      case SHORTCUT:
+        return 4;
+      default:
+        throw new IllegalArgumentException("Not a modifier key: " + modifierKey);
+    }
+  }
+
+  private static int valueOf(KeyCombination.ModifierValue value) {
+    switch (value) {
+      case UP:
+        return 0;
+      case DOWN:
+        return 1;
+      case ANY:
+        return 2;
+      default:
+        throw new IllegalArgumentException("Unknown modifier value: " + value);
+    }
+  }
+
+  private static int pow3(int exponent) {
+    int result = 1;
+    for (int i = 0; i < exponent; i++) {
+      result *= 3;
+    }
+    return result;
+  }
+
+}
@@ -0,0 +1,118 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import java.util.Objects;
+
+/**
+ * Decides how many times a key binding's action runs for an auto-repeated key press. The initial press of a key always
+ * runs the action once.
+ */
+final class KeyRepeatPolicy {
+
+  private static final int ALLOW_MODE = 0;
+  private static final int IGNORE_MODE = 1;
+  private static final int THROTTLE_MODE = 2;
+  private static final int PULSE_MODE = 3;
+  private static final int ACCELERATE_MODE = 4;
+
+  static final KeyRepeatPolicy ALLOW = new KeyRepeatPolicy(ALLOW_MODE, 0, 0);
+  static final KeyRepeatPolicy IGNORE = new KeyRepeatPolicy(IGNORE_MODE, 0, 0);
+  static final KeyRepeatPolicy PER_PULSE = new KeyRepeatPolicy(PULSE_MODE, 0, 0);
+
+  private final int mode;
+  private final long nanos;
+  private final int maxSteps;
+
+  private KeyRepeatPolicy(int mode, long nanos, int maxSteps) {
+    this.mode = mode;
+    this.nanos = nanos;
+    this.maxSteps = maxSteps;
+  }
+
+  /**
+   * Allows at most one repeat to fire in each interval.
+   *
+   * @param intervalNanos the minimum time between repeats, in nanoseconds
+   */
+  static KeyRepeatPolicy throttle(long intervalNanos) {
+    return new KeyRepeatPolicy(THROTTLE_MODE, intervalNanos, 1);
+  }
+
+  /**
+   * Runs the action more times for each repeat the longer the key is held, ramping linearly from one step on the first
+   * repeat up to a maximum.
+   *
+   * @param maxSteps  the maximum number of times to run the action per repeat
+   * @param rampNanos how long the key must be held to reach the maximum, in nanoseconds
+   */
+  static KeyRepeatPolicy accelerate(int maxSteps, long rampNanos) {
+    return new KeyRepeatPolicy(ACCELERATE_MODE, rampNanos, maxSteps);
+  }
+
+  /**
+   * Gets the number of times to run the action of a binding for the most recent key event on a behavior.
+   *
+   * @param behavior the behavior the binding is firing on
+   * @param binding  the binding
+   */
+  int steps(BehaviorBase<?, ?> behavior, Binding<?, ?> binding) {
+    KeyRepeatState state = behavior.getKeyRepeatState();
+    if (mode == ALLOW_MODE || !state.isRepeat()) {
+      return 1;
+    }
+    switch (mode) {
+      case IGNORE_MODE:
+        return 0;
+      case THROTTLE_MODE:
+        if (state.nanosSinceLastFired(binding) < nanos) {
+          return 0;
+        }
+        state.fired(binding);
+        return 1;
+      case PULSE_MODE:
+        return state.claimPulse(behavior.getControl().getScene()) ? 1 : 0;
+      case ACCELERATE_MODE:
+        double progress = Math.min(1.0, (double) state.heldNanos() / nanos);
+        return 1 + (int) ((maxSteps - 1) * progress);
+      default:
+        throw new AssertionError("Unknown repeat mode: " + mode);
+    }
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null || getClass() != obj.getClass()) {
+      return false;
+    }
+    KeyRepeatPolicy that = (KeyRepeatPolicy) obj;
+    return this.mode == that.mode
+        && this.nanos == that.nanos
+        && this.maxSteps == that.maxSteps;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(mode, nanos, maxSteps);
+  }
+
+  @Override
+  public String toString() {
+    switch (mode) {
+      case ALLOW_MODE:
+        return "allow";
+      case IGNORE_MODE:
+        return "ignore";
+      case THROTTLE_MODE:
+        return "throttle(" + nanos + "ns)";
+      case PULSE_MODE:
+        return "perPulse";
+      case ACCELERATE_MODE:
+        return "accelerate(" + maxSteps + " steps over " + nanos + "ns)";
+      default:
+        return "unknown";
+    }
+  }
+
+}
@@ -0,0 +1,153 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import java.util.Arrays;
+
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+
+/**
+ * Tracks key auto-repeat for a single behavior. JavaFX does not flag repeated key presses, so a press of the key that is
+ * already held down is treated as a repeat. Only the most recently pressed key is tracked, since that is the only key
+ * the OS repeats.
+ *
+ * <p>All state is kept in primitive fields and arrays that are updated in place, so tracking repeats does not allocate
+ * once the arrays have grown to fit the throttled bindings on the key. This class is confined to the FX thread.
+ */
+final class KeyRepeatState {
+
+  private KeyCode heldKey;
+  private int repeatCount;
+  private long pressedAt;
+  private long lastEventAt;
+
+  // The throttled bindings that have fired for the held key, and when each last fired
+  private Object[] throttled = new Object[0];
+  private long[] throttledAt = new long[0];
+  private int throttledCount;
+
+  private boolean waitingForPulse;
+  private Scene pulseScene;
+  private final Runnable pulseListener = new Runnable() { // not a method reference; see BehaviorBase.Listener
+    @Override
+    public void run() {
+      pulsed();
+    }
+  };
+
+  /**
+   * Updates the state for a key event.
+   *
+   * @param event the event
+   * @param now   the time the event was received, in nanoseconds
+   */
+  void update(KeyEvent event, long now) {
+    lastEventAt = now;
+    if (event.getEventType() == KeyEvent.KEY_PRESSED) {
+      if (event.getCode() == heldKey) {
+        repeatCount++;
+      } else {
+        heldKey = event.getCode();
+        repeatCount = 0;
+        pressedAt = now;
+        clearThrottled();
+      }
+    } else if (event.getEventType() == KeyEvent.KEY_RELEASED && event.getCode() == heldKey) {
+      reset();
+    }
+  }
+
+  /**
+   * Forgets the held key, so the next press of any key is not treated as a repeat. Behaviors call this when their
+   * control loses focus, since the release of a key that is held at the time goes to whatever has the focus next.
+   */
+  void reset() {
+    heldKey = null;
+    repeatCount = 0;
+    clearThrottled();
+  }
+
+  private void clearThrottled() {
+    Arrays.fill(throttled, 0, throttledCount, null);
+    throttledCount = 0;
+  }
+
+  /**
+   * Checks if the most recent key event was an auto-repeated key press.
+   */
+  boolean isRepeat() {
+    return repeatCount > 0;
+  }
+
+  /**
+   * Gets how long the key has been held down as of the most recent key event, in nanoseconds.
+   */
+  long heldNanos() {
+    return lastEventAt - pressedAt;
+  }
+
+  /**
+   * Gets the time since a repeat last fired a throttled binding (or since the key was first pressed, if it hasn't), as
+   * of the most recent key event, in nanoseconds. Each binding is throttled on its own, so bindings that fire on the
+   * same key don't hold each other back.
+   *
+   * @param binding the throttled binding
+   */
+  long nanosSinceLastFired(Object binding) {
+    for (int i = 0; i < throttledCount; i++) {
+      if (throttled[i] == binding) {
+        return lastEventAt - throttledAt[i];
+      }
+    }
+    return lastEventAt - pressedAt;
+  }
+
+  /**
+   * Records that a repeat fired a throttled binding.
+   *
+   * @param binding the throttled binding
+   */
+  void fired(Object binding) {
+    for (int i = 0; i < throttledCount; i++) {
+      if (throttled[i] == binding) {
+        throttledAt[i] = lastEventAt;
+        return;
+      }
+    }
+    if (throttledCount == throttled.length) {
+      throttled = Arrays.copyOf(throttled, throttledCount + 4);
+      throttledAt = Arrays.copyOf(throttledAt, throttledCount + 4);
+    }
+    throttled[throttledCount] = binding;
+    throttledAt[throttledCount] = lastEventAt;
+    throttledCount++;
+  }
+
+  /**
+   * Claims the current pulse for a repeat. Returns false if a repeat has already claimed it, ie the results of an
+   * earlier repeat have not been laid out yet. A repeat is always allowed if the control is not in a scene.
+   *
+   * @param scene the scene of the control
+   */
+  boolean claimPulse(Scene scene) {
+    if (scene == null) {
+      return true;
+    }
+    if (waitingForPulse) {
+      return false;
+    }
+    waitingForPulse = true;
+    pulseScene = scene;
+    scene.addPostLayoutPulseListener(pulseListener);
+    Platform.requestNextPulse();
+    return true;
+  }
+
+  private void pulsed() {
+    waitingForPulse = false;
+    pulseScene.removePostLayoutPulseListener(pulseListener);
+    pulseScene = null;
+  }
+
+}
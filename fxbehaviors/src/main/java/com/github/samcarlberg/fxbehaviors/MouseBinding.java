@@ -1,29 +1,113 @@
 package com.github.samcarlberg.fxbehaviors;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Consumer;
 
+import javafx.css.PseudoClass;
 import javafx.event.EventType;
+import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyCombination;
 import javafx.scene.input.MouseButton;
 import javafx.scene.input.MouseEvent;
 
+/**
+ * Binds mouse inputs to actions to fire when a certain mouse event happens.
+ *
+ * <p>Users are encouraged to use the {@link #builder() builder} to construct new instances instead of the constructor.
+ * Mouse bindings are immutable and thread-safe.
+ *
+ * @param <B> the type of the behavior on which bindings should call actions
+ */
 public final class MouseBinding<B extends BehaviorBase<?, B>> extends Binding<MouseEvent, B> {
 
+  private static final HitRegion[] ANY_REGION = new HitRegion[0];
+
   private final Collection<MouseInput> inputs;
+  private final HitRegion[] regions; // the regions this binding is scoped to, or empty for anywhere on the control
 
   public MouseBinding(Collection<MouseInput> inputs, EventType<MouseEvent> eventType, Consumer<B> action) {
     super(eventType, action);
     this.inputs = List.copyOf(inputs);
+    this.regions = ANY_REGION;
+  }
+
+  private MouseBinding(MouseBindingBuilder<B> builder) {
+    super(builder);
+    this.inputs = List.copyOf(builder.customInputs == null ? MouseBindingBuilder.DEFAULT_INPUTS : builder.customInputs);
+    this.regions = builder.regions.isEmpty() ? ANY_REGION : builder.regions.toArray(new HitRegion[0]);
   }
 
   @Override
   protected boolean match(MouseEvent event) {
-    return (getEventType() == MouseEvent.ANY || getEventType().equals(event.getEventType()))
-        && inputs.stream().anyMatch(input -> input.match(event));
+    for (MouseInput input : inputs) {
+      if (input.match(event)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Checks if this binding can match a mouse event for a specific button.
+   */
+  boolean canMatch(MouseButton button) {
+    for (MouseInput input : inputs) {
+      if (input.button == button) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Checks if this binding can fire when the mouse is in a hit region.
+   *
+   * @param region the region the mouse is in, or null if it is not in any region
+   */
+  boolean canMatch(HitRegion region) {
+    if (regions.length == 0) {
+      return true;
+    }
+    for (HitRegion scope : regions) {
+      if (scope == region) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Gets the regions this binding is scoped to. The array is empty if the binding fires anywhere on the control, and
+   * must not be modified.
+   */
+  HitRegion[] regions() {
+    return regions;
+  }
+
+  /**
+   * Checks the hit region first, since it was resolved once for the event and is cheaper to check than the inputs.
+   */
+  @Override
+  boolean matches(MouseEvent event, B behavior) {
+    if (regions.length > 0 && !canMatch(behavior == null ? null : behavior.getHitRegion())) {
+      return false;
+    }
+    return match(event);
+  }
+
+  @Override
+  public String toString() {
+    if (regions.length == 0) {
+      return String.format("MouseBinding(inputs=%s, eventType=%s)", inputs, getEventType());
+    }
+    return String.format("MouseBinding(inputs=%s, eventType=%s, regions=%s)",
+        inputs, getEventType(), Arrays.toString(regions));
   }
 
   /**
@@ -37,11 +121,16 @@ public final class MouseBinding<B extends BehaviorBase<?, B>> extends Binding<Mo
     return new MouseBindingBuilder<>();
   }
 
+  /**
+   * A builder for mouse bindings. Builders are not thread-safe and should not be shared between threads, but may be
+   * used on any thread.
+   */
   public static final class MouseBindingBuilder<B extends BehaviorBase<?, B>>
       extends Builder<MouseEvent, B, MouseBinding<B>> {
 
     private static final Collection<MouseInput> DEFAULT_INPUTS = List.of(MouseInput.PRIMARY_BUTTON);
     private Collection<MouseInput> customInputs = null;
+    private final Set<HitRegion> regions = new LinkedHashSet<>();
 
     MouseBindingBuilder() {
       // private constructor - use MouseBinding.builder() to instantiate outside this class
@@ -58,13 +147,29 @@ public final class MouseBinding<B extends BehaviorBase<?, B>> extends Binding<Mo
     }
 
     public MouseBindingBuilder<B> withMouseInput(MouseButton button, KeyCombination keys) {
-      return withMouseInput(new MouseInput(button, keys));
+      return withMouseInput(MouseInput.of(button, keys));
     }
 
     public MouseBindingBuilder<B> withMouseButton(MouseButton button) {
       return withMouseInput(button, null);
     }
 
+    /**
+     * Scopes the binding to hit regions of the control. The binding will only fire if the mouse is in one of the
+     * regions, as resolved by the {@link BehaviorBase#getHitRegions() hit region index} of the behavior. Bindings that
+     * are not scoped to any regions fire anywhere on the control.
+     *
+     * @param regions the regions the binding should fire in
+     *
+     * @return this builder
+     */
+    public MouseBindingBuilder<B> inRegion(HitRegion... regions) {
+      for (HitRegion region : regions) {
+        this.regions.add(Objects.requireNonNull(region, "Region cannot be null"));
+      }
+      return this;
+    }
+
     @Override
     public MouseBindingBuilder<B> onEvent(EventType<MouseEvent> eventType) {
       super.onEvent(eventType);
@@ -77,26 +182,98 @@ public final class MouseBinding<B extends BehaviorBase<?, B>> extends Binding<Mo
       return this;
     }
 
+    @Override
+    public MouseBindingBuilder<B> withCommand(Command<B> command) {
+      super.withCommand(command);
+      return this;
+    }
+
+    @Override
+    public MouseBindingBuilder<B> whileHeld(KeyCode... keys) {
+      super.whileHeld(keys);
+      return this;
+    }
+
+    @Override
+    public MouseBindingBuilder<B> whileHeld(MouseButton... buttons) {
+      super.whileHeld(buttons);
+      return this;
+    }
+
+    @Override
+    public MouseBindingBuilder<B> whenPseudoClass(PseudoClass... pseudoClasses) {
+      super.whenPseudoClass(pseudoClasses);
+      return this;
+    }
+
+    @Override
+    public MouseBindingBuilder<B> unlessPseudoClass(PseudoClass... pseudoClasses) {
+      super.unlessPseudoClass(pseudoClasses);
+      return this;
+    }
+
+    @Override
+    public MouseBindingBuilder<B> inFilterPhase() {
+      super.inFilterPhase();
+      return this;
+    }
+
+    @Override
+    public MouseBindingBuilder<B> consuming() {
+      super.consuming();
+      return this;
+    }
+
+    @Override
+    public MouseBindingBuilder<B> withPriority(int priority) {
+      super.withPriority(priority);
+      return this;
+    }
+
     @Override
     public MouseBinding<B> build() {
-      return new MouseBinding<>(customInputs == null ? DEFAULT_INPUTS : customInputs, eventType, action);
+      return new MouseBinding<>(this);
     }
   }
 
   /**
    * Represents user input on a mouse event. A mouse input keeps track of the mouse button (primary, secondary, or
-   * middle), as well as the states of the various modifier keys.
+   * middle), as well as the states of the various modifier keys. Mouse inputs are immutable.
+   *
+   * <p>Prefer the {@link #of(MouseButton, KeyCombination) of()} factory methods to the constructors. The factories
+   * return shared instances, so equal inputs are also identical.
    */
   public static final class MouseInput {
 
-    private final MouseButton button;
-    private final KeyCombination keys;
+    private static final int ALT = 1;
+    private static final int CONTROL = 1 << 1;
+    private static final int META = 1 << 2;
+    private static final int SHIFT = 1 << 3;
+    private static final int SHORTCUT = 1 << 4;
+    private static final int MODIFIER_STATES = 1 << 5;
 
-    private static final KeyCombination BLANK = KeyCombination.NO_MATCH;
+    private static final MouseButton[] BUTTONS = MouseButton.values();
 
-    public static final MouseInput PRIMARY_BUTTON = new MouseInput(MouseButton.PRIMARY);
-    public static final MouseInput SECONDARY_BUTTON = new MouseInput(MouseButton.SECONDARY);
-    public static final MouseInput MIDDLE_BUTTON = new MouseInput(MouseButton.MIDDLE);
+    /**
+     * Interned inputs for every mouse button and combination of modifier keys, indexed by
+     * {@code button.ordinal() * MODIFIER_STATES + modifiers}.
+     */
+    private static final MouseInput[] INTERNED = new MouseInput[BUTTONS.length * MODIFIER_STATES];
+
+    static {
+      for (MouseButton button : BUTTONS) {
+        for (int modifiers = 0; modifiers < MODIFIER_STATES; modifiers++) {
+          INTERNED[button.ordinal() * MODIFIER_STATES + modifiers] = new MouseInput(button, modifiers);
+        }
+      }
+    }
+
+    public static final MouseInput PRIMARY_BUTTON = of(MouseButton.PRIMARY);
+    public static final MouseInput SECONDARY_BUTTON = of(MouseButton.SECONDARY);
+    public static final MouseInput MIDDLE_BUTTON = of(MouseButton.MIDDLE);
+
+    private final MouseButton button;
+    private final int modifiers; // bitmask of the modifier keys that must be down
 
     /**
      * Creates a new mouse input with no modifier keys pressed.
@@ -104,18 +281,68 @@ public final class MouseBinding<B extends BehaviorBase<?, B>> extends Binding<Mo
      * @param button the button that is pressed
      */
     public MouseInput(MouseButton button) {
-      this(button, BLANK);
+      this(button, null);
     }
 
     /**
-     * Creates a new mouse input.
+     * Creates a new mouse input. Only the modifier keys of the key combination are used; a modifier key must be down for
+     * the input to match if the combination's value for it is {@link KeyCombination.ModifierValue#DOWN DOWN} or
+     * {@link KeyCombination.ModifierValue#ANY ANY}, and must be up otherwise.
      *
      * @param button       the button that is pressed
      * @param modifierKeys the combination of modifier keys for the input
      */
     public MouseInput(MouseButton button, KeyCombination modifierKeys) {
+      this(button, modifierMask(modifierKeys));
+    }
+
+    private MouseInput(MouseButton button, int modifiers) {
       this.button = button;
-      this.keys = modifierKeys == null ? BLANK : modifierKeys;
+      this.modifiers = modifiers;
+    }
+
+    /**
+     * Gets the mouse input for a button with no modifier keys pressed.
+     *
+     * @param button the button that is pressed
+     *
+     * @return the shared mouse input for the button
+     */
+    public static MouseInput of(MouseButton button) {
+      return of(button, null);
+    }
+
+    /**
+     * Gets the mouse input for a button and combination of modifier keys. This is equivalent to
+     * {@code new MouseInput(button, modifierKeys)}, but returns a shared instance instead of creating a new one.
+     *
+     * @param button       the button that is pressed
+     * @param modifierKeys the combination of modifier keys for the input
+     *
+     * @return the shared mouse input for the button and modifier keys
+     */
+    public static MouseInput of(MouseButton button, KeyCombination modifierKeys) {
+      Objects.requireNonNull(button, "Mouse button cannot be null");
+      return INTERNED[button.ordinal() * MODIFIER_STATES + modifierMask(modifierKeys)];
+    }
+
+    private static int modifierMask(KeyCombination keys) {
+      if (keys == null) {
+        return 0;
+      }
+      return (keys.getAlt() != KeyCombination.ModifierValue.UP ? ALT : 0)
+          | (keys.getControl() != KeyCombination.ModifierValue.UP ? CONTROL : 0)
+          | (keys.getMeta() != KeyCombination.ModifierValue.UP ? META : 0)
+          | (keys.getShift() != KeyCombination.ModifierValue.UP ? SHIFT : 0)
+          | (keys.getShortcut() != KeyCombination.ModifierValue.UP ? SHORTCUT : 0);
+    }
+
+    private static int modifierMask(MouseEvent event) {
+      return (event.isAltDown() ? ALT : 0)
+          | (event.isControlDown() ? CONTROL : 0)
+          | (event.isMetaDown() ? META : 0)
+          | (event.isShiftDown() ? SHIFT : 0)
+          | (event.isShortcutDown() ? SHORTCUT : 0);
     }
 
     /**
@@ -126,16 +353,8 @@ public final class MouseBinding<B extends BehaviorBase<?, B>> extends Binding<Mo
      * @return true if this input matches the event, false if not
      */
     public boolean match(MouseEvent event) {
-      return event.getButton().equals(button)
-          && modifiersMatch(event);
-    }
-
-    private boolean modifiersMatch(MouseEvent event) {
-      return (event.isAltDown() == (keys.getAlt() != KeyCombination.ModifierValue.UP))
-          && (event.isControlDown() == (keys.getControl() != KeyCombination.ModifierValue.UP))
-          && (event.isMetaDown() == (keys.getMeta() != KeyCombination.ModifierValue.UP))
-          && (event.isShiftDown() == (keys.getShift() != KeyCombination.ModifierValue.UP))
-          && (event.isShortcutDown() == (keys.getShortcut() != KeyCombination.ModifierValue.UP));
+      return event.getButton() == button
+          && modifierMask(event) == modifiers;
     }
 
     @Override
@@ -148,12 +367,23 @@ public final class MouseBinding<B extends BehaviorBase<?, B>> extends Binding<Mo
       }
       MouseInput that = (MouseInput) o;
       return this.button == that.button
-          && Objects.equals(this.keys, that.keys);
+          && this.modifiers == that.modifiers;
     }
 
     @Override
     public int hashCode() {
-      return Objects.hash(button, keys);
+      return Objects.hash(button, modifiers);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("MouseInput(button=%s, alt=%s, control=%s, meta=%s, shift=%s, shortcut=%s)",
+          button,
+          (modifiers & ALT) != 0,
+          (modifiers & CONTROL) != 0,
+          (modifiers & META) != 0,
+          (modifiers & SHIFT) != 0,
+          (modifiers & SHORTCUT) != 0);
     }
   }
 
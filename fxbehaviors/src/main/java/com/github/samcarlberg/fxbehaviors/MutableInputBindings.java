@@ -0,0 +1,83 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.function.BiPredicate;
+
+import javafx.event.Event;
+
+/**
+ * Input bindings that can have bindings added and removed after they are created, eg to let users customize
+ * shortcuts at runtime. Use {@link InputBindings#mutable(Collection) InputBindings.mutable()} to create new instances.
+ *
+ * <p>Bindings are kept in an immutable index that is replaced on every change. Adding or removing a binding only copies
+ * the bindings for the same event type, and firing bindings never blocks, even while the bindings are being changed
+ * on another thread. Events fire on either the old or the new bindings, never a mix of both.
+ *
+ * @param <B> the type of the behavior on which bindings should call actions
+ */
+public final class MutableInputBindings<B extends BehaviorBase<?, B>> implements InputBindings<B> {
+
+  private final BiPredicate<? super Event, B> filter;
+  private volatile BindingIndex<B> index;
+
+  MutableInputBindings(BiPredicate<? super Event, B> filter, Collection<? extends Binding<?, B>> bindings) {
+    this.filter = Objects.requireNonNull(filter, "Filter cannot be null");
+    this.index = new BindingIndex<>(bindings);
+  }
+
+  /**
+   * Adds a binding. The binding will fire after every binding that is already present for the same event type.
+   *
+   * @param binding the binding to add
+   *
+   * @return true if the binding was added, false if it was already present
+   */
+  public synchronized boolean add(Binding<?, B> binding) {
+    Objects.requireNonNull(binding, "Binding cannot be null");
+    BindingIndex<B> current = index;
+    BindingIndex<B> updated = current.with(binding);
+    index = updated;
+    return updated != current;
+  }
+
+  /**
+   * Removes a binding.
+   *
+   * @param binding the binding to remove
+   *
+   * @return true if the binding was removed, false if it was not present
+   */
+  public synchronized boolean remove(Binding<?, B> binding) {
+    Objects.requireNonNull(binding, "Binding cannot be null");
+    BindingIndex<B> current = index;
+    BindingIndex<B> updated = current.without(binding);
+    index = updated;
+    return updated != current;
+  }
+
+  @Override
+  public void fire(Event event, B behavior) {
+    fireAndCount(event, behavior);
+  }
+
+  @Override
+  public boolean hasHeldInputs() {
+    return index.hasHeldInputs();
+  }
+
+  @Override
+  public boolean fireFilters(Event event, B behavior) {
+    return filter.test(event, behavior) && index.fireFilters(event, behavior);
+  }
+
+  /**
+   * Fires the bindings for an event the same way as {@link #fire(Event, BehaviorBase) fire()}, and counts the bindings
+   * that were checked against it.
+   *
+   * @return the number of bindings that were checked against the event
+   */
+  int fireAndCount(Event event, B behavior) {
+    return filter.test(event, behavior) ? index.fire(event, behavior) : 0;
+  }
+}
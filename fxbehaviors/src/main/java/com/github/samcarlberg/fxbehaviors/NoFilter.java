@@ -0,0 +1,35 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import java.util.function.BiPredicate;
+
+import javafx.event.Event;
+
+/**
+ * The filter of input bindings that are created without one, which lets every event through. One instance is shared by
+ * all of them, and it is a class rather than a lambda so that creating the first input bindings doesn't need to link a
+ * lambda.
+ */
+final class NoFilter implements BiPredicate<Event, Object> {
+
+  private static final NoFilter INSTANCE = new NoFilter();
+
+  private NoFilter() {
+  }
+
+  /**
+   * Gets the shared filter.
+   *
+   * @param <B> the type of the behavior the filter is used for
+   */
+  @SuppressWarnings("unchecked")
+  static <B> BiPredicate<? super Event, B> get() {
+    // The filter never looks at the behavior, so it works for any type of behavior
+    return (BiPredicate<? super Event, B>) (BiPredicate<?, ?>) INSTANCE;
+  }
+
+  @Override
+  public boolean test(Event event, Object behavior) {
+    return true;
+  }
+
+}
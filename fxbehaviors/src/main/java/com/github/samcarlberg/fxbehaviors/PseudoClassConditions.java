@@ -0,0 +1,137 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javafx.css.PseudoClass;
+
+/**
+ * The pseudo-class states a control must and must not be in for a binding to fire, as bitmasks. Every pseudo-class used
+ * in a condition is assigned a bit the first time it is used, shared by every binding, so at most 64 distinct
+ * pseudo-classes can be used in conditions. Behaviors keep a mask of the states of their controls with the same bits,
+ * so checking a condition is two bit operations.
+ */
+final class PseudoClassConditions {
+
+  static final PseudoClassConditions NONE = new PseudoClassConditions(0, 0);
+
+  /**
+   * The maximum number of distinct pseudo-classes that can be used in conditions.
+   */
+  static final int MAX_PSEUDO_CLASSES = Long.SIZE;
+
+  private static final Map<PseudoClass, Long> bits = new ConcurrentHashMap<>();
+  private static volatile int registered = 0;
+
+  private final long required;
+  private final long forbidden;
+
+  private PseudoClassConditions(long required, long forbidden) {
+    this.required = required;
+    this.forbidden = forbidden;
+  }
+
+  static PseudoClassConditions of(Collection<PseudoClass> required, Collection<PseudoClass> forbidden) {
+    if (required.isEmpty() && forbidden.isEmpty()) {
+      return NONE;
+    }
+    for (PseudoClass pseudoClass : required) {
+      if (forbidden.contains(pseudoClass)) {
+        throw new IllegalArgumentException("Pseudo-class cannot be both required and forbidden: " + pseudoClass);
+      }
+    }
+    return new PseudoClassConditions(register(required), register(forbidden));
+  }
+
+  private static long register(Collection<PseudoClass> pseudoClasses) {
+    long mask = 0;
+    for (PseudoClass pseudoClass : pseudoClasses) {
+      mask |= register(pseudoClass);
+    }
+    return mask;
+  }
+
+  private static long register(PseudoClass pseudoClass) {
+    Objects.requireNonNull(pseudoClass, "Pseudo-class cannot be null");
+    Long bit = bits.get(pseudoClass);
+    if (bit != null) {
+      return bit;
+    }
+    synchronized (bits) {
+      bit = bits.get(pseudoClass);
+      if (bit == null) {
+        if (registered == MAX_PSEUDO_CLASSES) {
+          throw new IllegalArgumentException(
+              "Cannot use more than " + MAX_PSEUDO_CLASSES + " pseudo-classes in binding conditions");
+        }
+        bit = 1L << registered++;
+        bits.put(pseudoClass, bit);
+      }
+      return bit;
+    }
+  }
+
+  /**
+   * Gets the number of pseudo-classes that have been assigned bits. This only ever increases, so behaviors can compare
+   * it to the number when they last computed the mask of their control's states to tell if that mask is outdated.
+   */
+  static int registered() {
+    return registered;
+  }
+
+  /**
+   * Gets the bit of a pseudo-class.
+   *
+   * @return the bit, or 0 if the pseudo-class is not used in any conditions
+   */
+  static long bitOf(PseudoClass pseudoClass) {
+    Long bit = bits.get(pseudoClass);
+    return bit == null ? 0 : bit;
+  }
+
+  /**
+   * Gets the mask of a set of pseudo-class states. States that are not used in any conditions are ignored.
+   */
+  static long maskOf(Collection<PseudoClass> states) {
+    long mask = 0;
+    for (PseudoClass state : states) {
+      mask |= bitOf(state);
+    }
+    return mask;
+  }
+
+  /**
+   * Gets the bits of every pseudo-class these conditions depend on.
+   */
+  long bits() {
+    return required | forbidden;
+  }
+
+  /**
+   * Checks if these conditions are met by a mask of pseudo-class states.
+   */
+  boolean areMet(long states) {
+    return (states & required) == required && (states & forbidden) == 0;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null || getClass() != obj.getClass()) {
+      return false;
+    }
+    PseudoClassConditions that = (PseudoClassConditions) obj;
+    return this.required == that.required
+        && this.forbidden == that.forbidden;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(required, forbidden);
+  }
+
+}
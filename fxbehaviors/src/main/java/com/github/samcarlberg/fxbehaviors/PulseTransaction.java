@@ -0,0 +1,111 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import javafx.application.Platform;
+import javafx.beans.value.WritableValue;
+import javafx.scene.Scene;
+
+/**
+ * Collects property writes made during a pulse and applies them all at once, just before the next layout. Writing the
+ * same property more than once only applies the last value, and properties are written in the order they were first
+ * written. There is one transaction per scene, shared by every behavior in it. This class is confined to the FX thread.
+ */
+final class PulseTransaction {
+
+  private static final Object KEY = new Object();
+
+  private final Consumer<PulseTransaction> scheduler;
+  private final Map<WritableValue<?>, Object> pending = new IdentityHashMap<>();
+  private final List<WritableValue<?>> order = new ArrayList<>();
+  private boolean scheduled = false;
+
+  /**
+   * Creates a new transaction.
+   *
+   * @param scheduler arranges for {@link #flush()} to be called after the first pending write
+   */
+  PulseTransaction(Consumer<PulseTransaction> scheduler) {
+    this.scheduler = scheduler;
+  }
+
+  /**
+   * Gets the transaction for a scene, creating it if it doesn't exist yet.
+   *
+   * @param scene the scene
+   */
+  static PulseTransaction of(Scene scene) {
+    return (PulseTransaction) scene.getProperties().computeIfAbsent(KEY, __ -> forScene(scene));
+  }
+
+  private static PulseTransaction forScene(Scene scene) {
+    Runnable[] listener = new Runnable[1];
+    PulseTransaction transaction = new PulseTransaction(tx -> {
+      scene.addPreLayoutPulseListener(listener[0]);
+      Platform.requestNextPulse();
+    });
+    listener[0] = () -> {
+      scene.removePreLayoutPulseListener(listener[0]);
+      transaction.flush();
+    };
+    return transaction;
+  }
+
+  /**
+   * Queues a write to a property, replacing any write to it that is already pending.
+   *
+   * @param property the property to write to
+   * @param value    the value to write
+   * @param <T>      the type of the property value
+   */
+  <T> void write(WritableValue<T> property, T value) {
+    if (!pending.containsKey(property)) {
+      order.add(property);
+    }
+    pending.put(property, value);
+    if (!scheduled) {
+      scheduled = true;
+      scheduler.accept(this);
+    }
+  }
+
+  /**
+   * Gets the value a property will have once the pending writes are applied.
+   *
+   * @param property the property
+   * @param <T>      the type of the property value
+   *
+   * @return the value of the pending write to the property, or its current value if it has none
+   */
+  @SuppressWarnings("unchecked")
+  <T> T valueOf(WritableValue<T> property) {
+    return pending.containsKey(property) ? (T) pending.get(property) : property.getValue();
+  }
+
+  /**
+   * Checks if there are any writes waiting to be applied.
+   */
+  boolean hasPendingWrites() {
+    return !order.isEmpty();
+  }
+
+  /**
+   * Applies all pending writes. Writes made by listeners of the written properties are queued for the next pulse.
+   */
+  @SuppressWarnings("unchecked")
+  void flush() {
+    List<WritableValue<?>> properties = new ArrayList<>(order);
+    Map<WritableValue<?>, Object> values = new IdentityHashMap<>(pending);
+    order.clear();
+    pending.clear();
+    scheduled = false;
+    for (WritableValue<?> property : properties) {
+      ((WritableValue<Object>) property).setValue(values.get(property));
+    }
+  }
+
+}
@@ -0,0 +1,254 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.ReadOnlyProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.event.EventHandler;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+
+/**
+ * Dispatches keyboard shortcuts for a whole scene. Shortcuts are key bindings registered on a scope node, and are
+ * active while the focus owner is that node or one of its descendants. A key event that is not consumed by the focused
+ * control fires the first matching shortcut, starting with the scope closest to the focus owner and working up to the
+ * root; shortcuts registered on the same scope are tried in the order they were registered. The matching shortcut
+ * consumes the event.
+ *
+ * <p>The bindings of the focused control come first: the dispatcher handles key events on the scene, after they have
+ * bubbled up from the focus owner, so a binding of the focused control that {@link Binding#isConsuming() consumes} its
+ * events (or fires in the filter phase) keeps shortcuts for the same key from firing. A binding that does not consume
+ * its events fires first and then lets the shortcut fire as well.
+ *
+ * <p>Shortcuts are unregistered when their scope is removed from the scene, so that the dispatcher does not keep nodes
+ * and behaviors that have been removed from the scene alive. Scopes are tracked from the time they are registered, so
+ * a scope can be registered before it is added to the scene.
+ *
+ * <p>The shortcuts that are active for the focus owner are collected once and cached until the focus owner changes,
+ * the focus owner or one of its ancestors is moved in the scene graph, or shortcuts are registered or unregistered.
+ * Key presses only check the cached shortcuts that can match their key code.
+ *
+ * <p>Dispatchers are confined to the FX thread.
+ */
+public final class ShortcutDispatcher {
+
+  private static final Object KEY = new Object();
+
+  private final Scene scene;
+  private final ObservableValue<? extends Node> focusOwner;
+  private final ObservableValue<? extends Node> root;
+  private final Map<Node, List<Shortcut<?>>> shortcutsByScope = new IdentityHashMap<>();
+  private final EventHandler<KeyEvent> eventHandler = this::dispatch;
+  private final InvalidationListener invalidator = __ -> invalidate();
+  private final ChangeListener<Scene> scopeSceneListener = this::scopeSceneChanged;
+  private final List<Node> observedNodes = new ArrayList<>();
+  private Keymap keymap; // null if it needs to be resolved again
+
+  ShortcutDispatcher(Scene scene, ObservableValue<? extends Node> focusOwner, ObservableValue<? extends Node> root) {
+    this.scene = scene;
+    this.focusOwner = focusOwner;
+    this.root = root;
+    focusOwner.addListener(invalidator);
+    root.addListener(invalidator);
+  }
+
+  /**
+   * Installs a shortcut dispatcher on a scene. If the scene already has a dispatcher, that one is returned instead.
+   *
+   * @param scene the scene to install the dispatcher on
+   *
+   * @return the dispatcher for the scene
+   */
+  public static ShortcutDispatcher install(Scene scene) {
+    Objects.requireNonNull(scene, "Scene cannot be null");
+    return (ShortcutDispatcher) scene.getProperties().computeIfAbsent(KEY, __ -> {
+      ShortcutDispatcher dispatcher = new ShortcutDispatcher(scene, scene.focusOwnerProperty(), scene.rootProperty());
+      scene.addEventHandler(KeyEvent.ANY, dispatcher.eventHandler);
+      return dispatcher;
+    });
+  }
+
+  /**
+   * Registers shortcuts on a scope. The bindings will fire on the given behavior while the focus owner is the scope node
+   * or one of its descendants. Registering more shortcuts on a scope adds them after the ones it already has.
+   *
+   * @param scope    the node the shortcuts are active in
+   * @param behavior the behavior on which to run the actions of the bindings
+   * @param bindings the bindings to register
+   * @param <B>      the type of the behavior
+   */
+  public <B extends BehaviorBase<?, B>> void register(Node scope,
+                                                      B behavior,
+                                                      Collection<? extends KeyBinding<B>> bindings) {
+    Objects.requireNonNull(scope, "Scope cannot be null");
+    Objects.requireNonNull(behavior, "Behavior cannot be null");
+    Objects.requireNonNull(bindings, "Bindings cannot be null");
+    List<Shortcut<?>> shortcuts = shortcutsByScope.get(scope);
+    if (shortcuts == null) {
+      shortcuts = new ArrayList<>();
+      shortcutsByScope.put(scope, shortcuts);
+      scope.sceneProperty().addListener(scopeSceneListener);
+    }
+    for (KeyBinding<B> binding : bindings) {
+      shortcuts.add(new Shortcut<>(Objects.requireNonNull(binding, "Binding cannot be null"), behavior));
+    }
+    invalidate();
+  }
+
+  /**
+   * Unregisters every shortcut on a scope.
+   *
+   * @param scope the scope to remove the shortcuts of
+   *
+   * @return true if the scope had any shortcuts, false if not
+   */
+  public boolean unregister(Node scope) {
+    boolean removed = shortcutsByScope.remove(scope) != null;
+    if (removed) {
+      scope.sceneProperty().removeListener(scopeSceneListener);
+      invalidate();
+    }
+    return removed;
+  }
+
+  private void scopeSceneChanged(ObservableValue<? extends Scene> property, Scene oldScene, Scene newScene) {
+    if (oldScene == scene && newScene != scene) {
+      unregister((Node) ((ReadOnlyProperty<?>) property).getBean());
+    }
+  }
+
+  /**
+   * Removes this dispatcher from its scene and unregisters all shortcuts.
+   */
+  public void dispose() {
+    if (scene != null) {
+      scene.removeEventHandler(KeyEvent.ANY, eventHandler);
+      scene.getProperties().remove(KEY, this);
+    }
+    focusOwner.removeListener(invalidator);
+    root.removeListener(invalidator);
+    for (Node scope : shortcutsByScope.keySet()) {
+      scope.sceneProperty().removeListener(scopeSceneListener);
+    }
+    shortcutsByScope.clear();
+    invalidate();
+  }
+
+  /**
+   * Fires the first shortcut that matches a key event, and consumes the event if one matched.
+   *
+   * @param event the key event
+   */
+  void dispatch(KeyEvent event) {
+    if (event.isConsumed()) {
+      return;
+    }
+    for (Shortcut<?> shortcut : keymap().candidates(event.getCode())) {
+      if (shortcut.fire(event)) {
+        event.consume();
+        return;
+      }
+    }
+  }
+
+  /**
+   * Gets the shortcuts that are active for the current focus owner, resolving them if they are not cached.
+   */
+  Keymap keymap() {
+    if (keymap == null) {
+      keymap = resolve();
+    }
+    return keymap;
+  }
+
+  private Keymap resolve() {
+    List<Shortcut<?>> shortcuts = new ArrayList<>();
+    Node start = focusOwner.getValue();
+    if (start == null) {
+      start = root.getValue();
+    }
+    for (Node node = start; node != null; node = node.getParent()) {
+      node.parentProperty().addListener(invalidator);
+      observedNodes.add(node);
+      List<Shortcut<?>> scoped = shortcutsByScope.get(node);
+      if (scoped != null) {
+        shortcuts.addAll(scoped);
+      }
+    }
+    return new Keymap(shortcuts.toArray(new Shortcut<?>[0]));
+  }
+
+  private void invalidate() {
+    for (Node node : observedNodes) {
+      node.parentProperty().removeListener(invalidator);
+    }
+    observedNodes.clear();
+    keymap = null;
+  }
+
+  /**
+   * The shortcuts that are active for a focus owner, in the order they should be tried. Shortcuts that can match a key
+   * code are narrowed down the first time a key with that code is pressed.
+   */
+  static final class Keymap {
+
+    private final Shortcut<?>[] shortcuts;
+    private final Map<KeyCode, Shortcut<?>[]> byKeyCode = new EnumMap<>(KeyCode.class);
+
+    Keymap(Shortcut<?>[] shortcuts) {
+      this.shortcuts = shortcuts;
+    }
+
+    Shortcut<?>[] candidates(KeyCode code) {
+      Shortcut<?>[] candidates = byKeyCode.get(code);
+      if (candidates == null) {
+        List<Shortcut<?>> matching = new ArrayList<>();
+        for (Shortcut<?> shortcut : shortcuts) {
+          if (shortcut.canMatch(code)) {
+            matching.add(shortcut);
+          }
+        }
+        candidates = matching.toArray(new Shortcut<?>[0]);
+        byKeyCode.put(code, candidates);
+      }
+      return candidates;
+    }
+
+    int size() {
+      return shortcuts.length;
+    }
+  }
+
+  /**
+   * A key binding registered as a shortcut, and the behavior to fire it on.
+   */
+  static final class Shortcut<B extends BehaviorBase<?, B>> {
+
+    private final KeyBinding<B> binding;
+    private final B behavior;
+
+    Shortcut(KeyBinding<B> binding, B behavior) {
+      this.binding = binding;
+      this.behavior = behavior;
+    }
+
+    boolean canMatch(KeyCode code) {
+      return binding.canMatch(code);
+    }
+
+    boolean fire(KeyEvent event) {
+      return binding.appliesTo(event.getEventType()) && binding.fireIfMatchesResolved(event, behavior);
+    }
+  }
+
+}
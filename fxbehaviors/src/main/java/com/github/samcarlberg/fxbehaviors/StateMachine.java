@@ -0,0 +1,204 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * A finite state machine for a {@link StateMachineBehavior}. States and the triggers that move between them are enums,
+ * and every transition is declared up front, so the whole machine is a dense table with one cell per state and
+ * trigger. Firing a trigger is an array lookup, no matter how many states or transitions the machine has.
+ *
+ * <pre>{@code
+ * enum State { IDLE, ARMED }
+ * enum Trigger { PRESS, RELEASE }
+ *
+ * StateMachine<State, Trigger, ButtonBehavior> machine =
+ *     StateMachine.<State, Trigger, ButtonBehavior>builder(State.class, Trigger.class, State.IDLE)
+ *         .transition(State.IDLE, Trigger.PRESS, State.ARMED, ButtonBehavior::armButton)
+ *         .transition(State.ARMED, Trigger.RELEASE, State.IDLE, ButtonBehavior::fireButton)
+ *         .build();
+ * }</pre>
+ *
+ * <p>Triggers are fired by input bindings, eg {@code .withAction(b -> b.fire(Trigger.PRESS))}, or directly by the
+ * behavior. State machines are immutable and hold no per-control state, so one machine can be shared by every behavior
+ * of the same type.
+ *
+ * @param <S> the type of the states
+ * @param <T> the type of the triggers
+ * @param <B> the type of the behavior on which transitions run their actions
+ */
+public final class StateMachine<S extends Enum<S>, T extends Enum<T>, B extends StateMachineBehavior<?, S, T, B>> {
+
+  private static final int NO_TRANSITION = -1;
+
+  private final S[] states;
+  private final T[] triggers;
+  private final S initialState;
+  private final int[] targets; // target state ordinal for each state * trigger cell, or NO_TRANSITION
+  private final Consumer<B>[] actions; // action for each cell, or null
+
+  private StateMachine(S[] states, T[] triggers, S initialState, int[] targets, Consumer<B>[] actions) {
+    this.states = states;
+    this.triggers = triggers;
+    this.initialState = initialState;
+    this.targets = targets;
+    this.actions = actions;
+  }
+
+  /**
+   * Creates a new state machine builder.
+   *
+   * @param stateType    the enum class of the states
+   * @param triggerType  the enum class of the triggers
+   * @param initialState the state that behaviors start in
+   * @param <S>          the type of the states
+   * @param <T>          the type of the triggers
+   * @param <B>          the type of the behavior on which transitions run their actions
+   *
+   * @return a new builder
+   */
+  public static <S extends Enum<S>, T extends Enum<T>, B extends StateMachineBehavior<?, S, T, B>> Builder<S, T, B>
+      builder(Class<S> stateType, Class<T> triggerType, S initialState) {
+    return new Builder<>(stateType, triggerType, initialState);
+  }
+
+  /**
+   * Gets the state that behaviors start in.
+   */
+  public S getInitialState() {
+    return initialState;
+  }
+
+  /**
+   * Gets the state that a trigger moves to from another state.
+   *
+   * @param state   the state to move from
+   * @param trigger the trigger
+   *
+   * @return the state to move to, or null if the trigger does nothing in the given state
+   */
+  public S next(S state, T trigger) {
+    int target = targets[cell(state.ordinal(), trigger.ordinal())];
+    return target == NO_TRANSITION ? null : states[target];
+  }
+
+  S state(int ordinal) {
+    return states[ordinal];
+  }
+
+  /**
+   * Gets the index of the table cell for a state and trigger.
+   */
+  int cell(int state, int trigger) {
+    return state * triggers.length + trigger;
+  }
+
+  /**
+   * Gets the ordinal of the state a table cell moves to, or -1 if the cell has no transition.
+   */
+  int target(int cell) {
+    return targets[cell];
+  }
+
+  /**
+   * Runs the action of the transition in a table cell, if it has one.
+   */
+  void runAction(int cell, B behavior) {
+    Consumer<B> action = actions[cell];
+    if (action != null) {
+      action.accept(behavior);
+    }
+  }
+
+  /**
+   * A builder for state machines. Builders are not thread-safe, but the machines they build are immutable.
+   *
+   * @param <S> the type of the states
+   * @param <T> the type of the triggers
+   * @param <B> the type of the behavior on which transitions run their actions
+   */
+  public static final class Builder<S extends Enum<S>, T extends Enum<T>, B extends StateMachineBehavior<?, S, T, B>> {
+
+    private final S[] states;
+    private final T[] triggers;
+    private final S initialState;
+    private final int[] targets;
+    private final Consumer<B>[] actions;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Builder(Class<S> stateType, Class<T> triggerType, S initialState) {
+      Objects.requireNonNull(stateType, "State type cannot be null");
+      Objects.requireNonNull(triggerType, "Trigger type cannot be null");
+      Objects.requireNonNull(initialState, "Initial state cannot be null");
+      this.states = stateType.getEnumConstants();
+      this.triggers = triggerType.getEnumConstants();
+      if (states.length == 0) {
+        throw new IllegalArgumentException("State type has no states: " + stateType.getName());
+      }
+      if (triggers.length == 0) {
+        throw new IllegalArgumentException("Trigger type has no triggers: " + triggerType.getName());
+      }
+      this.initialState = initialState;
+      this.targets = new int[states.length * triggers.length];
+      Arrays.fill(targets, NO_TRANSITION);
+      this.actions = new Consumer[targets.length];
+    }
+
+    /**
+     * Adds a transition with no action.
+     *
+     * @param from    the state to move from
+     * @param trigger the trigger that causes the transition
+     * @param to      the state to move to
+     *
+     * @return this builder
+     *
+     * @throws IllegalArgumentException if there is already a transition for the trigger from the same state
+     */
+    public Builder<S, T, B> transition(S from, T trigger, S to) {
+      return add(from, trigger, to, null);
+    }
+
+    /**
+     * Adds a transition. The action runs after the behavior has moved to the new state.
+     *
+     * @param from    the state to move from
+     * @param trigger the trigger that causes the transition
+     * @param to      the state to move to
+     * @param action  the action to run when the transition is taken
+     *
+     * @return this builder
+     *
+     * @throws IllegalArgumentException if there is already a transition for the trigger from the same state
+     */
+    public Builder<S, T, B> transition(S from, T trigger, S to, Consumer<B> action) {
+      Objects.requireNonNull(action, "Action cannot be null");
+      return add(from, trigger, to, action);
+    }
+
+    private Builder<S, T, B> add(S from, T trigger, S to, Consumer<B> action) {
+      Objects.requireNonNull(from, "From state cannot be null");
+      Objects.requireNonNull(trigger, "Trigger cannot be null");
+      Objects.requireNonNull(to, "To state cannot be null");
+      int cell = from.ordinal() * triggers.length + trigger.ordinal();
+      if (targets[cell] != NO_TRANSITION) {
+        throw new IllegalArgumentException(
+            "There is already a transition for " + trigger + " from " + from + " (to " + states[targets[cell]] + ")");
+      }
+      targets[cell] = to.ordinal();
+      actions[cell] = action;
+      return this;
+    }
+
+    /**
+     * Builds the state machine.
+     *
+     * @return a new state machine
+     */
+    public StateMachine<S, T, B> build() {
+      return new StateMachine<>(states, triggers, initialState, targets.clone(), actions.clone());
+    }
+  }
+
+}
@@ -0,0 +1,77 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import java.util.Objects;
+
+import javafx.scene.control.Control;
+
+/**
+ * A behavior that is driven by a {@link StateMachine}. Each behavior has its own current state, starting in the
+ * machine's initial state; input bindings move it between states by {@link #fire(Enum) firing} triggers.
+ *
+ * @param <C> the type of control to define behavior for
+ * @param <S> the type of the states
+ * @param <T> the type of the triggers
+ * @param <B> the self type
+ */
+public class StateMachineBehavior<C extends Control, S extends Enum<S>, T extends Enum<T>,
+    B extends StateMachineBehavior<C, S, T, B>> extends BehaviorBase<C, B> {
+
+  private final StateMachine<S, T, B> stateMachine;
+  private int state;
+
+  /**
+   * Creates a new state machine behavior.
+   *
+   * @param control      the control to manipulate
+   * @param stateMachine the state machine that drives this behavior
+   * @param bindings     optional input bindings, which should fire the machine's triggers
+   */
+  public StateMachineBehavior(C control, StateMachine<S, T, B> stateMachine, InputBindings<B> bindings) {
+    super(control, bindings);
+    Objects.requireNonNull(stateMachine, "State machine cannot be null");
+    this.stateMachine = stateMachine;
+    this.state = stateMachine.getInitialState().ordinal();
+  }
+
+  /**
+   * Gets the state machine that drives this behavior.
+   */
+  public final StateMachine<S, T, B> getStateMachine() {
+    return stateMachine;
+  }
+
+  /**
+   * Gets the current state of this behavior.
+   */
+  public final S getState() {
+    return stateMachine.state(state);
+  }
+
+  /**
+   * Fires a trigger. If the state machine has a transition for the trigger from the current state, this behavior moves
+   * to the transition's target state and then runs its action; otherwise, nothing happens.
+   *
+   * @param trigger the trigger to fire
+   *
+   * @return true if a transition was taken, false if the trigger does nothing in the current state
+   */
+  @SuppressWarnings("unchecked")
+  public final boolean fire(T trigger) {
+    int cell = stateMachine.cell(state, trigger.ordinal());
+    int target = stateMachine.target(cell);
+    if (target < 0) {
+      return false;
+    }
+    state = target;
+    stateMachine.runAction(cell, (B) this);
+    return true;
+  }
+
+  /**
+   * Moves this behavior back to the state machine's initial state without running any actions.
+   */
+  public final void reset() {
+    state = stateMachine.getInitialState().ordinal();
+  }
+
+}
@@ -0,0 +1,63 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import java.util.Arrays;
+
+/**
+ * Remembers a value computed for each pseudo-class state mask. A control is only ever in a handful of the states its
+ * bindings care about, so the masks are kept in a small array that is scanned rather than hashed, and lookups never
+ * allocate. Like the candidates in {@link BindingIndex}, the entries are replaced rather than modified, so lookups do
+ * not need to lock; computing the same value twice is harmless.
+ *
+ * <p>Subclasses compute the values. This is an abstract class rather than a cache of a function so that it can be
+ * created while dispatching the first event without linking a lambda.
+ *
+ * @param <T> the type of the values
+ */
+abstract class StateMaskCache<T> {
+
+  private volatile Entries entries = new Entries(new long[0], new Object[0]);
+
+  /**
+   * Computes the value for a mask that is not cached yet.
+   */
+  abstract T compute(long mask);
+
+  /**
+   * Gets the value for a mask, computing it if it is not cached yet.
+   */
+  @SuppressWarnings("unchecked")
+  T get(long mask) {
+    Entries current = entries;
+    long[] masks = current.masks;
+    for (int i = 0; i < masks.length; i++) {
+      if (masks[i] == mask) {
+        return (T) current.values[i];
+      }
+    }
+    T value = compute(mask);
+    long[] newMasks = Arrays.copyOf(masks, masks.length + 1);
+    Object[] newValues = Arrays.copyOf(current.values, masks.length + 1);
+    newMasks[masks.length] = mask;
+    newValues[masks.length] = value;
+    entries = new Entries(newMasks, newValues);
+    return value;
+  }
+
+  /**
+   * Gets the number of masks that have been cached.
+   */
+  int size() {
+    return entries.masks.length;
+  }
+
+  private static final class Entries {
+    final long[] masks;
+    final Object[] values;
+
+    Entries(long[] masks, Object[] values) {
+      this.masks = masks;
+      this.values = values;
+    }
+  }
+
+}
@@ -0,0 +1,335 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Stores primitive per-behavior state in shared columns rather than in fields of each behavior. A store is normally
+ * shared by every behavior of one type: the type declares typed {@link Slot slots} for its state once, and each
+ * behavior {@link #allocate() allocates} a row in the store and reads and writes its state in the slots by row index.
+ * This keeps behaviors for large numbers of controls, such as the cells of a big table, from each carrying their own
+ * state objects, and keeps the same piece of state for every behavior next to each other in memory.
+ *
+ * <pre>{@code
+ * private static final StateStore store = new StateStore();
+ * private static final StateStore.LongSlot pressedAt = store.longSlot("pressedAt");
+ *
+ * private final int row = store.allocate();
+ * }</pre>
+ *
+ * <p>Each slot is a column of pages of 1024 rows. The store grows a page at a time, and pages never move once they are
+ * created, so rows can be allocated on any thread while the rows of other behaviors are in use on the FX thread. Rows
+ * are not garbage collected with their behaviors, so behaviors should release their rows when they are
+ * {@link BehaviorBase#dispose() disposed}. Released rows are reset to zero and reused by later allocations.
+ * Allocating and releasing rows and declaring slots are thread-safe; reading and writing a row should be confined to
+ * the thread that uses its behavior.
+ */
+public final class StateStore {
+
+  private static final int PAGE_BITS = 10;
+  static final int PAGE_SIZE = 1 << PAGE_BITS;
+  private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+  private final List<Slot> slots = new ArrayList<>();
+  private long[] allocated = new long[0]; // bitset of the rows that are in use
+  private int[] freeRows = new int[0]; // stack of released rows to reuse
+  private int freeCount = 0;
+  private int pages = 0;
+  private int rowLimit = 0; // rows below this have been allocated at least once
+  private int size = 0;
+
+  /**
+   * Creates a new, empty store with no slots.
+   */
+  public StateStore() {
+    // Nothing to do
+  }
+
+  /**
+   * Declares an int slot.
+   *
+   * @param name the name of the slot
+   *
+   * @return the new slot
+   */
+  public synchronized IntSlot intSlot(String name) {
+    return add(new IntSlot(name));
+  }
+
+  /**
+   * Declares a double slot.
+   *
+   * @param name the name of the slot
+   *
+   * @return the new slot
+   */
+  public synchronized DoubleSlot doubleSlot(String name) {
+    return add(new DoubleSlot(name));
+  }
+
+  /**
+   * Declares a long slot.
+   *
+   * @param name the name of the slot
+   *
+   * @return the new slot
+   */
+  public synchronized LongSlot longSlot(String name) {
+    return add(new LongSlot(name));
+  }
+
+  private <S extends Slot> S add(S slot) {
+    slot.grow(pages);
+    slots.add(slot);
+    return slot;
+  }
+
+  /**
+   * Allocates a row. Every slot of the row starts at zero. Released rows are reused before new ones are added, so row
+   * indices stay compact.
+   *
+   * @return the index of the row
+   */
+  public synchronized int allocate() {
+    int row;
+    if (freeCount > 0) {
+      row = freeRows[--freeCount];
+    } else {
+      row = rowLimit++;
+      if (row == pages * PAGE_SIZE) {
+        pages++;
+        for (Slot slot : slots) {
+          slot.grow(pages);
+        }
+        long[] grown = new long[pages * PAGE_SIZE / Long.SIZE];
+        System.arraycopy(allocated, 0, grown, 0, allocated.length);
+        allocated = grown;
+      }
+    }
+    allocated[row / Long.SIZE] |= 1L << row;
+    size++;
+    return row;
+  }
+
+  /**
+   * Releases a row so it can be reused. Its slots are reset to zero.
+   *
+   * @param row the index of the row
+   *
+   * @throws IllegalArgumentException if the row is not allocated
+   */
+  public synchronized void release(int row) {
+    if (!isAllocated(row)) {
+      throw new IllegalArgumentException("Row " + row + " is not allocated");
+    }
+    allocated[row / Long.SIZE] &= ~(1L << row);
+    for (Slot slot : slots) {
+      slot.clear(row);
+    }
+    if (freeCount == freeRows.length) {
+      int[] grown = new int[Math.max(16, freeRows.length * 2)];
+      System.arraycopy(freeRows, 0, grown, 0, freeCount);
+      freeRows = grown;
+    }
+    freeRows[freeCount++] = row;
+    size--;
+  }
+
+  /**
+   * Checks if a row is allocated.
+   *
+   * @param row the index of the row
+   */
+  public synchronized boolean isAllocated(int row) {
+    return row >= 0 && row < rowLimit && (allocated[row / Long.SIZE] & (1L << row)) != 0;
+  }
+
+  /**
+   * Gets the number of allocated rows.
+   */
+  public synchronized int size() {
+    return size;
+  }
+
+  /**
+   * Gets the number of rows this store has room for without growing.
+   */
+  public synchronized int getCapacity() {
+    return pages * PAGE_SIZE;
+  }
+
+  /**
+   * A column of state in a store, with a value for every row. Slots are created by the store they belong to.
+   */
+  public abstract static class Slot {
+
+    private final String name;
+
+    Slot(String name) {
+      this.name = Objects.requireNonNull(name, "Slot name cannot be null");
+    }
+
+    /**
+     * Gets the name of this slot.
+     */
+    public final String getName() {
+      return name;
+    }
+
+    /**
+     * Adds pages to this slot until it has the given number of pages. The directory of pages is replaced rather than
+     * changed, so readers of the old directory still see the same pages.
+     */
+    abstract void grow(int pages);
+
+    /**
+     * Resets a row to zero.
+     */
+    abstract void clear(int row);
+
+    @Override
+    public String toString() {
+      return String.format("%s(name=%s)", getClass().getSimpleName(), name);
+    }
+  }
+
+  /**
+   * A slot of int values.
+   */
+  public static final class IntSlot extends Slot {
+
+    private volatile int[][] pages = new int[0][];
+
+    IntSlot(String name) {
+      super(name);
+    }
+
+    /**
+     * Gets the value of this slot for a row.
+     *
+     * @param row the index of the row
+     */
+    public int get(int row) {
+      return pages[row >>> PAGE_BITS][row & PAGE_MASK];
+    }
+
+    /**
+     * Sets the value of this slot for a row.
+     *
+     * @param row   the index of the row
+     * @param value the new value
+     */
+    public void set(int row, int value) {
+      pages[row >>> PAGE_BITS][row & PAGE_MASK] = value;
+    }
+
+    @Override
+    void grow(int count) {
+      int[][] grown = new int[count][];
+      System.arraycopy(pages, 0, grown, 0, pages.length);
+      for (int i = pages.length; i < count; i++) {
+        grown[i] = new int[PAGE_SIZE];
+      }
+      pages = grown;
+    }
+
+    @Override
+    void clear(int row) {
+      set(row, 0);
+    }
+  }
+
+  /**
+   * A slot of double values.
+   */
+  public static final class DoubleSlot extends Slot {
+
+    private volatile double[][] pages = new double[0][];
+
+    DoubleSlot(String name) {
+      super(name);
+    }
+
+    /**
+     * Gets the value of this slot for a row.
+     *
+     * @param row the index of the row
+     */
+    public double get(int row) {
+      return pages[row >>> PAGE_BITS][row & PAGE_MASK];
+    }
+
+    /**
+     * Sets the value of this slot for a row.
+     *
+     * @param row   the index of the row
+     * @param value the new value
+     */
+    public void set(int row, double value) {
+      pages[row >>> PAGE_BITS][row & PAGE_MASK] = value;
+    }
+
+    @Override
+    void grow(int count) {
+      double[][] grown = new double[count][];
+      System.arraycopy(pages, 0, grown, 0, pages.length);
+      for (int i = pages.length; i < count; i++) {
+        grown[i] = new double[PAGE_SIZE];
+      }
+      pages = grown;
+    }
+
+    @Override
+    void clear(int row) {
+      set(row, 0);
+    }
+  }
+
+  /**
+   * A slot of long values.
+   */
+  public static final class LongSlot extends Slot {
+
+    private volatile long[][] pages = new long[0][];
+
+    LongSlot(String name) {
+      super(name);
+    }
+
+    /**
+     * Gets the value of this slot for a row.
+     *
+     * @param row the index of the row
+     */
+    public long get(int row) {
+      return pages[row >>> PAGE_BITS][row & PAGE_MASK];
+    }
+
+    /**
+     * Sets the value of this slot for a row.
+     *
+     * @param row   the index of the row
+     * @param value the new value
+     */
+    public void set(int row, long value) {
+      pages[row >>> PAGE_BITS][row & PAGE_MASK] = value;
+    }
+
+    @Override
+    void grow(int count) {
+      long[][] grown = new long[count][];
+      System.arraycopy(pages, 0, grown, 0, pages.length);
+      for (int i = pages.length; i < count; i++) {
+        grown[i] = new long[PAGE_SIZE];
+      }
+      pages = grown;
+    }
+
+    @Override
+    void clear(int row) {
+      set(row, 0);
+    }
+  }
+
+}
@@ -3,6 +3,7 @@ module com.github.samcarlberg.fxbehaviors {
   requires javafx.base;
   requires javafx.graphics;
   requires javafx.controls;
+  requires jdk.jfr;
 
   exports com.github.samcarlberg.fxbehaviors;
 }
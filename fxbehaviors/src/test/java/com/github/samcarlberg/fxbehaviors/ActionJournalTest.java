@@ -0,0 +1,212 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.scene.control.Button;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+
+import static com.github.samcarlberg.fxbehaviors.KeyBindingTest.createKeyEvent;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ActionJournalTest {
+
+  private static final Object first = new Object();
+  private static final Object second = new Object();
+
+  @BeforeAll
+  public static void force() {
+    BehaviorBaseTest.force();
+  }
+
+  private static class MockBehavior extends BehaviorBase<Button, MockBehavior> {
+    final DoubleProperty value = new SimpleDoubleProperty(this, "value", 0);
+
+    MockBehavior(InputBindings<MockBehavior> bindings) {
+      super(new Button(), bindings);
+    }
+
+    void step() {
+      write(value, value.get() + 1);
+    }
+
+    void rename() {
+      write(getControl().textProperty(), "renamed");
+    }
+  }
+
+  @Test
+  public void testUndoRedo() {
+    ActionJournal journal = new ActionJournal(10);
+    DoubleProperty property = new SimpleDoubleProperty(2);
+    journal.record(property, 0, 1, first);
+    journal.record(property, 1, 2, second);
+
+    assertTrue(journal.undo());
+    assertEquals(1, property.get());
+    assertTrue(journal.undo());
+    assertEquals(0, property.get());
+    assertFalse(journal.undo(), "There should be nothing left to undo");
+
+    assertTrue(journal.redo());
+    assertEquals(1, property.get());
+    assertAll(
+        () -> assertEquals(1, journal.getUndoCount()),
+        () -> assertEquals(1, journal.getRedoCount())
+    );
+  }
+
+  @Test
+  public void testMergeSameSource() {
+    ActionJournal journal = new ActionJournal(10);
+    DoubleProperty property = new SimpleDoubleProperty(3);
+    journal.record(property, 0, 1, first);
+    journal.record(property, 1, 2, first);
+    journal.record(property, 2, 3, first);
+
+    assertEquals(1, journal.getUndoCount(), "Changes from the same source should be merged");
+    journal.undo();
+    assertEquals(0, property.get(), "Undoing a merged entry should restore the value from before the first change");
+    journal.redo();
+    assertEquals(3, property.get(), "Redoing a merged entry should restore the value after the last change");
+  }
+
+  @Test
+  public void testNoMerge() {
+    ActionJournal journal = new ActionJournal(10);
+    DoubleProperty property = new SimpleDoubleProperty();
+    DoubleProperty other = new SimpleDoubleProperty();
+    journal.record(property, 0, 1, first);
+    journal.record(property, 1, 2, second);
+    journal.record(other, 0, 1, second);
+    journal.record(other, 1, 2, null);
+    journal.record(other, 2, 3, null);
+    journal.seal();
+    journal.record(other, 3, 4, null);
+    assertEquals(6, journal.getUndoCount());
+
+    journal.record(other, 4, 5, first);
+    journal.seal();
+    journal.record(other, 5, 6, first);
+    assertEquals(8, journal.getUndoCount(), "A sealed entry should not be merged");
+  }
+
+  @Test
+  public void testIgnoresUnchangedValues() {
+    ActionJournal journal = new ActionJournal(10);
+    journal.record(new SimpleDoubleProperty(), 1, 1, first);
+    journal.record(new Button().textProperty(), "text", "text", first);
+    assertEquals(0, journal.getUndoCount());
+  }
+
+  @Test
+  public void testCapacity() {
+    ActionJournal journal = new ActionJournal(3);
+    DoubleProperty property = new SimpleDoubleProperty(5);
+    for (int i = 0; i < 5; i++) {
+      journal.record(property, i, i + 1, null);
+    }
+
+    assertEquals(3, journal.getUndoCount(), "The oldest entries should have been dropped");
+    while (journal.undo()) {
+      // undo everything that is left
+    }
+    assertEquals(2, property.get());
+    assertThrows(IllegalArgumentException.class, () -> new ActionJournal(0));
+  }
+
+  @Test
+  public void testRecordDiscardsRedo() {
+    ActionJournal journal = new ActionJournal(10);
+    DoubleProperty property = new SimpleDoubleProperty(2);
+    journal.record(property, 0, 1, first);
+    journal.record(property, 1, 2, second);
+    journal.undo();
+    journal.record(property, 1, 5, second);
+
+    assertAll(
+        () -> assertEquals(2, journal.getUndoCount()),
+        () -> assertEquals(0, journal.getRedoCount(), "Recording a change should discard the changes to redo")
+    );
+    journal.undo();
+    assertEquals(1, property.get(), "A change after an undo should not be merged into the undone entry");
+  }
+
+  @Test
+  public void testObjectValues() {
+    ActionJournal journal = new ActionJournal(2);
+    Button button = new Button("a");
+    journal.record(button.textProperty(), "a", "b", first);
+    button.setText("b");
+
+    journal.undo();
+    assertEquals("a", button.getText());
+    journal.clear();
+    assertAll(
+        () -> assertEquals(0, journal.getUndoCount()),
+        () -> assertEquals(0, journal.getRedoCount()),
+        () -> assertFalse(journal.redo())
+    );
+  }
+
+  @Test
+  public void testBehaviorWrites() {
+    KeyBinding<MockBehavior> step = KeyBinding.<MockBehavior>builder()
+        .withKey(KeyCode.A)
+        .withAction(MockBehavior::step)
+        .build();
+    KeyBinding<MockBehavior> rename = KeyBinding.<MockBehavior>builder()
+        .withKey(KeyCode.B)
+        .withAction(MockBehavior::rename)
+        .build();
+    MockBehavior behavior = new MockBehavior(InputBindings.of(step, rename));
+    behavior.step();
+    assertNull(behavior.getActionJournal());
+
+    ActionJournal journal = new ActionJournal(10);
+    behavior.setActionJournal(journal);
+    for (int i = 0; i < 3; i++) {
+      behavior.getControl().fireEvent(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.A));
+    }
+    behavior.getControl().fireEvent(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.B));
+    behavior.step();
+    assertAll(
+        () -> assertEquals(5, behavior.value.get()),
+        () -> assertEquals(3, journal.getUndoCount(), "Writes by the same binding should be merged")
+    );
+
+    journal.undo();
+    journal.undo();
+    assertEquals("", behavior.getControl().getText());
+    journal.undo();
+    assertEquals(1, behavior.value.get(), "Writes made before the journal was set should not be undone");
+  }
+
+  @Test
+  public void testBehaviorSealsOnRelease() {
+    KeyBinding<MockBehavior> step = KeyBinding.<MockBehavior>builder()
+        .withKey(KeyCode.A)
+        .withAction(MockBehavior::step)
+        .build();
+    MockBehavior behavior = new MockBehavior(InputBindings.of(step));
+    ActionJournal journal = new ActionJournal(10);
+    behavior.setActionJournal(journal);
+    behavior.getControl().fireEvent(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.A));
+    behavior.getControl().fireEvent(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.A));
+    behavior.getControl().fireEvent(createKeyEvent(KeyEvent.KEY_RELEASED, KeyCode.A));
+    behavior.getControl().fireEvent(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.A));
+    assertEquals(2, journal.getUndoCount(), "Pressing the key again after releasing it should start a new entry");
+
+    journal.undo();
+    assertEquals(2, behavior.value.get(), "Undoing should only go back to where the key was released");
+  }
+
+}
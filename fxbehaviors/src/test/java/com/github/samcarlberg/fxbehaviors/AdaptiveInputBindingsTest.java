@@ -0,0 +1,140 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.scene.control.Button;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+
+import static com.github.samcarlberg.fxbehaviors.KeyBindingTest.createKeyEvent;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AdaptiveInputBindingsTest {
+
+  private static class MockBehavior extends BehaviorBase<Button, MockBehavior> {
+    public MockBehavior(Button control, InputBindings<MockBehavior> bindings) {
+      super(control, bindings);
+    }
+  }
+
+  private final List<String> fired = new ArrayList<>();
+
+  private KeyBinding<MockBehavior> key(KeyCode code) {
+    return KeyBinding.<MockBehavior>builder()
+        .withKey(code)
+        .withAction(__ -> fired.add(code.getName()))
+        .build();
+  }
+
+  private static void press(InputBindings<MockBehavior> bindings, KeyCode code, int times) {
+    for (int i = 0; i < times; i++) {
+      bindings.fire(createKeyEvent(KeyEvent.KEY_PRESSED, code), null);
+    }
+  }
+
+  @Test
+  public void testInvalidInterval() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new AdaptiveInputBindings<MockBehavior>((e, b) -> true, List.of(), 0));
+  }
+
+  @Test
+  public void testFiresFirstMatchOnly() {
+    KeyBinding<MockBehavior> anyKey = KeyBinding.<MockBehavior>builder()
+        .withAction(__ -> fired.add("any"))
+        .build();
+    InputBindings<MockBehavior> bindings = InputBindings.adaptive(key(KeyCode.A), anyKey);
+
+    press(bindings, KeyCode.A, 1);
+    press(bindings, KeyCode.B, 1);
+    assertEquals(List.of("A", "any"), fired);
+  }
+
+  @Test
+  public void testReordersByHits() {
+    KeyBinding<MockBehavior> a = key(KeyCode.A);
+    KeyBinding<MockBehavior> b = key(KeyCode.B);
+    KeyBinding<MockBehavior> c = key(KeyCode.C);
+    AdaptiveInputBindings<MockBehavior> bindings = new AdaptiveInputBindings<>((e, x) -> true, List.of(a, b, c), 10);
+
+    press(bindings, KeyCode.C, 6);
+    press(bindings, KeyCode.B, 3);
+    assertArrayEquals(new Binding<?, ?>[]{a, b, c}, bindings.order(KeyEvent.KEY_PRESSED),
+        "Order should not change until the interval has passed");
+
+    press(bindings, KeyCode.A, 1);
+    assertArrayEquals(new Binding<?, ?>[]{c, b, a}, bindings.order(KeyEvent.KEY_PRESSED),
+        "Most frequently fired bindings should be checked first");
+
+    // Old hits decay, so new usage eventually wins out
+    press(bindings, KeyCode.A, 10);
+    press(bindings, KeyCode.A, 10);
+    assertArrayEquals(new Binding<?, ?>[]{a, c, b}, bindings.order(KeyEvent.KEY_PRESSED));
+    assertEquals(30, fired.size(), "Every press should fire exactly one binding");
+  }
+
+  @Test
+  public void testOverlappingKeepDeclaredOrder() {
+    KeyBinding<MockBehavior> right = key(KeyCode.RIGHT);
+    KeyBinding<MockBehavior> a = key(KeyCode.A);
+    KeyBinding<MockBehavior> anyKey = KeyBinding.<MockBehavior>builder()
+        .onEvent(KeyEvent.ANY)
+        .withAction(__ -> fired.add("any"))
+        .build();
+    AdaptiveInputBindings<MockBehavior> bindings =
+        new AdaptiveInputBindings<>((e, x) -> true, List.of(right, a, anyKey), 10);
+
+    press(bindings, KeyCode.B, 300);
+    press(bindings, KeyCode.A, 20);
+    fired.clear();
+    press(bindings, KeyCode.RIGHT, 1);
+    assertAll(
+        () -> assertEquals(List.of("Right"), fired, "A frequent general binding should not hide a specific one"),
+        () -> assertArrayEquals(new Binding<?, ?>[]{a, right, anyKey}, bindings.order(KeyEvent.KEY_PRESSED),
+            "Bindings on different keys should still be reordered")
+    );
+  }
+
+  @Test
+  public void testPriorityIsRespected() {
+    KeyBinding<MockBehavior> a = key(KeyCode.A);
+    KeyBinding<MockBehavior> b = key(KeyCode.B);
+    KeyBinding<MockBehavior> anyKey = KeyBinding.<MockBehavior>builder()
+        .withPriority(1)
+        .withAction(__ -> fired.add("any"))
+        .build();
+    AdaptiveInputBindings<MockBehavior> bindings =
+        new AdaptiveInputBindings<>((e, x) -> true, List.of(a, b, anyKey), 4);
+
+    assertArrayEquals(new Binding<?, ?>[]{anyKey, a, b}, bindings.order(KeyEvent.KEY_PRESSED),
+        "Higher priority should be checked first");
+    press(bindings, KeyCode.B, 4);
+    assertAll(
+        () -> assertEquals(List.of("any", "any", "any", "any"), fired),
+        () -> assertArrayEquals(new Binding<?, ?>[]{anyKey, a, b}, bindings.order(KeyEvent.KEY_PRESSED))
+    );
+  }
+
+  @Test
+  public void testPriorityInDeclaredOrder() {
+    // Priority applies to the ordinary bindings too, even across event types
+    KeyBinding<MockBehavior> pressed = key(KeyCode.A);
+    KeyBinding<MockBehavior> any = KeyBinding.<MockBehavior>builder()
+        .onEvent(KeyEvent.ANY)
+        .withKey(KeyCode.A)
+        .withPriority(5)
+        .withAction(__ -> fired.add("any"))
+        .build();
+    InputBindings<MockBehavior> bindings = InputBindings.of(pressed, any);
+
+    press(bindings, KeyCode.A, 1);
+    assertEquals(List.of("any", "A"), fired);
+  }
+
+}
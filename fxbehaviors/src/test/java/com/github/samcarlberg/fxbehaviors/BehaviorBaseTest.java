@@ -4,9 +4,13 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import javafx.application.Application;
+import javafx.scene.Group;
+import javafx.scene.Node;
 import javafx.scene.control.Button;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
@@ -16,6 +20,7 @@ import javafx.scene.input.MouseEvent;
 import static com.github.samcarlberg.fxbehaviors.KeyBindingTest.createKeyEvent;
 import static com.github.samcarlberg.fxbehaviors.MouseBindingTest.createMouseEvent;
 import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -36,6 +41,21 @@ public class BehaviorBaseTest {
     }
   }
 
+  /**
+   * Creates a group to use as the root of a scene. Scenes request a pulse to lay out a new root, which fails without
+   * the toolkit, so this root never asks for layout.
+   */
+  static Group createSceneRoot(Node... children) {
+    Group root = new Group() {
+      @Override
+      public void requestLayout() {
+        // Nothing is laid out without the toolkit
+      }
+    };
+    root.getChildren().addAll(children);
+    return root;
+  }
+
   private static class MockButtonBehavior extends BehaviorBase<Button, MockButtonBehavior> {
     public MockButtonBehavior(Button control, InputBindings<MockButtonBehavior> bindings) {
       super(control, bindings);
@@ -72,4 +92,129 @@ public class BehaviorBaseTest {
     );
   }
 
-}
\ No newline at end of file
+  @Test
+  public void testSetInputBindings() {
+    AtomicBoolean oldFired = new AtomicBoolean(false);
+    AtomicBoolean newFired = new AtomicBoolean(false);
+    MockButtonBehavior behavior = new MockButtonBehavior(
+        new Button(),
+        InputBindings.of(
+            KeyBinding.<MockButtonBehavior>builder()
+                .withAction(it -> oldFired.set(true))
+                .build()
+        )
+    );
+    behavior.setInputBindings(
+        InputBindings.of(
+            KeyBinding.<MockButtonBehavior>builder()
+                .withAction(it -> newFired.set(true))
+                .build()
+        )
+    );
+
+    behavior.getControl().fireEvent(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.A));
+    assertAll("Only the new bindings should have fired",
+        () -> assertFalse(oldFired.get()),
+        () -> assertTrue(newFired.get())
+    );
+  }
+
+  @Test
+  public void testBatchedWriteWithoutScene() {
+    MockButtonBehavior behavior = new MockButtonBehavior(new Button(), null);
+    behavior.setBatchingWrites(true);
+    behavior.write(behavior.getControl().textProperty(), "text");
+    assertEquals("text", behavior.getControl().getText(), "Writes should be applied immediately without a scene");
+  }
+
+  @Test
+  public void testFilterPhase() {
+    List<String> fired = new ArrayList<>();
+    MockButtonBehavior behavior = new MockButtonBehavior(
+        new Button(),
+        InputBindings.of(
+            KeyBinding.<MockButtonBehavior>builder()
+                .withKey(KeyCode.A)
+                .withAction(it -> fired.add("handler"))
+                .build(),
+            KeyBinding.<MockButtonBehavior>builder()
+                .withKey(KeyCode.A)
+                .inFilterPhase()
+                .withAction(it -> fired.add("filter"))
+                .build(),
+            KeyBinding.<MockButtonBehavior>builder()
+                .withKey(KeyCode.B)
+                .inFilterPhase()
+                .withAction(it -> fired.add("filter-b"))
+                .build()
+        )
+    );
+    behavior.getControl().addEventHandler(KeyEvent.KEY_PRESSED, e -> fired.add("control handler"));
+
+    behavior.getControl().fireEvent(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.A));
+    assertEquals(List.of("filter"), fired, "Filter phase binding should consume the event");
+
+    fired.clear();
+    behavior.getControl().fireEvent(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.C));
+    assertEquals(List.of("control handler"), fired, "Unmatched events should not be consumed");
+
+    fired.clear();
+    behavior.setInputBindings(InputBindings.of(
+        KeyBinding.<MockButtonBehavior>builder()
+            .withKey(KeyCode.A)
+            .withAction(it -> fired.add("handler"))
+            .build()
+    ));
+    behavior.getControl().fireEvent(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.A));
+    assertEquals(List.of("control handler", "handler"), fired, "Filters should be removed with the old bindings");
+  }
+
+  @Test
+  public void testConsuming() {
+    List<String> fired = new ArrayList<>();
+    MockButtonBehavior behavior = new MockButtonBehavior(
+        new Button(),
+        InputBindings.of(
+            KeyBinding.<MockButtonBehavior>builder()
+                .withKey(KeyCode.A)
+                .consuming()
+                .withAction(it -> fired.add("consuming"))
+                .build(),
+            KeyBinding.<MockButtonBehavior>builder()
+                .withKey(KeyCode.A)
+                .withKey(KeyCode.B)
+                .withAction(it -> fired.add("handler"))
+                .build()
+        )
+    );
+    Group parent = new Group(behavior.getControl());
+    parent.addEventHandler(KeyEvent.KEY_PRESSED, e -> fired.add("parent handler"));
+
+    behavior.getControl().fireEvent(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.A));
+    assertEquals(List.of("consuming", "handler"), fired,
+        "A consuming binding should stop the event from reaching the parent, but not the other bindings");
+
+    fired.clear();
+    behavior.getControl().fireEvent(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.B));
+    assertEquals(List.of("handler", "parent handler"), fired, "Bindings should not consume events by default");
+  }
+
+  @Test
+  public void testFilterPhaseKeyRepeats() {
+    List<String> fired = new ArrayList<>();
+    MockButtonBehavior behavior = new MockButtonBehavior(
+        new Button(),
+        InputBindings.of(
+            KeyBinding.<MockButtonBehavior>builder()
+                .withKey(KeyCode.A)
+                .inFilterPhase()
+                .ignoreRepeats()
+                .withAction(it -> fired.add("filter"))
+                .build()
+        )
+    );
+    behavior.getControl().fireEvent(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.A));
+    assertEquals(List.of("filter"), fired, "The first press should not be seen as a repeat");
+  }
+
+}
@@ -0,0 +1,138 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.scene.AccessibleAction;
+import javafx.scene.control.Button;
+import javafx.scene.control.MenuItem;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+
+import static com.github.samcarlberg.fxbehaviors.KeyBindingTest.createKeyEvent;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CommandRegistryTest {
+
+  private static final CommandRegistry<MockBehavior> commands = new CommandRegistry<>();
+  private static final Command<MockBehavior> first = commands.register("first", b -> b.ran.add("first"));
+  private static final Command<MockBehavior> second = commands.register("second", b -> b.ran.add("second"));
+
+  static {
+    commands.bindAccessibleAction(AccessibleAction.SHOW_MENU, second);
+  }
+
+  @BeforeAll
+  public static void force() {
+    BehaviorBaseTest.force();
+  }
+
+  private static class MockBehavior extends BehaviorBase<Button, MockBehavior> {
+    final List<String> ran = new ArrayList<>();
+
+    MockBehavior(InputBindings<MockBehavior> bindings) {
+      super(new Button(), commands, bindings);
+    }
+  }
+
+  @Test
+  public void testRegistry() {
+    assertAll(
+        () -> assertEquals(0, first.getId()),
+        () -> assertEquals(1, second.getId()),
+        () -> assertSame(second, commands.getCommand("second")),
+        () -> assertNull(commands.getCommand("third")),
+        () -> assertEquals(List.of(first, second), commands.getCommands()),
+        () -> assertSame(second, commands.getAccessibleCommand(AccessibleAction.SHOW_MENU)),
+        () -> assertNull(commands.getAccessibleCommand(AccessibleAction.FIRE)),
+        () -> assertThrows(IllegalArgumentException.class, () -> commands.register("first", b -> {}))
+    );
+  }
+
+  @Test
+  public void testBindingsDispatchThroughCommands() {
+    MockBehavior behavior = new MockBehavior(InputBindings.of(
+        KeyBinding.<MockBehavior>builder()
+            .withKey(KeyCode.A)
+            .withCommand(first)
+            .build()
+    ));
+    long count = commands.getExecutionCount(first);
+
+    behavior.getControl().fireEvent(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.A));
+    assertAll(
+        () -> assertEquals(List.of("first"), behavior.ran),
+        () -> assertEquals(count + 1, commands.getExecutionCount(first))
+    );
+  }
+
+  @Test
+  public void testDisabledCommands() {
+    AdaptiveInputBindings<MockBehavior> bindings = new AdaptiveInputBindings<>((e, b) -> true, List.of(
+        KeyBinding.<MockBehavior>builder()
+            .withKey(KeyCode.A)
+            .withCommand(first)
+            .build(),
+        KeyBinding.<MockBehavior>builder()
+            .withKey(KeyCode.A)
+            .withCommand(second)
+            .build()
+    ));
+    MockBehavior behavior = new MockBehavior(bindings);
+    MenuItem menuItem = first.createMenuItem("First", behavior);
+
+    behavior.setCommandEnabled(first, false);
+    bindings.fire(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.A), behavior);
+    assertAll("A disabled command should not run or match",
+        () -> assertFalse(behavior.isCommandEnabled(first)),
+        () -> assertTrue(menuItem.isDisable()),
+        () -> assertFalse(first.execute(behavior)),
+        () -> assertEquals(List.of("second"), behavior.ran)
+    );
+
+    behavior.ran.clear();
+    behavior.setCommandEnabled(first, true);
+    menuItem.fire();
+    assertAll(
+        () -> assertTrue(behavior.isCommandEnabled(first)),
+        () -> assertFalse(menuItem.isDisable()),
+        () -> assertEquals(List.of("first"), behavior.ran)
+    );
+  }
+
+  @Test
+  public void testAccessibleActions() {
+    MockBehavior behavior = new MockBehavior(null);
+    BehaviorSkinBase<Button, MockBehavior> skin = new BehaviorSkinBase<>(behavior.getControl(), behavior);
+
+    skin.executeAccessibleAction(AccessibleAction.SHOW_MENU);
+    assertEquals(List.of("second"), behavior.ran);
+
+    behavior.setCommandEnabled(second, false);
+    assertFalse(behavior.executeAccessibleAction(AccessibleAction.SHOW_MENU));
+    assertFalse(behavior.executeAccessibleAction(AccessibleAction.FIRE));
+  }
+
+  @Test
+  public void testForeignCommand() {
+    CommandRegistry<MockBehavior> other = new CommandRegistry<>();
+    Command<MockBehavior> foreign = other.register("foreign", b -> b.ran.add("foreign"));
+    MockBehavior behavior = new MockBehavior(null);
+    assertAll(
+        () -> assertThrows(IllegalArgumentException.class, () -> behavior.setCommandEnabled(foreign, false)),
+        () -> assertThrows(IllegalArgumentException.class, () -> commands.getExecutionCount(foreign)),
+        () -> assertTrue(behavior.isCommandEnabled(foreign)),
+        () -> assertTrue(foreign.execute(behavior))
+    );
+  }
+
+}
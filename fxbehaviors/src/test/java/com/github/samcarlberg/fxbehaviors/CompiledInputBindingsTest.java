@@ -0,0 +1,169 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.scene.control.Button;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCombination;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+
+import static com.github.samcarlberg.fxbehaviors.KeyBindingTest.createKeyEvent;
+import static com.github.samcarlberg.fxbehaviors.MouseBindingTest.createMouseEvent;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompiledInputBindingsTest {
+
+  @BeforeAll
+  public static void force() {
+    BehaviorBaseTest.force();
+  }
+
+  private static class MockBehavior extends BehaviorBase<Button, MockBehavior> {
+    public MockBehavior(Button control, InputBindings<MockBehavior> bindings) {
+      super(control, bindings);
+    }
+  }
+
+  /**
+   * A custom binding type that the compiled bindings can't narrow down by key code.
+   */
+  private static final class AnyKeyBinding extends Binding<KeyEvent, MockBehavior> {
+    AnyKeyBinding(Runnable action) {
+      super(KeyEvent.KEY_PRESSED, __ -> action.run());
+    }
+
+    @Override
+    protected boolean match(KeyEvent event) {
+      return true;
+    }
+  }
+
+  private final List<String> fired = new ArrayList<>();
+
+  private List<Binding<?, MockBehavior>> bindings() {
+    return List.of(
+        KeyBinding.<MockBehavior>builder()
+            .onEvent(KeyEvent.ANY)
+            .withKey(KeyCode.A)
+            .withAction(__ -> fired.add("any-a"))
+            .build(),
+        KeyBinding.<MockBehavior>builder()
+            .withKey(KeyCode.A)
+            .withKey(KeyCode.B, KeyCombination.SHIFT_DOWN)
+            .withAction(__ -> fired.add("a-or-shift-b"))
+            .build(),
+        KeyBinding.<MockBehavior>builder()
+            .withAction(__ -> fired.add("every-key"))
+            .build(),
+        new AnyKeyBinding(() -> fired.add("custom")),
+        MouseBinding.<MockBehavior>builder()
+            .onEvent(MouseEvent.MOUSE_PRESSED)
+            .withMouseButton(MouseButton.SECONDARY)
+            .withAction(__ -> fired.add("secondary"))
+            .build()
+    );
+  }
+
+  private List<String> fireAll(InputBindings<MockBehavior> bindings) {
+    fired.clear();
+    bindings.fire(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.A), null);
+    bindings.fire(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.B), null);
+    bindings.fire(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.B, KeyCombination.SHIFT_DOWN), null);
+    bindings.fire(createKeyEvent(KeyEvent.KEY_RELEASED, KeyCode.A), null);
+    bindings.fire(createMouseEvent(MouseEvent.MOUSE_PRESSED, MouseButton.PRIMARY), null);
+    bindings.fire(createMouseEvent(MouseEvent.MOUSE_PRESSED, MouseButton.SECONDARY), null);
+    return new ArrayList<>(fired);
+  }
+
+  @Test
+  public void testSameAsInterpreted() {
+    List<String> interpreted = fireAll(InputBindings.of(bindings()));
+    List<String> compiled = fireAll(InputBindings.compiled(bindings()));
+    assertAll(
+        () -> assertEquals(interpreted, compiled, "Compiled bindings should fire the same bindings in the same order"),
+        () -> assertEquals(List.of(
+            "a-or-shift-b", "every-key", "custom", "any-a",
+            "every-key", "custom",
+            "a-or-shift-b", "every-key", "custom",
+            "any-a",
+            "secondary"
+        ), compiled)
+    );
+  }
+
+  @Test
+  public void testGeneratedDispatcher() {
+    CompiledInputBindings<MockBehavior> generated = new CompiledInputBindings<>(NoFilter.get(), bindings(), true);
+    CompiledInputBindings<MockBehavior> interpreted = new CompiledInputBindings<>(NoFilter.get(), bindings(), false);
+    assertAll(
+        () -> assertTrue(generated.isGenerated(), "A dispatcher should be generated"),
+        () -> assertFalse(interpreted.isGenerated()),
+        () -> assertEquals(fireAll(interpreted), fireAll(generated),
+            "The generated dispatcher should fire the same bindings in the same order")
+    );
+  }
+
+  @Test
+  public void testGeneratedDispatcherRunsActionsOnBehavior() {
+    List<MockBehavior> ranOn = new ArrayList<>();
+    CompiledInputBindings<MockBehavior> bindings = new CompiledInputBindings<>(NoFilter.get(), List.of(
+        KeyBinding.<MockBehavior>builder()
+            .withKey(KeyCode.SPACE)
+            .withAction(ranOn::add)
+            .build()
+    ), true);
+    MockBehavior behavior = new MockBehavior(new Button(), bindings);
+    KeyEvent space = createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.SPACE);
+    behavior.getControl().fireEvent(space);
+    assertAll(
+        () -> assertTrue(bindings.isGenerated()),
+        () -> assertEquals(List.of(behavior), ranOn, "The action should run once on the behavior")
+    );
+  }
+
+  @Test
+  public void testTooManyBindingsForDispatcher() {
+    List<Binding<?, MockBehavior>> many = new ArrayList<>();
+    for (int i = 0; i <= GeneratedDispatcher.MAX_BINDINGS; i++) {
+      int number = i;
+      many.add(KeyBinding.<MockBehavior>builder()
+          .withKey(KeyCode.A)
+          .withAction(__ -> fired.add("binding-" + number))
+          .build());
+    }
+    CompiledInputBindings<MockBehavior> bindings = new CompiledInputBindings<>(NoFilter.get(), many, true);
+    fired.clear();
+    bindings.fire(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.A), null);
+    assertAll("Bindings that don't fit in a dispatcher should still fire",
+        () -> assertFalse(bindings.isGenerated()),
+        () -> assertEquals(GeneratedDispatcher.MAX_BINDINGS + 1, fired.size())
+    );
+  }
+
+  @Test
+  public void testFilter() {
+    InputBindings<MockBehavior> bindings = InputBindings.compiled((e, b) -> e instanceof MouseEvent, bindings());
+    assertEquals(List.of("secondary"), fireAll(bindings));
+  }
+
+  @Test
+  public void testCountsCheckedBindings() {
+    KeyEvent b = createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.B);
+    assertAll("Only the bindings that were checked against the event should be counted",
+        () -> assertEquals(4, BindingDispatchEvent.fireAndCount(InputBindings.of(bindings()), b, null)),
+        () -> assertEquals(3, BindingDispatchEvent.fireAndCount(InputBindings.compiled(bindings()), b, null)),
+        () -> assertEquals(0, BindingDispatchEvent.fireAndCount(
+            InputBindings.compiled((e, __) -> false, bindings()), b, null))
+    );
+  }
+
+}
@@ -0,0 +1,111 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javafx.scene.control.Button;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import static com.github.samcarlberg.fxbehaviors.KeyBindingTest.createKeyEvent;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class FlightRecorderEventsTest {
+
+  private static final String DISPATCH = "com.github.samcarlberg.fxbehaviors.BindingDispatch";
+  private static final String ACTION = "com.github.samcarlberg.fxbehaviors.BindingAction";
+
+  @BeforeAll
+  public static void force() {
+    BehaviorBaseTest.force();
+  }
+
+  private static class MockBehavior extends BehaviorBase<Button, MockBehavior> {
+    MockBehavior(InputBindings<MockBehavior> bindings) {
+      super(new Button(), bindings);
+    }
+  }
+
+  @Test
+  public void testEventsRecorded() throws Exception {
+    KeyBinding<MockBehavior> bound = KeyBinding.<MockBehavior>builder()
+        .withKey(KeyCode.A)
+        .withAction(b -> {
+        })
+        .build();
+    KeyBinding<MockBehavior> other = KeyBinding.<MockBehavior>builder()
+        .withKey(KeyCode.B)
+        .withAction(b -> {
+        })
+        .build();
+    MockBehavior behavior = new MockBehavior(InputBindings.of(bound, other));
+
+    Path file = Files.createTempFile("fxbehaviors", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable(DISPATCH);
+      recording.enable(ACTION);
+      recording.start();
+      behavior.getControl().fireEvent(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.A));
+      recording.stop();
+      recording.dump(file);
+
+      List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+      List<RecordedEvent> dispatches = events.stream()
+          .filter(e -> e.getEventType().getName().equals(DISPATCH))
+          .collect(Collectors.toList());
+      List<RecordedEvent> actions = events.stream()
+          .filter(e -> e.getEventType().getName().equals(ACTION))
+          .collect(Collectors.toList());
+
+      assertAll(
+          () -> assertEquals(1, dispatches.size(), "One dispatch should be recorded"),
+          () -> assertEquals("KEY_PRESSED", dispatches.get(0).getString("eventType")),
+          () -> assertEquals(2, dispatches.get(0).getInt("candidates")),
+          () -> assertEquals(MockBehavior.class.getName(),
+              dispatches.get(0).getClass("behaviorClass").getName()),
+          () -> assertEquals(1, actions.size(), "Only the matching binding's action should be recorded"),
+          () -> assertEquals(bound.toString(), actions.get(0).getString("binding"))
+      );
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  @Test
+  public void testDisabledByDefault() throws Exception {
+    MockBehavior behavior = new MockBehavior(InputBindings.of(
+        KeyBinding.<MockBehavior>builder()
+            .withKey(KeyCode.A)
+            .withAction(b -> {
+            })
+            .build()
+    ));
+
+    Path file = Files.createTempFile("fxbehaviors", ".jfr");
+    try (Recording recording = new Recording(Configuration.getConfiguration("default"))) {
+      recording.start();
+      behavior.getControl().fireEvent(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.A));
+      recording.stop();
+      recording.dump(file);
+
+      long recorded = RecordingFile.readAllEvents(file).stream()
+          .map(e -> e.getEventType().getName())
+          .filter(name -> name.equals(DISPATCH) || name.equals(ACTION))
+          .count();
+      assertEquals(0, recorded, "Events should not be recorded with the default settings");
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+}
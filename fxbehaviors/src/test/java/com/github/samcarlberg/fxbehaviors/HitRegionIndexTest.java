@@ -0,0 +1,154 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.scene.control.Button;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.shape.Rectangle;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class HitRegionIndexTest {
+
+  private static final HitRegion TRACK = HitRegion.of("track");
+  private static final HitRegion THUMB = HitRegion.of("thumb");
+
+  @BeforeAll
+  public static void force() {
+    BehaviorBaseTest.force();
+  }
+
+  private static class MockBehavior extends BehaviorBase<Button, MockBehavior> {
+    MockBehavior(InputBindings<MockBehavior> bindings) {
+      super(new Button(), bindings);
+    }
+  }
+
+  @Test
+  public void testInterned() {
+    assertSame(TRACK, HitRegion.of("track"));
+  }
+
+  @Test
+  public void testRegionAt() {
+    HitRegionIndex index = new HitRegionIndex(new Button());
+    index.add(TRACK, 0, 10, 200, 10);
+    index.add(THUMB, 50, 5, 20, 20);
+    assertAll(
+        () -> assertSame(TRACK, index.regionAt(10, 15)),
+        () -> assertSame(THUMB, index.regionAt(60, 15), "Later regions should be on top"),
+        () -> assertSame(THUMB, index.regionAt(60, 6)),
+        () -> assertSame(TRACK, index.regionAt(200, 20), "Far edges should be inside the region"),
+        () -> assertNull(index.regionAt(10, 5)),
+        () -> assertNull(index.regionAt(-1, 15)),
+        () -> assertNull(index.regionAt(250, 15))
+    );
+
+    index.remove(THUMB);
+    assertSame(TRACK, index.regionAt(60, 15), "Removed region should no longer be hit");
+    index.clear();
+    assertNull(index.regionAt(10, 15));
+  }
+
+  @Test
+  public void testManyRegions() {
+    HitRegionIndex index = new HitRegionIndex(new Button());
+    List<HitRegion> zones = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      HitRegion zone = HitRegion.of("zone-" + i);
+      zones.add(zone);
+      index.add(zone, (i % 25) * 10, (i / 25) * 10, 9, 9);
+    }
+    for (int i = 0; i < 500; i++) {
+      assertSame(zones.get(i), index.regionAt((i % 25) * 10 + 4.5, (i / 25) * 10 + 4.5));
+    }
+    assertNull(index.regionAt(9.5, 9.5), "Gaps between zones should not be hit");
+  }
+
+  @Test
+  public void testTrackedNode() {
+    Rectangle thumb = new Rectangle(20, 20);
+    thumb.relocate(30, 0);
+    Button control = new Button();
+    HitRegionIndex index = new HitRegionIndex(control);
+    index.track(THUMB, thumb);
+    assertSame(THUMB, index.regionAt(40, 10));
+
+    // Every layout should update the tracked bounds, not just the first one
+    for (int x = 60; x <= 120; x += 30) {
+      thumb.relocate(x, 0);
+      layout(control);
+      assertAll(
+          () -> assertNull(index.regionAt(40, 10), "The region should have moved with the node"),
+          () -> assertSame(THUMB, index.regionAt(thumb.getLayoutX() + 10, 10))
+      );
+    }
+
+    thumb.setVisible(false);
+    layout(control);
+    assertNull(index.regionAt(130, 10), "Invisible nodes should not be hit");
+  }
+
+  private static void layout(Button control) {
+    control.requestLayout();
+    control.layout();
+  }
+
+  @Test
+  public void testScopedMouseBindings() {
+    testScopedMouseBindings(false);
+  }
+
+  @Test
+  public void testCompiledScopedMouseBindings() {
+    testScopedMouseBindings(true);
+  }
+
+  private void testScopedMouseBindings(boolean compiled) {
+    List<String> fired = new ArrayList<>();
+    List<Binding<?, MockBehavior>> bindings = List.of(
+        MouseBinding.<MockBehavior>builder()
+            .inRegion(THUMB)
+            .withAction(b -> fired.add("thumb"))
+            .build(),
+        MouseBinding.<MockBehavior>builder()
+            .inRegion(TRACK)
+            .withAction(b -> fired.add("track"))
+            .build(),
+        MouseBinding.<MockBehavior>builder()
+            .withAction(b -> fired.add("anywhere"))
+            .build()
+    );
+    MockBehavior behavior = new MockBehavior(compiled ? InputBindings.compiled(bindings) : InputBindings.of(bindings));
+    behavior.getHitRegions().add(TRACK, 0, 10, 200, 10);
+    behavior.getHitRegions().add(THUMB, 50, 5, 20, 20);
+
+    behavior.getControl().fireEvent(createMouseEvent(60, 15));
+    behavior.getControl().fireEvent(createMouseEvent(10, 15));
+    behavior.getControl().fireEvent(createMouseEvent(10, 50));
+    assertEquals(List.of("thumb", "anywhere", "track", "anywhere", "anywhere"), fired);
+  }
+
+  private static MouseEvent createMouseEvent(double x, double y) {
+    return new MouseEvent(
+        MouseEvent.MOUSE_PRESSED,
+        x, y,
+        x, y,
+        MouseButton.PRIMARY,
+        1,
+        false, false, false, false,
+        true, false, false,
+        true, false, false,
+        null
+    );
+  }
+
+}
@@ -0,0 +1,94 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javafx.scene.control.Button;
+import javafx.scene.input.KeyCode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class InputBindingsRegistryTest {
+
+  private static class MockBehavior extends BehaviorBase<Button, MockBehavior> {
+    public MockBehavior(Button control, InputBindings<MockBehavior> bindings) {
+      super(control, bindings);
+    }
+  }
+
+  private static InputBindings<MockBehavior> createBindings() {
+    return InputBindings.of(
+        KeyBinding.<MockBehavior>builder()
+            .withKey(KeyCode.A)
+            .withAction(__ -> {})
+            .build()
+    );
+  }
+
+  @Test
+  public void testCompileAll() {
+    InputBindingsRegistry registry = new InputBindingsRegistry();
+    AtomicInteger created = new AtomicInteger(0);
+    registry.register(MockBehavior.class, () -> {
+      created.incrementAndGet();
+      return createBindings();
+    });
+
+    registry.compileAll().join();
+    assertEquals(1, created.get(), "Bindings should have been created by compileAll()");
+
+    InputBindings<MockBehavior> bindings = registry.get(MockBehavior.class);
+    assertSame(bindings, registry.get(MockBehavior.class), "The same bindings should always be returned");
+    assertEquals(1, created.get(), "Bindings should only be created once");
+  }
+
+  @Test
+  public void testConcurrentGet() throws Exception {
+    InputBindingsRegistry registry = new InputBindingsRegistry();
+    AtomicInteger created = new AtomicInteger(0);
+    registry.register(MockBehavior.class, () -> {
+      created.incrementAndGet();
+      return createBindings();
+    });
+
+    int threads = 8;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<InputBindings<MockBehavior>>> results = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        results.add(executor.submit(() -> {
+          start.await();
+          return registry.get(MockBehavior.class);
+        }));
+      }
+      start.countDown();
+      InputBindings<MockBehavior> first = results.get(0).get();
+      for (Future<InputBindings<MockBehavior>> result : results) {
+        assertSame(first, result.get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertEquals(1, created.get(), "Bindings should only be created once");
+  }
+
+  @Test
+  public void testRegistrationErrors() {
+    InputBindingsRegistry registry = new InputBindingsRegistry();
+    registry.register(MockBehavior.class, InputBindingsRegistryTest::createBindings);
+    assertThrows(IllegalArgumentException.class,
+        () -> registry.register(MockBehavior.class, InputBindingsRegistryTest::createBindings));
+    assertThrows(IllegalArgumentException.class, () -> new InputBindingsRegistry().get(MockBehavior.class));
+  }
+
+}
@@ -2,17 +2,28 @@ package com.github.samcarlberg.fxbehaviors;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import javafx.event.EventType;
+import javafx.scene.control.Button;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 
 public class InputBindingsTest {
 
+  private static class MockBehavior extends BehaviorBase<Button, MockBehavior> {
+    public MockBehavior(Button control, InputBindings<MockBehavior> bindings) {
+      super(control, bindings);
+    }
+  }
+
   @Test
   public void testWithNonPassingFilter() {
     final AtomicBoolean fired = new AtomicBoolean(false);
@@ -30,4 +41,36 @@ public class InputBindingsTest {
     assertFalse(fired.get(), "Bindings should not fire when the filter cannot be passed");
   }
 
+  @Test
+  public void testSupertypeBindings() {
+    final List<String> fired = new ArrayList<>();
+    final InputBindings<MockBehavior> bindings = InputBindings.of(
+        KeyBinding.<MockBehavior>builder()
+            .onEvent(KeyEvent.ANY)
+            .withKey(KeyCode.A)
+            .withAction(__ -> fired.add("any"))
+            .build(),
+        KeyBinding.<MockBehavior>builder()
+            .onEvent(KeyEvent.KEY_RELEASED)
+            .withKey(KeyCode.A)
+            .withAction(__ -> fired.add("released"))
+            .build(),
+        MouseBinding.<MockBehavior>builder()
+            .onEvent(MouseEvent.ANY)
+            .withAction(__ -> fired.add("mouse"))
+            .build()
+    );
+
+    bindings.fire(KeyBindingTest.createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.A), null);
+    assertEquals(List.of("any"), fired, "The ANY binding should fire on key presses");
+
+    fired.clear();
+    bindings.fire(KeyBindingTest.createKeyEvent(KeyEvent.KEY_RELEASED, KeyCode.A), null);
+    assertEquals(List.of("released", "any"), fired, "More specific bindings should fire first");
+
+    fired.clear();
+    bindings.fire(MouseBindingTest.createMouseEvent(MouseEvent.MOUSE_CLICKED, MouseButton.PRIMARY), null);
+    assertEquals(List.of("mouse"), fired, "The ANY binding should fire on mouse clicks");
+  }
+
 }
@@ -0,0 +1,197 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.control.Button;
+import javafx.scene.control.Control;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+
+import static com.github.samcarlberg.fxbehaviors.KeyBindingTest.createKeyEvent;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InputLatencyMonitorTest {
+
+  private static final long MILLISECOND = TimeUnit.MILLISECONDS.toNanos(1);
+
+  @BeforeAll
+  public static void force() {
+    BehaviorBaseTest.force();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    InputLatencyMonitor.setEnabled(false);
+    InputLatencyMonitor.reset();
+  }
+
+  private static class MockBehavior extends BehaviorBase<Button, MockBehavior> {
+    MockBehavior(InputBindings<MockBehavior> bindings) {
+      super(new Button(), bindings);
+    }
+  }
+
+  private static class MockControl extends Control {
+    MockControl(Node child) {
+      getChildren().add(child);
+    }
+  }
+
+  private static class MockControlBehavior extends BehaviorBase<MockControl, MockControlBehavior> {
+    MockControlBehavior(MockControl control, InputBindings<MockControlBehavior> bindings) {
+      super(control, bindings);
+    }
+  }
+
+  @Test
+  public void testDisabledByDefault() {
+    KeyBinding<MockBehavior> binding = KeyBinding.<MockBehavior>builder()
+        .withKey(KeyCode.A)
+        .withAction(b -> {})
+        .build();
+    MockBehavior behavior = new MockBehavior(InputBindings.of(binding));
+
+    behavior.getControl().fireEvent(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.A));
+    assertTrue(InputLatencyMonitor.getLatencies().isEmpty(), "Nothing should be recorded while disabled");
+  }
+
+  @Test
+  public void testActionLatency() {
+    KeyBinding<MockBehavior> binding = KeyBinding.<MockBehavior>builder()
+        .withKey(KeyCode.A)
+        .withAction(b -> sleep(5))
+        .build();
+    MockBehavior behavior = new MockBehavior(InputBindings.of(binding));
+    InputLatencyMonitor.setEnabled(true);
+
+    behavior.getControl().fireEvent(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.A));
+    behavior.getControl().fireEvent(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.B));
+    List<InputLatencyMonitor.BindingLatency> latencies = InputLatencyMonitor.getLatencies();
+    assertEquals(1, latencies.size(), "Only the binding that fired should be recorded");
+    InputLatencyMonitor.BindingLatency latency = latencies.get(0);
+    assertAll(
+        () -> assertEquals(binding.toString(), latency.getBinding()),
+        () -> assertEquals(1, latency.getCount()),
+        () -> assertEquals(0, latency.getFrameCount(), "Control is not in a scene, so there is no frame"),
+        () -> assertTrue(latency.getActionLatency(50) >= 5 * MILLISECOND * 7 / 8,
+            "Action latency should include the action, but was " + latency.getActionLatency(50))
+    );
+  }
+
+  @Test
+  public void testEventStampedOnce() {
+    // Both bindings fire for the same event, so both should be measured from when the behavior first saw it
+    KeyBinding<MockBehavior> first = KeyBinding.<MockBehavior>builder()
+        .withKey(KeyCode.A)
+        .withAction(b -> sleep(5))
+        .build();
+    KeyBinding<MockBehavior> second = KeyBinding.<MockBehavior>builder()
+        .withKey(KeyCode.A)
+        .withAction(b -> {})
+        .build();
+    MockBehavior behavior = new MockBehavior(InputBindings.of(first, second));
+    InputLatencyMonitor.setEnabled(true);
+
+    behavior.getControl().fireEvent(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.A));
+    List<InputLatencyMonitor.BindingLatency> latencies = InputLatencyMonitor.getLatencies();
+    assertEquals(2, latencies.size());
+    for (InputLatencyMonitor.BindingLatency latency : latencies) {
+      assertTrue(latency.getActionLatency(50) >= 5 * MILLISECOND * 7 / 8,
+          "Latency should be measured from the event, but was " + latency.getActionLatency(50));
+    }
+  }
+
+  @Test
+  public void testEventTargetingChild() {
+    // JavaFX copies the event on its way back up from the child, so the handler phase gets a different event object
+    KeyBinding<MockControlBehavior> binding = KeyBinding.<MockControlBehavior>builder()
+        .withKey(KeyCode.A)
+        .withAction(b -> {})
+        .build();
+    Group child = new Group();
+    child.addEventHandler(KeyEvent.KEY_PRESSED, e -> sleep(5));
+    new MockControlBehavior(new MockControl(child), InputBindings.of(binding));
+    InputLatencyMonitor.setEnabled(true);
+
+    child.fireEvent(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.A));
+    List<InputLatencyMonitor.BindingLatency> latencies = InputLatencyMonitor.getLatencies();
+    assertEquals(1, latencies.size());
+    assertTrue(latencies.get(0).getActionLatency(50) >= 5 * MILLISECOND * 7 / 8,
+        "Latency should be measured from when the control first saw the event, but was "
+            + latencies.get(0).getActionLatency(50));
+  }
+
+  @Test
+  public void testFrameLatency() {
+    AtomicInteger scheduled = new AtomicInteger();
+    InputLatencyMonitor.FrameTracker tracker = new InputLatencyMonitor.FrameTracker(t -> scheduled.incrementAndGet());
+    KeyBinding<MockBehavior> fast = KeyBinding.<MockBehavior>builder().withKey(KeyCode.A).withAction(b -> {}).build();
+    KeyBinding<MockBehavior> slow = KeyBinding.<MockBehavior>builder().withKey(KeyCode.B).withAction(b -> {}).build();
+
+    for (int i = 0; i < 10; i++) {
+      long start = i * 100 * MILLISECOND;
+      tracker.add(fast, start);
+      tracker.add(slow, start - 40 * MILLISECOND);
+      assertEquals(2, tracker.pending());
+      tracker.frameCompleted(start + 10 * MILLISECOND);
+      assertEquals(0, tracker.pending());
+    }
+    assertEquals(10, scheduled.get(), "Should be scheduled once per frame");
+
+    List<InputLatencyMonitor.BindingLatency> latencies = InputLatencyMonitor.getLatencies();
+    assertAll(
+        () -> assertEquals(2, latencies.size()),
+        () -> assertEquals(slow.toString(), latencies.get(0).getBinding(), "Slowest binding should be first"),
+        () -> assertEquals(10, latencies.get(0).getFrameCount()),
+        () -> assertEquals(50 * MILLISECOND, latencies.get(0).getFrameLatency(99), 50 * MILLISECOND / 8),
+        () -> assertEquals(10 * MILLISECOND, latencies.get(1).getFrameLatency(50), 10 * MILLISECOND / 8),
+        () -> assertEquals(10 * MILLISECOND, latencies.get(1).getMaxFrameLatency()),
+        () -> assertTrue(InputLatencyMonitor.report().contains(slow.toString()))
+    );
+  }
+
+  @Test
+  public void testHistogramPercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long i = 1; i <= 1000; i++) {
+      histogram.record(i * MILLISECOND);
+    }
+    assertAll(
+        () -> assertEquals(1000, histogram.getCount()),
+        () -> assertEquals(1000 * MILLISECOND, histogram.getMax()),
+        () -> assertEquals(500.5 * MILLISECOND, histogram.getMean(), 1),
+        () -> assertEquals(500 * MILLISECOND, histogram.getPercentile(50), 500 * MILLISECOND / 8),
+        () -> assertEquals(990 * MILLISECOND, histogram.getPercentile(99), 990 * MILLISECOND / 8),
+        () -> assertEquals(1000 * MILLISECOND, histogram.getPercentile(100))
+    );
+  }
+
+  @Test
+  public void testHistogramBuckets() {
+    for (long value = 0; value < 100_000; value++) {
+      int bucket = LatencyHistogram.bucket(value);
+      assertTrue(value <= LatencyHistogram.upperBound(bucket), "Value above its bucket: " + value);
+      assertTrue(bucket == 0 || value > LatencyHistogram.upperBound(bucket - 1), "Value below its bucket: " + value);
+    }
+    assertEquals(Long.MAX_VALUE, LatencyHistogram.upperBound(LatencyHistogram.bucket(Long.MAX_VALUE)));
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+}
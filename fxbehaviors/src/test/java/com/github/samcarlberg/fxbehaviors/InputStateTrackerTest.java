@@ -0,0 +1,160 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+
+import static com.github.samcarlberg.fxbehaviors.KeyBindingTest.createKeyEvent;
+import static com.github.samcarlberg.fxbehaviors.MouseBindingTest.createMouseEvent;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InputStateTrackerTest {
+
+  @BeforeAll
+  public static void force() {
+    BehaviorBaseTest.force();
+  }
+
+  private static class MockBehavior extends BehaviorBase<Button, MockBehavior> {
+    MockBehavior(InputBindings<MockBehavior> bindings) {
+      super(new Button(), bindings);
+    }
+  }
+
+  @Test
+  public void testKeys() {
+    InputStateTracker tracker = new InputStateTracker();
+    tracker.update(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.SPACE));
+    tracker.update(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.Z));
+    assertAll(
+        () -> assertTrue(tracker.isKeyDown(KeyCode.SPACE)),
+        () -> assertTrue(tracker.isKeyDown(KeyCode.Z)),
+        () -> assertFalse(tracker.isKeyDown(KeyCode.A)),
+        () -> assertTrue(tracker.areKeysDown(InputStateTracker.keyMask(KeyCode.SPACE, KeyCode.Z))),
+        () -> assertFalse(tracker.areKeysDown(InputStateTracker.keyMask(KeyCode.SPACE, KeyCode.A)))
+    );
+
+    tracker.update(createKeyEvent(KeyEvent.KEY_RELEASED, KeyCode.SPACE));
+    assertAll(
+        () -> assertFalse(tracker.isKeyDown(KeyCode.SPACE)),
+        () -> assertTrue(tracker.isKeyDown(KeyCode.Z))
+    );
+
+    tracker.clear();
+    assertFalse(tracker.isKeyDown(KeyCode.Z));
+  }
+
+  @Test
+  public void testButtons() {
+    InputStateTracker tracker = new InputStateTracker();
+    tracker.update(createMouseEvent(MouseEvent.MOUSE_PRESSED, MouseButton.SECONDARY));
+    assertAll(
+        () -> assertTrue(tracker.isButtonDown(MouseButton.SECONDARY)),
+        () -> assertFalse(tracker.isButtonDown(MouseButton.PRIMARY)),
+        () -> assertTrue(tracker.areButtonsDown(InputStateTracker.buttonMask(MouseButton.SECONDARY)))
+    );
+
+    // Mouse events carry the state of every button, so a missed release is caught by the next event
+    tracker.update(createMouseEvent(MouseEvent.MOUSE_MOVED, MouseButton.NONE));
+    assertFalse(tracker.isButtonDown(MouseButton.SECONDARY));
+  }
+
+  @Test
+  public void testHeldBindingWithoutScene() {
+    AtomicBoolean fired = new AtomicBoolean(false);
+    MockBehavior behavior = new MockBehavior(InputBindings.of(
+        MouseBinding.<MockBehavior>builder()
+            .whileHeld(KeyCode.SPACE)
+            .withAction(b -> fired.set(true))
+            .build()
+    ));
+    behavior.getControl().fireEvent(createMouseEvent(MouseEvent.MOUSE_PRESSED, MouseButton.PRIMARY));
+    assertFalse(fired.get(), "Keys cannot be held down for a control that is not in a scene");
+  }
+
+  @Test
+  public void testHeldBindingInScene() {
+    AtomicBoolean fired = new AtomicBoolean(false);
+    MockBehavior behavior = new MockBehavior(InputBindings.of(
+        MouseBinding.<MockBehavior>builder()
+            .whileHeld(KeyCode.SPACE)
+            .withAction(b -> fired.set(true))
+            .build()
+    ));
+    Button control = behavior.getControl();
+    assertNull(behavior.getInputStateTracker());
+
+    // The tracker should be installed when the control is added to the scene, so the first press is seen
+    Scene scene = new Scene(BehaviorBaseTest.createSceneRoot(control));
+    assertSame(InputStateTracker.install(scene), behavior.getInputStateTracker());
+    control.fireEvent(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.SPACE));
+    control.fireEvent(createMouseEvent(MouseEvent.MOUSE_PRESSED, MouseButton.PRIMARY));
+    assertTrue(fired.getAndSet(false), "The binding should fire while the key is held down");
+
+    control.fireEvent(createKeyEvent(KeyEvent.KEY_RELEASED, KeyCode.SPACE));
+    control.fireEvent(createMouseEvent(MouseEvent.MOUSE_PRESSED, MouseButton.PRIMARY));
+    assertFalse(fired.get(), "The binding should not fire after the key is released");
+  }
+
+  @Test
+  public void testHeldBindingAddedLater() {
+    AtomicBoolean fired = new AtomicBoolean(false);
+    MutableInputBindings<MockBehavior> bindings = InputBindings.mutable(List.of());
+    MockBehavior behavior = new MockBehavior(bindings);
+    Button control = behavior.getControl();
+    new Scene(BehaviorBaseTest.createSceneRoot(control));
+    assertNull(behavior.getInputStateTracker());
+
+    bindings.add(
+        MouseBinding.<MockBehavior>builder()
+            .whileHeld(KeyCode.SPACE)
+            .withAction(b -> fired.set(true))
+            .build()
+    );
+    control.fireEvent(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.SPACE));
+    control.fireEvent(createMouseEvent(MouseEvent.MOUSE_PRESSED, MouseButton.PRIMARY));
+    assertTrue(fired.get(), "The binding should fire while the key is held down");
+  }
+
+  @Test
+  public void testNoTrackerWithoutHeldBindings() {
+    MockBehavior behavior = new MockBehavior(InputBindings.of(
+        MouseBinding.<MockBehavior>builder()
+            .withAction(b -> {
+            })
+            .build()
+    ));
+    new Scene(BehaviorBaseTest.createSceneRoot(behavior.getControl()));
+    assertNull(behavior.getInputStateTracker());
+  }
+
+  @Test
+  public void testHeldInputsInEquality() {
+    KeyBinding.KeyBindingBuilder<MockBehavior> builder = KeyBinding.<MockBehavior>builder()
+        .withKey(KeyCode.A)
+        .withAction(b -> {
+        });
+    KeyBinding<MockBehavior> plain = builder.build();
+    KeyBinding<MockBehavior> held = builder.whileHeld(KeyCode.SHIFT).build();
+    assertAll(
+        () -> assertNotEquals(plain, held),
+        () -> assertEquals(held, builder.build())
+    );
+  }
+
+}
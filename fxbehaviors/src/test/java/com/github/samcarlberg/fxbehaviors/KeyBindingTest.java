@@ -7,6 +7,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 import javafx.event.EventType;
@@ -16,6 +17,7 @@ import javafx.scene.input.KeyCombination;
 import javafx.scene.input.KeyEvent;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -148,6 +150,21 @@ public class KeyBindingTest {
     assertFalse(fired.get(), "Binding should NOT have fired for event " + event);
   }
 
+  @Test
+  public void testAnyIgnoresKeyTyped() {
+    AtomicInteger fired = new AtomicInteger(0);
+    InputBindings<?> bindings = InputBindings.of(
+        KeyBinding.builder()
+            .onEvent(KeyEvent.ANY)
+            .withAction(x -> fired.incrementAndGet())
+            .build()
+    );
+    bindings.fire(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.A), null);
+    bindings.fire(createKeyEvent(KeyEvent.KEY_TYPED, KeyCode.A), null);
+    bindings.fire(createKeyEvent(KeyEvent.KEY_RELEASED, KeyCode.A), null);
+    assertEquals(2, fired.get(), "A binding for any key event should only fire on pressed and released events");
+  }
+
   public static KeyEvent createKeyEvent(EventType<KeyEvent> type, KeyCode keyCode, KeyCombination.Modifier... modifiers) {
     Collection<KeyCombination.Modifier> mods = Set.of(modifiers);
     return new KeyEvent(
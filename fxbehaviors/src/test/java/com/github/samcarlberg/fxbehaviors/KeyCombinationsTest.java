@@ -0,0 +1,51 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import org.junit.jupiter.api.Test;
+
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class KeyCombinationsTest {
+
+  @Test
+  public void testInterning() {
+    assertAll(
+        () -> assertSame(KeyCombinations.of(KeyCode.A), KeyCombinations.of(KeyCode.A)),
+        () -> assertSame(
+            KeyCombinations.of(KeyCode.A, KeyCombination.SHIFT_DOWN, KeyCombination.CONTROL_DOWN),
+            KeyCombinations.of(KeyCode.A, KeyCombination.CONTROL_DOWN, KeyCombination.SHIFT_DOWN),
+            "Modifier order should not matter"),
+        () -> assertNotSame(KeyCombinations.of(KeyCode.A), KeyCombinations.of(KeyCode.A, KeyCombination.SHIFT_DOWN)),
+        () -> assertNotSame(KeyCombinations.of(KeyCode.A), KeyCombinations.of(KeyCode.B)),
+        () -> assertNotSame(KeyCombinations.of(KeyCode.A, KeyCombination.SHIFT_DOWN),
+            KeyCombinations.of(KeyCode.A, KeyCombination.SHIFT_ANY))
+    );
+  }
+
+  @Test
+  public void testEquivalentToConstructor() {
+    assertAll(
+        () -> assertEquals(new KeyCodeCombination(KeyCode.SPACE), KeyCombinations.of(KeyCode.SPACE)),
+        () -> assertEquals(new KeyCodeCombination(KeyCode.LEFT, KeyCombination.SHORTCUT_DOWN, KeyCombination.ALT_ANY),
+            KeyCombinations.of(KeyCode.LEFT, KeyCombination.SHORTCUT_DOWN, KeyCombination.ALT_ANY))
+    );
+  }
+
+  @Test
+  public void testInvalidCombinations() {
+    assertAll(
+        () -> assertThrows(NullPointerException.class, () -> KeyCombinations.of(null)),
+        () -> assertThrows(IllegalArgumentException.class, () -> KeyCombinations.of(KeyCode.SHIFT)),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> KeyCombinations.of(KeyCode.A, KeyCombination.SHIFT_DOWN, KeyCombination.SHIFT_ANY))
+    );
+  }
+
+}
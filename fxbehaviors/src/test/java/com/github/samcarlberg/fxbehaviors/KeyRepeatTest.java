@@ -0,0 +1,186 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javafx.css.PseudoClass;
+import javafx.scene.control.Button;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+
+import static com.github.samcarlberg.fxbehaviors.KeyBindingTest.createKeyEvent;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class KeyRepeatTest {
+
+  private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  @BeforeAll
+  public static void force() {
+    BehaviorBaseTest.force();
+  }
+
+  private static class MockBehavior extends BehaviorBase<Button, MockBehavior> {
+    MockBehavior(InputBindings<MockBehavior> bindings) {
+      super(new Button(), bindings);
+    }
+  }
+
+  private static void press(KeyRepeatState state, KeyCode code, long now) {
+    state.update(createKeyEvent(KeyEvent.KEY_PRESSED, code), now);
+  }
+
+  @Test
+  public void testRepeatDetection() {
+    KeyRepeatState state = new KeyRepeatState();
+    press(state, KeyCode.A, 0);
+    assertFalse(state.isRepeat(), "Initial press should not be a repeat");
+    press(state, KeyCode.A, 30 * MILLIS);
+    assertAll("Second press of a held key should be a repeat",
+        () -> assertTrue(state.isRepeat()),
+        () -> assertEquals(30 * MILLIS, state.heldNanos())
+    );
+    press(state, KeyCode.B, 60 * MILLIS);
+    assertFalse(state.isRepeat(), "Pressing a different key should not be a repeat");
+    state.update(createKeyEvent(KeyEvent.KEY_RELEASED, KeyCode.B), 90 * MILLIS);
+    press(state, KeyCode.B, 120 * MILLIS);
+    assertFalse(state.isRepeat(), "Pressing a released key should not be a repeat");
+  }
+
+  @Test
+  public void testIgnoreRepeats() {
+    AtomicInteger count = new AtomicInteger();
+    MockBehavior behavior = new MockBehavior(InputBindings.of(
+        KeyBinding.<MockBehavior>builder()
+            .withKey(KeyCode.A)
+            .withAction(b -> count.incrementAndGet())
+            .ignoreRepeats()
+            .build()
+    ));
+
+    behavior.getControl().fireEvent(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.A));
+    behavior.getControl().fireEvent(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.A));
+    behavior.getControl().fireEvent(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.A));
+    assertEquals(1, count.get(), "Repeats should have been ignored");
+
+    behavior.getControl().fireEvent(createKeyEvent(KeyEvent.KEY_RELEASED, KeyCode.A));
+    behavior.getControl().fireEvent(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.A));
+    assertEquals(2, count.get(), "Pressing the key again should fire");
+  }
+
+  private static KeyBinding<MockBehavior> binding(KeyCode key) {
+    return KeyBinding.<MockBehavior>builder()
+        .withKey(key)
+        .withAction(b -> {})
+        .build();
+  }
+
+  @Test
+  public void testThrottle() {
+    MockBehavior behavior = new MockBehavior(InputBindings.of());
+    KeyRepeatState state = behavior.getKeyRepeatState();
+    KeyRepeatPolicy policy = KeyRepeatPolicy.throttle(100 * MILLIS);
+    KeyBinding<MockBehavior> binding = binding(KeyCode.A);
+
+    press(state, KeyCode.A, 0);
+    assertEquals(1, policy.steps(behavior, binding), "Initial press should fire");
+    press(state, KeyCode.A, 50 * MILLIS);
+    assertEquals(0, policy.steps(behavior, binding), "Repeat inside the interval should not fire");
+    press(state, KeyCode.A, 100 * MILLIS);
+    assertEquals(1, policy.steps(behavior, binding), "Repeat after the interval should fire");
+    press(state, KeyCode.A, 150 * MILLIS);
+    assertEquals(0, policy.steps(behavior, binding), "Interval should restart after firing");
+  }
+
+  @Test
+  public void testThrottlePerBinding() {
+    MockBehavior behavior = new MockBehavior(InputBindings.of());
+    KeyRepeatState state = behavior.getKeyRepeatState();
+    KeyRepeatPolicy policy = KeyRepeatPolicy.throttle(100 * MILLIS);
+    KeyBinding<MockBehavior> first = binding(KeyCode.A);
+    KeyBinding<MockBehavior> second = binding(KeyCode.A);
+
+    press(state, KeyCode.A, 0);
+    press(state, KeyCode.A, 100 * MILLIS);
+    assertAll("Bindings on the same key should be throttled separately",
+        () -> assertEquals(1, policy.steps(behavior, first)),
+        () -> assertEquals(1, policy.steps(behavior, second))
+    );
+    press(state, KeyCode.A, 150 * MILLIS);
+    assertEquals(0, policy.steps(behavior, second));
+  }
+
+  @Test
+  public void testFocusLossResetsRepeats() {
+    AtomicInteger count = new AtomicInteger();
+    MockBehavior behavior = new MockBehavior(InputBindings.of(
+        KeyBinding.<MockBehavior>builder()
+            .withKey(KeyCode.A)
+            .withAction(b -> count.incrementAndGet())
+            .ignoreRepeats()
+            .build()
+    ));
+    PseudoClass focused = PseudoClass.getPseudoClass("focused");
+    behavior.getControl().pseudoClassStateChanged(focused, true);
+
+    behavior.getControl().fireEvent(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.A));
+    // The key is released after the focus has moved away, so the control never sees the release
+    behavior.getControl().pseudoClassStateChanged(focused, false);
+    behavior.getControl().fireEvent(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.A));
+    assertEquals(2, count.get(), "A press after the control lost focus should not be treated as a repeat");
+  }
+
+  @Test
+  public void testAccelerate() {
+    MockBehavior behavior = new MockBehavior(InputBindings.of());
+    KeyRepeatState state = behavior.getKeyRepeatState();
+    KeyRepeatPolicy policy = KeyRepeatPolicy.accelerate(5, 400 * MILLIS);
+    KeyBinding<MockBehavior> binding = binding(KeyCode.A);
+
+    press(state, KeyCode.A, 0);
+    assertEquals(1, policy.steps(behavior, binding), "Initial press should run once");
+    press(state, KeyCode.A, 30 * MILLIS);
+    assertEquals(1, policy.steps(behavior, binding), "Early repeat should run once");
+    press(state, KeyCode.A, 200 * MILLIS);
+    assertEquals(3, policy.steps(behavior, binding), "Halfway through the ramp should run halfway to the max");
+    press(state, KeyCode.A, 1000 * MILLIS);
+    assertEquals(5, policy.steps(behavior, binding), "Repeats after the ramp should run the max");
+  }
+
+  @Test
+  public void testPerPulseWithoutScene() {
+    AtomicInteger count = new AtomicInteger();
+    MockBehavior behavior = new MockBehavior(InputBindings.of(
+        KeyBinding.<MockBehavior>builder()
+            .withKey(KeyCode.A)
+            .withAction(b -> count.incrementAndGet())
+            .throttleRepeatsPerPulse()
+            .build()
+    ));
+
+    behavior.getControl().fireEvent(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.A));
+    behavior.getControl().fireEvent(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.A));
+    assertEquals(2, count.get(), "Repeats should not be limited without a scene");
+  }
+
+  @Test
+  public void testInvalidBuilderArguments() {
+    assertAll(
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> KeyBinding.<MockBehavior>builder().throttleRepeats(0)),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> KeyBinding.<MockBehavior>builder().accelerateRepeats(0, Duration.ofMillis(100))),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> KeyBinding.<MockBehavior>builder().accelerateRepeats(4, Duration.ZERO))
+    );
+  }
+
+}
@@ -7,10 +7,16 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 import javafx.event.EventType;
 import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
 import javafx.scene.input.MouseButton;
 import javafx.scene.input.MouseEvent;
 
+import static com.github.samcarlberg.fxbehaviors.MouseBinding.MouseInput;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class MouseBindingTest {
@@ -35,6 +41,20 @@ public class MouseBindingTest {
     assertFalse(fired.get());
   }
 
+  @Test
+  public void testMouseInputInterning() {
+    MouseInput input = MouseInput.of(MouseButton.SECONDARY, new KeyCodeCombination(KeyCode.A, KeyCombination.SHIFT_DOWN));
+    assertAll(
+        () -> assertSame(MouseInput.PRIMARY_BUTTON, MouseInput.of(MouseButton.PRIMARY)),
+        () -> assertSame(MouseInput.PRIMARY_BUTTON, MouseInput.of(MouseButton.PRIMARY, KeyCombination.NO_MATCH)),
+        () -> assertSame(input, MouseInput.of(MouseButton.SECONDARY, KeyCombinations.of(KeyCode.B, KeyCombination.SHIFT_DOWN)),
+            "Only the modifiers of the key combination should matter"),
+        () -> assertEquals(input, new MouseInput(MouseButton.SECONDARY, new KeyCodeCombination(KeyCode.A, KeyCombination.SHIFT_DOWN))),
+        () -> assertTrue(input.match(createMouseEvent(MouseEvent.MOUSE_PRESSED, MouseButton.SECONDARY, KeyCode.SHIFT))),
+        () -> assertFalse(input.match(createMouseEvent(MouseEvent.MOUSE_PRESSED, MouseButton.SECONDARY)))
+    );
+  }
+
   public static MouseEvent createMouseEvent(EventType<MouseEvent> eventType, MouseButton button, KeyCode... keys) {
     Set<KeyCode> k = Set.of(keys);
     return new MouseEvent(
@@ -0,0 +1,86 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.scene.control.Button;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MutableInputBindingsTest {
+
+  @BeforeAll
+  public static void force() {
+    BehaviorBaseTest.force();
+  }
+
+  private static class MockBehavior extends BehaviorBase<Button, MockBehavior> {
+    MockBehavior(InputBindings<MockBehavior> bindings) {
+      super(new Button(), bindings);
+    }
+  }
+
+  @Test
+  public void testAddAndRemove() {
+    List<String> fired = new ArrayList<>();
+    KeyBinding<?> first = KeyBinding.builder()
+        .withKey(KeyCode.A)
+        .withAction(__ -> fired.add("first"))
+        .build();
+    KeyBinding<?> second = KeyBinding.builder()
+        .withKey(KeyCode.A)
+        .withAction(__ -> fired.add("second"))
+        .build();
+    MutableInputBindings bindings = InputBindings.mutable(List.of(first));
+    KeyEvent event = KeyBindingTest.createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.A);
+
+    bindings.fire(event, null);
+    assertEquals(List.of("first"), fired);
+
+    fired.clear();
+    assertAll(
+        () -> assertTrue(bindings.add(second), "Second binding should have been added"),
+        () -> assertFalse(bindings.add(second), "Second binding should not be added twice")
+    );
+    bindings.fire(event, null);
+    assertEquals(List.of("first", "second"), fired, "Bindings should fire in the order they were added");
+
+    fired.clear();
+    assertAll(
+        () -> assertTrue(bindings.remove(first), "First binding should have been removed"),
+        () -> assertFalse(bindings.remove(first), "First binding should not be removed twice")
+    );
+    bindings.fire(event, null);
+    assertEquals(List.of("second"), fired);
+
+    fired.clear();
+    bindings.remove(second);
+    bindings.fire(event, null);
+    assertEquals(List.of(), fired, "No bindings should fire when all are removed");
+  }
+
+  @Test
+  public void testAddFilterPhaseBinding() {
+    List<String> fired = new ArrayList<>();
+    MutableInputBindings<MockBehavior> bindings = InputBindings.mutable(List.of());
+    MockBehavior behavior = new MockBehavior(bindings);
+    behavior.getControl().addEventHandler(KeyEvent.KEY_PRESSED, e -> fired.add("control handler"));
+
+    bindings.add(KeyBinding.<MockBehavior>builder()
+        .withKey(KeyCode.A)
+        .inFilterPhase()
+        .withAction(b -> fired.add("filter"))
+        .build());
+    behavior.getControl().fireEvent(KeyBindingTest.createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.A));
+    assertEquals(List.of("filter"), fired, "A filter phase binding added after the bindings were set should fire");
+  }
+
+}
@@ -0,0 +1,154 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.css.PseudoClass;
+import javafx.scene.control.Button;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+
+import static com.github.samcarlberg.fxbehaviors.KeyBindingTest.createKeyEvent;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PseudoClassConditionsTest {
+
+  private static final PseudoClass ARMED = PseudoClass.getPseudoClass("armed");
+  private static final PseudoClass DISABLED = PseudoClass.getPseudoClass("disabled");
+  private static final PseudoClass CUSTOM = PseudoClass.getPseudoClass("pseudo-class-conditions-test");
+
+  @BeforeAll
+  public static void force() {
+    BehaviorBaseTest.force();
+  }
+
+  private static class MockBehavior extends BehaviorBase<Button, MockBehavior> {
+    MockBehavior(InputBindings<MockBehavior> bindings) {
+      super(new Button(), bindings);
+    }
+  }
+
+  private final List<String> fired = new ArrayList<>();
+
+  private List<Binding<?, MockBehavior>> bindings() {
+    return List.of(
+        KeyBinding.<MockBehavior>builder()
+            .withKey(KeyCode.A)
+            .withAction(__ -> fired.add("always"))
+            .build(),
+        KeyBinding.<MockBehavior>builder()
+            .withKey(KeyCode.A)
+            .whenPseudoClass(ARMED)
+            .withAction(__ -> fired.add("armed"))
+            .build(),
+        KeyBinding.<MockBehavior>builder()
+            .withKey(KeyCode.A)
+            .unlessPseudoClass(DISABLED)
+            .withAction(__ -> fired.add("enabled"))
+            .build(),
+        KeyBinding.<MockBehavior>builder()
+            .withKey(KeyCode.A)
+            .whenPseudoClass(CUSTOM)
+            .unlessPseudoClass(ARMED)
+            .withAction(__ -> fired.add("custom"))
+            .build()
+    );
+  }
+
+  private void testStates(InputBindings<MockBehavior> bindings) {
+    MockBehavior behavior = new MockBehavior(bindings);
+    Button button = behavior.getControl();
+    KeyEvent event = createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.A);
+
+    bindings.fire(event, behavior);
+    assertEquals(List.of("always", "enabled"), fired);
+
+    fired.clear();
+    button.arm();
+    bindings.fire(event, behavior);
+    assertEquals(List.of("always", "armed", "enabled"), fired);
+
+    fired.clear();
+    button.setDisable(true);
+    button.pseudoClassStateChanged(CUSTOM, true);
+    bindings.fire(event, behavior);
+    assertEquals(List.of("always", "armed"), fired);
+
+    fired.clear();
+    button.disarm();
+    bindings.fire(event, behavior);
+    assertEquals(List.of("always", "custom"), fired);
+  }
+
+  @Test
+  public void testDefaultBindings() {
+    testStates(InputBindings.of(bindings()));
+  }
+
+  @Test
+  public void testCompiledBindings() {
+    testStates(InputBindings.compiled(bindings()));
+  }
+
+  @Test
+  public void testMutableBindings() {
+    testStates(InputBindings.mutable(bindings()));
+  }
+
+  @Test
+  public void testAdaptiveBindingsCheckConditions() {
+    // Adaptive bindings fire the first match, so only the first active binding in the order fires
+    List<Binding<?, MockBehavior>> bindings = bindings();
+    MockBehavior behavior = new MockBehavior(InputBindings.adaptive(bindings.subList(1, bindings.size())));
+    behavior.getControl().arm();
+    behavior.getInputBindings().fire(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.A), behavior);
+    behavior.getControl().disarm();
+    behavior.getControl().setDisable(true);
+    behavior.getInputBindings().fire(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.A), behavior);
+    assertEquals(List.of("armed"), fired);
+  }
+
+  @Test
+  public void testCandidatesCachedPerState() {
+    BindingIndex<MockBehavior> index = new BindingIndex<>(bindings());
+    long armed = PseudoClassConditions.bitOf(ARMED);
+    long unrelated = 1L << 63 & ~index.conditionBits();
+    assertAll(
+        () -> assertEquals(2, index.candidates(KeyEvent.KEY_PRESSED, 0).length),
+        () -> assertEquals(3, index.candidates(KeyEvent.KEY_PRESSED, armed).length),
+        () -> assertSame(index.candidates(KeyEvent.KEY_PRESSED, armed),
+            index.candidates(KeyEvent.KEY_PRESSED, armed | unrelated),
+            "States that no binding depends on should share candidates")
+    );
+  }
+
+  @Test
+  public void testEquality() {
+    KeyBinding.KeyBindingBuilder<MockBehavior> builder = KeyBinding.<MockBehavior>builder()
+        .withKey(KeyCode.A)
+        .withAction(__ -> {});
+    KeyBinding<MockBehavior> unconditional = builder.build();
+    KeyBinding<MockBehavior> conditional = builder.whenPseudoClass(ARMED).build();
+    assertAll(
+        () -> assertNotEquals(unconditional, conditional),
+        () -> assertEquals(conditional, builder.build())
+    );
+  }
+
+  @Test
+  public void testRequiredAndForbidden() {
+    assertThrows(IllegalArgumentException.class, () -> KeyBinding.<MockBehavior>builder()
+        .whenPseudoClass(ARMED)
+        .unlessPseudoClass(ARMED)
+        .withAction(__ -> {})
+        .build());
+  }
+
+}
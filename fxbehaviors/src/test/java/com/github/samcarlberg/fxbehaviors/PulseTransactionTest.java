@@ -0,0 +1,81 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleStringProperty;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PulseTransactionTest {
+
+  @Test
+  public void testWritesAreDeferred() {
+    AtomicInteger scheduled = new AtomicInteger();
+    PulseTransaction transaction = new PulseTransaction(tx -> scheduled.incrementAndGet());
+    SimpleIntegerProperty property = new SimpleIntegerProperty(0);
+
+    transaction.write(property, 1);
+    transaction.write(property, 2);
+    assertAll("Writes should wait for the pulse",
+        () -> assertEquals(0, property.get()),
+        () -> assertTrue(transaction.hasPendingWrites()),
+        () -> assertEquals(1, scheduled.get(), "Flush should only be scheduled once per pulse")
+    );
+
+    transaction.flush();
+    assertAll("Last write should be applied",
+        () -> assertEquals(2, property.get()),
+        () -> assertFalse(transaction.hasPendingWrites())
+    );
+
+    transaction.write(property, 3);
+    assertEquals(2, scheduled.get(), "A write after a flush should schedule another flush");
+  }
+
+  @Test
+  public void testCoalescing() {
+    PulseTransaction transaction = new PulseTransaction(tx -> {
+    });
+    SimpleIntegerProperty number = new SimpleIntegerProperty(0);
+    SimpleStringProperty text = new SimpleStringProperty("");
+    List<String> changes = new ArrayList<>();
+    number.addListener((obs, old, value) -> changes.add("number=" + value));
+    text.addListener((obs, old, value) -> changes.add("text=" + value));
+
+    transaction.write(number, 1);
+    transaction.write(text, "a");
+    transaction.write(number, 2);
+    transaction.write(number, 3);
+    transaction.flush();
+
+    assertEquals(List.of("number=3", "text=a"), changes,
+        "Each property should change once, in the order it was first written");
+  }
+
+  @Test
+  public void testWritesDuringFlush() {
+    AtomicInteger scheduled = new AtomicInteger();
+    PulseTransaction transaction = new PulseTransaction(tx -> scheduled.incrementAndGet());
+    SimpleIntegerProperty source = new SimpleIntegerProperty(0);
+    SimpleIntegerProperty mirror = new SimpleIntegerProperty(0);
+    source.addListener((obs, old, value) -> transaction.write(mirror, value.intValue()));
+
+    transaction.write(source, 5);
+    transaction.flush();
+    assertAll("Writes made while flushing should wait for the next pulse",
+        () -> assertEquals(0, mirror.get()),
+        () -> assertEquals(2, scheduled.get())
+    );
+    transaction.flush();
+    assertEquals(5, mirror.get());
+  }
+
+}
@@ -0,0 +1,190 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+
+import static com.github.samcarlberg.fxbehaviors.KeyBindingTest.createKeyEvent;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ShortcutDispatcherTest {
+
+  @BeforeAll
+  public static void force() {
+    BehaviorBaseTest.force();
+  }
+
+  private static class MockBehavior extends BehaviorBase<Button, MockBehavior> {
+    MockBehavior() {
+      this(new Button(), null);
+    }
+
+    MockBehavior(Button control, InputBindings<MockBehavior> bindings) {
+      super(control, bindings);
+    }
+  }
+
+  private final List<String> fired = new ArrayList<>();
+  private final MockBehavior behavior = new MockBehavior();
+  private final SimpleObjectProperty<Node> focusOwner = new SimpleObjectProperty<>();
+  private final SimpleObjectProperty<Node> root = new SimpleObjectProperty<>();
+  private Group outer;
+  private Group inner;
+  private Button focused;
+  private ShortcutDispatcher dispatcher;
+
+  @BeforeEach
+  public void setup() {
+    focused = new Button();
+    inner = new Group(focused);
+    outer = new Group(inner);
+    root.set(outer);
+    focusOwner.set(focused);
+    dispatcher = new ShortcutDispatcher(null, focusOwner, root);
+  }
+
+  private KeyBinding<MockBehavior> shortcut(KeyCode code, String name) {
+    return KeyBinding.<MockBehavior>builder()
+        .withKey(code)
+        .withAction(b -> fired.add(name))
+        .build();
+  }
+
+  private KeyEvent press(KeyCode code) {
+    KeyEvent event = createKeyEvent(KeyEvent.KEY_PRESSED, code);
+    dispatcher.dispatch(event);
+    return event;
+  }
+
+  @Test
+  public void testInnermostScopeWins() {
+    dispatcher.register(outer, behavior, List.of(shortcut(KeyCode.S, "outer-s"), shortcut(KeyCode.O, "outer-o")));
+    dispatcher.register(inner, behavior, List.of(shortcut(KeyCode.S, "inner-s")));
+
+    KeyEvent event = press(KeyCode.S);
+    press(KeyCode.O);
+    KeyEvent unbound = press(KeyCode.X);
+
+    assertAll(
+        () -> assertEquals(List.of("inner-s", "outer-o"), fired),
+        () -> assertTrue(event.isConsumed(), "Matched shortcut should consume the event"),
+        () -> assertFalse(unbound.isConsumed(), "Unmatched event should not be consumed")
+    );
+  }
+
+  @Test
+  public void testOutOfScope() {
+    dispatcher.register(inner, behavior, List.of(shortcut(KeyCode.S, "inner-s")));
+    focusOwner.set(outer);
+    press(KeyCode.S);
+    assertEquals(List.of(), fired, "Shortcut should not fire when focus is outside its scope");
+  }
+
+  @Test
+  public void testKeymapIsCached() {
+    dispatcher.register(outer, behavior, List.of(shortcut(KeyCode.S, "outer-s")));
+    ShortcutDispatcher.Keymap keymap = dispatcher.keymap();
+    press(KeyCode.S);
+    press(KeyCode.S);
+    assertSame(keymap, dispatcher.keymap(), "Keymap should be reused while nothing changes");
+  }
+
+  @Test
+  public void testFocusChangeInvalidates() {
+    dispatcher.register(inner, behavior, List.of(shortcut(KeyCode.S, "inner-s")));
+    assertEquals(1, dispatcher.keymap().size());
+    focusOwner.set(outer);
+    assertEquals(0, dispatcher.keymap().size());
+  }
+
+  @Test
+  public void testReparentInvalidates() {
+    dispatcher.register(inner, behavior, List.of(shortcut(KeyCode.S, "inner-s")));
+    ShortcutDispatcher.Keymap keymap = dispatcher.keymap();
+    assertEquals(1, keymap.size());
+
+    Group elsewhere = new Group();
+    elsewhere.getChildren().add(focused);
+    assertAll(
+        () -> assertNotSame(keymap, dispatcher.keymap()),
+        () -> assertEquals(0, dispatcher.keymap().size(), "Focus owner is no longer in the scope")
+    );
+  }
+
+  @Test
+  public void testRegistrationInvalidates() {
+    dispatcher.register(outer, behavior, List.of(shortcut(KeyCode.S, "outer-s")));
+    assertEquals(1, dispatcher.keymap().size());
+    dispatcher.register(inner, behavior, List.of(shortcut(KeyCode.T, "inner-t")));
+    assertEquals(2, dispatcher.keymap().size());
+    assertTrue(dispatcher.unregister(outer));
+    assertEquals(1, dispatcher.keymap().size());
+    assertFalse(dispatcher.unregister(outer));
+  }
+
+  @Test
+  public void testNoFocusOwnerUsesRoot() {
+    dispatcher.register(outer, behavior, List.of(shortcut(KeyCode.S, "outer-s")));
+    focusOwner.set(null);
+    press(KeyCode.S);
+    assertEquals(List.of("outer-s"), fired);
+  }
+
+  @Test
+  public void testRemovedScopeIsUnregistered() {
+    ShortcutDispatcher installed = ShortcutDispatcher.install(new Scene(BehaviorBaseTest.createSceneRoot(outer)));
+    Group later = new Group();
+    installed.register(inner, behavior, List.of(shortcut(KeyCode.S, "inner-s")));
+    installed.register(later, behavior, List.of(shortcut(KeyCode.L, "later-l")));
+
+    outer.getChildren().remove(inner);
+    outer.getChildren().add(later);
+    assertAll(
+        () -> assertFalse(installed.unregister(inner), "A scope removed from the scene should be unregistered"),
+        () -> assertTrue(installed.unregister(later), "A scope added to the scene should stay registered")
+    );
+  }
+
+  @Test
+  public void testFocusedControlBindingsComeFirst() {
+    new MockBehavior(focused, InputBindings.of(
+        KeyBinding.<MockBehavior>builder()
+            .withKey(KeyCode.S)
+            .withAction(b -> fired.add("control-s"))
+            .consuming()
+            .build(),
+        KeyBinding.<MockBehavior>builder()
+            .withKey(KeyCode.T)
+            .withAction(b -> fired.add("control-t"))
+            .build()
+    ));
+    ShortcutDispatcher installed = ShortcutDispatcher.install(new Scene(BehaviorBaseTest.createSceneRoot(outer)));
+    installed.register(outer, behavior, List.of(shortcut(KeyCode.S, "outer-s"), shortcut(KeyCode.T, "outer-t")));
+    focused.requestFocus();
+
+    focused.fireEvent(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.S));
+    assertEquals(List.of("control-s"), fired, "A consuming control binding should keep the shortcut from firing");
+
+    fired.clear();
+    focused.fireEvent(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.T));
+    assertEquals(List.of("control-t", "outer-t"), fired,
+        "A control binding that doesn't consume should fire before the shortcut");
+  }
+
+}
@@ -0,0 +1,121 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.scene.control.Button;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+
+import static com.github.samcarlberg.fxbehaviors.KeyBindingTest.createKeyEvent;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StateMachineTest {
+
+  @BeforeAll
+  public static void force() {
+    BehaviorBaseTest.force();
+  }
+
+  private enum State {
+    IDLE,
+    ARMED,
+    DISABLED
+  }
+
+  private enum Trigger {
+    PRESS,
+    RELEASE,
+    DISABLE
+  }
+
+  private static class MockBehavior extends StateMachineBehavior<Button, State, Trigger, MockBehavior> {
+    private final List<String> log = new ArrayList<>();
+
+    MockBehavior(StateMachine<State, Trigger, MockBehavior> stateMachine, InputBindings<MockBehavior> bindings) {
+      super(new Button(), stateMachine, bindings);
+    }
+  }
+
+  private static final StateMachine<State, Trigger, MockBehavior> machine =
+      StateMachine.<State, Trigger, MockBehavior>builder(State.class, Trigger.class, State.IDLE)
+          .transition(State.IDLE, Trigger.PRESS, State.ARMED, b -> b.log.add("arm:" + b.getState()))
+          .transition(State.ARMED, Trigger.RELEASE, State.IDLE, b -> b.log.add("fire"))
+          .transition(State.IDLE, Trigger.DISABLE, State.DISABLED)
+          .transition(State.ARMED, Trigger.DISABLE, State.DISABLED)
+          .build();
+
+  @Test
+  public void testTable() {
+    assertAll(
+        () -> assertEquals(State.IDLE, machine.getInitialState()),
+        () -> assertEquals(State.ARMED, machine.next(State.IDLE, Trigger.PRESS)),
+        () -> assertEquals(State.IDLE, machine.next(State.ARMED, Trigger.RELEASE)),
+        () -> assertEquals(State.DISABLED, machine.next(State.ARMED, Trigger.DISABLE)),
+        () -> assertNull(machine.next(State.IDLE, Trigger.RELEASE)),
+        () -> assertNull(machine.next(State.DISABLED, Trigger.PRESS))
+    );
+  }
+
+  @Test
+  public void testFire() {
+    MockBehavior behavior = new MockBehavior(machine, null);
+    assertFalse(behavior.fire(Trigger.RELEASE), "Releasing an idle behavior should do nothing");
+    assertTrue(behavior.fire(Trigger.PRESS));
+    assertFalse(behavior.fire(Trigger.PRESS), "Pressing an armed behavior should do nothing");
+    assertTrue(behavior.fire(Trigger.RELEASE));
+    assertAll(
+        () -> assertEquals(State.IDLE, behavior.getState()),
+        () -> assertEquals(List.of("arm:ARMED", "fire"), behavior.log, "Actions should run after the state changes")
+    );
+
+    behavior.fire(Trigger.DISABLE);
+    assertEquals(State.DISABLED, behavior.getState());
+    behavior.reset();
+    assertEquals(State.IDLE, behavior.getState());
+  }
+
+  @Test
+  public void testStateAfterDispose() {
+    MockBehavior behavior = new MockBehavior(machine, null);
+    behavior.fire(Trigger.PRESS);
+    behavior.dispose();
+    assertEquals(State.ARMED, behavior.getState(), "A disposed behavior should keep its last state");
+  }
+
+  @Test
+  public void testFireFromBindings() {
+    MockBehavior behavior = new MockBehavior(machine, InputBindings.of(
+        KeyBinding.<MockBehavior>builder()
+            .withKey(KeyCode.SPACE)
+            .withAction(b -> b.fire(Trigger.PRESS))
+            .build(),
+        KeyBinding.<MockBehavior>builder()
+            .withKey(KeyCode.SPACE)
+            .onEvent(KeyEvent.KEY_RELEASED)
+            .withAction(b -> b.fire(Trigger.RELEASE))
+            .build()
+    ));
+    behavior.getControl().fireEvent(createKeyEvent(KeyEvent.KEY_PRESSED, KeyCode.SPACE));
+    assertEquals(State.ARMED, behavior.getState());
+    behavior.getControl().fireEvent(createKeyEvent(KeyEvent.KEY_RELEASED, KeyCode.SPACE));
+    assertEquals(List.of("arm:ARMED", "fire"), behavior.log);
+  }
+
+  @Test
+  public void testDuplicateTransition() {
+    StateMachine.Builder<State, Trigger, MockBehavior> builder =
+        StateMachine.<State, Trigger, MockBehavior>builder(State.class, Trigger.class, State.IDLE)
+            .transition(State.IDLE, Trigger.PRESS, State.ARMED);
+    assertThrows(IllegalArgumentException.class, () -> builder.transition(State.IDLE, Trigger.PRESS, State.DISABLED));
+  }
+
+}
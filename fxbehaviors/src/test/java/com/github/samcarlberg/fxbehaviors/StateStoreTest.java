@@ -0,0 +1,82 @@
+package com.github.samcarlberg.fxbehaviors;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StateStoreTest {
+
+  @Test
+  public void testSlots() {
+    StateStore store = new StateStore();
+    StateStore.IntSlot ints = store.intSlot("ints");
+    StateStore.DoubleSlot doubles = store.doubleSlot("doubles");
+    int first = store.allocate();
+    int second = store.allocate();
+    StateStore.LongSlot longs = store.longSlot("longs");
+
+    ints.set(first, 1);
+    ints.set(second, 2);
+    doubles.set(first, 0.5);
+    longs.set(second, Long.MAX_VALUE);
+    assertAll(
+        () -> assertEquals("ints", ints.getName()),
+        () -> assertEquals(1, ints.get(first)),
+        () -> assertEquals(2, ints.get(second)),
+        () -> assertEquals(0.5, doubles.get(first)),
+        () -> assertEquals(0, doubles.get(second)),
+        () -> assertEquals(0, longs.get(first), "Slots declared after rows are allocated should start at zero"),
+        () -> assertEquals(Long.MAX_VALUE, longs.get(second))
+    );
+  }
+
+  @Test
+  public void testReleaseAndReuse() {
+    StateStore store = new StateStore();
+    StateStore.IntSlot slot = store.intSlot("slot");
+    int first = store.allocate();
+    int second = store.allocate();
+    slot.set(first, 5);
+
+    store.release(first);
+    assertAll(
+        () -> assertFalse(store.isAllocated(first)),
+        () -> assertTrue(store.isAllocated(second)),
+        () -> assertEquals(1, store.size()),
+        () -> assertThrows(IllegalArgumentException.class, () -> store.release(first)),
+        () -> assertThrows(IllegalArgumentException.class, () -> store.release(-1)),
+        () -> assertThrows(IllegalArgumentException.class, () -> store.release(2))
+    );
+
+    int reused = store.allocate();
+    assertAll(
+        () -> assertEquals(first, reused, "Released rows should be reused"),
+        () -> assertEquals(0, slot.get(reused), "Reused rows should be reset to zero")
+    );
+  }
+
+  @Test
+  public void testGrow() {
+    StateStore store = new StateStore();
+    StateStore.DoubleSlot slot = store.doubleSlot("slot");
+    int rows = StateStore.PAGE_SIZE * 2 + 1;
+    for (int i = 0; i < rows; i++) {
+      int row = store.allocate();
+      assertEquals(i, row, "New rows should be allocated in order");
+      slot.set(row, i);
+    }
+
+    assertAll(
+        () -> assertEquals(rows, store.size()),
+        () -> assertEquals(StateStore.PAGE_SIZE * 3, store.getCapacity())
+    );
+    for (int i = 0; i < rows; i++) {
+      assertEquals(i, slot.get(i), "Values should be kept when the store grows");
+    }
+  }
+
+}